@@ -0,0 +1,115 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageUtils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Reproducible image fixtures for the benchmarks: synthetic "pages" made of
+ * text-like lines and blocks, generated from a fixed seed, so every run
+ * (and every SDK version) processes the same pixels.
+ */
+final class BenchmarkImages {
+
+    /**
+     * The sizes of the image fixtures.
+     */
+    enum ImageSize {
+        SMALL(400, 300),
+        VIEWPORT(1280, 800),
+        PAGE(1280, 5000);
+
+        private final int width;
+        private final int height;
+
+        ImageSize(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private static final long SEED = 20150501L;
+
+    private BenchmarkImages() {}
+
+    /**
+     * @param size The size of the page.
+     * @return A page image of type {@link ImageUtils#REQUIRED_IMAGE_TYPE}.
+     */
+    public static BufferedImage createPage(ImageSize size) {
+        return createPage(size, ImageUtils.REQUIRED_IMAGE_TYPE);
+    }
+
+    /**
+     * @param size      The size of the page.
+     * @param imageType The type of the image.
+     * @return A page image.
+     */
+    public static BufferedImage createPage(ImageSize size, int imageType) {
+        BufferedImage image = new BufferedImage(size.getWidth(),
+                size.getHeight(), imageType);
+        Random random = new Random(SEED);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, size.getWidth(), size.getHeight());
+
+            // Text-like lines of "words", with an occasional image block.
+            int y = 10;
+            while (y < size.getHeight() - 20) {
+                if (random.nextInt(10) == 0) {
+                    int blockHeight = Math.min(80 + random.nextInt(120),
+                            size.getHeight() - y);
+                    g2.setColor(new Color(random.nextInt(0x1000000)));
+                    g2.fillRect(20, y, size.getWidth() / 3, blockHeight);
+                    y += blockHeight + 10;
+                    continue;
+                }
+                int x = 20;
+                g2.setColor(new Color(random.nextInt(64), random.nextInt(64),
+                        random.nextInt(64)));
+                while (x < size.getWidth() - 40) {
+                    int wordWidth = 10 + random.nextInt(50);
+                    g2.fillRect(x, y, wordWidth, 8);
+                    x += wordWidth + 6;
+                }
+                y += 16;
+            }
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * @param size The size of the page.
+     * @return A copy of {@link #createPage(ImageSize)} in which a few areas
+     * changed, as in consecutive screenshots of the same page.
+     */
+    public static BufferedImage createChangedPage(ImageSize size) {
+        BufferedImage image = createPage(size);
+        Random random = new Random(SEED + 1);
+        Graphics2D g2 = image.createGraphics();
+        try {
+            g2.setColor(Color.RED);
+            for (int i = 0; i < 5; ++i) {
+                g2.fillRect(random.nextInt(size.getWidth() - 50),
+                        random.nextInt(size.getHeight() - 50), 50, 20);
+            }
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+}
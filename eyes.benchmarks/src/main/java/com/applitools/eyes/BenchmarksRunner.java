@@ -0,0 +1,43 @@
+package com.applitools.eyes;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the given JMH command line options. Unless
+ * specified otherwise, the results are written as JSON to
+ * {@code jmh-result-<SDK version>.json}, so results of different SDK
+ * versions can be compared, and the GC profiler is used, so the results
+ * include the allocation rate of each benchmark
+ * ({@code gc.alloc.rate.norm}).
+ */
+public class BenchmarksRunner {
+
+    private BenchmarksRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options =
+                new OptionsBuilder().parent(commandLineOptions);
+
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            String version = BenchmarksRunner.class.getPackage()
+                    .getImplementationVersion();
+            options.result(String.format("jmh-result-%s.json",
+                    version != null ? version : "dev"));
+        }
+
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.GeometryUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting and intersecting regions of a screenshot, as done for every
+ * checked region and element. Mostly interesting for its allocation rate
+ * ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoordinatesBenchmark {
+
+    /**
+     * A screenshot of a frame which is located and scrolled within the
+     * screenshot, converting coordinates as a web driver screenshot does.
+     */
+    private static class FrameScreenshot extends EyesScreenshot {
+        private final Location frameLocationInScreenshot =
+                new Location(100, 200);
+        private final Location frameScrollPosition = new Location(0, 500);
+        private final Region frameWindow = new Region(100, 200, 800, 600);
+
+        public FrameScreenshot(BufferedImage image) {
+            super(image);
+        }
+
+        public EyesScreenshot getSubScreenshot(Region region,
+                CoordinatesType coordinatesType, boolean throwIfClipped) {
+            throw new UnsupportedOperationException();
+        }
+
+        protected Location convertLocation(Location location,
+                CoordinatesType from, CoordinatesType to) {
+            long result = convertLocation(location.getX(), location.getY(),
+                    from, to);
+            return new Location(GeometryUtils.getX(result),
+                    GeometryUtils.getY(result));
+        }
+
+        protected long convertLocation(int x, int y, CoordinatesType from,
+                                       CoordinatesType to) {
+            if (from == CoordinatesType.CONTEXT_RELATIVE) {
+                x -= frameScrollPosition.getX();
+                y -= frameScrollPosition.getY();
+            } else if (from == CoordinatesType.SCREENSHOT_AS_IS) {
+                x -= frameLocationInScreenshot.getX();
+                y -= frameLocationInScreenshot.getY();
+            }
+            if (to == CoordinatesType.CONTEXT_RELATIVE) {
+                x += frameScrollPosition.getX();
+                y += frameScrollPosition.getY();
+            } else if (to == CoordinatesType.SCREENSHOT_AS_IS) {
+                x += frameLocationInScreenshot.getX();
+                y += frameLocationInScreenshot.getY();
+            }
+            return GeometryUtils.packLocation(x, y);
+        }
+
+        public Location getLocationInScreenshot(Location location,
+                CoordinatesType coordinatesType) {
+            return convertLocation(location, coordinatesType,
+                    CoordinatesType.SCREENSHOT_AS_IS);
+        }
+
+        protected Region getIntersectedRegion(Region region,
+                CoordinatesType originalCoordinatesType,
+                CoordinatesType resultCoordinatesType) {
+            Region intersectedRegion = convertRegionLocation(region,
+                    originalCoordinatesType,
+                    CoordinatesType.SCREENSHOT_AS_IS);
+            intersectedRegion.intersect(frameWindow);
+            convertRegionLocationInPlace(intersectedRegion,
+                    CoordinatesType.SCREENSHOT_AS_IS, resultCoordinatesType);
+            return intersectedRegion;
+        }
+    }
+
+    private final FrameScreenshot screenshot = new FrameScreenshot(
+            new BufferedImage(1280, 800, BufferedImage.TYPE_INT_RGB));
+    private final Region elementRegion = new Region(150, 650, 300, 120);
+    private final Region page = new Region(0, 0, 1280, 5000);
+
+    @Benchmark
+    public Region convertRegionLocation() {
+        return screenshot.convertRegionLocation(elementRegion,
+                CoordinatesType.CONTEXT_RELATIVE,
+                CoordinatesType.SCREENSHOT_AS_IS);
+    }
+
+    @Benchmark
+    public Region getIntersectedRegion() {
+        return screenshot.getIntersectedRegion(elementRegion,
+                CoordinatesType.CONTEXT_RELATIVE,
+                CoordinatesType.SCREENSHOT_AS_IS);
+    }
+
+    @Benchmark
+    public Region intersect() {
+        Region region = new Region(page);
+        region.intersect(elementRegion);
+        return region;
+    }
+}
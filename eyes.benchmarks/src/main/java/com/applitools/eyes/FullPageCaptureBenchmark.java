@@ -0,0 +1,157 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stitching a full page screenshot, with providers which scroll over and
+ * capture a page image instead of a browser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FullPageCaptureBenchmark {
+
+    private static class PagePositionMemento extends PositionMemento {
+        private final Location position;
+
+        public PagePositionMemento(Location position) {
+            this.position = position;
+        }
+
+        public Location getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * Scrolls over a page, within its bounds.
+     */
+    private static class PagePositionProvider implements PositionProvider {
+        private final RectangleSize pageSize;
+        private final RectangleSize viewportSize;
+        private Location position = new Location(0, 0);
+
+        public PagePositionProvider(RectangleSize pageSize,
+                                    RectangleSize viewportSize) {
+            this.pageSize = pageSize;
+            this.viewportSize = viewportSize;
+        }
+
+        public Location getCurrentPosition() {
+            return position;
+        }
+
+        public void setPosition(Location location) {
+            position = new Location(
+                    Math.min(location.getX(),
+                            pageSize.getWidth() - viewportSize.getWidth()),
+                    Math.min(location.getY(),
+                            pageSize.getHeight() - viewportSize.getHeight()));
+        }
+
+        public RectangleSize getEntireSize() {
+            return pageSize;
+        }
+
+        public PositionMemento getState() {
+            return new PagePositionMemento(position);
+        }
+
+        public void restoreState(PositionMemento state) {
+            position = ((PagePositionMemento) state).getPosition();
+        }
+    }
+
+    /**
+     * A screenshot which is only used for the entire viewport.
+     */
+    private static class ViewportScreenshot extends EyesScreenshot {
+        public ViewportScreenshot(BufferedImage image) {
+            super(image);
+        }
+
+        public EyesScreenshot getSubScreenshot(Region region,
+                CoordinatesType coordinatesType, boolean throwIfClipped) {
+            throw new UnsupportedOperationException();
+        }
+
+        protected Location convertLocation(Location location,
+                CoordinatesType from, CoordinatesType to) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Location getLocationInScreenshot(Location location,
+                CoordinatesType coordinatesType) {
+            throw new UnsupportedOperationException();
+        }
+
+        protected Region getIntersectedRegion(Region region,
+                CoordinatesType originalCoordinatesType,
+                CoordinatesType resultCoordinatesType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private BufferedImage page;
+    private RectangleSize viewportSize;
+    private RegionProvider entirePageProvider;
+    private EyesScreenshotFactory screenshotFactory;
+
+    @Setup
+    public void setUp() {
+        page = BenchmarkImages.createPage(BenchmarkImages.ImageSize.PAGE);
+        BenchmarkImages.ImageSize viewport =
+                BenchmarkImages.ImageSize.VIEWPORT;
+        viewportSize = new RectangleSize(viewport.getWidth(),
+                viewport.getHeight());
+        entirePageProvider = new RegionProvider() {
+            public Region getRegion() {
+                return Region.EMPTY;
+            }
+
+            public CoordinatesType getCoordinatesType() {
+                return null;
+            }
+        };
+        screenshotFactory = new EyesScreenshotFactory() {
+            public EyesScreenshot makeScreenshot(BufferedImage image) {
+                return new ViewportScreenshot(image);
+            }
+        };
+    }
+
+    @Benchmark
+    public BufferedImage getStitchedRegion() {
+        final PagePositionProvider positionProvider = new PagePositionProvider(
+                new RectangleSize(page.getWidth(), page.getHeight()),
+                viewportSize);
+        ImageProvider imageProvider = new ImageProvider() {
+            public BufferedImage getImage() {
+                Location position = positionProvider.getCurrentPosition();
+                return ImageUtils.getImagePartView(page,
+                        new Region(position, viewportSize));
+            }
+        };
+
+        return new FullPageCaptureAlgorithm(new Logger()).getStitchedRegion(
+                imageProvider, entirePageProvider, positionProvider,
+                positionProvider, new NullScaleProvider(), 0,
+                screenshotFactory);
+    }
+}
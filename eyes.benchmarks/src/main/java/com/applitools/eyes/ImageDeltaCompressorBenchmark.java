@@ -0,0 +1,58 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageDeltaCompressor;
+import com.applitools.utils.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression of a screenshot relative to the previous screenshot, as done
+ * before each match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageDeltaCompressorBenchmark {
+
+    @Param({"SMALL", "VIEWPORT", "PAGE"})
+    public BenchmarkImages.ImageSize size;
+
+    private BufferedImage target;
+    private byte[] targetEncoded;
+    private BufferedImage source;
+
+    @Setup
+    public void setUp() {
+        target = BenchmarkImages.createChangedPage(size);
+        targetEncoded = ImageUtils.encodeAsPng(target);
+        source = BenchmarkImages.createPage(size);
+    }
+
+    @Benchmark
+    public byte[] compressByRawBlocks() throws IOException {
+        return ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded,
+                source);
+    }
+
+    @Benchmark
+    public byte[] compressByRawBlocksWithoutSource() throws IOException {
+        return ImageDeltaCompressor.compressByRawBlocks(target, targetEncoded,
+                null);
+    }
+}
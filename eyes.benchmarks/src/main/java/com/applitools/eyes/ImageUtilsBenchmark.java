@@ -0,0 +1,72 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The image operations performed on each screenshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageUtilsBenchmark {
+
+    @Param({"SMALL", "VIEWPORT", "PAGE"})
+    public BenchmarkImages.ImageSize size;
+
+    private BufferedImage image;
+    private BufferedImage rgbImage;
+    private Region centerRegion;
+
+    @Setup
+    public void setUp() {
+        image = BenchmarkImages.createPage(size);
+        rgbImage = BenchmarkImages.createPage(size,
+                BufferedImage.TYPE_INT_RGB);
+        centerRegion = new Region(size.getWidth() / 4, size.getHeight() / 4,
+                size.getWidth() / 2, size.getHeight() / 2);
+    }
+
+    @Benchmark
+    public byte[] encodeAsPng() {
+        return ImageUtils.encodeAsPng(image);
+    }
+
+    @Benchmark
+    public BufferedImage scaleImage() {
+        // E.g., a retina screenshot.
+        return ImageUtils.scaleImage(image, ScaleMethod.getDefault(), 0.5);
+    }
+
+    @Benchmark
+    public BufferedImage getImagePart() {
+        return ImageUtils.getImagePart(image, centerRegion);
+    }
+
+    @Benchmark
+    public BufferedImage rotateImage() {
+        // E.g., a landscape mobile screenshot.
+        return ImageUtils.rotateImage(image, 90);
+    }
+
+    @Benchmark
+    public BufferedImage normalizeImageType() {
+        return ImageUtils.normalizeImageType(rgbImage);
+    }
+}
@@ -0,0 +1,66 @@
+package com.applitools.eyes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overhead of verbose logging when verbose messages are not written,
+ * which is the default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    private Logger nullLogger;
+    private Logger nonVerboseLogger;
+    private Region region;
+    // Not a constant, so the message isn't folded into the benchmarks.
+    private String message;
+
+    @Setup
+    public void setUp() {
+        nullLogger = new Logger();
+        nonVerboseLogger = new Logger();
+        nonVerboseLogger.setLogHandler(new StdoutLogHandler(false));
+        region = new Region(10, 20, 300, 400);
+        message = "Done!";
+    }
+
+    // The logged messages are consumed, so building them can't be
+    // eliminated as dead code even if logging them is.
+
+    @Benchmark
+    public void verboseWithNullHandler(Blackhole blackhole) {
+        nullLogger.verbose(message);
+        blackhole.consume(message);
+    }
+
+    @Benchmark
+    public void verboseWithNonVerboseHandler(Blackhole blackhole) {
+        nonVerboseLogger.verbose(message);
+        blackhole.consume(message);
+    }
+
+    @Benchmark
+    public String verboseWithFormattedMessage() {
+        String formattedMessage =
+                String.format("Region in screenshot: %s", region);
+        nullLogger.verbose(formattedMessage);
+        return formattedMessage;
+    }
+}
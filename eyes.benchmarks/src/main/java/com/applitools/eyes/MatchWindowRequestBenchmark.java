@@ -0,0 +1,65 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageDeltaCompressor;
+import com.applitools.utils.ImageUtils;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the body of a match window request (serializing the match data
+ * and appending the screenshot), without sending it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchWindowRequestBenchmark {
+
+    @Param({"SMALL", "VIEWPORT", "PAGE"})
+    public BenchmarkImages.ImageSize size;
+
+    private Jersey2xServerConnector connector;
+    private MatchWindowData matchData;
+
+    @Setup
+    public void setUp() throws IOException {
+        connector = new Jersey2xServerConnector(new Logger(), "benchmark",
+                URI.create("http://localhost"));
+
+        // As sent by the SDK: a screenshot compressed relative to the
+        // previous one.
+        BufferedImage screenshot = BenchmarkImages.createChangedPage(size);
+        byte[] compressed = ImageDeltaCompressor.compressByRawBlocks(
+                screenshot, ImageUtils.encodeAsPng(screenshot),
+                BenchmarkImages.createPage(size));
+        Trigger[] userInputs = new Trigger[]{
+                new TextTrigger(new Region(10, 10, 100, 20), "text")};
+        matchData = new MatchWindowData(userInputs,
+                new AppOutput("title", Base64.encodeBase64String(compressed)),
+                "tag", false,
+                new MatchWindowData.Options("tag", userInputs, false, false,
+                        false, false));
+    }
+
+    @Benchmark
+    public byte[] createMatchWindowRequestData() {
+        return connector.createMatchWindowRequestData(matchData);
+    }
+}
@@ -0,0 +1,51 @@
+package com.applitools.eyes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splitting a page into the parts captured when stitching.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegionBenchmark {
+
+    private final Region page = new Region(0, 0, 1280, 50000);
+    private final RectangleSize partSize = new RectangleSize(1280, 750);
+    private final RectangleSize smallPartSize = new RectangleSize(100, 100);
+
+    @Benchmark
+    public void getSubRegions(Blackhole blackhole) {
+        for (Region subRegion : page.getSubRegions(partSize)) {
+            blackhole.consume(subRegion);
+        }
+    }
+
+    @Benchmark
+    public void getSubRegionsOfSmallSize(Blackhole blackhole) {
+        for (Region subRegion : page.getSubRegions(smallPartSize)) {
+            blackhole.consume(subRegion);
+        }
+    }
+
+    @Benchmark
+    public void getSubRegionsWithFixedSize(Blackhole blackhole) {
+        for (Region subRegion : page.getSubRegions(partSize, true)) {
+            blackhole.consume(subRegion);
+        }
+    }
+}
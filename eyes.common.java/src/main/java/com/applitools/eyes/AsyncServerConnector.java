@@ -0,0 +1,21 @@
+package com.applitools.eyes;
+
+/**
+ * A server connector which can stop sessions without blocking the calling
+ * thread. Sessions of other implementations of {@link ServerConnector} are
+ * stopped synchronously.
+ */
+public interface AsyncServerConnector extends ServerConnector {
+
+    /**
+     * Stops the running session without blocking the calling thread while
+     * the server is processing the session.
+     *
+     * @param runningSession The running session to be stopped.
+     * @param listener Receives the TestResults object for the stopped running
+     *                 session, or the failure.
+     */
+    void stopSessionAsync(final RunningSession runningSession,
+                          final boolean isAborted, final boolean save,
+                          TaskListener<TestResults> listener);
+}
@@ -4,6 +4,7 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.GeometryUtils;
 
 import java.awt.image.BufferedImage;
 
@@ -18,6 +19,13 @@ abstract class EyesScreenshot {
         this.image = image;
     }
 
+    /**
+     * For screenshots which load their image lazily. Such screenshots must
+     * override {@link #getImage()}.
+     */
+    protected EyesScreenshot() {
+    }
+
     /**
      * @return The screenshot image.
      */
@@ -38,6 +46,22 @@ abstract class EyesScreenshot {
     public abstract EyesScreenshot getSubScreenshot(Region region,
             CoordinatesType coordinatesType, boolean throwIfClipped);
 
+    /**
+     * Returns a part of the screenshot based on the given region. The
+     * returned screenshot might share its pixel data with this screenshot,
+     * so it should be treated as read-only. The default implementation is
+     * the same as {@link #getSubScreenshot(Region, CoordinatesType, boolean)}.
+     *
+     * @param region          The region for which we should get the sub screenshot.
+     * @param coordinatesType How should the region be calculated on the
+     *                        screenshot image.
+     * @return A screenshot instance containing the given region.
+     */
+    public EyesScreenshot getSubScreenshotView(Region region,
+            CoordinatesType coordinatesType) {
+        return getSubScreenshot(region, coordinatesType, false);
+    }
+
     /**
      * Converts a location's coordinates with the {@code from} coordinates type
      * to the {@code to} coordinates type.
@@ -52,6 +76,26 @@ abstract class EyesScreenshot {
                                                 CoordinatesType from,
                                                 CoordinatesType to);
 
+    /**
+     * Converts a location's coordinates with the {@code from} coordinates type
+     * to the {@code to} coordinates type, without creating location
+     * instances. The default implementation uses
+     * {@link #convertLocation(Location, CoordinatesType, CoordinatesType)},
+     * so implementations should override it on hot paths.
+     *
+     * @param x    The X coordinate of the location.
+     * @param y    The Y coordinate of the location.
+     * @param from The current coordinates type of the location.
+     * @param to   The target coordinates type of the location.
+     * @return The converted location, packed by
+     * {@link GeometryUtils#packLocation(int, int)}.
+     */
+    protected long convertLocation(int x, int y, CoordinatesType from,
+                                   CoordinatesType to) {
+        Location result = convertLocation(new Location(x, y), from, to);
+        return GeometryUtils.packLocation(result.getX(), result.getY());
+    }
+
     /**
      * Calculates the location in the screenshot of the location given as
      * parameter.
@@ -115,9 +159,38 @@ abstract class EyesScreenshot {
         ArgumentGuard.notNull(from, "from");
         ArgumentGuard.notNull(to, "to");
 
-        Location updatedLocation = convertLocation(region.getLocation(), from,
-                to);
+        long updatedLocation = convertLocation(region.getLeft(),
+                region.getTop(), from, to);
+
+        return new Region(GeometryUtils.getX(updatedLocation),
+                GeometryUtils.getY(updatedLocation), region.getWidth(),
+                region.getHeight());
+    }
+
+    /**
+     * Converts a region's location coordinates with the {@code from}
+     * coordinates type to the {@code to} coordinates type (in place!).
+     *
+     * @param region The region which location's coordinates needs to be
+     *               converted.
+     * @param from The current coordinates type for {@code region}.
+     * @param to The target coordinates type for {@code region}.
+     */
+    protected void convertRegionLocationInPlace(Region region,
+                                                CoordinatesType from,
+                                                CoordinatesType to) {
+        ArgumentGuard.notNull(region, "region");
+
+        if (region.isEmpty()) {
+            return;
+        }
+
+        ArgumentGuard.notNull(from, "from");
+        ArgumentGuard.notNull(to, "to");
 
-        return new Region(updatedLocation, region.getSize());
+        long updatedLocation = convertLocation(region.getLeft(),
+                region.getTop(), from, to);
+        region.offset(GeometryUtils.getX(updatedLocation) - region.getLeft(),
+                GeometryUtils.getY(updatedLocation) - region.getTop());
     }
 }
\ No newline at end of file
@@ -4,6 +4,9 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 
 /**
  * Encapsulates the data to be sent to the agent on a "matchWindow" command.
@@ -14,7 +17,7 @@ class MatchWindowData {
      * Encapsulates the "Options" section of the MatchExpectedOutput body data.
      */
     static class Options {
-        private final Trigger[] userInputs;
+        private final UserInputsJson userInputs;
         private final String name;
         private final boolean ignoreMismatch;
         private final boolean ignoreMatch;
@@ -46,7 +49,7 @@ class MatchWindowData {
             ArgumentGuard.notNull(userInputs, "userInputs");
 
             this.name = name;
-            this.userInputs = userInputs;
+            this.userInputs = new UserInputsJson(userInputs);
             this.ignoreMismatch = ignoreMismatch;
             this.ignoreMatch = ignoreMatch;
             this.forceMismatch = forceMismatch;
@@ -58,9 +61,16 @@ class MatchWindowData {
             return name;
         }
 
-        @SuppressWarnings("unused")
+        @JsonIgnore
         public Trigger[] getUserInputs() {
-            return userInputs;
+            return userInputs.getUserInputs();
+        }
+
+        @SuppressWarnings("unused")
+        @JsonProperty("userInputs")
+        @JsonRawValue
+        public String getUserInputsJson() {
+            return userInputs.getJson();
         }
 
         @SuppressWarnings("unused")
@@ -86,7 +96,7 @@ class MatchWindowData {
 
 
     // TODO Remove redundancy: userInputs and ignoreMismatch should only be inside Options. (requires server version update).
-    private final Trigger[] userInputs;
+    private final UserInputsJson userInputs;
     private AppOutput appOutput;
     private String tag;
     private boolean ignoreMismatch;
@@ -105,7 +115,11 @@ class MatchWindowData {
 
         ArgumentGuard.notNull(userInputs, "userInputs");
 
-        this.userInputs = userInputs;
+        // When the options hold the same user inputs (as they usually do),
+        // the inputs are serialized only once.
+        this.userInputs = options != null &&
+                options.getUserInputs() == userInputs ?
+                options.userInputs : new UserInputsJson(userInputs);
         this.appOutput = appOutput;
         this.tag = tag;
         this.ignoreMismatch = ignoreMismatch;
@@ -116,9 +130,16 @@ class MatchWindowData {
         return appOutput;
     }
 
-    @SuppressWarnings("unused")
+    @JsonIgnore
     public Trigger[] getUserInputs() {
-        return userInputs;
+        return userInputs.getUserInputs();
+    }
+
+    @SuppressWarnings("unused")
+    @JsonProperty("userInputs")
+    @JsonRawValue
+    public String getUserInputsJson() {
+        return userInputs.getJson();
     }
 
     @SuppressWarnings("unused")
@@ -0,0 +1,609 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.CountingOutputStream;
+import com.applitools.utils.GeneralUtils;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.codec.binary.Base64;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A file-backed server connector, for measuring and regression-testing the
+ * SDK without the Eyes server.
+ * <p>
+ * In {@link Mode#RECORD} mode, requests are passed on to a real server
+ * connector, and each response is appended to a recording file, together
+ * with the sizes of the request and the response and the time the request
+ * took. In {@link Mode#REPLAY} mode, responses are taken from a recording
+ * file (each request type cycles through its recorded responses), after a
+ * simulated delay based on the latency and the bandwidth. Requests are
+ * still serialized in replay mode, so the client side work is the same as
+ * with the real connector.
+ * <p>
+ * An offline connector can be plugged into Eyes instances using the system
+ * properties {@link #MODE_PROPERTY}, {@link #FILE_PROPERTY},
+ * {@link #LATENCY_PROPERTY} and {@link #BANDWIDTH_PROPERTY} (e.g.,
+ * {@code -Dapplitools.offline.mode=replay
+ * -Dapplitools.offline.file=traffic.jsonl}).
+ */
+public class OfflineServerConnector
+        implements RetryingServerConnector, AsyncServerConnector {
+
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+
+    public static final String MODE_PROPERTY = "applitools.offline.mode";
+    public static final String FILE_PROPERTY = "applitools.offline.file";
+    public static final String LATENCY_PROPERTY = "applitools.offline.latency";
+    public static final String BANDWIDTH_PROPERTY =
+            "applitools.offline.bandwidth";
+
+    /**
+     * Simulate the latency of each request as the time it took when it was
+     * recorded.
+     */
+    public static final int RECORDED_LATENCY = -1;
+    public static final long UNLIMITED_BANDWIDTH = 0;
+
+    private static final String START_SESSION = "startSession";
+    private static final String MATCH_WINDOW = "matchWindow";
+    private static final String STOP_SESSION = "stopSession";
+
+    // The number of threads completing replayed asynchronous requests for
+    // all the offline connectors.
+    private static final int REPLAY_THREADS = 2;
+
+    // Records hold the response objects' fields (rather than their
+    // properties), so they can be read back into the same objects.
+    private static final ObjectMapper recordMapper = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL,
+                    JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD,
+                    JsonAutoDetect.Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                    false);
+
+    // Both shared by all the connectors using the same file, since each
+    // Eyes instance has its own connector.
+    private static final Object recordingLock = new Object();
+    private static final ConcurrentMap<String, Map<String, List<JsonNode>>>
+            recordings =
+            new ConcurrentHashMap<String, Map<String, List<JsonNode>>>();
+
+    private static ScheduledExecutorService replayScheduler;
+
+    private final Logger logger;
+    private final Mode mode;
+    private final File recordingFile;
+    private final ServerConnector recordedConnector;
+    private final Map<String, Integer> replayPositions;
+    private String apiKey;
+    private URI serverUrl;
+    private ProxySettings proxySettings;
+    private RetryPolicy retryPolicy;
+    private int simulatedLatency;
+    private long simulatedBandwidth;
+
+    /**
+     * Creates a connector which records the traffic of another connector.
+     *
+     * @param logger            A logger instance.
+     * @param recordingFile     The file to append the records to.
+     * @param recordedConnector The connector to record.
+     */
+    public OfflineServerConnector(Logger logger, File recordingFile,
+                                  ServerConnector recordedConnector) {
+        this(logger, Mode.RECORD, recordingFile, recordedConnector);
+        ArgumentGuard.notNull(recordedConnector, "recordedConnector");
+    }
+
+    /**
+     * Creates a connector which replays recorded traffic.
+     *
+     * @param logger        A logger instance.
+     * @param recordingFile The file containing the records.
+     */
+    public OfflineServerConnector(Logger logger, File recordingFile) {
+        this(logger, Mode.REPLAY, recordingFile, null);
+    }
+
+    private OfflineServerConnector(Logger logger, Mode mode,
+                                   File recordingFile,
+                                   ServerConnector recordedConnector) {
+        ArgumentGuard.notNull(logger, "logger");
+        ArgumentGuard.notNull(recordingFile, "recordingFile");
+
+        this.logger = logger;
+        this.mode = mode;
+        this.recordingFile = recordingFile;
+        this.recordedConnector = recordedConnector;
+        replayPositions = new HashMap<String, Integer>();
+        retryPolicy = RetryPolicy.noRetries();
+        simulatedLatency = RECORDED_LATENCY;
+        simulatedBandwidth = UNLIMITED_BANDWIDTH;
+    }
+
+    /**
+     * Wraps a connector according to the offline system properties.
+     *
+     * @param logger    A logger instance.
+     * @param connector The connector to the Eyes server.
+     * @return An offline connector if {@link #MODE_PROPERTY} is set,
+     * otherwise {@code connector}.
+     */
+    static ServerConnector fromSystemProperties(Logger logger,
+                                                ServerConnector connector) {
+        String modeName = System.getProperty(MODE_PROPERTY);
+        if (modeName == null) {
+            return connector;
+        }
+
+        String fileName = System.getProperty(FILE_PROPERTY);
+        if (fileName == null) {
+            throw new EyesException(String.format(
+                    "'%s' is set but '%s' is missing!",
+                    MODE_PROPERTY, FILE_PROPERTY));
+        }
+
+        Mode offlineMode;
+        try {
+            offlineMode = Mode.valueOf(modeName.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new EyesException(String.format(
+                    "Invalid value for '%s': '%s'", MODE_PROPERTY, modeName));
+        }
+
+        logger.verbose(String.format("Offline server connector: %s '%s'",
+                offlineMode, fileName));
+        if (offlineMode == Mode.RECORD) {
+            return new OfflineServerConnector(logger, new File(fileName),
+                    connector);
+        }
+
+        OfflineServerConnector offlineConnector =
+                new OfflineServerConnector(logger, new File(fileName));
+        offlineConnector.setApiKey(connector.getApiKey());
+        offlineConnector.setServerUrl(connector.getServerUrl());
+        try {
+            String latency = System.getProperty(LATENCY_PROPERTY);
+            if (latency != null) {
+                offlineConnector.setSimulatedLatency(
+                        Integer.parseInt(latency.trim()));
+            }
+            String bandwidth = System.getProperty(BANDWIDTH_PROPERTY);
+            if (bandwidth != null) {
+                offlineConnector.setSimulatedBandwidth(
+                        Long.parseLong(bandwidth.trim()));
+            }
+        } catch (NumberFormatException e) {
+            throw new EyesException("Invalid offline connector settings!", e);
+        }
+        return offlineConnector;
+    }
+
+    /**
+     * @return Whether the connector records or replays traffic.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The file the traffic is recorded to or replayed from.
+     */
+    public File getRecordingFile() {
+        return recordingFile;
+    }
+
+    /**
+     * Sets the simulated latency of replayed requests, i.e., the time each
+     * request takes in addition to the transfer time.
+     *
+     * @param latency The latency (Milliseconds), or
+     *                {@link #RECORDED_LATENCY} to use the time each
+     *                request took when it was recorded.
+     */
+    public void setSimulatedLatency(int latency) {
+        if (latency != RECORDED_LATENCY) {
+            ArgumentGuard.greaterThanOrEqualToZero(latency, "latency");
+        }
+        this.simulatedLatency = latency;
+    }
+
+    /**
+     * @return The simulated latency of replayed requests. (Milliseconds)
+     */
+    public int getSimulatedLatency() {
+        return simulatedLatency;
+    }
+
+    /**
+     * Sets the simulated bandwidth for the replayed requests and responses.
+     *
+     * @param bandwidth The bandwidth (Bytes per second), or
+     *                  {@link #UNLIMITED_BANDWIDTH}.
+     */
+    public void setSimulatedBandwidth(long bandwidth) {
+        ArgumentGuard.greaterThanOrEqualToZero(bandwidth, "bandwidth");
+        this.simulatedBandwidth = bandwidth;
+    }
+
+    /**
+     * @return The simulated bandwidth. (Bytes per second)
+     */
+    public long getSimulatedBandwidth() {
+        return simulatedBandwidth;
+    }
+
+    public void setApiKey(String apiKey) {
+        if (mode == Mode.RECORD) {
+            recordedConnector.setApiKey(apiKey);
+        } else {
+            this.apiKey = apiKey;
+        }
+    }
+
+    public String getApiKey() {
+        return mode == Mode.RECORD ? recordedConnector.getApiKey() : apiKey;
+    }
+
+    public void setServerUrl(URI serverUrl) {
+        if (mode == Mode.RECORD) {
+            recordedConnector.setServerUrl(serverUrl);
+        } else {
+            this.serverUrl = serverUrl;
+        }
+    }
+
+    public URI getServerUrl() {
+        return mode == Mode.RECORD ? recordedConnector.getServerUrl() :
+                serverUrl;
+    }
+
+    public void setProxy(ProxySettings proxySettings) {
+        if (mode == Mode.RECORD) {
+            recordedConnector.setProxy(proxySettings);
+        } else {
+            this.proxySettings = proxySettings;
+        }
+    }
+
+    public ProxySettings getProxy() {
+        return mode == Mode.RECORD ? recordedConnector.getProxy() :
+                proxySettings;
+    }
+
+    public int getTimeout() {
+        return mode == Mode.RECORD ? recordedConnector.getTimeout() : 0;
+    }
+
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (isRecordingRetries()) {
+            ((RetryingServerConnector) recordedConnector)
+                    .setRetryPolicy(retryPolicy);
+        } else {
+            ArgumentGuard.notNull(retryPolicy, "retryPolicy");
+            this.retryPolicy = retryPolicy;
+        }
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return isRecordingRetries() ?
+                ((RetryingServerConnector) recordedConnector)
+                        .getRetryPolicy() : retryPolicy;
+    }
+
+    /**
+     * @return Whether the retry policy is the recorded connector's.
+     */
+    private boolean isRecordingRetries() {
+        return mode == Mode.RECORD &&
+                recordedConnector instanceof RetryingServerConnector;
+    }
+
+    public RunningSession startSession(SessionStartInfo sessionStartInfo) {
+        ArgumentGuard.notNull(sessionStartInfo, "sessionStartInfo");
+        long requestSize = getRequestSize(sessionStartInfo);
+
+        if (mode == Mode.RECORD) {
+            long start = System.currentTimeMillis();
+            RunningSession runningSession =
+                    recordedConnector.startSession(sessionStartInfo);
+            ObjectNode record = createRecord(START_SESSION, requestSize,
+                    runningSession, System.currentTimeMillis() - start);
+            // Not a part of the serialized running session.
+            record.put("isNewSession", runningSession.getIsNewSession());
+            writeRecord(record);
+            return runningSession;
+        }
+
+        JsonNode record = nextRecord(START_SESSION);
+        GeneralUtils.sleep(getSimulatedDelay(record, requestSize));
+        RunningSession runningSession =
+                readResponse(record, RunningSession.class);
+        runningSession.setIsNewSession(
+                record.path("isNewSession").asBoolean());
+        return runningSession;
+    }
+
+    public MatchResult matchWindow(RunningSession runningSession,
+                                   MatchWindowData matchData) {
+        ArgumentGuard.notNull(runningSession, "runningSession");
+        ArgumentGuard.notNull(matchData, "data");
+        long requestSize = getRequestSize(matchData);
+
+        if (mode == Mode.RECORD) {
+            long start = System.currentTimeMillis();
+            MatchResult result =
+                    recordedConnector.matchWindow(runningSession, matchData);
+            writeRecord(createRecord(MATCH_WINDOW, requestSize, result,
+                    System.currentTimeMillis() - start));
+            return result;
+        }
+
+        JsonNode record = nextRecord(MATCH_WINDOW);
+        GeneralUtils.sleep(getSimulatedDelay(record, requestSize));
+        return readResponse(record, MatchResult.class);
+    }
+
+    public TestResults stopSession(RunningSession runningSession,
+                                   boolean isAborted, boolean save) {
+        ArgumentGuard.notNull(runningSession, "runningSession");
+
+        if (mode == Mode.RECORD) {
+            long start = System.currentTimeMillis();
+            TestResults results = recordedConnector.stopSession(
+                    runningSession, isAborted, save);
+            writeRecord(createRecord(STOP_SESSION, 0, results,
+                    System.currentTimeMillis() - start));
+            return results;
+        }
+
+        JsonNode record = nextRecord(STOP_SESSION);
+        GeneralUtils.sleep(getSimulatedDelay(record, 0));
+        return readResponse(record, TestResults.class);
+    }
+
+    public void stopSessionAsync(RunningSession runningSession,
+                                 boolean isAborted, boolean save,
+                                 final TaskListener<TestResults> listener) {
+        ArgumentGuard.notNull(runningSession, "runningSession");
+        ArgumentGuard.notNull(listener, "listener");
+
+        if (mode == Mode.RECORD &&
+                !(recordedConnector instanceof AsyncServerConnector)) {
+            // The recorded connector stops sessions synchronously.
+            TestResults results;
+            try {
+                results = stopSession(runningSession, isAborted, save);
+            } catch (RuntimeException e) {
+                listener.onFail(e);
+                return;
+            }
+            listener.onComplete(results);
+            return;
+        }
+
+        if (mode == Mode.RECORD) {
+            final long start = System.currentTimeMillis();
+            ((AsyncServerConnector) recordedConnector).stopSessionAsync(
+                    runningSession, isAborted, save,
+                    new TaskListener<TestResults>() {
+                        public void onComplete(TestResults results) {
+                            writeRecord(createRecord(STOP_SESSION, 0, results,
+                                    System.currentTimeMillis() - start));
+                            listener.onComplete(results);
+                        }
+
+                        public void onFail(Throwable cause) {
+                            listener.onFail(cause);
+                        }
+                    });
+            return;
+        }
+
+        final JsonNode record;
+        try {
+            record = nextRecord(STOP_SESSION);
+        } catch (EyesException e) {
+            listener.onFail(e);
+            return;
+        }
+        // The delay is simulated by the scheduler, so no thread is blocked.
+        getReplayScheduler().schedule(new Runnable() {
+            public void run() {
+                TestResults results;
+                try {
+                    results = readResponse(record, TestResults.class);
+                } catch (Throwable e) {
+                    listener.onFail(e);
+                    return;
+                }
+                listener.onComplete(results);
+            }
+        }, getSimulatedDelay(record, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The size of the request as sent by the real connector.
+     */
+    private static long getRequestSize(Object request) {
+        CountingOutputStream counter = new CountingOutputStream(
+                new OutputStream() {
+                    public void write(int b) {}
+
+                    public void write(byte[] b, int off, int len) {}
+                });
+        try {
+            if (request instanceof MatchWindowData) {
+                ServerJsonMappers.getMatchWindowDataWriter()
+                        .writeValue(counter, request);
+                // The screenshot is sent as binary data after the JSON and
+                // its length.
+                String screenshot64 = ((MatchWindowData) request)
+                        .getAppOutput().getScreenshot64();
+                return counter.getBytesCount() + 4 + (screenshot64 == null ?
+                        0 : Base64.decodeBase64(screenshot64).length);
+            }
+            ServerJsonMappers.getSessionStartInfoWriter()
+                    .writeValue(counter, request);
+            return counter.getBytesCount();
+        } catch (IOException e) {
+            throw new EyesException("Failed to serialize request!", e);
+        }
+    }
+
+    private static ObjectNode createRecord(String requestName,
+                                           long requestSize, Object response,
+                                           long duration) {
+        JsonNode responseNode = recordMapper.valueToTree(response);
+        ObjectNode record = recordMapper.createObjectNode();
+        record.put("request", requestName);
+        record.put("requestSize", requestSize);
+        record.put("responseSize", responseNode.toString().length());
+        record.put("duration", duration);
+        record.set("response", responseNode);
+        return record;
+    }
+
+    private void writeRecord(ObjectNode record) {
+        // Failing to record should not fail the test.
+        try {
+            byte[] line = (recordMapper.writeValueAsString(record) + "\n")
+                    .getBytes("UTF-8");
+            synchronized (recordingLock) {
+                FileOutputStream out =
+                        new FileOutputStream(recordingFile, true);
+                try {
+                    out.write(line);
+                } finally {
+                    out.close();
+                }
+            }
+        } catch (IOException e) {
+            logger.log(String.format("Failed to record %s: %s",
+                    record.path("request").asText(), e.getMessage()));
+        }
+    }
+
+    private synchronized JsonNode nextRecord(String requestName) {
+        List<JsonNode> records = getRecording(recordingFile).get(requestName);
+        if (records == null) {
+            throw new EyesException(String.format(
+                    "No %s requests were recorded in '%s'", requestName,
+                    recordingFile));
+        }
+        Integer position = replayPositions.get(requestName);
+        if (position == null) {
+            position = 0;
+        }
+        replayPositions.put(requestName, (position + 1) % records.size());
+        return records.get(position);
+    }
+
+    private long getSimulatedDelay(JsonNode record, long requestSize) {
+        long delay = simulatedLatency == RECORDED_LATENCY ?
+                record.path("duration").asLong() : simulatedLatency;
+        if (simulatedBandwidth != UNLIMITED_BANDWIDTH) {
+            long transferSize =
+                    requestSize + record.path("responseSize").asLong();
+            delay += transferSize * 1000 / simulatedBandwidth;
+        }
+        return delay;
+    }
+
+    private static <T> T readResponse(JsonNode record, Class<T> responseType) {
+        try {
+            return recordMapper.treeToValue(record.path("response"),
+                    responseType);
+        } catch (IOException e) {
+            throw new EyesException("Failed to read recorded response!", e);
+        }
+    }
+
+    /**
+     * @return The records of the file, by request name.
+     */
+    private static Map<String, List<JsonNode>> getRecording(File file) {
+        // A file which is recorded again is read again.
+        String key = file.getAbsolutePath() + "|" + file.lastModified() + "|"
+                + file.length();
+        Map<String, List<JsonNode>> recording = recordings.get(key);
+        if (recording != null) {
+            return recording;
+        }
+
+        recording = new HashMap<String, List<JsonNode>>();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(file), "UTF-8"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    JsonNode record = recordMapper.readTree(line);
+                    String requestName = record.path("request").asText();
+                    List<JsonNode> records = recording.get(requestName);
+                    if (records == null) {
+                        records = new ArrayList<JsonNode>();
+                        recording.put(requestName, records);
+                    }
+                    records.add(record);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new EyesException(String.format(
+                    "Failed to read recording '%s'", file), e);
+        }
+
+        Map<String, List<JsonNode>> existing =
+                recordings.putIfAbsent(key, recording);
+        return existing != null ? existing : recording;
+    }
+
+    private static synchronized ScheduledExecutorService getReplayScheduler() {
+        if (replayScheduler == null) {
+            final AtomicInteger threadsCount = new AtomicInteger();
+            replayScheduler = Executors.newScheduledThreadPool(REPLAY_THREADS,
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "eyes-offline-replay-" +
+                                    threadsCount.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+        }
+        return replayScheduler;
+    }
+}
@@ -1,9 +1,10 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.GeometryUtils;
 import com.fasterxml.jackson.annotation.*;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -125,115 +126,6 @@ public class Region {
         top = location.getY();
     }
 
-    /**
-     *
-     * @param containerRegion The region to divide into sub-regions.
-     * @param subRegionSize The maximum size of each sub-region.
-     * @return The sub-regions composing the current region. If subRegionSize
-     * is equal or greater than the current region,  only a single region is
-     * returned.
-     */
-    private static Iterable<Region> getSubRegionsWithFixedSize(
-            Region containerRegion, RectangleSize subRegionSize) {
-        ArgumentGuard.notNull(containerRegion, "containerRegion");
-        ArgumentGuard.notNull(subRegionSize, "subRegionSize");
-
-        List<Region> subRegions = new LinkedList<Region>();
-
-        int subRegionWidth = subRegionSize.getWidth();
-        int subRegionHeight = subRegionSize.getHeight();
-
-        ArgumentGuard.greaterThanZero(subRegionWidth, "subRegionSize width");
-        ArgumentGuard.greaterThanZero(subRegionHeight, "subRegionSize height");
-
-        // Normalizing.
-        if (subRegionWidth > containerRegion.width) {
-            subRegionWidth = containerRegion.width;
-        }
-        if (subRegionHeight > containerRegion.height) {
-            subRegionHeight = containerRegion.height;
-        }
-
-        // If the requested size is greater or equal to the entire region size,
-        // we return a copy of the region.
-        if (subRegionWidth == containerRegion.width &&
-                subRegionHeight == containerRegion.height) {
-            subRegions.add(new Region(containerRegion));
-            return subRegions;
-        }
-
-        int currentTop = containerRegion.top;
-        int bottom = containerRegion.top + containerRegion.height - 1;
-        int right = containerRegion.left + containerRegion.width - 1;
-
-        while (currentTop <= bottom) {
-
-            if (currentTop + subRegionHeight > bottom) {
-                currentTop = (bottom - subRegionHeight) + 1;
-            }
-
-            int currentLeft = containerRegion.left;
-            while (currentLeft <= right) {
-                if (currentLeft + subRegionWidth > right) {
-                    currentLeft = (right - subRegionWidth) + 1;
-                }
-
-                subRegions.add(new Region(currentLeft, currentTop,
-                        subRegionWidth, subRegionHeight));
-
-                currentLeft += subRegionWidth;
-            }
-            currentTop += subRegionHeight;
-        }
-        return subRegions;
-    }
-
-    /**
-     * @param containerRegion The region to divide into sub-regions.
-     * @param maxSubRegionSize The maximum size of each sub-region (some
-     *                         regions might be smaller).
-     * @return The sub-regions composing the current region. If
-     * maxSubRegionSize is equal or greater than the current region,
-     * only a single region is returned.
-     */
-    private static Iterable<Region> getSubRegionsWithVaryingSize(
-            Region containerRegion, RectangleSize maxSubRegionSize) {
-        ArgumentGuard.notNull(containerRegion, "containerRegion");
-        ArgumentGuard.notNull(maxSubRegionSize, "maxSubRegionSize");
-        ArgumentGuard.greaterThanZero(maxSubRegionSize.getWidth(),
-                "maxSubRegionSize.getWidth()");
-        ArgumentGuard.greaterThanZero(maxSubRegionSize.getHeight(),
-                "maxSubRegionSize.getHeight()");
-
-        List<Region> subRegions = new LinkedList<Region>();
-
-        int currentTop = containerRegion.top;
-        int bottom = containerRegion.top + containerRegion.height;
-        int right = containerRegion.left + containerRegion.width;
-
-        while (currentTop < bottom) {
-
-            int currentBottom = currentTop + maxSubRegionSize.getHeight();
-            if (currentBottom > bottom) { currentBottom = bottom; }
-
-            int currentLeft = containerRegion.left;
-            while (currentLeft < right) {
-                int currentRight = currentLeft + maxSubRegionSize.getWidth();
-                if (currentRight > right) { currentRight = right; }
-
-                int currentHeight = currentBottom - currentTop;
-                int currentWidth = currentRight - currentLeft;
-
-                subRegions.add(new Region(currentLeft, currentTop,
-                        currentWidth, currentHeight));
-
-                currentLeft += maxSubRegionSize.getWidth();
-            }
-            currentTop += maxSubRegionSize.getHeight();
-        }
-        return subRegions;
-    }
-
     /**
      * Returns a list of sub-regions which compose the current region.
      * @param subRegionSize The default sub-region size to use.
@@ -248,11 +140,20 @@ public class Region {
      */
     public Iterable<Region> getSubRegions(RectangleSize subRegionSize,
                                           boolean isFixedSize) {
-        if (isFixedSize) {
-            return getSubRegionsWithFixedSize(this, subRegionSize);
-        }
+        ArgumentGuard.notNull(subRegionSize, "subRegionSize");
+
+        int[] bounds = GeometryUtils.getSubRegions(left, top, width, height,
+                subRegionSize.getWidth(), subRegionSize.getHeight(),
+                isFixedSize);
 
-        return getSubRegionsWithVaryingSize(this, subRegionSize);
+        List<Region> subRegions = new ArrayList<Region>(
+                bounds.length / GeometryUtils.REGION_FIELDS_COUNT);
+        for (int i = 0; i < bounds.length;
+             i += GeometryUtils.REGION_FIELDS_COUNT) {
+            subRegions.add(new Region(bounds[i], bounds[i + 1],
+                    bounds[i + 2], bounds[i + 3]));
+        }
+        return subRegions;
     }
 
     /**
@@ -302,13 +203,17 @@ public class Region {
      * @return True if the regions are intersected, false otherwise.
      */
     public boolean isIntersected(Region other) {
+        return isIntersected(other.getLeft(), other.getTop(),
+                other.getWidth(), other.getHeight());
+    }
+
+    private boolean isIntersected(int otherLeft, int otherTop,
+                                  int otherWidth, int otherHeight) {
         int right = left + width;
         int bottom = top + height;
 
-        int otherLeft = other.getLeft();
-        int otherTop = other.getTop();
-        int otherRight = otherLeft + other.getWidth();
-        int otherBottom = otherTop + other.getHeight();
+        int otherRight = otherLeft + otherWidth;
+        int otherBottom = otherTop + otherHeight;
 
         return (((left <= otherLeft && otherLeft <= right)
                     ||  (otherLeft <= left && left <= otherRight))
@@ -322,28 +227,35 @@ public class Region {
      * @param other The region with which to intersect.
      */
     public void intersect(Region other) {
+        intersect(other.getLeft(), other.getTop(), other.getWidth(),
+                other.getHeight());
+    }
+
+    /**
+     * Replaces this region with the intersection of itself and the given
+     * region, without creating a region instance for it.
+     */
+    void intersect(int otherLeft, int otherTop, int otherWidth,
+                   int otherHeight) {
 
         // If there's no intersection set this as the Empty region.
-        if (!isIntersected(other)) {
+        if (!isIntersected(otherLeft, otherTop, otherWidth, otherHeight)) {
             makeEmpty();
             return;
         }
 
         // The regions intersect. So let's first find the left & top values
-        int otherLeft = other.getLeft();
-        int otherTop = other.getTop();
-
         int intersectionLeft = (left >= otherLeft) ? left : otherLeft;
         int intersectionTop = (top >= otherTop) ? top : otherTop;
 
         // Now the width and height of the intersect
         int right = left + width;
-        int otherRight = otherLeft + other.getWidth();
+        int otherRight = otherLeft + otherWidth;
         int intersectionRight = (right <= otherRight) ? right : otherRight;
         int intersectionWidth = intersectionRight - intersectionLeft;
 
         int bottom = top + height;
-        int otherBottom = otherTop + other.getHeight();
+        int otherBottom = otherTop + otherHeight;
         int intersectionBottom = (bottom <= otherBottom) ? bottom : otherBottom;
         int intersectionHeight = intersectionBottom - intersectionTop;
 
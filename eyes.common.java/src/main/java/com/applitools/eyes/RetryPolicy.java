@@ -0,0 +1,152 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.Random;
+
+/**
+ * Determines how requests to the Eyes server are retried after transient
+ * failures which happen before the server answers the request (e.g., a
+ * refused or reset connection, or a "503 Service Unavailable" response), and
+ * when the server is considered down.
+ * <p>
+ * The delay before each retry grows exponentially up to the maximum delay,
+ * and is randomized ("jittered") so that clients which failed together do
+ * not retry together. After {@link #getCircuitBreakerThreshold()}
+ * consecutive failures, requests to the server fail immediately for
+ * {@link #getCircuitBreakerOpenTime()} milliseconds, after which a single
+ * request is let through to check whether the server is back.
+ */
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_INITIAL_DELAY = 500; // Milliseconds
+    public static final int DEFAULT_MAX_DELAY = 5000; // Milliseconds
+    public static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 10;
+    public static final int DEFAULT_CIRCUIT_BREAKER_OPEN_TIME =
+            30 * 1000; // Milliseconds
+
+    private final int maxAttempts;
+    private final int initialDelay;
+    private final int maxDelay;
+    private final int circuitBreakerThreshold;
+    private final int circuitBreakerOpenTime;
+
+    /**
+     * Creates a new RetryPolicy instance.
+     *
+     * @param maxAttempts             The maximum number of times a request is
+     *                                sent (including the first time).
+     * @param initialDelay            The delay before the first retry.
+     *                                (Milliseconds)
+     * @param maxDelay                The maximum delay before a retry.
+     *                                (Milliseconds)
+     * @param circuitBreakerThreshold The number of consecutive failures
+     *                                after which the server is considered
+     *                                down, or {@code 0} to never consider
+     *                                the server down.
+     * @param circuitBreakerOpenTime  The time for which requests fail
+     *                                immediately once the server is
+     *                                considered down. (Milliseconds)
+     */
+    public RetryPolicy(int maxAttempts, int initialDelay, int maxDelay,
+                       int circuitBreakerThreshold,
+                       int circuitBreakerOpenTime) {
+        ArgumentGuard.greaterThanZero(maxAttempts, "maxAttempts");
+        ArgumentGuard.greaterThanOrEqualToZero(initialDelay, "initialDelay");
+        ArgumentGuard.greaterThanOrEqualToZero(maxDelay, "maxDelay");
+        ArgumentGuard.greaterThanOrEqualToZero(circuitBreakerThreshold,
+                "circuitBreakerThreshold");
+        ArgumentGuard.greaterThanOrEqualToZero(circuitBreakerOpenTime,
+                "circuitBreakerOpenTime");
+
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = Math.max(initialDelay, maxDelay);
+        this.circuitBreakerThreshold = circuitBreakerThreshold;
+        this.circuitBreakerOpenTime = circuitBreakerOpenTime;
+    }
+
+    /**
+     * Creates a retry policy with the default settings.
+     */
+    public RetryPolicy() {
+        this(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY,
+                DEFAULT_CIRCUIT_BREAKER_THRESHOLD,
+                DEFAULT_CIRCUIT_BREAKER_OPEN_TIME);
+    }
+
+    /**
+     * @return A policy under which requests are sent once, and the server is
+     * never considered down.
+     */
+    public static RetryPolicy noRetries() {
+        return new RetryPolicy(1, 0, 0, 0, 0);
+    }
+
+    /**
+     * @return The maximum number of times a request is sent.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @return The delay before the first retry. (Milliseconds)
+     */
+    public int getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * @return The maximum delay before a retry. (Milliseconds)
+     */
+    public int getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @return The number of consecutive failures after which the server is
+     * considered down, or {@code 0} if it's never considered down.
+     */
+    public int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    /**
+     * @return The time for which requests fail immediately once the server
+     * is considered down. (Milliseconds)
+     */
+    public int getCircuitBreakerOpenTime() {
+        return circuitBreakerOpenTime;
+    }
+
+    /**
+     * @param retryNumber The number of the retry (1 for the first retry).
+     * @param random      The source of the jitter.
+     * @return The delay before the given retry: a random delay between half
+     * of the exponential delay and the exponential delay. (Milliseconds)
+     */
+    public long getDelay(int retryNumber, Random random) {
+        ArgumentGuard.greaterThanZero(retryNumber, "retryNumber");
+        ArgumentGuard.notNull(random, "random");
+
+        long exponentialDelay = initialDelay;
+        for (int i = 1; i < retryNumber && exponentialDelay < maxDelay; ++i) {
+            exponentialDelay *= 2;
+        }
+        exponentialDelay = Math.min(exponentialDelay, maxDelay);
+
+        long halfDelay = exponentialDelay / 2;
+        return halfDelay +
+                (long) (random.nextDouble() * (exponentialDelay - halfDelay));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Max attempts: %d, Delay: %d-%d ms, " +
+                        "Circuit breaker: %d failures / %d ms", maxAttempts,
+                initialDelay, maxDelay, circuitBreakerThreshold,
+                circuitBreakerOpenTime);
+    }
+}
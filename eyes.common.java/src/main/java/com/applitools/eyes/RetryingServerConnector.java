@@ -0,0 +1,22 @@
+package com.applitools.eyes;
+
+/**
+ * A server connector which retries requests which failed due to transient
+ * errors. Implementations of {@link ServerConnector} which don't retry
+ * requests needn't implement it.
+ */
+public interface RetryingServerConnector extends ServerConnector {
+
+    /**
+     * Sets the policy for retrying requests which failed due to transient
+     * errors.
+     *
+     * @param retryPolicy The retry policy to set.
+     */
+    void setRetryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * @return The policy for retrying requests.
+     */
+    RetryPolicy getRetryPolicy();
+}
@@ -0,0 +1,85 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JSON readers and writers for the messages exchanged with the Eyes server.
+ * Readers and writers are immutable, so unlike a configurable
+ * {@link ObjectMapper} they can be shared by all the connectors and used
+ * concurrently. The ones for the known message types are created (and
+ * their serializers resolved) once.
+ */
+final class ServerJsonMappers {
+
+    private static final ObjectMapper jsonMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                    false);
+
+    // Since the web API requires a root property for this message.
+    private static final ObjectWriter sessionStartInfoWriter =
+            jsonMapper.writerFor(SessionStartInfo.class)
+                    .with(SerializationFeature.WRAP_ROOT_VALUE);
+    private static final ObjectWriter matchWindowDataWriter =
+            jsonMapper.writerFor(MatchWindowData.class);
+    // Not typed, since each trigger is serialized according to its
+    // actual type.
+    private static final ObjectWriter userInputsWriter = jsonMapper.writer();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> readers =
+            new ConcurrentHashMap<Class<?>, ObjectReader>();
+
+    static {
+        readers.put(RunningSession.class,
+                jsonMapper.reader(RunningSession.class));
+        readers.put(MatchResult.class, jsonMapper.reader(MatchResult.class));
+        readers.put(TestResults.class, jsonMapper.reader(TestResults.class));
+    }
+
+    private ServerJsonMappers() {}
+
+    /**
+     * @return The writer for the start session message.
+     */
+    public static ObjectWriter getSessionStartInfoWriter() {
+        return sessionStartInfoWriter;
+    }
+
+    /**
+     * @return The writer for the match window message.
+     */
+    public static ObjectWriter getMatchWindowDataWriter() {
+        return matchWindowDataWriter;
+    }
+
+    /**
+     * @return The writer for the user inputs of a match window message.
+     */
+    public static ObjectWriter getUserInputsWriter() {
+        return userInputsWriter;
+    }
+
+    /**
+     * @param resultType The type of the response.
+     * @return The reader for responses of type {@code resultType}.
+     */
+    public static ObjectReader getReader(Class<?> resultType) {
+        ArgumentGuard.notNull(resultType, "resultType");
+        ObjectReader reader = readers.get(resultType);
+        if (reader == null) {
+            reader = jsonMapper.reader(resultType);
+            ObjectReader existing = readers.putIfAbsent(resultType, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,23 @@
+package com.applitools.eyes;
+
+/**
+ * Receives the outcome of an asynchronous task. Exactly one of the methods
+ * is called, on the thread which completed the task.
+ *
+ * @param <T> The type of the task's result.
+ */
+public interface TaskListener<T> {
+    /**
+     * Called when the task completed successfully.
+     *
+     * @param result The result of the task.
+     */
+    void onComplete(T result);
+
+    /**
+     * Called when the task failed.
+     *
+     * @param cause The reason for the failure.
+     */
+    void onFail(Throwable cause);
+}
@@ -0,0 +1,51 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * The JSON serialization of the user inputs of a match window request.
+ * The user inputs appear twice in the request (see {@link MatchWindowData}),
+ * so they are serialized once and the result is shared.
+ */
+final class UserInputsJson {
+
+    private static final String EMPTY_JSON = "[]";
+
+    private final Trigger[] userInputs;
+    private volatile String json;
+
+    /**
+     * @param userInputs The user inputs to serialize. MUST NOT be null.
+     */
+    public UserInputsJson(Trigger[] userInputs) {
+        ArgumentGuard.notNull(userInputs, "userInputs");
+        this.userInputs = userInputs;
+        json = userInputs.length == 0 ? EMPTY_JSON : null;
+    }
+
+    /**
+     * @return The user inputs this instance serializes.
+     */
+    public Trigger[] getUserInputs() {
+        return userInputs;
+    }
+
+    /**
+     * @return The user inputs as a JSON array.
+     */
+    public String getJson() {
+        String result = json;
+        if (result == null) {
+            try {
+                result = ServerJsonMappers.getUserInputsWriter()
+                        .writeValueAsString(userInputs);
+            } catch (JsonProcessingException e) {
+                throw new EyesException("Failed to serialize user inputs!",
+                        e);
+            }
+            json = result;
+        }
+        return result;
+    }
+}
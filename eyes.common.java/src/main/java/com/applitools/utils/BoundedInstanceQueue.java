@@ -0,0 +1,169 @@
+package com.applitools.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A bounded queue for objects to be shared between threads, with an
+ * explicit policy for when the queue is full. Unlike
+ * {@link BlockingInstanceContainer}, which holds a single object, it can
+ * hold several objects and be consumed by several threads.
+ */
+public class BoundedInstanceQueue<T> {
+
+    /**
+     * What {@link #put(Object)} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The oldest object in the queue is dropped to make room for the new
+         * one. With a capacity of 1 this is the behavior of
+         * {@link BlockingInstanceContainer}.
+         */
+        LATEST_WINS,
+
+        /**
+         * No object is dropped: {@link #put(Object)} waits until there's
+         * room in the queue, or until the queue is stopped.
+         */
+        KEEP_ALL
+    }
+
+    private final Deque<T> queue;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private boolean isClosed;
+    private boolean isStopped;
+    private int droppedCount;
+
+    /**
+     * @param capacity       The maximum number of objects in the queue.
+     * @param overflowPolicy What to do when the queue is full.
+     */
+    public BoundedInstanceQueue(int capacity, OverflowPolicy overflowPolicy) {
+        ArgumentGuard.greaterThanZero(capacity, "capacity");
+        ArgumentGuard.notNull(overflowPolicy, "overflowPolicy");
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        queue = new ArrayDeque<T>(capacity);
+        isClosed = false;
+        isStopped = false;
+        droppedCount = 0;
+    }
+
+    /**
+     * Adds an object to the queue, according to the overflow policy.
+     *
+     * @param underlying The object to add.
+     * @return {@code true} if the object was added, or {@code false} if the
+     * queue was stopped, or if the thread was interrupted while waiting for
+     * room in the queue.
+     */
+    public boolean put(T underlying) {
+        return put(underlying, Long.MAX_VALUE);
+    }
+
+    /**
+     * Adds an object to the queue, according to the overflow policy.
+     *
+     * @param underlying The object to add.
+     * @param timeout    The maximum time to wait for room in the queue
+     *                   (milliseconds).
+     * @return {@code true} if the object was added, or {@code false} if the
+     * queue was stopped, if the timeout expired, or if the thread was
+     * interrupted while waiting for room in the queue.
+     */
+    public synchronized boolean put(T underlying, long timeout) {
+        ArgumentGuard.notNull(underlying, "underlying");
+        ArgumentGuard.greaterThanOrEqualToZero(timeout, "timeout");
+        ArgumentGuard.isValidState(!isClosed, "Queue is closed!");
+
+        long now = System.currentTimeMillis();
+        long deadline = timeout > Long.MAX_VALUE - now ? Long.MAX_VALUE :
+                now + timeout;
+        while (!isStopped && queue.size() >= capacity) {
+            if (overflowPolicy == OverflowPolicy.LATEST_WINS) {
+                queue.removeFirst();
+                ++droppedCount;
+            } else {
+                long timeToWait = deadline - System.currentTimeMillis();
+                if (timeToWait <= 0) {
+                    return false;
+                }
+                try {
+                    wait(timeToWait);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+                ArgumentGuard.isValidState(!isClosed, "Queue is closed!");
+            }
+        }
+
+        if (isStopped) {
+            return false;
+        }
+        queue.addLast(underlying);
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Removes the oldest object in the queue, waiting for an object if the
+     * queue is empty. Objects which were added before the queue was closed
+     * are still returned after it is closed.
+     *
+     * @return The oldest object in the queue, or {@code null} if the queue is
+     * closed and empty, if it was stopped, or if the thread was interrupted.
+     */
+    public synchronized T take() {
+        while (queue.isEmpty() && !isClosed && !isStopped) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        T result = queue.pollFirst();
+        if (result != null) {
+            notifyAll();
+        }
+        return result;
+    }
+
+    /**
+     * Marks the queue as closed. All subsequent calls to
+     * {@link #put(Object)} will throw an {@link IllegalStateException}.
+     */
+    public synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+
+    /**
+     * Stops the queue, when it's not consumed anymore (e.g., since the
+     * consumers finished). The objects in the queue are discarded, and
+     * subsequent calls to {@link #put(Object)} and {@link #take()} return
+     * immediately, without adding or removing an object. In particular,
+     * producers waiting for room in the queue are released.
+     */
+    public synchronized void stop() {
+        isStopped = true;
+        queue.clear();
+        notifyAll();
+    }
+
+    /**
+     * @return Whether the queue was stopped.
+     */
+    public synchronized boolean isStopped() {
+        return isStopped;
+    }
+
+    /**
+     * @return The number of objects dropped because of the
+     * {@link OverflowPolicy#LATEST_WINS} policy.
+     */
+    public synchronized int getDroppedCount() {
+        return droppedCount;
+    }
+}
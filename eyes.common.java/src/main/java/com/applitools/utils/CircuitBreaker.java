@@ -0,0 +1,81 @@
+package com.applitools.utils;
+
+/**
+ * Tracks the failures of calls to a remote service. After a given number of
+ * consecutive failures the breaker "opens", and calls should not be made
+ * for a given time. Once the time passes, a single trial call is allowed:
+ * if it succeeds the breaker closes, and if it fails the breaker opens
+ * again.
+ */
+public class CircuitBreaker {
+
+    private final int threshold;
+    private final long openTime;
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean isOpen;
+    private boolean isTrialRunning;
+
+    /**
+     * Creates a new (closed) CircuitBreaker instance.
+     *
+     * @param threshold The number of consecutive failures which opens the
+     *                  breaker, or {@code 0} if the breaker never opens.
+     * @param openTime  The time for which the breaker stays open before
+     *                  allowing a trial call. (Milliseconds)
+     */
+    public CircuitBreaker(int threshold, long openTime) {
+        ArgumentGuard.greaterThanOrEqualToZero(threshold, "threshold");
+        ArgumentGuard.greaterThanOrEqualToZero(openTime, "openTime");
+
+        this.threshold = threshold;
+        this.openTime = openTime;
+    }
+
+    /**
+     * @return {@code true} if a call may be made now, {@code false} if the
+     * breaker is open.
+     */
+    public synchronized boolean allowRequest() {
+        if (!isOpen) {
+            return true;
+        }
+        if (isTrialRunning ||
+                System.currentTimeMillis() - openedAt < openTime) {
+            return false;
+        }
+        isTrialRunning = true;
+        return true;
+    }
+
+    /**
+     * Records a successful call, which closes the breaker.
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        isOpen = false;
+        isTrialRunning = false;
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        ++consecutiveFailures;
+        if (isTrialRunning ||
+                (threshold > 0 && consecutiveFailures >= threshold)) {
+            isOpen = true;
+            openedAt = System.currentTimeMillis();
+            isTrialRunning = false;
+        }
+    }
+
+    /**
+     * @return Whether the breaker is open (including while a trial call is
+     * running).
+     */
+    public synchronized boolean isOpen() {
+        return isOpen;
+    }
+}
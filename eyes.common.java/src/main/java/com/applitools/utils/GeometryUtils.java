@@ -0,0 +1,130 @@
+package com.applitools.utils;
+
+/**
+ * Allocation free geometry, for code paths which convert or split many
+ * coordinates. A location is packed into a single {@code long}, and regions
+ * are kept as consecutive {@code (left, top, width, height)} quadruples in
+ * an {@code int} array.
+ */
+public class GeometryUtils {
+
+    /**
+     * The number of array elements used by each region.
+     */
+    public static final int REGION_FIELDS_COUNT = 4;
+
+    private GeometryUtils() {}
+
+    /**
+     * @param x The X coordinate of the location.
+     * @param y The Y coordinate of the location.
+     * @return The location, packed into a single value.
+     */
+    public static long packLocation(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param packedLocation A location returned by {@link #packLocation}.
+     * @return The X coordinate of the location.
+     */
+    public static int getX(long packedLocation) {
+        return (int) (packedLocation >> 32);
+    }
+
+    /**
+     * @param packedLocation A location returned by {@link #packLocation}.
+     * @return The Y coordinate of the location.
+     */
+    public static int getY(long packedLocation) {
+        return (int) packedLocation;
+    }
+
+    /**
+     * @param packedLocation A location returned by {@link #packLocation}.
+     * @param dx             The X axis offset.
+     * @param dy             The Y axis offset.
+     * @return The offset location, packed.
+     */
+    public static long offsetLocation(long packedLocation, int dx, int dy) {
+        return packLocation(getX(packedLocation) + dx,
+                getY(packedLocation) + dy);
+    }
+
+    /**
+     * Divides a region into sub-regions, ordered by rows.
+     *
+     * @param left            The left coordinate of the region.
+     * @param top             The top coordinate of the region.
+     * @param width           The width of the region.
+     * @param height          The height of the region.
+     * @param subRegionWidth  The (maximum) width of each sub-region.
+     * @param subRegionHeight The (maximum) height of each sub-region.
+     * @param isFixedSize     If {@code false}, sub-regions at the right and
+     *                        bottom edges might be smaller (so there's no
+     *                        overlap of sub-regions). Otherwise, they're
+     *                        moved inwards, so all sub-regions have the
+     *                        same size but might overlap.
+     * @return The sub-regions, {@link #REGION_FIELDS_COUNT} elements per
+     * sub-region.
+     */
+    public static int[] getSubRegions(int left, int top, int width,
+                                      int height, int subRegionWidth,
+                                      int subRegionHeight,
+                                      boolean isFixedSize) {
+        ArgumentGuard.greaterThanOrEqualToZero(width, "width");
+        ArgumentGuard.greaterThanOrEqualToZero(height, "height");
+        ArgumentGuard.greaterThanZero(subRegionWidth, "subRegionWidth");
+        ArgumentGuard.greaterThanZero(subRegionHeight, "subRegionHeight");
+
+        if (isFixedSize) {
+            // Normalizing.
+            subRegionWidth = Math.min(subRegionWidth, width);
+            subRegionHeight = Math.min(subRegionHeight, height);
+            if (subRegionWidth == width && subRegionHeight == height) {
+                return new int[] {left, top, width, height};
+            }
+            if (subRegionWidth == 0 || subRegionHeight == 0) {
+                return new int[0];
+            }
+        }
+
+        int columnsCount = (width + subRegionWidth - 1) / subRegionWidth;
+        int rowsCount = (height + subRegionHeight - 1) / subRegionHeight;
+        int[] subRegions =
+                new int[columnsCount * rowsCount * REGION_FIELDS_COUNT];
+
+        int right = left + width;
+        int bottom = top + height;
+        int i = 0;
+        for (int row = 0; row < rowsCount; ++row) {
+            int currentTop = top + row * subRegionHeight;
+            int currentHeight = subRegionHeight;
+            if (currentTop + subRegionHeight > bottom) {
+                if (isFixedSize) {
+                    currentTop = bottom - subRegionHeight;
+                } else {
+                    currentHeight = bottom - currentTop;
+                }
+            }
+
+            for (int column = 0; column < columnsCount; ++column) {
+                int currentLeft = left + column * subRegionWidth;
+                int currentWidth = subRegionWidth;
+                if (currentLeft + subRegionWidth > right) {
+                    if (isFixedSize) {
+                        currentLeft = right - subRegionWidth;
+                    } else {
+                        currentWidth = right - currentLeft;
+                    }
+                }
+
+                subRegions[i++] = currentLeft;
+                subRegions[i++] = currentTop;
+                subRegions[i++] = currentWidth;
+                subRegions[i++] = currentHeight;
+            }
+        }
+        return subRegions;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Applitools software.
+ */
+package com.applitools.utils;
+
+import com.applitools.eyes.EyesException;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies images with an updated image type, converting large images by row
+ * bands in parallel. Each band is drawn with {@code Graphics2D}, so the
+ * result is identical to drawing the entire image at once.
+ */
+final class ImageBandsCopier {
+
+    // Images with at least this many pixels are converted in parallel.
+    private static final long PARALLEL_MIN_PIXELS = 1 << 20;
+
+    // Bands are not made smaller than this, so each task has enough work.
+    private static final int MIN_BAND_HEIGHT = 64;
+
+    private static volatile ExecutorService bandsExecutor;
+
+    private ImageBandsCopier() {}
+
+    /**
+     * @param src         The image to copy.
+     * @param updatedType The type of the copied image.
+     * @return A copy of the {@code src} of the requested type.
+     */
+    public static BufferedImage copy(BufferedImage src, int updatedType) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        BufferedImage result = new BufferedImage(width, height, updatedType);
+
+        int bandsCount = Math.min(height / MIN_BAND_HEIGHT,
+                Runtime.getRuntime().availableProcessors());
+        if (bandsCount < 2 || (long) width * height < PARALLEL_MIN_PIXELS) {
+            drawBand(src, result, 0, height);
+            return result;
+        }
+
+        ExecutorService executor = getBandsExecutor();
+        List<Future<Void>> bands = new ArrayList<Future<Void>>(bandsCount);
+        int bandHeight = (height + bandsCount - 1) / bandsCount;
+        // The calling thread draws the first band itself.
+        for (int top = bandHeight; top < height; top += bandHeight) {
+            bands.add(executor.submit(createBandTask(src, result, top,
+                    Math.min(height, top + bandHeight))));
+        }
+        drawBand(src, result, 0, bandHeight);
+
+        try {
+            for (Future<Void> band : bands) {
+                band.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<Void> band : bands) {
+                band.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new EyesException("Interrupted while copying image!", e);
+        } catch (ExecutionException e) {
+            throw new EyesException("Failed to copy image!", e.getCause());
+        }
+
+        return result;
+    }
+
+    private static Callable<Void> createBandTask(final BufferedImage src,
+                                                 final BufferedImage dst,
+                                                 final int top,
+                                                 final int bottom) {
+        return new Callable<Void>() {
+            public Void call() {
+                drawBand(src, dst, top, bottom);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Draws the rows {@code [top, bottom)} of {@code src} on {@code dst}.
+     */
+    private static void drawBand(BufferedImage src, BufferedImage dst,
+                                 int top, int bottom) {
+        int width = src.getWidth();
+        int height = bottom - top;
+        BufferedImage srcBand = (top == 0 && height == src.getHeight()) ?
+                src : src.getSubimage(0, top, width, height);
+        BufferedImage dstBand = (top == 0 && height == dst.getHeight()) ?
+                dst : dst.getSubimage(0, top, width, height);
+        Graphics2D g2 = dstBand.createGraphics();
+        g2.drawRenderedImage(srcBand, null);
+        g2.dispose();
+    }
+
+    private static ExecutorService getBandsExecutor() {
+        if (bandsExecutor == null) {
+            synchronized (ImageBandsCopier.class) {
+                if (bandsExecutor == null) {
+                    final AtomicInteger threadsCount = new AtomicInteger();
+                    bandsExecutor = Executors.newFixedThreadPool(
+                            Runtime.getRuntime().availableProcessors(),
+                            new ThreadFactory() {
+                                public Thread newThread(Runnable r) {
+                                    Thread t = new Thread(r,
+                                            "eyes-image-copier-" +
+                                            threadsCount.incrementAndGet());
+                                    t.setDaemon(true);
+                                    return t;
+                                }
+                            });
+                }
+            }
+        }
+        return bandsExecutor;
+    }
+}
@@ -0,0 +1,159 @@
+package com.applitools.utils;
+
+import com.applitools.eyes.ExactMatchSettings;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A local pixel comparison of images, following the semantics of
+ * {@link ExactMatchSettings}: pixels differ if the difference in any of
+ * their color channels is greater than the minimal diff intensity, and
+ * differing pixels are only counted if they belong to a diff region (a
+ * group of adjacent differing pixels) whose bounds are at least the minimal
+ * diff width and height. Images match if the ratio of counted pixels is not
+ * greater than the match threshold.
+ */
+public class ImageDiff {
+
+    private ImageDiff() {}
+
+    /**
+     * @param expected The expected image.
+     * @param actual   The actual image.
+     * @param settings The settings of the comparison, or {@code null} to
+     *                 count every differing pixel.
+     * @return The number of non-ignorable differing pixels, or {@code -1} if
+     * the images' sizes are different.
+     */
+    public static long getDiffPixelsCount(BufferedImage expected,
+                                          BufferedImage actual,
+                                          ExactMatchSettings settings) {
+        ArgumentGuard.notNull(expected, "expected");
+        ArgumentGuard.notNull(actual, "actual");
+
+        int width = expected.getWidth();
+        int height = expected.getHeight();
+        if (width != actual.getWidth() || height != actual.getHeight()) {
+            return -1;
+        }
+
+        int minDiffIntensity = 0, minDiffWidth = 0, minDiffHeight = 0;
+        if (settings != null) {
+            minDiffIntensity = settings.getMinDiffIntensity();
+            minDiffWidth = settings.getMinDiffWidth();
+            minDiffHeight = settings.getMinDiffHeight();
+        }
+
+        boolean[] diffs = new boolean[width * height];
+        int diffsCount = 0;
+        int[] expectedRow = new int[width];
+        int[] actualRow = new int[width];
+        for (int y = 0; y < height; ++y) {
+            expected.getRGB(0, y, width, 1, expectedRow, 0, width);
+            actual.getRGB(0, y, width, 1, actualRow, 0, width);
+            for (int x = 0; x < width; ++x) {
+                if (expectedRow[x] != actualRow[x] &&
+                        getIntensityDiff(expectedRow[x], actualRow[x])
+                                > minDiffIntensity) {
+                    diffs[y * width + x] = true;
+                    ++diffsCount;
+                }
+            }
+        }
+
+        if (diffsCount == 0 || (minDiffWidth <= 1 && minDiffHeight <= 1)) {
+            return diffsCount;
+        }
+        return countRegionsPixels(diffs, width, height, minDiffWidth,
+                minDiffHeight);
+    }
+
+    /**
+     * @param expected The expected image.
+     * @param actual   The actual image.
+     * @param settings The settings of the comparison, or {@code null} for an
+     *                 exact comparison.
+     * @return Whether the images match according to the settings.
+     */
+    public static boolean isMatch(BufferedImage expected, BufferedImage actual,
+                                  ExactMatchSettings settings) {
+        long diffPixelsCount = getDiffPixelsCount(expected, actual, settings);
+        if (diffPixelsCount < 0) {
+            return false;
+        }
+        float matchThreshold = settings != null ?
+                settings.getMatchThreshold() : 0;
+        long pixelsCount = (long) expected.getWidth() * expected.getHeight();
+        return diffPixelsCount <= matchThreshold * pixelsCount;
+    }
+
+    private static int getIntensityDiff(int argb1, int argb2) {
+        int redDiff =
+                Math.abs(((argb1 >> 16) & 0xFF) - ((argb2 >> 16) & 0xFF));
+        int greenDiff =
+                Math.abs(((argb1 >> 8) & 0xFF) - ((argb2 >> 8) & 0xFF));
+        int blueDiff = Math.abs((argb1 & 0xFF) - (argb2 & 0xFF));
+        return Math.max(redDiff, Math.max(greenDiff, blueDiff));
+    }
+
+    /**
+     * Finds the diff regions (8-connected groups of differing pixels).
+     *
+     * @return The number of pixels in regions which are at least
+     * {@code minWidth} x {@code minHeight}.
+     */
+    private static long countRegionsPixels(boolean[] diffs, int width,
+                                           int height, int minWidth,
+                                           int minHeight) {
+        long count = 0;
+        // Pixels waiting to be visited in the current region. A pixel is
+        // cleared from diffs when it's pushed, so it's pushed once.
+        int[] stack = new int[64];
+        for (int start = 0; start < diffs.length; ++start) {
+            if (!diffs[start]) {
+                continue;
+            }
+
+            int left = start % width, right = left;
+            int top = start / width, bottom = top;
+            int regionPixels = 0;
+            int stackSize = 0;
+            stack[stackSize++] = start;
+            diffs[start] = false;
+            while (stackSize > 0) {
+                int pixel = stack[--stackSize];
+                ++regionPixels;
+                int x = pixel % width;
+                int y = pixel / width;
+                left = Math.min(left, x);
+                right = Math.max(right, x);
+                top = Math.min(top, y);
+                bottom = Math.max(bottom, y);
+
+                for (int ny = Math.max(y - 1, 0);
+                     ny <= Math.min(y + 1, height - 1); ++ny) {
+                    for (int nx = Math.max(x - 1, 0);
+                         nx <= Math.min(x + 1, width - 1); ++nx) {
+                        int neighbor = ny * width + nx;
+                        if (diffs[neighbor]) {
+                            diffs[neighbor] = false;
+                            if (stackSize == stack.length) {
+                                int[] grown = new int[stack.length * 2];
+                                System.arraycopy(stack, 0, grown, 0,
+                                        stackSize);
+                                stack = grown;
+                            }
+                            stack[stackSize++] = neighbor;
+                        }
+                    }
+                }
+            }
+
+            if (right - left + 1 >= minWidth &&
+                    bottom - top + 1 >= minHeight) {
+                count += regionPixels;
+            }
+        }
+        return count;
+    }
+}
@@ -188,6 +188,26 @@ public class ImageUtils {
         return imageFromBytes(imagePartBytes);
     }
 
+    /**
+     * Get a view of the part of the image given by region. Unlike
+     * {@link #getImagePart(BufferedImage, Region)}, the pixel data is not
+     * copied, but shared with {@code image}, so the result should be treated
+     * as read-only, and must not be used where the raw data buffer is
+     * accessed directly (e.g., {@link ImageDeltaCompressor}).
+     *
+     * @param image The image from which to get the part.
+     * @param region The region of the image to view.
+     * @return A view of the part of the image.
+     */
+    public static BufferedImage getImagePartView(BufferedImage image,
+                                                 Region region) {
+        ArgumentGuard.notNull(image, "image");
+        ArgumentGuard.notNull(region, "region");
+
+        return image.getSubimage(region.getLeft(), region.getTop(),
+                region.getWidth(), region.getHeight());
+    }
+
     @SuppressWarnings("UnusedDeclaration")
     /**
      * Rotates an image by the given degrees.
@@ -245,12 +265,7 @@ public class ImageUtils {
     public static BufferedImage copyImageWithType(BufferedImage src,
                                                   int updatedType) {
         ArgumentGuard.notNull(src, "src");
-        BufferedImage result = new BufferedImage(src.getWidth(),
-                src.getHeight(), updatedType);
-        Graphics2D g2 = result.createGraphics();
-        g2.drawRenderedImage(src, null);
-        g2.dispose();
-        return result;
+        return ImageBandsCopier.copy(src, updatedType);
     }
 
     /**
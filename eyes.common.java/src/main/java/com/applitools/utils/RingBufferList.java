@@ -0,0 +1,101 @@
+package com.applitools.utils;
+
+import java.util.AbstractList;
+
+/**
+ * A list with a fixed capacity, to which elements can only be appended.
+ * When the list is full, appending an element drops the oldest one (i.e.,
+ * the element at index 0), so the list always holds the latest elements.
+ * Not thread safe.
+ */
+public class RingBufferList<T> extends AbstractList<T> {
+
+    private final Object[] elements;
+    // The position of the element at index 0 within "elements".
+    private int head;
+    private int size;
+    private int droppedCount;
+
+    /**
+     * @param capacity The maximum number of elements in the list.
+     */
+    public RingBufferList(int capacity) {
+        ArgumentGuard.greaterThanZero(capacity, "capacity");
+        elements = new Object[capacity];
+        head = 0;
+        size = 0;
+        droppedCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        return (T) elements[(head + index) % elements.length];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        T previous = get(index);
+        elements[(head + index) % elements.length] = element;
+        return previous;
+    }
+
+    /**
+     * Appends an element to the list, dropping the oldest element if the list
+     * is full. Elements can only be appended, so {@code index} must be the
+     * size of the list.
+     */
+    @Override
+    public void add(int index, T element) {
+        if (index != size) {
+            throw new UnsupportedOperationException(
+                    "Elements can only be appended!");
+        }
+        if (size == elements.length) {
+            elements[head] = element;
+            head = (head + 1) % elements.length;
+            ++droppedCount;
+        } else {
+            elements[(head + size) % elements.length] = element;
+            ++size;
+        }
+        ++modCount;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < elements.length; ++i) {
+            elements[i] = null;
+        }
+        head = 0;
+        size = 0;
+        ++modCount;
+    }
+
+    /**
+     * @return The maximum number of elements in the list.
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    /**
+     * @return The number of elements dropped because the list was full.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Index: %d, Size: %d", index, size));
+        }
+    }
+}
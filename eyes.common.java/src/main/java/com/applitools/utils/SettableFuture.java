@@ -0,0 +1,120 @@
+package com.applitools.utils;
+
+import com.applitools.eyes.TaskListener;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link Future} which is completed explicitly, e.g., by a task running on
+ * another thread. Since it is also a {@link TaskListener}, it can be passed
+ * directly to asynchronous methods. Only the first completion takes effect.
+ *
+ * @param <T> The type of the result.
+ */
+public class SettableFuture<T> implements Future<T>, TaskListener<T> {
+
+    private final CountDownLatch doneLatch = new CountDownLatch(1);
+    private boolean isDone;
+    private boolean isCancelled;
+    private T result;
+    private Throwable failure;
+
+    /**
+     * Completes the future successfully.
+     *
+     * @param result The result.
+     * @return {@code true} if the future was completed by this call,
+     * {@code false} if it was already completed.
+     */
+    public boolean set(T result) {
+        synchronized (this) {
+            if (isDone) {
+                return false;
+            }
+            this.result = result;
+            isDone = true;
+        }
+        doneLatch.countDown();
+        return true;
+    }
+
+    /**
+     * Completes the future with a failure.
+     *
+     * @param failure The reason for the failure.
+     * @return {@code true} if the future was completed by this call,
+     * {@code false} if it was already completed.
+     */
+    public boolean setException(Throwable failure) {
+        ArgumentGuard.notNull(failure, "failure");
+        synchronized (this) {
+            if (isDone) {
+                return false;
+            }
+            this.failure = failure;
+            isDone = true;
+        }
+        doneLatch.countDown();
+        return true;
+    }
+
+    public void onComplete(T result) {
+        set(result);
+    }
+
+    public void onFail(Throwable cause) {
+        setException(cause);
+    }
+
+    /**
+     * Marks the future as cancelled. The task completing it is not
+     * interrupted, but its result is ignored.
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (isDone) {
+                return false;
+            }
+            isCancelled = true;
+            isDone = true;
+        }
+        doneLatch.countDown();
+        return true;
+    }
+
+    public synchronized boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public synchronized boolean isDone() {
+        return isDone;
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        doneLatch.await();
+        return getResult();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException,
+            ExecutionException, TimeoutException {
+        if (!doneLatch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getResult();
+    }
+
+    private synchronized T getResult() throws ExecutionException {
+        if (isCancelled) {
+            throw new CancellationException();
+        }
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+        return result;
+    }
+}
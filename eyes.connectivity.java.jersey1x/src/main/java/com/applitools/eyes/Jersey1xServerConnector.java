@@ -5,7 +5,6 @@ package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
 
@@ -20,7 +19,8 @@ import java.util.*;
 /**
  * Provides an API for communication with the Applitools agent
  */
-class Jersey1xServerConnector extends RestClient implements ServerConnector {
+class Jersey1xServerConnector extends RestClient
+        implements RetryingServerConnector, AsyncServerConnector {
 
     private static final int TIMEOUT = 1000 * 60 * 5; // 5 Minutes
     private static final String API_PATH = "/api/sessions/running";
@@ -127,12 +127,10 @@ class Jersey1xServerConnector extends RestClient implements ServerConnector {
 
         try {
 
-            // since the web API requires a root property for this message
-            jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
-            postData = jsonMapper.writeValueAsString(sessionStartInfo);
-
-            // returning the root property addition back to false (default)
-            jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+            // The writer adds the root property the web API requires for
+            // this message.
+            postData = ServerJsonMappers.getSessionStartInfoWriter()
+                    .writeValueAsString(sessionStartInfo);
         } catch (IOException e) {
             throw new EyesException("Failed to convert " +
                     "sessionStartInfo into Json string!", e);
@@ -213,6 +211,28 @@ class Jersey1xServerConnector extends RestClient implements ServerConnector {
         return result;
     }
 
+    /**
+     * Stops the running session. This connector doesn't support polling on
+     * a shared scheduler, so the session is stopped on the calling thread.
+     *
+     * @param runningSession The running session to be stopped.
+     * @param listener Receives the TestResults object for the stopped running
+     *                 session, or the failure.
+     */
+    public void stopSessionAsync(final RunningSession runningSession,
+                                 final boolean isAborted, final boolean save,
+                                 TaskListener<TestResults> listener) {
+        ArgumentGuard.notNull(listener, "listener");
+        TestResults results;
+        try {
+            results = stopSession(runningSession, isAborted, save);
+        } catch (RuntimeException e) {
+            listener.onFail(e);
+            return;
+        }
+        listener.onComplete(results);
+    }
+
     /**
      * Matches the current window (held by the WebDriver) to the expected
      * window.
@@ -242,7 +262,8 @@ class Jersey1xServerConnector extends RestClient implements ServerConnector {
         // IMPORTANT This serializes everything EXCEPT for the screenshot (which
         // we'll add later).
         try {
-            jsonData = jsonMapper.writeValueAsString(matchData);
+            jsonData = ServerJsonMappers.getMatchWindowDataWriter()
+                    .writeValueAsString(matchData);
         } catch (IOException e) {
             throw new EyesException("Failed to serialize data for matchWindow!",
                     e);
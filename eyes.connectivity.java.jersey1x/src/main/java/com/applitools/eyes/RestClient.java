@@ -1,8 +1,6 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.WebResource;
@@ -28,14 +26,13 @@ class RestClient {
 
     private ProxySettings proxySettings;
     private int timeout; // seconds
+    private RetryPolicy retryPolicy;
 
     protected final Logger logger;
     protected Client restClient;
     protected URI serverUrl;
     protected WebResource endPoint;
 
-    // Used for JSON serialization/de-serialization.
-    protected ObjectMapper jsonMapper;
 
     /**
      * Internal class used for configuring a proxy, if needed.
@@ -91,11 +88,9 @@ class RestClient {
         ArgumentGuard.greaterThanOrEqualToZero(timeout, "timeout");
 
         this.logger = logger;
-        jsonMapper = new ObjectMapper();
-        jsonMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-                false);
         this.timeout = timeout;
         this.serverUrl = serverUrl;
+        retryPolicy = RetryPolicy.noRetries();
 
         restClient = buildRestClient(timeout, proxySettings);
         endPoint = restClient.resource(serverUrl);
@@ -156,6 +151,25 @@ class RestClient {
         return timeout;
     }
 
+    /**
+     * Sets the policy for retrying requests. This client sends each request
+     * once, so the policy is only kept for compatibility with the Jersey 2
+     * client.
+     *
+     * @param retryPolicy The retry policy to set.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        ArgumentGuard.notNull(retryPolicy, "retryPolicy");
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * @return The policy for retrying requests.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
 
     /**
      * Sets the current server URL used by the rest client.
@@ -263,7 +277,8 @@ class RestClient {
 
         // Parse data.
         try {
-            resultObject = jsonMapper.readValue(data, resultType);
+            resultObject = ServerJsonMappers.getReader(resultType)
+                    .readValue(data);
         } catch (IOException e) {
             String errorMessage = getReadResponseError(
                     "Failed to de-serialize response body",
@@ -0,0 +1,306 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HTTP clients used for communicating with the Eyes server. They are
+ * shared by all the connectors in the process: connectors with the same
+ * timeout and proxy settings use the same client, and therefore the same
+ * pool of keep-alive connections. The clients are kept until
+ * {@link #shutdown()} is called.
+ */
+public final class HttpConnectionPool {
+
+    public static final int DEFAULT_MAX_TOTAL = 200;
+    public static final int DEFAULT_MAX_PER_ROUTE = 64;
+    public static final long DEFAULT_CONNECTION_TIME_TO_LIVE =
+            5 * 60 * 1000; // Milliseconds
+    public static final long DEFAULT_MAX_IDLE_TIME = 30 * 1000; // Milliseconds
+
+    private static final long MIN_EVICTION_INTERVAL = 1000; // Milliseconds
+
+    /**
+     * The settings which identify a shared client. The proxy password is
+     * only kept as a hash, so it doesn't leak through the key.
+     */
+    private static class ClientKey {
+        private final int timeout;
+        private final String proxyUri;
+        private final String proxyUsername;
+        private final String proxyPasswordHash;
+
+        public ClientKey(int timeout, ProxySettings proxySettings) {
+            this.timeout = timeout;
+            if (proxySettings == null) {
+                proxyUri = null;
+                proxyUsername = null;
+                proxyPasswordHash = null;
+            } else {
+                proxyUri = proxySettings.getUri();
+                proxyUsername = proxySettings.getUsername();
+                proxyPasswordHash = proxySettings.getPassword() == null ?
+                        null :
+                        DigestUtils.sha256Hex(proxySettings.getPassword());
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey otherKey = (ClientKey) other;
+            return timeout == otherKey.timeout
+                    && equals(proxyUri, otherKey.proxyUri)
+                    && equals(proxyUsername, otherKey.proxyUsername)
+                    && equals(proxyPasswordHash, otherKey.proxyPasswordHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{timeout, proxyUri,
+                    proxyUsername, proxyPasswordHash});
+        }
+
+        private static boolean equals(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
+    /**
+     * A client along with the connection pool it uses.
+     */
+    private static class PooledClient {
+        private final Client client;
+        private final PoolingHttpClientConnectionManager connectionManager;
+
+        public PooledClient(Client client,
+                PoolingHttpClientConnectionManager connectionManager) {
+            this.client = client;
+            this.connectionManager = connectionManager;
+        }
+    }
+
+    private static int maxTotal = DEFAULT_MAX_TOTAL;
+    private static int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+    private static long connectionTimeToLive = DEFAULT_CONNECTION_TIME_TO_LIVE;
+    private static long maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+
+    // All the fields are guarded by the class's lock.
+    private static final Map<ClientKey, PooledClient> clients =
+            new HashMap<ClientKey, PooledClient>();
+    private static ScheduledExecutorService evictor;
+    private static ScheduledFuture<?> evictionTask;
+
+    private HttpConnectionPool() {}
+
+    /**
+     * Configures the connection pools. The connection limits apply to the
+     * existing pools as well, while the time to live only applies to
+     * connections of pools created afterwards (i.e., for new timeout/proxy
+     * settings), so it should be set before creating any Eyes instance.
+     *
+     * @param maxTotal             The maximum number of connections in each
+     *                             pool.
+     * @param maxPerRoute          The maximum number of connections to the
+     *                             same server in each pool.
+     * @param connectionTimeToLive The maximum time a connection is kept
+     *                             alive, or {@code 0} for no limit.
+     *                             (Milliseconds)
+     * @param maxIdleTime          The time after which idle connections are
+     *                             closed. (Milliseconds)
+     */
+    public static synchronized void configure(int maxTotal, int maxPerRoute,
+            long connectionTimeToLive, long maxIdleTime) {
+        ArgumentGuard.greaterThanZero(maxTotal, "maxTotal");
+        ArgumentGuard.greaterThanZero(maxPerRoute, "maxPerRoute");
+        ArgumentGuard.greaterThanOrEqualToZero(connectionTimeToLive,
+                "connectionTimeToLive");
+        ArgumentGuard.greaterThanZero(maxIdleTime, "maxIdleTime");
+
+        HttpConnectionPool.maxTotal = maxTotal;
+        HttpConnectionPool.maxPerRoute = maxPerRoute;
+        HttpConnectionPool.connectionTimeToLive = connectionTimeToLive;
+        boolean isMaxIdleTimeChanged =
+                HttpConnectionPool.maxIdleTime != maxIdleTime;
+        HttpConnectionPool.maxIdleTime = maxIdleTime;
+
+        for (PooledClient pooledClient : clients.values()) {
+            pooledClient.connectionManager.setMaxTotal(maxTotal);
+            pooledClient.connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        }
+
+        if (isMaxIdleTimeChanged && evictionTask != null) {
+            scheduleEviction();
+        }
+    }
+
+    /**
+     * Closes all the shared clients and their connections, and stops the
+     * thread which closes idle connections. Connectors created before the
+     * call can't be used afterwards, so it should only be called when done
+     * with Eyes (e.g., when an application which used Eyes is unloaded).
+     * Connectors created afterwards use new clients.
+     */
+    public static synchronized void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+            evictionTask = null;
+        }
+        for (PooledClient pooledClient : clients.values()) {
+            pooledClient.client.close();
+            pooledClient.connectionManager.shutdown();
+        }
+        clients.clear();
+    }
+
+    /**
+     * @return The statistics of all the connection pools combined: the
+     * number of leased, pending and available connections, and the maximum
+     * number of connections.
+     */
+    public static synchronized PoolStats getStatistics() {
+        int leased = 0, pending = 0, available = 0, max = 0;
+        for (PooledClient pooledClient : clients.values()) {
+            PoolStats stats = pooledClient.connectionManager.getTotalStats();
+            leased += stats.getLeased();
+            pending += stats.getPending();
+            available += stats.getAvailable();
+            max += stats.getMax();
+        }
+        return new PoolStats(leased, pending, available, max);
+    }
+
+    /**
+     * @return The number of connection pools (i.e., of distinct timeout and
+     * proxy settings in use).
+     */
+    public static synchronized int getPoolsCount() {
+        return clients.size();
+    }
+
+    /**
+     * @param timeout       Connect/Read timeout in milliseconds. 0 equals
+     *                      infinity.
+     * @param proxySettings (optional) Setting for communicating via proxy.
+     * @return The shared client for the given settings.
+     */
+    static synchronized Client getClient(int timeout,
+                                         ProxySettings proxySettings) {
+        ClientKey key = new ClientKey(timeout, proxySettings);
+        PooledClient pooledClient = clients.get(key);
+        if (pooledClient == null) {
+            PoolingHttpClientConnectionManager connectionManager =
+                    new PoolingHttpClientConnectionManager(
+                            connectionTimeToLive > 0 ?
+                                    connectionTimeToLive : -1,
+                            TimeUnit.MILLISECONDS);
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+            pooledClient = new PooledClient(
+                    buildClient(timeout, proxySettings, connectionManager),
+                    connectionManager);
+            clients.put(key, pooledClient);
+            if (evictionTask == null) {
+                scheduleEviction();
+            }
+        }
+        return pooledClient.client;
+    }
+
+    /**
+     *
+     * @param timeout Connect/Read timeout in milliseconds. 0 equals infinity.
+     * @param proxySettings (optional) Setting for communicating via proxy.
+     * @param connectionManager The connection pool for the client to use.
+     */
+    private static Client buildClient(int timeout,
+            ProxySettings proxySettings,
+            PoolingHttpClientConnectionManager connectionManager) {
+        // Creating the client configuration
+        ClientConfig cc = new ClientConfig();
+        cc.property(ClientProperties.CONNECT_TIMEOUT, timeout);
+        cc.property(ClientProperties.READ_TIMEOUT, timeout);
+        if (proxySettings != null) {
+            // URI is mandatory.
+            cc = cc.property(ClientProperties.PROXY_URI,
+                    proxySettings.getUri());
+            // username/password are optional
+            if (proxySettings.getUsername() != null) {
+                cc = cc.property(ClientProperties.PROXY_USERNAME,
+                        proxySettings.getUsername());
+            }
+            if (proxySettings.getPassword() != null) {
+                cc = cc.property(ClientProperties.PROXY_PASSWORD,
+                        proxySettings.getPassword());
+            }
+        }
+
+        // This tells the connector NOT to use "chunked encoding" ,
+        // since Eyes server does not handle it.
+        cc.property(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                RequestEntityProcessing.BUFFERED);
+        cc.property(ApacheClientProperties.CONNECTION_MANAGER,
+                connectionManager);
+        // We must use the Apache connector, since Jersey's default connector
+        // does not support proxy settings.
+        cc.connectorProvider(new ApacheConnectorProvider());
+
+        return ClientBuilder.newBuilder().withConfig(cc).build();
+    }
+
+    /**
+     * (Re)schedules the closing of expired and idle connections according
+     * to the current max idle time, starting the evictor thread if needed.
+     * Must be called while holding the class's lock.
+     */
+    private static void scheduleEviction() {
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "eyes-http-evictor");
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+        }
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+        }
+        long interval = Math.max(MIN_EVICTION_INTERVAL, maxIdleTime / 2);
+        evictionTask = evictor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                evictConnections();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void evictConnections() {
+        for (PooledClient pooledClient : clients.values()) {
+            pooledClient.connectionManager.closeExpiredConnections();
+            pooledClient.connectionManager.closeIdleConnections(maxIdleTime,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+}
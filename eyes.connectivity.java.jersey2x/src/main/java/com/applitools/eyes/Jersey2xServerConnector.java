@@ -5,7 +5,6 @@ package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.GeneralUtils;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.codec.binary.Base64;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -21,7 +20,8 @@ import java.util.*;
 /**
  * Provides an API for communication with the Applitools agent
  */
-class Jersey2xServerConnector extends RestClient implements ServerConnector {
+class Jersey2xServerConnector extends RestClient
+        implements RetryingServerConnector, AsyncServerConnector {
 
     private static final int TIMEOUT = 1000 * 60 * 5; // 5 Minutes
     private static final String API_PATH = "/api/sessions/running";
@@ -129,21 +129,25 @@ class Jersey2xServerConnector extends RestClient implements ServerConnector {
 
         try {
 
-            // since the web API requires a root property for this message
-            jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
-            postData = jsonMapper.writeValueAsString(sessionStartInfo);
-
-            // returning the root property addition back to false (default)
-            jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+            // The writer adds the root property the web API requires for
+            // this message.
+            postData = ServerJsonMappers.getSessionStartInfoWriter()
+                    .writeValueAsString(sessionStartInfo);
         } catch (IOException e) {
             throw new EyesException("Failed to convert " +
                     "sessionStartInfo into Json string!", e);
         }
 
+        // The request is re-sent as is in case of a transient failure.
+        final Entity<String> entity = Entity.json(postData);
         try {
-            response = endPoint.queryParam("apiKey", apiKey).
-                    request(MediaType.APPLICATION_JSON).
-                    post(Entity.json(postData));
+            response = sendWithRetry(new HttpMethodCall() {
+                public Response call() {
+                    return endPoint.queryParam("apiKey", apiKey).
+                            request(MediaType.APPLICATION_JSON).
+                            post(entity);
+                }
+            }, "startSession");
         } catch (RuntimeException e) {
             logger.log("Server request failed: " + e.getMessage());
             throw e;
@@ -166,24 +170,15 @@ class Jersey2xServerConnector extends RestClient implements ServerConnector {
     }
 
     /**
-     * Stops the running session.
-     *
-     * @param runningSession The running session to be stopped.
-     * @return TestResults object for the stopped running session
-     * @throws EyesException
+     * @return The request for stopping the running session.
      */
-    public TestResults stopSession(final RunningSession runningSession,
-                                   final boolean isAborted, final boolean save)
-            throws EyesException {
-
-        ArgumentGuard.notNull(runningSession, "runningSession");
+    private HttpMethodCall createStopSessionCall(
+            final RunningSession runningSession, final boolean isAborted,
+            final boolean save) {
 
         final String sessionId = runningSession.getId();
-        Response response;
-        List<Integer> validStatusCodes;
-        TestResults result;
 
-        HttpMethodCall delete = new HttpMethodCall() {
+        return new HttpMethodCall() {
             public Response call() {
 
                 String currentTime = GeneralUtils.toRfc1123(
@@ -202,16 +197,58 @@ class Jersey2xServerConnector extends RestClient implements ServerConnector {
                 return invocationBuilder.delete();
             }
         };
+    }
 
-        response = sendLongRequest(delete, "stopSession");
-
+    private TestResults parseStopSessionResponse(Response response) {
         // Ok, let's create the running session from the response
-        validStatusCodes = new ArrayList<Integer>();
+        List<Integer> validStatusCodes = new ArrayList<Integer>();
         validStatusCodes.add(Response.Status.OK.getStatusCode());
 
-        result = parseResponseWithJsonData(response, validStatusCodes,
+        return parseResponseWithJsonData(response, validStatusCodes,
                 TestResults.class);
-        return result;
+    }
+
+    /**
+     * Stops the running session.
+     *
+     * @param runningSession The running session to be stopped.
+     * @return TestResults object for the stopped running session
+     * @throws EyesException
+     */
+    public TestResults stopSession(final RunningSession runningSession,
+                                   final boolean isAborted, final boolean save)
+            throws EyesException {
+
+        ArgumentGuard.notNull(runningSession, "runningSession");
+
+        Response response = sendLongRequest(
+                createStopSessionCall(runningSession, isAborted, save),
+                "stopSession");
+
+        return parseStopSessionResponse(response);
+    }
+
+    /**
+     * Stops the running session without blocking the calling thread.
+     *
+     * @param runningSession The running session to be stopped.
+     * @param listener Receives the TestResults object for the stopped running
+     *                 session, or the failure.
+     */
+    public void stopSessionAsync(final RunningSession runningSession,
+                                 final boolean isAborted, final boolean save,
+                                 TaskListener<TestResults> listener) {
+
+        ArgumentGuard.notNull(runningSession, "runningSession");
+        ArgumentGuard.notNull(listener, "listener");
+
+        sendLongRequestAsync(
+                createStopSessionCall(runningSession, isAborted, save),
+                "stopSessionAsync", new ResponseHandler<TestResults>() {
+                    public TestResults handle(Response response) {
+                        return parseStopSessionResponse(response);
+                    }
+                }, listener);
     }
 
     /**
@@ -233,17 +270,52 @@ class Jersey2xServerConnector extends RestClient implements ServerConnector {
         Response response;
         List<Integer> validStatusCodes;
         MatchResult result;
-        String jsonData;
 
         // since we rather not add an empty "tag" param
-        WebTarget runningSessionsEndpoint =
+        final WebTarget runningSessionsEndpoint =
                 endPoint.path(runningSession.getId());
 
+        byte[] requestData = createMatchWindowRequestData(matchData);
+
+        // Sending the request. In case of a transient failure the same
+        // request data is re-sent, rather than serialized again.
+        final Entity<byte[]> entity = Entity.entity(requestData,
+                MediaType.APPLICATION_OCTET_STREAM);
+        response = sendWithRetry(new HttpMethodCall() {
+            public Response call() {
+                return runningSessionsEndpoint.queryParam("apiKey", apiKey).
+                        request(MediaType.APPLICATION_JSON).
+                        post(entity);
+            }
+        }, "matchWindow");
+
+        // Ok, let's create the running session from the response
+        validStatusCodes = new ArrayList<Integer>(1);
+        validStatusCodes.add(Response.Status.OK.getStatusCode());
+
+        result = parseResponseWithJsonData(response, validStatusCodes,
+                MatchResult.class);
+
+        return result;
+
+    }
+
+    /**
+     * Builds the data of a match window request: the length of the JSON
+     * serialized match data, the JSON itself, and the screenshot's bytes.
+     *
+     * @param matchData The match data to send.
+     * @return The request data.
+     */
+    byte[] createMatchWindowRequestData(MatchWindowData matchData) {
+        String jsonData;
+
         // Serializing data into JSON (we'll treat it as binary later).
         // IMPORTANT This serializes everything EXCEPT for the screenshot (which
         // we'll add later).
         try {
-            jsonData = jsonMapper.writeValueAsString(matchData);
+            jsonData = ServerJsonMappers.getMatchWindowDataWriter()
+                    .writeValueAsString(matchData);
         } catch (IOException e) {
             throw new EyesException("Failed to serialize data for matchWindow!",
                                     e);
@@ -286,20 +358,6 @@ class Jersey2xServerConnector extends RestClient implements ServerConnector {
             throw new EyesException("Failed send check window request!", e);
         }
 
-        // Sending the request
-        response = runningSessionsEndpoint.queryParam("apiKey", apiKey).
-                request(MediaType.APPLICATION_JSON).
-                post(Entity.entity(requestData,
-                        MediaType.APPLICATION_OCTET_STREAM));
-
-        // Ok, let's create the running session from the response
-        validStatusCodes = new ArrayList<Integer>(1);
-        validStatusCodes.add(Response.Status.OK.getStatusCode());
-
-        result = parseResponseWithJsonData(response, validStatusCodes,
-                MatchResult.class);
-
-        return result;
-
+        return requestData;
     }
 }
@@ -1,20 +1,27 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
-import org.glassfish.jersey.client.ClientConfig;
-import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.client.RequestEntityProcessing;
+import com.applitools.utils.CircuitBreaker;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.net.SocketException;
 import java.net.URI;
+import java.net.UnknownHostException;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provides common rest client functionality.
@@ -29,52 +36,48 @@ class RestClient {
         Response call();
     }
 
+    /**
+     * An interface used as base for anonymous classes converting the final
+     * response of a long request into its result.
+     */
+    protected interface ResponseHandler<T> {
+        T handle(Response response);
+    }
+
+    // The number of threads polling long requests for all the rest clients.
+    private static final int LONG_REQUEST_THREADS = 4;
+    private static final int LONG_REQUEST_INITIAL_DELAY = 2000; // ms
+    private static final int LONG_REQUEST_MAX_DELAY = 10000; // ms
+
+    private static ScheduledExecutorService longRequestScheduler;
+
+    // Shared by all the rest clients of the same server, so that once the
+    // server is considered down, no client keeps sending it requests.
+    private static final ConcurrentMap<String, CircuitBreaker>
+            circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+
+    private static final Random retryJitter = new Random();
+
     private ProxySettings proxySettings;
     private int timeout; // seconds
+    private RetryPolicy retryPolicy;
+    private CircuitBreaker circuitBreaker;
 
     protected final Logger logger;
     protected Client restClient;
     protected URI serverUrl;
     protected WebTarget endPoint;
 
-    // Used for JSON serialization/de-serialization.
-    protected ObjectMapper jsonMapper;
 
     /**
      *
      * @param timeout Connect/Read timeout in milliseconds. 0 equals infinity.
      * @param proxySettings (optional) Setting for communicating via proxy.
+     * @return The client shared by all rest clients with the same settings.
      */
     private static Client buildRestClient(int timeout,
                                       ProxySettings proxySettings) {
-        // Creating the client configuration
-        ClientConfig cc = new ClientConfig();
-        cc.property(ClientProperties.CONNECT_TIMEOUT, timeout);
-        cc.property(ClientProperties.READ_TIMEOUT, timeout);
-        if (proxySettings != null) {
-            // URI is mandatory.
-            cc = cc.property(ClientProperties.PROXY_URI,
-                    proxySettings.getUri());
-            // username/password are optional
-            if (proxySettings.getUsername() != null) {
-                cc = cc.property(ClientProperties.PROXY_USERNAME,
-                        proxySettings.getUsername());
-            }
-            if (proxySettings.getPassword() != null) {
-                cc = cc.property(ClientProperties.PROXY_PASSWORD,
-                        proxySettings.getPassword());
-            }
-        }
-
-        // This tells the connector NOT to use "chunked encoding" ,
-        // since Eyes server does not handle it.
-        cc.property(ClientProperties.REQUEST_ENTITY_PROCESSING,
-                RequestEntityProcessing.BUFFERED);
-        // We must use the Apache connector, since Jersey's default connector
-        // does not support proxy settings.
-        cc.connectorProvider(new ApacheConnectorProvider());
-
-        return ClientBuilder.newBuilder().withConfig(cc).build();
+        return HttpConnectionPool.getClient(timeout, proxySettings);
     }
 
     /***
@@ -87,11 +90,10 @@ class RestClient {
         ArgumentGuard.greaterThanOrEqualToZero(timeout, "timeout");
 
         this.logger = logger;
-        jsonMapper = new ObjectMapper();
-        jsonMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-                false);
         this.timeout = timeout;
         this.serverUrl = serverUrl;
+        retryPolicy = new RetryPolicy();
+        circuitBreaker = getCircuitBreaker(serverUrl, retryPolicy);
 
         restClient = buildRestClient(timeout, proxySettings);
         endPoint = restClient.target(serverUrl);
@@ -161,6 +163,7 @@ class RestClient {
     protected void setServerUrlBase(URI serverUrl) {
         ArgumentGuard.notNull(serverUrl, "serverUrl");
         this.serverUrl = serverUrl;
+        circuitBreaker = getCircuitBreaker(serverUrl, retryPolicy);
 
         endPoint = restClient.target(serverUrl);
     }
@@ -173,12 +176,172 @@ class RestClient {
         return serverUrl;
     }
 
+    /**
+     * Sets the policy for retrying requests which failed due to transient
+     * errors.
+     *
+     * @param retryPolicy The retry policy to set.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        ArgumentGuard.notNull(retryPolicy, "retryPolicy");
+        this.retryPolicy = retryPolicy;
+        circuitBreaker = getCircuitBreaker(serverUrl, retryPolicy);
+    }
+
+    /**
+     * @return The policy for retrying requests.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return The circuit breaker shared by the clients of the given server
+     * which use the same circuit breaker settings.
+     */
+    private static CircuitBreaker getCircuitBreaker(URI serverUrl,
+                                                    RetryPolicy retryPolicy) {
+        String key = serverUrl + "|" +
+                retryPolicy.getCircuitBreakerThreshold() + "|" +
+                retryPolicy.getCircuitBreakerOpenTime();
+        CircuitBreaker circuitBreaker = circuitBreakers.get(key);
+        if (circuitBreaker == null) {
+            circuitBreaker = new CircuitBreaker(
+                    retryPolicy.getCircuitBreakerThreshold(),
+                    retryPolicy.getCircuitBreakerOpenTime());
+            CircuitBreaker existing =
+                    circuitBreakers.putIfAbsent(key, circuitBreaker);
+            if (existing != null) {
+                circuitBreaker = existing;
+            }
+        }
+        return circuitBreaker;
+    }
+
+    /**
+     * Sends a request, and re-sends it according to the retry policy if it
+     * failed due to a transient error before the server answered it: a
+     * failure to connect to the server (e.g., the connection was refused or
+     * the connect timeout expired), a connection which broke before any of
+     * the response arrived (e.g., a broken pipe while the request's data
+     * was still being written, or a connection reset), or a "503 Service
+     * Unavailable" response. Other failures (e.g., a read timeout, or a
+     * "502 Bad Gateway" or "504 Gateway Timeout" response) are not retried,
+     * since the server might still be processing the request, and requests
+     * such as matchWindow are not idempotent. Since {@code method} is called
+     * for each attempt, it should hold the request's (already serialized)
+     * data rather than build it.
+     *
+     * @param method The request to send.
+     * @param name   The name of the request, for logging.
+     * @return The response of the last attempt.
+     * @throws EyesException If the server is considered down, or if the
+     *                       last attempt failed to get a response.
+     */
+    protected Response sendWithRetry(HttpMethodCall method, String name)
+            throws EyesException {
+        // Making sure we use the same policy for all the attempts.
+        RetryPolicy retryPolicy = this.retryPolicy;
+        CircuitBreaker circuitBreaker = this.circuitBreaker;
+
+        int attempt = 1;
+        while (true) {
+            if (!circuitBreaker.allowRequest()) {
+                String errMsg = String.format(
+                        "%s: Eyes server at '%s' is unavailable due to " +
+                                "previous failures", name, serverUrl);
+                logger.log(errMsg);
+                throw new EyesException(errMsg);
+            }
+
+            Response response = null;
+            ProcessingException failure = null;
+            try {
+                response = method.call();
+            } catch (ProcessingException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                // Otherwise a failed trial call would keep the breaker open.
+                circuitBreaker.onFailure();
+                throw e;
+            }
+
+            if (failure == null && !isTransientFailure(response)) {
+                circuitBreaker.onSuccess();
+                return response;
+            }
+
+            circuitBreaker.onFailure();
+            boolean isRetryable = failure == null || isNotAnswered(failure);
+            if (attempt >= retryPolicy.getMaxAttempts() || !isRetryable) {
+                if (failure != null) {
+                    logger.log(String.format("%s: Server request failed: %s",
+                            name, failure.getMessage()));
+                    throw new EyesException(name + " failed!", failure);
+                }
+                return response;
+            }
+
+            String reason;
+            if (failure != null) {
+                reason = failure.getMessage();
+            } else {
+                reason = String.valueOf(response.getStatus());
+                // We must release the response, or the connection stays open.
+                response.close();
+            }
+            long delay = retryPolicy.getDelay(attempt, retryJitter);
+            logger.log(String.format(
+                    "%s: Attempt %d failed (%s). Retrying in %d ms", name,
+                    attempt, reason, delay));
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                throw new EyesException("Request retry interrupted!", e);
+            }
+            ++attempt;
+        }
+    }
+
+    private static boolean isTransientFailure(Response response) {
+        return response.getStatus() ==
+                Response.Status.SERVICE_UNAVAILABLE.getStatusCode();
+    }
+
+    /**
+     * @param failure The failure of a request.
+     * @return Whether the request failed before any of the response
+     * arrived. This is the case if the connection to the server couldn't be
+     * established (a connect timeout is reported as a
+     * {@link ConnectTimeoutException}, which, unlike a read timeout, means
+     * nothing was sent), or if the connection broke (e.g., a broken pipe or
+     * a connection reset) before the response's status line was read, since
+     * that is when {@link HttpMethodCall#call()} returns.
+     */
+    private static boolean isNotAnswered(ProcessingException failure) {
+        // ConnectException and NoRouteToHostException are SocketExceptions.
+        return isCausedBy(failure, SocketException.class)
+                || isCausedBy(failure, NoHttpResponseException.class)
+                || isCausedBy(failure, ConnectTimeoutException.class)
+                || isCausedBy(failure, UnknownHostException.class);
+    }
+
+    private static boolean isCausedBy(Throwable e,
+                                      Class<? extends Throwable> causeType) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (causeType.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected Response sendLongRequest(HttpMethodCall method, String name)
             throws EyesException {
 
         // Adding the long request headers
-        int maxDelay = 10000;
-        int delay = 2000;  // milliseconds
+        int maxDelay = LONG_REQUEST_MAX_DELAY;
+        int delay = LONG_REQUEST_INITIAL_DELAY;  // milliseconds
         Response response;
         while (true) {
             response = method.call();
@@ -206,6 +369,103 @@ class RestClient {
     }
 
 
+    /**
+     * Same as {@link #sendLongRequest(HttpMethodCall, String)}, except that
+     * the request is sent and polled on a scheduler shared by all the rest
+     * clients, so no thread is blocked while waiting between the polls.
+     *
+     * @param method   The request to send (and re-send while the server
+     *                 responds with "202 Accepted").
+     * @param name     The name of the request, for logging.
+     * @param handler  Converts the final response into the result.
+     * @param listener Receives the result or the failure, on a scheduler
+     *                 thread.
+     */
+    protected <T> void sendLongRequestAsync(final HttpMethodCall method,
+            final String name, final ResponseHandler<T> handler,
+            final TaskListener<T> listener) {
+        ArgumentGuard.notNull(method, "method");
+        ArgumentGuard.notNull(handler, "handler");
+        ArgumentGuard.notNull(listener, "listener");
+
+        getLongRequestScheduler().execute(new LongRequestPoll<T>(method,
+                name, handler, listener, LONG_REQUEST_INITIAL_DELAY));
+    }
+
+    /**
+     * A single poll of a long request started by
+     * {@link #sendLongRequestAsync}. If the request is still running, the
+     * next poll is scheduled as a new instance with a longer delay, so a
+     * poll's state is never modified after it's scheduled.
+     *
+     * @param <T> The type of the result.
+     */
+    private class LongRequestPoll<T> implements Runnable {
+        private final HttpMethodCall method;
+        private final String name;
+        private final ResponseHandler<T> handler;
+        private final TaskListener<T> listener;
+        private final int delay;
+
+        /**
+         * @param delay The delay before the next poll, if the request is
+         *              still running. (Milliseconds)
+         */
+        public LongRequestPoll(HttpMethodCall method, String name,
+                               ResponseHandler<T> handler,
+                               TaskListener<T> listener, int delay) {
+            this.method = method;
+            this.name = name;
+            this.handler = handler;
+            this.listener = listener;
+            this.delay = delay;
+        }
+
+        public void run() {
+            T result;
+            try {
+                Response response = method.call();
+                if (response.getStatus() == 202) {
+                    // We must release the response, or the connection stays
+                    // open.
+                    response.close();
+                    logger.verbose(String.format(
+                            "%s: Still running... Retrying in %d ms", name,
+                            delay));
+                    int nextDelay = Math.min(LONG_REQUEST_MAX_DELAY,
+                            (int) Math.floor(delay * 1.5));
+                    getLongRequestScheduler().schedule(
+                            new LongRequestPoll<T>(method, name, handler,
+                                    listener, nextDelay),
+                            delay, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                result = handler.handle(response);
+            } catch (Throwable e) {
+                listener.onFail(e);
+                return;
+            }
+            listener.onComplete(result);
+        }
+    }
+
+    private static synchronized ScheduledExecutorService
+    getLongRequestScheduler() {
+        if (longRequestScheduler == null) {
+            final AtomicInteger threadsCount = new AtomicInteger();
+            longRequestScheduler = Executors.newScheduledThreadPool(
+                    LONG_REQUEST_THREADS, new ThreadFactory() {
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "eyes-long-request-" +
+                                    threadsCount.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    });
+        }
+        return longRequestScheduler;
+    }
+
     /**
      * Builds an error message which includes the response http status etc.
      */
@@ -259,7 +519,8 @@ class RestClient {
 
         // Parse data.
         try {
-            resultObject = jsonMapper.readValue(data, resultType);
+            resultObject = ServerJsonMappers.getReader(resultType)
+                    .readValue(data);
         } catch (IOException e) {
             String errorMessage = getReadResponseError(
                     "Failed to de-serialize response body",
@@ -11,9 +11,12 @@ public class ServerConnectorFactory {
      * @param logger A logger instance.
      * @param sdkName An identifier for the current agent. Can be any string.
      * @param serverUrl The URI of the Eyes server.
+     * @return The server connector, or an offline connector if configured by
+     * the system properties (see {@link OfflineServerConnector}).
      */
     static ServerConnector create(Logger logger, String sdkName, URI
             serverUrl) {
-        return new Jersey2xServerConnector(logger, sdkName, serverUrl);
+        return OfflineServerConnector.fromSystemProperties(logger,
+                new Jersey2xServerConnector(logger, sdkName, serverUrl));
     }
 }
@@ -5,15 +5,38 @@ package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
 import com.applitools.utils.ImageUtils;
+import org.apache.commons.codec.binary.Base64;
 
+import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 public class Eyes extends EyesBase {
 
+    // The default memory budget of the batch checks' images.
+    private static final long DEFAULT_MAX_IMAGE_BYTES_IN_MEMORY =
+            256L * 1024 * 1024;
+
     private String title;
     private EyesImagesScreenshot screenshot;
     private String inferred;
+    private int batchThreadsCount;
+    private ExecutorService batchExecutor;
+    private long maxImageBytesInMemory;
+    private ImageFileManifest imageFileManifest;
 
     /**
      * Creates a new (possibly disabled) Eyes instance that interacts
@@ -23,6 +46,21 @@ public class Eyes extends EyesBase {
      */
     public Eyes(URI serverUrl) {
         super(serverUrl);
+        batchThreadsCount = Runtime.getRuntime().availableProcessors();
+        maxImageBytesInMemory = DEFAULT_MAX_IMAGE_BYTES_IN_MEMORY;
+    }
+
+    /**
+     * Creates a new (possibly disabled) Eyes instance that interacts
+     * with the Eyes Server using the given server connector, e.g., the
+     * shared connector of an {@link EyesRunner}.
+     *
+     * @param serverConnector The server connector to use.
+     */
+    public Eyes(ServerConnector serverConnector) {
+        super(serverConnector);
+        batchThreadsCount = Runtime.getRuntime().availableProcessors();
+        maxImageBytesInMemory = DEFAULT_MAX_IMAGE_BYTES_IN_MEMORY;
     }
 
     /**
@@ -177,6 +215,12 @@ public class Eyes extends EyesBase {
     /**
      * Matches the image stored in the input file with the next expected image.
      * See {@link #checkImage(BufferedImage, String, boolean)}.
+     * <p>
+     * If an image file manifest is set (see
+     * {@link #setImageFileManifest(ImageFileManifest)}), the image is matched
+     * once, as in {@link #checkImages(Iterator, boolean)}, instead of being
+     * retried until the match timeout. Since the image doesn't change,
+     * retrying can't change the result.
      *
      * @param path The base64 representation of the image's raw bytes.
      * @param tag An optional tag to be associated with the validation
@@ -187,7 +231,26 @@ public class Eyes extends EyesBase {
      */
     public boolean checkImage(String path, String tag,
                               boolean ignoreMismatch) {
-        return checkImage(ImageUtils.imageFromFile(path), tag, ignoreMismatch);
+        if (imageFileManifest == null) {
+            return checkImage(ImageUtils.imageFromFile(path), tag,
+                    ignoreMismatch);
+        }
+
+        if (getIsDisabled()) {
+            logger.verbose(String.format(
+                    "CheckImage(path, '%s', %b): Ignored", tag,
+                    ignoreMismatch));
+            return false;
+        }
+        ArgumentGuard.notNull(path, "path");
+
+        logger.verbose(String.format("CheckImage(path, '%s', %b)",
+                tag, ignoreMismatch));
+
+        String checkpointTag = (tag != null) ? tag : "";
+        return checkPreparedAppOutput(
+                prepareImageFileOutput(new File(path), checkpointTag),
+                checkpointTag, ignoreMismatch);
     }
 
     @SuppressWarnings("UnusedDeclaration")
@@ -235,6 +298,405 @@ public class Eyes extends EyesBase {
                 ignoreMismatch);
     }
 
+    /**
+     * Sets a manifest of previously checked image files. When set, image
+     * files (e.g., {@link #checkImage(String)} and
+     * {@link #checkImageFiles(Iterable)}) whose content is found in the
+     * manifest are checked using the encoded image stored in the manifest,
+     * without decoding and re-encoding them. Other image files are added to
+     * the manifest. Image files checked with a manifest are matched once,
+     * as in {@link #checkImages(Iterator, boolean)}.
+     *
+     * @param manifest The manifest to use, or {@code null} to disable it.
+     */
+    public void setImageFileManifest(ImageFileManifest manifest) {
+        imageFileManifest = manifest;
+    }
+
+    /**
+     * @return The manifest of previously checked image files, or
+     * {@code null} if not set.
+     */
+    public ImageFileManifest getImageFileManifest() {
+        return imageFileManifest;
+    }
+
+    /**
+     * @param threadsCount The number of threads used by the batch checks
+     *                     (e.g., {@link #checkImageFiles(Iterable)}) for
+     *                     decoding and compressing images.
+     */
+    public synchronized void setBatchThreadsCount(int threadsCount) {
+        ArgumentGuard.greaterThanZero(threadsCount, "threadsCount");
+        batchThreadsCount = threadsCount;
+        if (batchExecutor != null) {
+            // Tasks already submitted still run.
+            batchExecutor.shutdown();
+            batchExecutor = null;
+        }
+    }
+
+    /**
+     * @return The number of threads used by the batch checks for decoding
+     * and compressing images.
+     */
+    public int getBatchThreadsCount() {
+        return batchThreadsCount;
+    }
+
+    /**
+     * @return The executor used by the batch checks. Its threads are daemon
+     * threads which terminate when idle, so it's never shut down.
+     */
+    private synchronized ExecutorService getBatchExecutor() {
+        if (batchExecutor == null) {
+            batchExecutor = EyesExecutors.newBoundedExecutor("eyes-images",
+                    batchThreadsCount, false);
+        }
+        return batchExecutor;
+    }
+
+    /**
+     * @param maxBytes The maximum number of bytes the images of the batch
+     *                 checks (e.g., {@link #checkImageFiles(Iterable)}) hold
+     *                 in memory at once. This includes images which are
+     *                 being decoded and images waiting to be uploaded. An
+     *                 image takes {@code width * height * 4} bytes. A single
+     *                 image which exceeds the budget is still checked.
+     */
+    public void setMaxImageBytesInMemory(long maxBytes) {
+        ArgumentGuard.greaterThanZero(maxBytes, "maxBytes");
+        maxImageBytesInMemory = maxBytes;
+    }
+
+    /**
+     * @return The maximum number of bytes the images of the batch checks
+     * hold in memory at once.
+     */
+    public long getMaxImageBytesInMemory() {
+        return maxImageBytesInMemory;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    /**
+     * See {@link #checkImageFiles(Iterable, boolean)}. The images are all
+     * the files in {@code directory} which can be read as images, in
+     * lexicographic order of their names.
+     *
+     * @param directory The directory containing the images to check.
+     * @return Whether or not each of the images matched the baseline.
+     */
+    public List<Boolean> checkImageFiles(File directory) {
+        ArgumentGuard.notNull(directory, "directory");
+
+        final Set<String> suffixes = new HashSet<String>();
+        for (String suffix : ImageIO.getReaderFileSuffixes()) {
+            suffixes.add(suffix.toLowerCase(Locale.ENGLISH));
+        }
+
+        File[] files = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                String name = file.getName();
+                int dotIndex = name.lastIndexOf('.');
+                return file.isFile() && dotIndex >= 0 && suffixes.contains(
+                        name.substring(dotIndex + 1).toLowerCase(
+                                Locale.ENGLISH));
+            }
+        });
+        if (files == null) {
+            throw new EyesException("Failed to list the files in "
+                    + directory);
+        }
+        Arrays.sort(files);
+
+        return checkImageFiles(Arrays.asList(files));
+    }
+
+    /**
+     * See {@link #checkImageFiles(Iterable, boolean)}.
+     * {@code ignoreMismatch} defaults to {@code false}.
+     *
+     * @param files The image files to check.
+     * @return Whether or not each of the images matched the baseline.
+     */
+    public List<Boolean> checkImageFiles(Iterable<File> files) {
+        return checkImageFiles(files, false);
+    }
+
+    /**
+     * Matches each of the images stored in the input files with the next
+     * expected image, in order. The tag of each checkpoint is the name of
+     * its file. See {@link #checkImages(Iterator, boolean)}.
+     *
+     * @param files          The image files to check.
+     * @param ignoreMismatch True if the server should ignore a negative
+     *                       result for the visual validation.
+     * @return Whether or not each of the images matched the baseline.
+     */
+    public List<Boolean> checkImageFiles(Iterable<File> files,
+                                         boolean ignoreMismatch) {
+        ArgumentGuard.notNull(files, "files");
+        final Iterator<File> filesIterator = files.iterator();
+
+        return checkImages(new Iterator<ImageSource>() {
+            public boolean hasNext() {
+                return filesIterator.hasNext();
+            }
+
+            public ImageSource next() {
+                return new ImageFileSource(filesIterator.next());
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }, ignoreMismatch);
+    }
+
+    /**
+     * Matches each of the input images (raw png bytes) with the next
+     * expected image, in order. No tags are associated with the checkpoints.
+     * See {@link #checkImages(Iterator, boolean)}.
+     *
+     * @param images         The raw png bytes of the images to check.
+     * @param ignoreMismatch True if the server should ignore a negative
+     *                       result for the visual validation.
+     * @return Whether or not each of the images matched the baseline.
+     */
+    public List<Boolean> checkImageBytes(Iterable<byte[]> images,
+                                         boolean ignoreMismatch) {
+        ArgumentGuard.notNull(images, "images");
+        final Iterator<byte[]> imagesIterator = images.iterator();
+
+        return checkImages(new Iterator<ImageSource>() {
+            public boolean hasNext() {
+                return imagesIterator.hasNext();
+            }
+
+            public ImageSource next() {
+                final byte[] image = imagesIterator.next();
+                return new ImageSource(null) {
+                    public BufferedImage load() {
+                        return ImageUtils.imageFromBytes(image);
+                    }
+                };
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }, ignoreMismatch);
+    }
+
+    /**
+     * Matches each of the given images with the next expected image, in
+     * order.
+     * <p>
+     * Images are loaded (decoded, normalized and compressed) concurrently,
+     * using {@link #getBatchThreadsCount()} threads, while the images which
+     * were already loaded are uploaded for matching. Images are uploaded one
+     * at a time in the order of {@code images}, so the order of the
+     * checkpoints is preserved. The images held in memory at once take
+     * at most {@link #getMaxImageBytesInMemory()} bytes. {@code images} is
+     * consumed lazily, so it can be used for streaming a large number of
+     * images.
+     * <p>
+     * Each image is matched once, as in
+     * {@link #checkImage(BufferedImage, String, boolean)}.
+     *
+     * @param images         The images to check.
+     * @param ignoreMismatch True if the server should ignore a negative
+     *                       result for the visual validation.
+     * @return Whether or not each of the images matched the baseline.
+     * @throws TestFailedException Thrown if a mismatch is detected and
+     *                              immediate failure reports are enabled.
+     */
+    public List<Boolean> checkImages(Iterator<ImageSource> images,
+                                     boolean ignoreMismatch) {
+        ArgumentGuard.notNull(images, "images");
+
+        List<Boolean> results = new ArrayList<Boolean>();
+
+        if (getIsDisabled()) {
+            logger.verbose(String.format("CheckImages(images, %b): Ignored",
+                    ignoreMismatch));
+            while (images.hasNext()) {
+                images.next();
+                results.add(false);
+            }
+            return results;
+        }
+
+        logger.verbose(String.format(
+                "CheckImages(images, %b) (%d threads, %d bytes in memory)",
+                ignoreMismatch, batchThreadsCount, maxImageBytesInMemory));
+
+        ExecutorService loadExecutor = getBatchExecutor();
+        PendingImages pendingImages = new PendingImages(batchThreadsCount,
+                maxImageBytesInMemory);
+        try {
+            while (images.hasNext()) {
+                final ImageSource image = images.next();
+                ArgumentGuard.notNull(image, "image");
+
+                // Upload images until there's room for another image.
+                while (!pendingImages.hasRoom()) {
+                    results.add(checkPreparedImage(pendingImages,
+                            ignoreMismatch));
+                }
+
+                pendingImages.add(loadExecutor.submit(
+                        new Callable<AppOutputWithScreenshot>() {
+                            public AppOutputWithScreenshot call() {
+                                return prepareImageOutput(image);
+                            }
+                        }), image.getTag());
+            }
+
+            while (!pendingImages.isEmpty()) {
+                results.add(checkPreparedImage(pendingImages,
+                        ignoreMismatch));
+            }
+        } finally {
+            // If a check failed, the rest of the images aren't needed.
+            pendingImages.cancelAll();
+        }
+
+        logger.verbose("Done!");
+        return results;
+    }
+
+    /**
+     * Matches the next image which is being loaded by
+     * {@link #checkImages(Iterator, boolean)}, and removes it from the
+     * pending images.
+     *
+     * @param pendingImages  The pending images.
+     * @param ignoreMismatch True if the server should ignore a negative
+     *                       result for the visual validation.
+     * @return Whether or not the image matched the baseline.
+     */
+    private boolean checkPreparedImage(PendingImages pendingImages,
+                                       boolean ignoreMismatch) {
+        String tag = pendingImages.peekTag();
+        return checkPreparedAppOutput(
+                getPreparedAppOutput(pendingImages.remove()), tag,
+                ignoreMismatch);
+    }
+
+    /**
+     * Matches an application output created by
+     * {@link #prepareImageOutput(ImageSource)} or
+     * {@link #prepareImageFileOutput(File, String)}.
+     *
+     * @param appOutput      The application output of the image.
+     * @param tag            The tag to be associated with the checkpoint.
+     * @param ignoreMismatch True if the server should ignore a negative
+     *                       result for the visual validation.
+     * @return Whether or not the image matched the baseline.
+     */
+    private boolean checkPreparedAppOutput(AppOutputWithScreenshot appOutput,
+                                           String tag,
+                                           boolean ignoreMismatch) {
+        EyesImagesScreenshot imageScreenshot =
+                (EyesImagesScreenshot) appOutput.getScreenshot();
+
+        if (viewportSize == null) {
+            setViewportSize(imageScreenshot.getSize());
+        }
+
+        // Keep the state consistent with checkImage.
+        title = tag;
+        screenshot = imageScreenshot;
+
+        return checkAppOutputBase(appOutput, tag, ignoreMismatch)
+                .getAsExpected();
+    }
+
+    /**
+     * Loads an image and creates its application output. Can be called
+     * concurrently from multiple threads.
+     *
+     * @param image The image to load.
+     * @return The application output of the image.
+     */
+    private AppOutputWithScreenshot prepareImageOutput(ImageSource image) {
+        String tag = image.getTag() != null ? image.getTag() : "";
+
+        if (imageFileManifest != null && image instanceof ImageFileSource) {
+            return prepareImageFileOutput(((ImageFileSource) image).getFile(),
+                    tag);
+        }
+
+        // We verify that the image is indeed in the correct format.
+        BufferedImage loaded = ImageUtils.normalizeImageType(image.load());
+        return prepareAppOutput(new EyesImagesScreenshot(loaded), tag);
+    }
+
+    /**
+     * Creates the application output of an image file, using the image file
+     * manifest. If the file's content is in the manifest, the image is not
+     * decoded. Otherwise, the encoded image is added to the manifest. Can be
+     * called concurrently from multiple threads.
+     *
+     * @param file  The image file.
+     * @param title The title to be associated with the screenshot.
+     * @return The application output of the image.
+     */
+    private AppOutputWithScreenshot prepareImageFileOutput(File file,
+                                                           String title) {
+        ImageFileManifest manifest = imageFileManifest;
+
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new EyesException("Failed to load the image bytes from "
+                    + file, e);
+        }
+
+        // The manifest is only a cache, so if it fails, the image is
+        // processed as if it's not in the manifest.
+        String hash = manifest.hash(content);
+        ImageFileManifest.Entry entry = null;
+        try {
+            entry = manifest.get(hash);
+        } catch (IOException e) {
+            logger.log(String.format(
+                    "Failed to read %s from the manifest (%s): %s", file,
+                    hash, e));
+        }
+        if (entry != null) {
+            logger.verbose(String.format("Found %s in manifest (%s)", file,
+                    hash));
+            final byte[] payload = entry.getPayload();
+            EyesImagesScreenshot lazyScreenshot = new EyesImagesScreenshot(
+                    entry.getSize(), new ImageSource(title) {
+                        public BufferedImage load() {
+                            return ImageUtils.imageFromBytes(payload);
+                        }
+                    });
+            return new AppOutputWithScreenshot(
+                    new AppOutput(title, Base64.encodeBase64String(payload)),
+                    lazyScreenshot);
+        }
+
+        AppOutputWithScreenshot appOutput = prepareAppOutput(
+                new EyesImagesScreenshot(ImageUtils.imageFromBytes(content)),
+                title);
+        // The output of prepareAppOutput is not delta compressed, so it's
+        // the encoded image as is.
+        try {
+            manifest.put(hash, Base64.decodeBase64(
+                    appOutput.getAppOutput().getScreenshot64()));
+        } catch (IOException e) {
+            logger.log(String.format(
+                    "Failed to add %s to the manifest (%s): %s", file, hash,
+                    e));
+        }
+        return appOutput;
+    }
+
     /**
      * Perform visual validation for the current image.
      *
@@ -425,4 +887,24 @@ public class Eyes extends EyesBase {
 
         return mr.getAsExpected();
     }
+
+    /**
+     * An image stored in a file, tagged with the file's name.
+     */
+    private static class ImageFileSource extends ImageSource {
+        private final File file;
+
+        public ImageFileSource(File file) {
+            super(file.getName());
+            this.file = file;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public BufferedImage load() {
+            return ImageUtils.imageFromFile(file.getPath());
+        }
+    }
 }
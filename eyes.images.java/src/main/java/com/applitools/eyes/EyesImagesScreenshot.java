@@ -1,6 +1,7 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.GeometryUtils;
 import com.applitools.utils.ImageUtils;
 
 import java.awt.image.BufferedImage;
@@ -14,6 +15,9 @@ public class EyesImagesScreenshot extends EyesScreenshot {
     // (e.g., relative to the default content in case of a web page).
     protected Region bounds;
 
+    // Loads the image of a lazily loaded screenshot.
+    private ImageSource imageSource;
+
     /**
      * @param image The screenshot image.
      * @param location The top/left coordinates of the screenshot in context
@@ -26,6 +30,37 @@ public class EyesImagesScreenshot extends EyesScreenshot {
                 new RectangleSize(image.getWidth(), image.getHeight()));
     }
 
+    /**
+     * Creates a screenshot which image is only loaded when it is needed.
+     * The screenshot is located at {@code (0, 0)}.
+     *
+     * @param size        The size of the screenshot image.
+     * @param imageSource The source from which the image is loaded.
+     */
+    EyesImagesScreenshot(RectangleSize size, ImageSource imageSource) {
+        super();
+        ArgumentGuard.notNull(size, "size");
+        ArgumentGuard.notNull(imageSource, "imageSource");
+        this.bounds = new Region(new Location(0, 0), size);
+        this.imageSource = imageSource;
+    }
+
+    /**
+     * @return The size of the screenshot image.
+     */
+    public RectangleSize getSize() {
+        return bounds.getSize();
+    }
+
+    @Override
+    public synchronized BufferedImage getImage() {
+        if (image == null) {
+            image = ImageUtils.normalizeImageType(imageSource.load());
+            imageSource = null;
+        }
+        return image;
+    }
+
     /**
      * See {@link #EyesImagesScreenshot(BufferedImage, Location)}.
      * {@code location} defaults to {@code (0, 0)}.
@@ -56,7 +91,7 @@ public class EyesImagesScreenshot extends EyesScreenshot {
         }
 
         BufferedImage subScreenshotImage =
-                ImageUtils.getImagePart(image, subScreenshotRegion);
+                ImageUtils.getImagePart(getImage(), subScreenshotRegion);
 
         // Notice that we need the bounds-relative coordinates as parameter
         // for new sub-screenshot.
@@ -74,19 +109,29 @@ public class EyesImagesScreenshot extends EyesScreenshot {
                                        CoordinatesType to) {
 
         ArgumentGuard.notNull(location, "location");
+
+        long result = convertLocation(location.getX(), location.getY(), from,
+                to);
+        return new Location(GeometryUtils.getX(result),
+                GeometryUtils.getY(result));
+    }
+
+    @Override
+    protected long convertLocation(int x, int y, CoordinatesType from,
+                                   CoordinatesType to) {
+
         ArgumentGuard.notNull(from, "from");
         ArgumentGuard.notNull(to, "to");
 
-        Location result = new Location(location);
-
         if (from == to) {
-            return result;
+            return GeometryUtils.packLocation(x, y);
         }
 
         switch (from) {
             case SCREENSHOT_AS_IS:
                 if (to == CoordinatesType.CONTEXT_RELATIVE) {
-                    result.offset(bounds.getLeft(), bounds.getTop());
+                    x += bounds.getLeft();
+                    y += bounds.getTop();
                 } else {
                     throw new CoordinatesTypeConversionException(from, to);
                 }
@@ -94,7 +139,8 @@ public class EyesImagesScreenshot extends EyesScreenshot {
 
             case CONTEXT_RELATIVE:
                 if (to == CoordinatesType.SCREENSHOT_AS_IS) {
-                    result.offset(-bounds.getLeft(), -bounds.getTop());
+                    x -= bounds.getLeft();
+                    y -= bounds.getTop();
                 } else {
                     throw new CoordinatesTypeConversionException(from, to);
                 }
@@ -103,7 +149,7 @@ public class EyesImagesScreenshot extends EyesScreenshot {
             default:
                 throw new CoordinatesTypeConversionException(from, to);
         }
-        return result;
+        return GeometryUtils.packLocation(x, y);
     }
 
     @Override
@@ -150,9 +196,12 @@ public class EyesImagesScreenshot extends EyesScreenshot {
 
         // The returned result should be in the coordinatesType given as
         // parameter.
-        intersectedRegion.setLocation(
-                convertLocation(intersectedRegion.getLocation(),
-                        CoordinatesType.CONTEXT_RELATIVE, resultCoordinatesType));
+        long location = convertLocation(intersectedRegion.getLeft(),
+                intersectedRegion.getTop(), CoordinatesType.CONTEXT_RELATIVE,
+                resultCoordinatesType);
+        intersectedRegion.offset(
+                GeometryUtils.getX(location) - intersectedRegion.getLeft(),
+                GeometryUtils.getY(location) - intersectedRegion.getTop());
 
         return intersectedRegion;
     }
@@ -0,0 +1,163 @@
+/*
+ * Applitools SDK for Selenium integration.
+ */
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A local manifest of image files which were already checked, mapping the
+ * hash of the file's content to the encoded (PNG) payload which was
+ * computed for it. This allows checking an unchanged image file without
+ * decoding and re-encoding it.
+ * <p>
+ * The manifest is stored in a directory, one file per entry, so it can be
+ * kept between runs and shared by multiple threads and processes. The
+ * manifest is only a cache: its methods report IO failures with an
+ * {@link IOException}, so callers can fall back to processing the image
+ * file itself.
+ */
+public class ImageFileManifest {
+
+    private static final String ENTRY_SUFFIX = ".png";
+
+    // PNG signature (8 bytes), IHDR chunk length and type (8 bytes), width
+    // and height (4 bytes each).
+    private static final int PNG_WIDTH_OFFSET = 16;
+    private static final int PNG_HEIGHT_OFFSET = 20;
+    private static final int PNG_MIN_LENGTH = 24;
+
+    private final File directory;
+
+    /**
+     * An encoded image stored in the manifest.
+     */
+    public static class Entry {
+        private final byte[] payload;
+        private final RectangleSize size;
+
+        private Entry(byte[] payload, RectangleSize size) {
+            this.payload = payload;
+            this.size = size;
+        }
+
+        /**
+         * @return The encoded (PNG) image.
+         */
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        /**
+         * @return The size of the image.
+         */
+        public RectangleSize getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * @param directory The directory in which the manifest is stored. It is
+     *                  created when the first entry is added, if it doesn't
+     *                  exist.
+     */
+    public ImageFileManifest(File directory) {
+        ArgumentGuard.notNull(directory, "directory");
+        this.directory = directory;
+    }
+
+    /**
+     * @return The directory in which the manifest is stored.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param content The content of an image file.
+     * @return The key of the content in the manifest.
+     */
+    public String hash(byte[] content) {
+        ArgumentGuard.notNull(content, "content");
+        return DigestUtils.sha256Hex(content);
+    }
+
+    /**
+     * @param hash The key of an image file's content, as returned by
+     *             {@link #hash(byte[])}.
+     * @return The manifest entry for {@code hash}, or {@code null} if there
+     * is no such (valid) entry.
+     * @throws IOException If the entry exists but can't be read.
+     */
+    public Entry get(String hash) throws IOException {
+        ArgumentGuard.notNullOrEmpty(hash, "hash");
+
+        byte[] payload;
+        try {
+            payload = Files.readAllBytes(getEntryPath(hash));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        if (payload.length < PNG_MIN_LENGTH) {
+            return null;
+        }
+
+        return new Entry(payload, new RectangleSize(
+                readInt(payload, PNG_WIDTH_OFFSET),
+                readInt(payload, PNG_HEIGHT_OFFSET)));
+    }
+
+    /**
+     * Adds an entry to the manifest, replacing an existing entry for the
+     * same hash.
+     *
+     * @param hash    The key of an image file's content, as returned by
+     *                {@link #hash(byte[])}.
+     * @param payload The encoded (PNG) image computed for the content.
+     * @throws IOException If the entry can't be written.
+     */
+    public void put(String hash, byte[] payload) throws IOException {
+        ArgumentGuard.notNullOrEmpty(hash, "hash");
+        ArgumentGuard.notNull(payload, "payload");
+
+        Path entryPath = getEntryPath(hash);
+        Files.createDirectories(directory.toPath());
+        // Writing to a temporary file first, so a partially written entry is
+        // never read.
+        Path tempPath = Files.createTempFile(directory.toPath(), hash,
+                ".tmp");
+        try {
+            Files.write(tempPath, payload);
+            try {
+                Files.move(tempPath, entryPath,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, entryPath,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private Path getEntryPath(String hash) {
+        return new File(directory, hash + ENTRY_SUFFIX).toPath();
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24)
+                | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8)
+                | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Applitools SDK for Selenium integration.
+ */
+package com.applitools.eyes;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An image to be checked by {@link Eyes#checkImages(java.util.Iterator,
+ * boolean)}. The image is only loaded when it is about to be checked, and
+ * might be loaded on a different thread than the one which created this
+ * instance.
+ */
+public abstract class ImageSource {
+    private final String tag;
+
+    /**
+     * @param tag An optional tag to be associated with the validation
+     *            checkpoint.
+     */
+    public ImageSource(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return The tag to be associated with the validation checkpoint, or
+     * {@code null}.
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Loads the image.
+     *
+     * @return The loaded image.
+     * @throws EyesException If the image could not be loaded.
+     */
+    public abstract BufferedImage load();
+}
@@ -0,0 +1,146 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * The images of a batch check which are loading or waiting to be uploaded,
+ * in order. Limits the memory held by the images: a loaded image takes
+ * {@code width * height * 4} bytes (the size of its decoded pixels), and an
+ * image which is still loading is assumed to be as large as the largest
+ * image loaded so far. Not thread safe.
+ */
+class PendingImages {
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final int maxLoadingImages;
+    private final long maxBytes;
+    private final Queue<Future<AppOutputWithScreenshot>> outputs;
+    private final Queue<String> tags;
+    private long largestImageBytes;
+
+    /**
+     * @param maxLoadingImages The maximum number of images which are loaded
+     *                         at once.
+     * @param maxBytes         The maximum number of bytes the images hold.
+     */
+    public PendingImages(int maxLoadingImages, long maxBytes) {
+        ArgumentGuard.greaterThanZero(maxLoadingImages, "maxLoadingImages");
+        ArgumentGuard.greaterThanZero(maxBytes, "maxBytes");
+        this.maxLoadingImages = maxLoadingImages;
+        this.maxBytes = maxBytes;
+        outputs = new ArrayDeque<Future<AppOutputWithScreenshot>>();
+        tags = new ArrayDeque<String>();
+        largestImageBytes = 0;
+    }
+
+    /**
+     * @param size The size of an image.
+     * @return The number of bytes the decoded image takes.
+     */
+    public static long getImageBytes(RectangleSize size) {
+        return (long) size.getWidth() * size.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * @return Whether another image can be loaded without exceeding the
+     * limits. There's always room for an image if there are no pending
+     * images, even if it exceeds the memory limit by itself.
+     */
+    public boolean hasRoom() {
+        if (outputs.isEmpty()) {
+            return true;
+        }
+
+        int loadingCount = 0;
+        long bytes = 0;
+        for (Future<AppOutputWithScreenshot> output : outputs) {
+            if (output.isDone()) {
+                long imageBytes = getLoadedImageBytes(output);
+                largestImageBytes = Math.max(largestImageBytes, imageBytes);
+                bytes += imageBytes;
+            } else {
+                ++loadingCount;
+            }
+        }
+
+        // The new image is assumed to be as large as the largest image too.
+        bytes += (loadingCount + 1) * largestImageBytes;
+        return loadingCount < maxLoadingImages && bytes <= maxBytes;
+    }
+
+    /**
+     * @param output The future application output of the image.
+     * @param tag    The tag of the image's checkpoint.
+     */
+    public void add(Future<AppOutputWithScreenshot> output, String tag) {
+        ArgumentGuard.notNull(output, "output");
+        outputs.add(output);
+        tags.add(tag != null ? tag : "");
+    }
+
+    public boolean isEmpty() {
+        return outputs.isEmpty();
+    }
+
+    public int size() {
+        return outputs.size();
+    }
+
+    /**
+     * @return The tag of the next image to upload.
+     */
+    public String peekTag() {
+        return tags.peek();
+    }
+
+    /**
+     * Removes the next image to upload.
+     *
+     * @return The future application output of the image.
+     */
+    public Future<AppOutputWithScreenshot> remove() {
+        tags.remove();
+        return outputs.remove();
+    }
+
+    /**
+     * Cancels the loading of all the pending images, and removes them.
+     */
+    public void cancelAll() {
+        for (Future<AppOutputWithScreenshot> output : outputs) {
+            output.cancel(true);
+        }
+        outputs.clear();
+        tags.clear();
+    }
+
+    /**
+     * @param output The future application output of an image which is done
+     *               loading.
+     * @return The number of bytes the image takes, or {@code 0} if it
+     * failed to load (the failure is reported when it's uploaded).
+     */
+    private static long getLoadedImageBytes(
+            Future<AppOutputWithScreenshot> output) {
+        AppOutputWithScreenshot appOutput;
+        try {
+            appOutput = output.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            return 0;
+        } catch (CancellationException e) {
+            return 0;
+        }
+        return getImageBytes(
+                ((EyesImagesScreenshot) appOutput.getScreenshot()).getSize());
+    }
+}
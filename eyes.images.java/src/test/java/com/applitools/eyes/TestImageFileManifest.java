@@ -0,0 +1,81 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class TestImageFileManifest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] createPng(int width, int height)
+            throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB), "png", png);
+        return png.toByteArray();
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        File directory = new File(folder.getRoot(), "manifest");
+        ImageFileManifest manifest = new ImageFileManifest(directory);
+        byte[] payload = createPng(12, 34);
+        String hash = manifest.hash("content".getBytes("UTF-8"));
+
+        Assert.assertNull(manifest.get(hash));
+        manifest.put(hash, payload);
+        Assert.assertTrue(directory.isDirectory());
+
+        // A new manifest on the same directory sees the entry.
+        ImageFileManifest.Entry entry =
+                new ImageFileManifest(directory).get(hash);
+        Assert.assertNotNull(entry);
+        Assert.assertTrue(Arrays.equals(payload, entry.getPayload()));
+        Assert.assertEquals(new RectangleSize(12, 34), entry.getSize());
+    }
+
+    @Test
+    public void testHashDependsOnContent() {
+        ImageFileManifest manifest = new ImageFileManifest(folder.getRoot());
+        Assert.assertEquals(manifest.hash(new byte[] { 1, 2 }),
+                manifest.hash(new byte[] { 1, 2 }));
+        Assert.assertNotEquals(manifest.hash(new byte[] { 1, 2 }),
+                manifest.hash(new byte[] { 2, 1 }));
+    }
+
+    @Test
+    public void testTruncatedEntryIsIgnored() throws IOException {
+        ImageFileManifest manifest = new ImageFileManifest(folder.getRoot());
+        manifest.put("hash", new byte[] { 1, 2, 3 });
+        Assert.assertNull(manifest.get("hash"));
+    }
+
+    @Test
+    public void testUnusableDirectoryFailsWithIOException()
+            throws IOException {
+        // The manifest directory can't be created under a regular file.
+        File file = folder.newFile("file");
+        ImageFileManifest manifest =
+                new ImageFileManifest(new File(file, "manifest"));
+
+        try {
+            manifest.put("hash", createPng(1, 1));
+            Assert.fail("Expected an IOException");
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+@RunWith(JUnit4.class)
+public class TestPendingImages {
+
+    // A 10x10 image takes 400 bytes.
+    private static final int IMAGE_BYTES = 400;
+
+    private static FutureTask<AppOutputWithScreenshot> createOutput(
+            final int size) {
+        return new FutureTask<AppOutputWithScreenshot>(
+                new Callable<AppOutputWithScreenshot>() {
+                    public AppOutputWithScreenshot call() {
+                        BufferedImage image = new BufferedImage(size, size,
+                                BufferedImage.TYPE_4BYTE_ABGR);
+                        return new AppOutputWithScreenshot(
+                                new AppOutput("", ""),
+                                new EyesImagesScreenshot(image,
+                                        new Location(0, 0)));
+                    }
+                });
+    }
+
+    private static Future<AppOutputWithScreenshot> createLoadedOutput(
+            int size) {
+        FutureTask<AppOutputWithScreenshot> output = createOutput(size);
+        output.run();
+        return output;
+    }
+
+    @Test
+    public void testImageBytes() {
+        Assert.assertEquals(IMAGE_BYTES,
+                PendingImages.getImageBytes(new RectangleSize(10, 10)));
+        Assert.assertEquals(4L * 50000 * 50000,
+                PendingImages.getImageBytes(new RectangleSize(50000, 50000)));
+    }
+
+    @Test
+    public void testLoadedImagesAreLimitedByBytes() {
+        PendingImages pendingImages = new PendingImages(10,
+                2 * IMAGE_BYTES + 1);
+        Assert.assertTrue(pendingImages.hasRoom());
+
+        pendingImages.add(createLoadedOutput(10), "a");
+        Assert.assertTrue(pendingImages.hasRoom());
+        pendingImages.add(createLoadedOutput(10), "b");
+        Assert.assertFalse(pendingImages.hasRoom());
+
+        Assert.assertEquals("a", pendingImages.peekTag());
+        pendingImages.remove();
+        Assert.assertTrue(pendingImages.hasRoom());
+        Assert.assertEquals("b", pendingImages.peekTag());
+    }
+
+    @Test
+    public void testLargeImageIsAlwaysAllowed() {
+        PendingImages pendingImages = new PendingImages(10, 1);
+        Assert.assertTrue(pendingImages.hasRoom());
+        pendingImages.add(createLoadedOutput(10), "a");
+        Assert.assertFalse(pendingImages.hasRoom());
+    }
+
+    @Test
+    public void testLoadingImagesAreAssumedToBeLargest() {
+        PendingImages pendingImages = new PendingImages(10,
+                2 * IMAGE_BYTES + 1);
+        pendingImages.add(createLoadedOutput(10), "a");
+        pendingImages.add(createOutput(1), "b");
+        Assert.assertFalse(pendingImages.hasRoom());
+    }
+
+    @Test
+    public void testLoadingImagesAreLimitedByCount() {
+        PendingImages pendingImages = new PendingImages(2, Long.MAX_VALUE);
+        pendingImages.add(createOutput(10), "a");
+        Assert.assertTrue(pendingImages.hasRoom());
+        pendingImages.add(createOutput(10), "b");
+        Assert.assertFalse(pendingImages.hasRoom());
+    }
+
+    @Test
+    public void testCancelAll() {
+        PendingImages pendingImages = new PendingImages(2, Long.MAX_VALUE);
+        Future<AppOutputWithScreenshot> loading = createOutput(10);
+        pendingImages.add(loading, null);
+        Assert.assertEquals("", pendingImages.peekTag());
+
+        pendingImages.cancelAll();
+        Assert.assertTrue(loading.isCancelled());
+        Assert.assertTrue(pendingImages.isEmpty());
+        Assert.assertTrue(pendingImages.hasRoom());
+    }
+}
@@ -0,0 +1,314 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Closes the tests of a batch concurrently. Instead of calling
+ * {@link EyesBase#close()}, which blocks until the server finishes
+ * processing the test, each test passes its Eyes instance to
+ * {@link #close(EyesBase)}, which returns immediately. The results of all
+ * the tests are collected at the end of the batch by calling
+ * {@link #getAllResults()}.
+ * <p>
+ * Failures are reported when the results are collected, in the same way
+ * {@link EyesBase#close()} reports them, regardless of the
+ * {@link FailureReports} setting (with
+ * {@link FailureReports#IMMEDIATE}, failures are also reported by the
+ * check which detected them). An Eyes instance should not be opened again
+ * before the results are collected.
+ */
+public class BatchCloser {
+
+    public static final int DEFAULT_MAX_CONCURRENT_CLOSES = 10;
+
+    /**
+     * The closing of a single test.
+     */
+    private class PendingClose implements TaskListener<TestResults> {
+        private final EyesBase eyes;
+        private boolean isStarted;
+        private boolean isDone;
+        private TestResults results;
+        private Throwable failure;
+
+        public PendingClose(EyesBase eyes) {
+            this.eyes = eyes;
+        }
+
+        public void onComplete(TestResults results) {
+            synchronized (BatchCloser.this) {
+                this.results = results;
+            }
+            onCloseDone(this);
+        }
+
+        public void onFail(Throwable cause) {
+            synchronized (BatchCloser.this) {
+                failure = cause;
+            }
+            onCloseDone(this);
+        }
+    }
+
+    private final Logger logger;
+    private final BatchInfo batch;
+    private final int maxConcurrentCloses;
+    // Kept in the order of registration, which is the order of the results.
+    private final List<PendingClose> closes;
+    private final Queue<PendingClose> waitingCloses;
+    private int runningClosesCount;
+
+    /**
+     * Creates a new BatchCloser instance.
+     *
+     * @param batch               The batch of the tests to close.
+     * @param maxConcurrentCloses The maximum number of tests which are
+     *                            closed at the same time.
+     */
+    public BatchCloser(BatchInfo batch, int maxConcurrentCloses) {
+        ArgumentGuard.notNull(batch, "batch");
+        ArgumentGuard.greaterThanZero(maxConcurrentCloses,
+                "maxConcurrentCloses");
+
+        logger = new Logger();
+        this.batch = batch;
+        this.maxConcurrentCloses = maxConcurrentCloses;
+        closes = new ArrayList<PendingClose>();
+        waitingCloses = new LinkedList<PendingClose>();
+        runningClosesCount = 0;
+    }
+
+    /**
+     * See {@link #BatchCloser(BatchInfo, int)}.
+     * {@code maxConcurrentCloses} defaults to
+     * {@link #DEFAULT_MAX_CONCURRENT_CLOSES}.
+     *
+     * @param batch The batch of the tests to close.
+     */
+    public BatchCloser(BatchInfo batch) {
+        this(batch, DEFAULT_MAX_CONCURRENT_CLOSES);
+    }
+
+    /**
+     * @return The batch of the tests.
+     */
+    public BatchInfo getBatch() {
+        return batch;
+    }
+
+    /**
+     * Sets the handler of the closer's log messages (the messages of each
+     * test are written to the log handler of its Eyes instance).
+     *
+     * @param logHandler The log handler to set.
+     */
+    public void setLogHandler(LogHandler logHandler) {
+        logger.setLogHandler(logHandler);
+    }
+
+    /**
+     * @return The currently set log handler.
+     */
+    public LogHandler getLogHandler() {
+        return logger.getLogHandler();
+    }
+
+    /**
+     * Registers an Eyes instance whose test belongs to the batch. If the
+     * instance has no batch set, it is set to the closer's batch. Tests
+     * which are still open when the results are collected are closed
+     * then.
+     *
+     * @param eyes The Eyes instance to register. Should be called before
+     *             the instance is opened.
+     * @throws IllegalArgumentException If {@code eyes} is set to a different
+     *                                  batch.
+     */
+    public synchronized void register(EyesBase eyes) {
+        ArgumentGuard.notNull(eyes, "eyes");
+
+        if (findClose(eyes) != null) {
+            return;
+        }
+
+        BatchInfo eyesBatch = eyes.getBatch();
+        if (eyesBatch == null) {
+            eyes.setBatch(batch);
+        } else if (!batch.getId().equals(eyesBatch.getId())) {
+            throw new IllegalArgumentException(
+                    "eyes belongs to another batch: " + eyesBatch);
+        }
+
+        logger.verbose("Registered test #" + closes.size());
+        closes.add(new PendingClose(eyes));
+    }
+
+    /**
+     * Ends the test of the given Eyes instance without waiting for its
+     * results. The instance is registered if it wasn't registered already.
+     *
+     * @param eyes The Eyes instance whose test should be closed.
+     */
+    public void close(EyesBase eyes) {
+        PendingClose pendingClose;
+        synchronized (this) {
+            register(eyes);
+            pendingClose = findClose(eyes);
+            if (pendingClose.isStarted) {
+                logger.verbose("Already closing");
+                return;
+            }
+            pendingClose.isStarted = true;
+            if (runningClosesCount >= maxConcurrentCloses) {
+                logger.verbose("Waiting for a running close to end...");
+                waitingCloses.add(pendingClose);
+                return;
+            }
+            ++runningClosesCount;
+        }
+        startClose(pendingClose);
+    }
+
+    /**
+     * See {@link #getAllResults(boolean)}.
+     * {@code throwEx} defaults to {@code true}.
+     *
+     * @return The results of all the tests, in the order of registration.
+     */
+    public List<TestResults> getAllResults() {
+        return getAllResults(true);
+    }
+
+    /**
+     * Closes the registered tests which are still open and waits for all
+     * the tests to end.
+     *
+     * A failure to close one test doesn't prevent closing the others.
+     *
+     * @param throwEx If true, an exception will be thrown if any of the tests
+     *                failed or is new (after all the tests have ended).
+     * @return The results of all the tests, in the order of registration.
+     * An element is {@code null} if the Eyes instance was disabled.
+     * @throws TestFailedException if a mismatch was found in any of the tests
+     *                             and throwEx is true. Takes precedence over
+     *                             the other exceptions.
+     * @throws EyesException       if any of the tests could not be closed.
+     * @throws NewTestException    if any of the tests is a new test, no
+     *                             other exception is thrown and throwEx is
+     *                             true.
+     */
+    public List<TestResults> getAllResults(boolean throwEx) {
+        List<PendingClose> currentCloses;
+        synchronized (this) {
+            currentCloses = new ArrayList<PendingClose>(closes);
+        }
+
+        for (PendingClose pendingClose : currentCloses) {
+            if (!pendingClose.isStarted && pendingClose.eyes.getIsOpen()) {
+                close(pendingClose.eyes);
+            }
+        }
+
+        logger.verbose("Waiting for " + currentCloses.size()
+                + " tests to end...");
+        List<TestResults> allResults = new ArrayList<TestResults>();
+        TestFailedException firstMismatch = null;
+        TestFailedException firstNewTest = null;
+        Throwable firstError = null;
+        synchronized (this) {
+            for (PendingClose pendingClose : currentCloses) {
+                if (!pendingClose.isStarted) {
+                    // The test was never opened, or was closed directly.
+                    allResults.add(null);
+                    continue;
+                }
+                while (!pendingClose.isDone) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new EyesException(
+                                "Interrupted while waiting for results", e);
+                    }
+                }
+
+                Throwable failure = pendingClose.failure;
+                if (failure == null) {
+                    allResults.add(pendingClose.results);
+                } else if (failure instanceof NewTestException) {
+                    allResults.add(((NewTestException) failure)
+                            .getTestResults());
+                    if (firstNewTest == null) {
+                        firstNewTest = (TestFailedException) failure;
+                    }
+                } else if (failure instanceof TestFailedException) {
+                    allResults.add(((TestFailedException) failure)
+                            .getTestResults());
+                    if (firstMismatch == null) {
+                        firstMismatch = (TestFailedException) failure;
+                    }
+                } else {
+                    allResults.add(null);
+                    if (firstError == null) {
+                        firstError = failure;
+                    }
+                }
+            }
+            closes.removeAll(currentCloses);
+        }
+
+        logger.verbose("All tests ended");
+        if (throwEx && firstMismatch != null) {
+            if (firstError != null) {
+                logger.log("Failed to close test: " + firstError);
+            }
+            throw firstMismatch;
+        }
+        if (firstError != null) {
+            throw new EyesException("Failed to close test", firstError);
+        }
+        if (throwEx && firstNewTest != null) {
+            throw firstNewTest;
+        }
+        return allResults;
+    }
+
+    private PendingClose findClose(EyesBase eyes) {
+        for (PendingClose pendingClose : closes) {
+            if (pendingClose.eyes == eyes) {
+                return pendingClose;
+            }
+        }
+        return null;
+    }
+
+    private void startClose(PendingClose pendingClose) {
+        try {
+            // Failures are reported when the results are collected.
+            pendingClose.eyes.closeAsync(true, pendingClose);
+        } catch (RuntimeException e) {
+            logger.log("Failed to close test: " + e.getMessage());
+            pendingClose.onFail(e);
+        }
+    }
+
+    private void onCloseDone(PendingClose pendingClose) {
+        PendingClose nextClose;
+        synchronized (this) {
+            pendingClose.isDone = true;
+            notifyAll();
+
+            nextClose = waitingCloses.poll();
+            if (nextClose == null) {
+                --runningClosesCount;
+                return;
+            }
+        }
+        startClose(nextClose);
+    }
+}
@@ -7,8 +7,16 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Applitools Eyes Base for Java API .
@@ -16,7 +24,11 @@ import java.util.Queue;
 abstract class EyesBase {
 
     private static final int DEFAULT_MATCH_TIMEOUT = 2; // Seconds
+    private static final int DEFAULT_MATCH_STABLE_INTERVALS = 0;
     protected static final int USE_DEFAULT_TIMEOUT = -1;
+    private static final int RESPONSE_TIME_DEFAULT_MAX_FRAMES_COUNT = 300;
+    private static final long RESPONSE_TIME_DEFAULT_MIN_CAPTURE_INTERVAL =
+            50; // Milliseconds
 
     private boolean shouldMatchWindowRunOnceOnTimeout;
 
@@ -51,6 +63,9 @@ abstract class EyesBase {
     private String testName;
     private ImageMatchSettings defaultMatchSettings;
     private int matchTimeout;
+    private int matchStableIntervals;
+    private ReadinessSignal readinessSignal;
+    private LocalBaselineCache baselineCache;
     private BatchInfo batch;
     private String hostApp;
     private String hostOS;
@@ -60,7 +75,10 @@ abstract class EyesBase {
     private String branchName;
     private String parentBranchName;
     private FailureReports failureReports;
-    private final Queue<Trigger> userInputs;
+    private ResponseTimeMatcherSettings responseTimeMatcherSettings;
+    private ResponseTimeCaptureSettings responseTimeCaptureSettings;
+    private ExecutorService responseTimeExecutor;
+    private final TriggerBuffer userInputs;
 
     // Used for automatic save of a test run.
     private boolean saveNewTests, saveFailedTests;
@@ -72,13 +90,36 @@ abstract class EyesBase {
      * @param serverUrl  The Eyes server URL.
      */
     public EyesBase(URI serverUrl) {
+        this(serverUrl, null);
+    }
+
+    /**
+     * Creates a new {@code EyesBase} instance that interacts with the Eyes
+     * Server using the given server connector, e.g., a connector shared by
+     * the sessions of an {@link EyesRunner}.
+     *
+     * @param serverConnector The server connector to use.
+     */
+    public EyesBase(ServerConnector serverConnector) {
+        this(null, serverConnector);
+    }
+
+    /**
+     * @param serverUrl       The Eyes server URL. Ignored if
+     *                        {@code serverConnector} is given.
+     * @param serverConnector The server connector to use, or {@code null}
+     *                        to create one for {@code serverUrl}.
+     */
+    private EyesBase(URI serverUrl, ServerConnector serverConnector) {
 
         if (isDisabled) {
             userInputs = null;
             return;
         }
 
-        ArgumentGuard.notNull(serverUrl, "serverUrl");
+        if (serverConnector == null) {
+            ArgumentGuard.notNull(serverUrl, "serverUrl");
+        }
 
         logger = new Logger();
         scaleProviderHandler = new SimplePropertyHandler<ScaleProvider>();
@@ -86,13 +127,18 @@ abstract class EyesBase {
         positionProvider = new InvalidPositionProvider();
         scaleMethod = ScaleMethod.getDefault();
         viewportSize = null;
-        serverConnector = ServerConnectorFactory.create(logger,
-                getBaseAgentId(), serverUrl);
+        this.serverConnector = serverConnector != null ? serverConnector :
+                ServerConnectorFactory.create(logger, getBaseAgentId(),
+                        serverUrl);
         matchTimeout = DEFAULT_MATCH_TIMEOUT;
+        matchStableIntervals = DEFAULT_MATCH_STABLE_INTERVALS;
         runningSession = null;
         defaultMatchSettings = new ImageMatchSettings();
         failureReports = FailureReports.ON_CLOSE;
-        userInputs = new ArrayDeque<Trigger>();
+        responseTimeMatcherSettings = new ResponseTimeMatcherSettings();
+        responseTimeCaptureSettings = new ResponseTimeCaptureSettings();
+        responseTimeExecutor = null;
+        userInputs = new TriggerBuffer();
 
         // New tests are automatically saved by default.
         saveNewTests = true;
@@ -181,6 +227,43 @@ abstract class EyesBase {
         return serverConnector.getProxy();
     }
 
+    /**
+     * Sets the policy for retrying requests to the Eyes server which failed
+     * due to transient errors, and for detecting that the server is down.
+     *
+     * The policy is ignored if the server connector doesn't retry requests
+     * (i.e., isn't a {@link RetryingServerConnector}).
+     *
+     * @param retryPolicy The retry policy to set, or {@code null} to use the
+     *                    default policy.
+     * @see RetryPolicy
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setServerRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            retryPolicy = new RetryPolicy();
+        }
+        logger.verbose("setServerRetryPolicy(" + retryPolicy + ")");
+        if (!(serverConnector instanceof RetryingServerConnector)) {
+            logger.log("Ignoring the retry policy, since the server " +
+                    "connector doesn't retry requests");
+            return;
+        }
+        ((RetryingServerConnector) serverConnector).setRetryPolicy(
+                retryPolicy);
+    }
+
+    /**
+     * @return The policy for retrying requests to the Eyes server, or
+     * {@code null} if the server connector doesn't retry requests.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public RetryPolicy getServerRetryPolicy() {
+        return serverConnector instanceof RetryingServerConnector ?
+                ((RetryingServerConnector) serverConnector).getRetryPolicy()
+                : null;
+    }
+
     /**
      *
      * @param isDisabled If true, all interactions with this API will be
@@ -275,14 +358,24 @@ abstract class EyesBase {
 
     /**
      * @return User inputs collected between {@code checkWindowBase}
-     * invocations.
+     * invocations. Only the last {@link TriggerBuffer#DEFAULT_CAPACITY}
+     * inputs are kept, and consecutive mouse moves on the same control are
+     * coalesced.
      */
     protected Trigger[] getUserInputs() {
         if (isDisabled) {
             return null;
         }
-        Trigger[] result = new Trigger[userInputs.size()];
-        return userInputs.toArray(result);
+        if (userInputs.getDroppedCount() > 0) {
+            logger.log(String.format(
+                    "WARNING: Dropped the %d oldest user inputs (keeping %d)",
+                    userInputs.getDroppedCount(), userInputs.size()));
+        }
+        if (userInputs.getCoalescedCount() > 0) {
+            logger.verbose(String.format("Coalesced %d mouse moves",
+                    userInputs.getCoalescedCount()));
+        }
+        return userInputs.toArray();
     }
 
     /**
@@ -315,6 +408,215 @@ abstract class EyesBase {
         return matchTimeout;
     }
 
+    /**
+     * While waiting for a match, the window is captured every half a second
+     * and compared locally with the last uploaded screenshot. Unchanged
+     * screenshots are not uploaded. Sets the number of consecutive captures
+     * in which the window did not change, after which the window is
+     * considered loaded, and the match is not retried anymore. By default
+     * ({@code 0}), the match is retried until the match timeout expires.
+     *
+     * @param intervals The number of unchanged captures, or {@code 0} to
+     *                  keep retrying until the match timeout expires.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setMatchStableIntervals(int intervals) {
+        if (getIsDisabled()) {
+            logger.verbose("Ignored");
+            return;
+        }
+
+        logger.verbose("setMatchStableIntervals(" + intervals + ")");
+        ArgumentGuard.greaterThanOrEqualToZero(intervals, "intervals");
+
+        this.matchStableIntervals = intervals;
+    }
+
+    /**
+     * @return The number of unchanged captures after which a match is not
+     * retried anymore, or {@code 0} if it's retried until the match timeout
+     * expires.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public int getMatchStableIntervals() {
+        return matchStableIntervals;
+    }
+
+    /**
+     * Sets a signal which determines when the application is ready for a
+     * match. By default, a match is retried every half a second until the
+     * match timeout expires, and a single match at the end of the timeout
+     * waits for the entire timeout. With a readiness signal, the match is
+     * attempted as soon as the signal is set (and at least every half a
+     * second while retrying).
+     *
+     * @param readinessSignal The readiness signal to set, or {@code null}
+     *                        to use fixed intervals.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setReadinessSignal(ReadinessSignal readinessSignal) {
+        this.readinessSignal = readinessSignal;
+        if (matchWindowTask != null) {
+            matchWindowTask.setReadinessSignal(readinessSignal);
+        }
+    }
+
+    /**
+     * @return The signal which determines when the application is ready for
+     * a match, or {@code null} if matches are performed at fixed intervals.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public ReadinessSignal getReadinessSignal() {
+        return readinessSignal;
+    }
+
+    /**
+     * Sets a local cache of the approved screenshots of checkpoints. If a
+     * screenshot is identical to the screenshot approved for its checkpoint,
+     * it is matched without waiting for the match timeout. The cache can be
+     * shared by Eyes instances.
+     *
+     * @param baselineCache The cache to use, or {@code null} for no cache.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setLocalBaselineCache(LocalBaselineCache baselineCache) {
+        this.baselineCache = baselineCache;
+        if (matchWindowTask != null) {
+            matchWindowTask.setBaselineCache(baselineCache, getAppName(),
+                    testName);
+        }
+    }
+
+    /**
+     * @return The local cache of approved screenshots, or {@code null} if
+     * there's no cache.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public LocalBaselineCache getLocalBaselineCache() {
+        return baselineCache;
+    }
+
+    /**
+     * Sets how timing tests search for a match. By default, a single thread
+     * performs the matches, and only the latest screenshot is waiting to be
+     * matched (i.e., screenshots taken while a match is in progress might
+     * never be matched).
+     *
+     * @param matchersCount  The number of threads performing matches
+     *                       concurrently.
+     * @param queueCapacity  The maximum number of screenshots waiting to be
+     *                       matched.
+     * @param overflowPolicy What to do with a new screenshot when there are
+     *                       {@code queueCapacity} screenshots waiting to be
+     *                       matched.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setResponseTimeMatchers(int matchersCount, int queueCapacity,
+            BoundedInstanceQueue.OverflowPolicy overflowPolicy) {
+        responseTimeMatcherSettings = new ResponseTimeMatcherSettings(
+                matchersCount, queueCapacity, overflowPolicy,
+                responseTimeMatcherSettings.getSearchConcurrency());
+        logger.verbose(String.format(
+                "Response time matchers set to %d (queue: %d, %s)",
+                matchersCount, queueCapacity, overflowPolicy));
+    }
+
+    /**
+     * Sets the maximum number of concurrent match requests timing tests use
+     * when searching for the earliest match among the screenshots taken
+     * before a known match. With a single request (the default) a binary
+     * search is performed. Otherwise, several screenshots are matched in
+     * each round, which requires fewer rounds.
+     *
+     * @param concurrency The maximum number of concurrent match requests.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setResponseTimeSearchConcurrency(int concurrency) {
+        ResponseTimeMatcherSettings current = responseTimeMatcherSettings;
+        responseTimeMatcherSettings = new ResponseTimeMatcherSettings(
+                current.getMatchersCount(), current.getQueueCapacity(),
+                current.getOverflowPolicy(), concurrency);
+        logger.verbose("Response time search concurrency set to "
+                + concurrency);
+    }
+
+    /**
+     * Sets whether timing tests measure times in milliseconds instead of full
+     * seconds. In high resolution mode, each screenshot is taken as soon as
+     * the previous one is done (but no sooner than {@code
+     * minCaptureInterval} after it started), only the latest {@code
+     * maxFramesCount} screenshots are kept in memory (compressed), and only
+     * the screenshots required for finding the earliest match and a few key
+     * screenshots are uploaded.
+     *
+     * @param maxFramesCount     The maximum number of screenshots kept.
+     * @param minCaptureInterval The minimum time between the starts of two
+     *                           consecutive captures. (Milliseconds)
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setResponseTimeHighResolution(int maxFramesCount,
+                                              long minCaptureInterval) {
+        responseTimeCaptureSettings = new ResponseTimeCaptureSettings(
+                maxFramesCount, minCaptureInterval);
+        logger.verbose(String.format(
+                "Response time high resolution set (frames: %d, interval: %d)",
+                maxFramesCount, minCaptureInterval));
+    }
+
+    /**
+     * See {@link #setResponseTimeHighResolution(int, long)}.
+     * If {@code highResolution} is {@code true}, {@code maxFramesCount}
+     * defaults to {@link #RESPONSE_TIME_DEFAULT_MAX_FRAMES_COUNT} and
+     * {@code minCaptureInterval} to
+     * {@link #RESPONSE_TIME_DEFAULT_MIN_CAPTURE_INTERVAL}.
+     *
+     * @param highResolution Whether to use the high resolution mode.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setResponseTimeHighResolution(boolean highResolution) {
+        if (highResolution) {
+            setResponseTimeHighResolution(
+                    RESPONSE_TIME_DEFAULT_MAX_FRAMES_COUNT,
+                    RESPONSE_TIME_DEFAULT_MIN_CAPTURE_INTERVAL);
+        } else {
+            responseTimeCaptureSettings = new ResponseTimeCaptureSettings();
+            logger.verbose("Response time high resolution disabled");
+        }
+    }
+
+    /**
+     * @return Whether timing tests measure times in milliseconds.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public boolean getResponseTimeHighResolution() {
+        return responseTimeCaptureSettings.getHighResolution();
+    }
+
+    /**
+     * Sets the executor on which timing tests run the matcher tasks (the
+     * action runs on {@link EyesExecutors#getActionExecutor()}, so it's never
+     * queued behind matchers). The executor is not shut down by the SDK.
+     * On newer JVMs, an executor of virtual threads can be created using
+     * {@link EyesExecutors#newBoundedExecutor(String, int, boolean)}.
+     *
+     * @param executor The executor to use, or {@code null} to use the
+     *                 executor shared by all timing tests
+     *                 ({@link EyesExecutors#getDefaultResponseTimeExecutor()}).
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setResponseTimeExecutor(ExecutorService executor) {
+        responseTimeExecutor = executor;
+    }
+
+    /**
+     * @return The executor on which timing tests run the matcher tasks.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public ExecutorService getResponseTimeExecutor() {
+        return responseTimeExecutor != null ? responseTimeExecutor :
+                EyesExecutors.getDefaultResponseTimeExecutor();
+    }
+
     /**
      * Set whether or not new tests are saved by default.
      *
@@ -580,56 +882,211 @@ abstract class EyesBase {
             TestResults results =
                     serverConnector.stopSession(runningSession, false,
                             save);
+            return processCloseResults(results, isNewSession,
+                    sessionResultsUrl, sessionStartInfo, throwEx);
+        } finally {
+            // Making sure that we reset the running session even if an
+            // exception was thrown during close.
+            runningSession = null;
+            currentAppName = null;
+            logger.getLogHandler().close();
+        }
+    }
 
-            results.setNew(isNewSession);
-            results.setUrl(sessionResultsUrl);
-            logger.verbose(results.toString());
+    /**
+     * Completes the results of a stopped session and logs them.
+     *
+     * @param results           The results returned by the server.
+     * @param isNewSession      Whether the session was a new session.
+     * @param sessionResultsUrl The URL of the session's results.
+     * @param startInfo         The start info of the session.
+     * @param throwEx           If true, an exception will be thrown for
+     *                          failed/new tests.
+     * @return The test results.
+     * @throws TestFailedException if a mismatch was found and throwEx is true.
+     * @throws NewTestException    if this is a new test was found and throwEx
+     *                             is true.
+     */
+    private TestResults processCloseResults(TestResults results,
+            boolean isNewSession, String sessionResultsUrl,
+            SessionStartInfo startInfo, boolean throwEx) {
+        results.setNew(isNewSession);
+        results.setUrl(sessionResultsUrl);
+        logger.verbose(results.toString());
 
-            String instructions;
-            if (!isNewSession &&
-                    (0 < results.getMismatches() || 0 < results.getMissing())) {
+        String instructions;
+        if (!isNewSession &&
+                (0 < results.getMismatches() || 0 < results.getMissing())) {
 
-                logger.log("--- Failed test ended. See details at "
-                        + sessionResultsUrl);
+            logger.log("--- Failed test ended. See details at "
+                    + sessionResultsUrl);
 
-                if (throwEx) {
-                    String message =
-                            "'" + sessionStartInfo.getScenarioIdOrName()
-                                    + "' of '"
-                                    + sessionStartInfo.getAppIdOrName()
-                                    + "'. See details at " + sessionResultsUrl;
-                    throw new TestFailedException(results, message);
-                }
-                return results;
+            if (throwEx) {
+                String message =
+                        "'" + startInfo.getScenarioIdOrName()
+                                + "' of '"
+                                + startInfo.getAppIdOrName()
+                                + "'. See details at " + sessionResultsUrl;
+                throw new TestFailedException(results, message);
             }
+            return results;
+        }
 
-            if (isNewSession) {
-                instructions = "Please approve the new baseline at "
-                        + sessionResultsUrl;
+        if (isNewSession) {
+            instructions = "Please approve the new baseline at "
+                    + sessionResultsUrl;
 
-                logger.log("--- New test ended. " + instructions);
+            logger.log("--- New test ended. " + instructions);
 
-                if (throwEx) {
-                    String message =
-                            "'" + sessionStartInfo.getScenarioIdOrName()
-                                    + "' of '" + sessionStartInfo
-                                    .getAppIdOrName()
-                                    + "'. " + instructions;
-                    throw new NewTestException(results, message);
-                }
-                return results;
+            if (throwEx) {
+                String message =
+                        "'" + startInfo.getScenarioIdOrName()
+                                + "' of '" + startInfo
+                                .getAppIdOrName()
+                                + "'. " + instructions;
+                throw new NewTestException(results, message);
             }
+            return results;
+        }
 
-            // Test passed
-            logger.log("--- Test passed. See details at " + sessionResultsUrl);
+        // Test passed
+        logger.log("--- Test passed. See details at " + sessionResultsUrl);
 
-            return results;
+        return results;
+    }
+
+    /**
+     * See {@link #closeAsync(boolean)}.
+     * {@code throwEx} defaults to {@code true}.
+     *
+     * @return A future for the test results.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public Future<TestResults> closeAsync() {
+        return closeAsync(true);
+    }
+
+    /**
+     * Ends the test, like {@link #close(boolean)}, without blocking the
+     * calling thread while the server is processing the session. This
+     * enables closing many tests concurrently using a few threads. The
+     * instance should not be opened again before the returned future is
+     * done. If the server connector isn't an {@link AsyncServerConnector},
+     * the session is stopped on the calling thread.
+     *
+     * @param throwEx If true, the future fails for failed/new tests.
+     * @return A future for the test results. If a mismatch was found and
+     * {@code throwEx} is true, it fails with a {@link TestFailedException},
+     * and if this is a new test and {@code throwEx} is true, it fails with a
+     * {@link NewTestException}.
+     */
+    public Future<TestResults> closeAsync(boolean throwEx) {
+        SettableFuture<TestResults> resultsFuture =
+                new SettableFuture<TestResults>();
+        closeAsync(throwEx, resultsFuture);
+        return resultsFuture;
+    }
+
+    /**
+     * Ends the test, like {@link #closeAsync(boolean)}, and reports the
+     * results to the given listener instead of through a future.
+     *
+     * @param throwEx  If true, failed/new tests are reported as failures.
+     * @param listener Receives the test results, or, if a mismatch was found
+     *                 and {@code throwEx} is true, a
+     *                 {@link TestFailedException}, and if this is a new test
+     *                 and {@code throwEx} is true, a
+     *                 {@link NewTestException}.
+     */
+    public void closeAsync(final boolean throwEx,
+                           final TaskListener<TestResults> listener) {
+        ArgumentGuard.notNull(listener, "listener");
+        if (isDisabled) {
+            logger.verbose("Ignored");
+            listener.onComplete(null);
+            return;
+        }
+
+        boolean isStopping = false;
+        try {
+            logger.verbose(String.format("closeAsync(%b)", throwEx));
+            ArgumentGuard.isValidState(isOpen, "Eyes not open");
+
+            isOpen = false;
+
+            lastScreenshot = null;
+            clearUserInputs();
+
+            if (runningSession == null) {
+                logger.verbose("Server session was not started");
+                logger.log("--- Empty test ended.");
+                listener.onComplete(new TestResults());
+                return;
+            }
+
+            final boolean isNewSession = runningSession.getIsNewSession();
+            final String sessionResultsUrl = runningSession.getUrl();
+            final SessionStartInfo startInfo = sessionStartInfo;
+
+            logger.verbose("Ending server session asynchronously...");
+            boolean save = (isNewSession && saveNewTests)
+                    || (!isNewSession && saveFailedTests);
+            logger.verbose("Automatically save test? " + String.valueOf(save));
+            TaskListener<TestResults> stopListener =
+                    new TaskListener<TestResults>() {
+                        public void onComplete(TestResults results) {
+                            TestResults processedResults;
+                            try {
+                                processedResults = processCloseResults(
+                                        results, isNewSession,
+                                        sessionResultsUrl, startInfo,
+                                        throwEx);
+                            } catch (Throwable e) {
+                                // TestFailedException is an AssertionError.
+                                logger.getLogHandler().close();
+                                listener.onFail(e);
+                                return;
+                            }
+                            logger.getLogHandler().close();
+                            listener.onComplete(processedResults);
+                        }
+
+                        public void onFail(Throwable cause) {
+                            logger.log("Failed to end server session: "
+                                    + cause.getMessage());
+                            logger.getLogHandler().close();
+                            listener.onFail(cause);
+                        }
+                    };
+            if (serverConnector instanceof AsyncServerConnector) {
+                ((AsyncServerConnector) serverConnector).stopSessionAsync(
+                        runningSession, false, save, stopListener);
+            } else {
+                // The connector can only stop sessions synchronously.
+                TestResults results = null;
+                Throwable failure = null;
+                try {
+                    results = serverConnector.stopSession(runningSession,
+                            false, save);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                if (failure != null) {
+                    stopListener.onFail(failure);
+                } else {
+                    stopListener.onComplete(results);
+                }
+            }
+            isStopping = true;
         } finally {
             // Making sure that we reset the running session even if an
-            // exception was thrown during close.
+            // exception was thrown during close. The log handler is closed
+            // once the session is stopped.
             runningSession = null;
             currentAppName = null;
-            logger.getLogHandler().close();
+            if (!isStopping) {
+                logger.getLogHandler().close();
+            }
         }
     }
 
@@ -986,35 +1443,94 @@ abstract class EyesBase {
         }
 
         if (runningSession == null) {
-            logger.verbose("No running session, calling start session..");
-            startSession();
-            logger.verbose("Done!");
-
-            matchWindowTask = new MatchWindowTask(
-                    logger,
-                    serverConnector,
-                    runningSession,
-                    matchTimeout,
-                    // A callback which will call getAppOutput
-                    new AppOutputProvider() {
-                        public AppOutputWithScreenshot getAppOutput(
-                                RegionProvider regionProvider_,
-                                EyesScreenshot lastScreenshot_) {
-
-                            return getAppOutputWithScreenshot(
-                                    regionProvider_, lastScreenshot_);
-                        }
-                    }
-            );
+            startSessionForMatchWindow();
         }
 
         logger.verbose("Calling match window...");
+        matchWindowTask.setExactMatchSettings(defaultMatchSettings.getExact());
         result = matchWindowTask.matchWindow(getUserInputs(), lastScreenshot,
                 regionProvider, tag,
                 shouldMatchWindowRunOnceOnTimeout, ignoreMismatch,
                 retryTimeout);
+        logger.verbose(String.format(
+                "MatchWindow Done! (Session uploads: %d, skipped: %d, "
+                        + "preverified: %d)",
+                matchWindowTask.getUploadsCount(),
+                matchWindowTask.getSkippedUploadsCount(),
+                matchWindowTask.getPreverifiedCount()));
+
+        handleMatchResult(result, tag, ignoreMismatch);
+
+        logger.verbose("Done!");
+        return result;
+    }
+
+    /**
+     * Matches an already prepared application output with the expected
+     * output. Unlike {@link #checkWindowBase(RegionProvider, String,
+     * boolean, int)}, the match is performed once, without retries.
+     *
+     * @param appOutput      The application output to match, e.g., as
+     *                       returned by
+     *                       {@link #prepareAppOutput(EyesScreenshot, String)}.
+     * @param tag            An optional tag to be associated with the
+     *                       snapshot.
+     * @param ignoreMismatch Whether to ignore this check if a mismatch is
+     *                       found.
+     * @return The result of matching the output with the expected output.
+     * @throws com.applitools.eyes.TestFailedException Thrown if a mismatch is
+     *          detected and immediate failure reports are enabled.
+     */
+    protected MatchResult checkAppOutputBase(AppOutputWithScreenshot appOutput,
+                                             String tag,
+                                             boolean ignoreMismatch) {
+
+        MatchResult result;
+
+        if (getIsDisabled()) {
+            logger.verbose("Ignored");
+            result = new MatchResult();
+            result.setAsExpected(true);
+            return result;
+        }
+
+        ArgumentGuard.isValidState(getIsOpen(), "Eyes not open");
+        ArgumentGuard.notNull(appOutput, "appOutput");
+
+        logger.verbose(String.format("CheckAppOutputBase(appOutput, '%s', %b)",
+                tag, ignoreMismatch));
+
+        if (tag == null) {
+            tag = "";
+        }
+
+        if (runningSession == null) {
+            startSessionForMatchWindow();
+        }
+
+        logger.verbose("Calling match window...");
+        result = matchWindowTask.performMatch(getUserInputs(), appOutput, tag,
+                ignoreMismatch);
+        result.setScreenshot(appOutput.getScreenshot());
         logger.verbose("MatchWindow Done!");
 
+        handleMatchResult(result, tag, ignoreMismatch);
+
+        logger.verbose("Done!");
+        return result;
+    }
+
+    /**
+     * Updates the state following a match, and reports a mismatch if needed.
+     *
+     * @param result         The result of the match.
+     * @param tag            The tag associated with the match.
+     * @param ignoreMismatch Whether the match was set to ignore a mismatch.
+     * @throws com.applitools.eyes.TestFailedException Thrown if a mismatch is
+     *          detected and immediate failure reports are enabled.
+     */
+    private void handleMatchResult(MatchResult result, String tag,
+                                   boolean ignoreMismatch) {
         if (!result.getAsExpected()) {
             if (!ignoreMismatch) {
                 clearUserInputs();
@@ -1037,9 +1553,190 @@ abstract class EyesBase {
             clearUserInputs();
             lastScreenshot = result.getScreenshot();
         }
+    }
 
+    /**
+     * Takes a single snapshot of the application under test and matches each
+     * of the given regions within it as a separate checkpoint. The regions
+     * are cropped and compressed concurrently, and the checkpoints are sent
+     * in the order of the given regions (so the steps order in the session
+     * is the same as the order of {@code tags}). Since all regions are taken
+     * from the same snapshot, there is no retry on mismatch.
+     *
+     * @param regions         The regions to check.
+     * @param coordinatesType The coordinates type of {@code regions}.
+     * @param tags            The tags to be associated with each of the
+     *                        regions (same length as {@code regions}).
+     *                        Entries can be {@code null}.
+     * @param ignoreMismatch  Whether to ignore the checks if a mismatch is
+     *                        found.
+     * @return The result of matching each of the regions, in the order of
+     * {@code regions}.
+     * @throws com.applitools.eyes.TestFailedException Thrown if a mismatch is
+     *          detected and immediate failure reports are enabled. This is
+     *          only thrown after all regions were checked.
+     */
+    protected MatchResult[] checkRegionsBase(Region[] regions,
+                                             CoordinatesType coordinatesType,
+                                             String[] tags,
+                                             boolean ignoreMismatch) {
+
+        MatchResult[] results;
+
+        if (getIsDisabled()) {
+            logger.verbose("Ignored");
+            results = new MatchResult[regions == null ? 0 : regions.length];
+            for (int i = 0; i < results.length; ++i) {
+                results[i] = new MatchResult();
+                results[i].setAsExpected(true);
+            }
+            return results;
+        }
+
+        ArgumentGuard.isValidState(getIsOpen(), "Eyes not open");
+        ArgumentGuard.notNull(regions, "regions");
+        ArgumentGuard.notNull(coordinatesType, "coordinatesType");
+        ArgumentGuard.notNull(tags, "tags");
+        if (regions.length != tags.length) {
+            throw new IllegalArgumentException(
+                    "regions and tags must have the same length!");
+        }
+
+        logger.verbose(String.format("checkRegionsBase(%d regions, %s, %b)",
+                regions.length, coordinatesType, ignoreMismatch));
+
+        results = new MatchResult[regions.length];
+        if (regions.length == 0) {
+            return results;
+        }
+
+        if (runningSession == null) {
+            startSessionForMatchWindow();
+        }
+
+        logger.verbose("Getting screenshot...");
+        EyesScreenshot screenshot = getScreenshot();
+        logger.verbose("Done! Getting title...");
+        final String title = getTitle();
+        Trigger[] userInputs = getUserInputs();
         logger.verbose("Done!");
-        return result;
+
+        ExecutorService compressionExecutor =
+                EyesExecutors.getComputeExecutor();
+        List<Future<AppOutputWithScreenshot>> appOutputs =
+                new ArrayList<Future<AppOutputWithScreenshot>>(
+                        regions.length);
+        try {
+            // Sub-screenshots are created on the calling thread, since
+            // creating a screenshot object might use the driver.
+            for (Region region : regions) {
+                ArgumentGuard.notNull(region, "region");
+                final EyesScreenshot subScreenshot =
+                        screenshot.getSubScreenshotView(region,
+                                coordinatesType);
+                appOutputs.add(compressionExecutor.submit(
+                        new Callable<AppOutputWithScreenshot>() {
+                            public AppOutputWithScreenshot call() {
+                                return prepareAppOutput(subScreenshot, title);
+                            }
+                        }));
+            }
+
+            // Checkpoints are sent in order, while the rest of the regions
+            // are still being compressed.
+            for (int i = 0; i < regions.length; ++i) {
+                AppOutputWithScreenshot appOutput =
+                        getPreparedAppOutput(appOutputs.get(i));
+                String tag = tags[i] == null ? "" : tags[i];
+                logger.verbose(String.format(
+                        "Calling match window for region %d ('%s')...", i,
+                        tag));
+                // User inputs only precede the first checkpoint.
+                results[i] = matchWindowTask.performMatch(
+                        i == 0 ? userInputs : new Trigger[0], appOutput, tag,
+                        ignoreMismatch);
+                results[i].setScreenshot(appOutput.getScreenshot());
+            }
+        } finally {
+            // If a match failed, the rest of the regions aren't needed.
+            for (Future<AppOutputWithScreenshot> appOutput : appOutputs) {
+                appOutput.cancel(true);
+            }
+        }
+        logger.verbose("MatchWindow Done!");
+
+        boolean isMismatch = false;
+        for (int i = 0; i < results.length; ++i) {
+            if (!results[i].getAsExpected()) {
+                isMismatch = true;
+                if (!runningSession.getIsNewSession()) {
+                    logger.log(String.format("Mismatch! (%s)", tags[i]));
+                }
+            }
+        }
+
+        if (!isMismatch || !ignoreMismatch) {
+            clearUserInputs();
+            // The entire screenshot is used as the last screenshot, since
+            // triggers are relative to it.
+            lastScreenshot = screenshot;
+        }
+
+        if (isMismatch) {
+            shouldMatchWindowRunOnceOnTimeout = true;
+
+            if (getFailureReports() == FailureReports.IMMEDIATE) {
+                throw new TestFailedException(String.format(
+                        "Mismatch found in '%s' of '%s'",
+                        sessionStartInfo.getScenarioIdOrName(),
+                        sessionStartInfo.getAppIdOrName()));
+            }
+        }
+
+        logger.verbose("Done!");
+        return results;
+    }
+
+    /**
+     * Creates the application output for the given screenshot, so it can be
+     * matched using {@link #checkAppOutputBase(AppOutputWithScreenshot,
+     * String, boolean)}. The screenshot is compressed without delta
+     * compression, as the screenshot preceding it might not be known yet.
+     * This method does not modify the state of this instance, and can be
+     * called concurrently from multiple threads.
+     *
+     * @param screenshot The screenshot to use.
+     * @param title      The title to be associated with the screenshot.
+     * @return The application output.
+     */
+    protected AppOutputWithScreenshot prepareAppOutput(
+            EyesScreenshot screenshot, String title) {
+        ArgumentGuard.notNull(screenshot, "screenshot");
+        String compressResult = compressScreenshot64(screenshot, null);
+        return new AppOutputWithScreenshot(
+                new AppOutput(title, compressResult), screenshot);
+    }
+
+    /**
+     * Waits for an application output which is prepared asynchronously.
+     *
+     * @param appOutput The future result of preparing an app output.
+     * @return The prepared app output.
+     */
+    protected AppOutputWithScreenshot getPreparedAppOutput(
+            Future<AppOutputWithScreenshot> appOutput) {
+        try {
+            return appOutput.get();
+        } catch (InterruptedException e) {
+            throw new EyesException(
+                    "Interrupted while preparing app output!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new EyesException("Failed to prepare app output!",
+                    e.getCause());
+        }
     }
 
     /**
@@ -1083,16 +1780,41 @@ abstract class EyesBase {
             logger.verbose("Done!");
         }
 
+        ExecutorService executor = getResponseTimeExecutor();
+
         //If there's an action to do
-        Thread actionThread = null;
+        Future<?> actionFuture = null;
+        long startTime;
         if (action != null) {
+            // The action runs on its own executor, so it doesn't wait for
+            // the matchers' threads. The clock starts when the action does.
             logger.verbose("Starting webdriver action.");
-            actionThread = new Thread(action);
-            actionThread.start();
+            final Runnable userAction = action;
+            final CountDownLatch actionStarted = new CountDownLatch(1);
+            final AtomicLong actionStartTime = new AtomicLong();
+            actionFuture = EyesExecutors.getActionExecutor().submit(
+                    new Runnable() {
+                        public void run() {
+                            actionStartTime.set(System.currentTimeMillis());
+                            actionStarted.countDown();
+                            userAction.run();
+                        }
+                    });
+            try {
+                if (!actionStarted.await(timeout, TimeUnit.SECONDS)) {
+                    logger.log("WARNING: 'action' didn't start in time!");
+                }
+            } catch (InterruptedException e) {
+                actionFuture.cancel(true);
+                throw new EyesException(
+                        "Interrupted while waiting for 'action' to start!", e);
+            }
+            startTime = actionStarted.getCount() == 0 ?
+                    actionStartTime.get() : System.currentTimeMillis();
+        } else {
+            startTime = System.currentTimeMillis();
         }
 
-        long startTime = System.currentTimeMillis();
-
         // A callback which will call getAppOutput
         AppOutputProvider appOutputProvider = new AppOutputProvider() {
             public AppOutputWithScreenshot getAppOutput(
@@ -1110,7 +1832,8 @@ abstract class EyesBase {
         if (runningSession.getIsNewSession()) {
             ResponseTimeAlgorithm.runNewProgressionSession(logger,
                     serverConnector, runningSession, appOutputProvider,
-                    regionProvider, startTime, deadline);
+                    regionProvider, startTime, deadline,
+                    responseTimeCaptureSettings);
             // Since there's never a match for a new session..
             result = null;
         } else {
@@ -1118,17 +1841,28 @@ abstract class EyesBase {
                 ResponseTimeAlgorithm.runProgressionSessionForExistingBaseline(
                         logger, serverConnector, runningSession,
                         appOutputProvider, regionProvider, startTime,
-                        deadline, timeout, matchInterval);
+                        deadline, timeout, matchInterval,
+                        responseTimeMatcherSettings,
+                        responseTimeCaptureSettings, executor);
         }
 
-        if (actionThread != null) {
-            // FIXME - Replace join with wait to according to the parameters
-            logger.verbose("Making sure 'action' thread had finished...");
+        if (actionFuture != null) {
+            // The action is given until the test's timeout to finish.
+            logger.verbose("Making sure 'action' had finished...");
+            long timeToWait = startTime + (timeout * 1000L) -
+                    System.currentTimeMillis();
             try {
-                actionThread.join(30000);
+                actionFuture.get(Math.max(0, timeToWait),
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.verbose("'action' still running. Cancelling it..");
+                actionFuture.cancel(true);
+            } catch (ExecutionException e) {
+                logger.log("'action' failed: " + e.getCause());
             } catch (InterruptedException e) {
                 logger.verbose(
                     "Got interrupted while waiting for 'action' to finish!");
+                actionFuture.cancel(true);
             }
         }
 
@@ -1291,10 +2025,10 @@ abstract class EyesBase {
             return;
         }
 
-        Trigger trigger = new TextTrigger(control, text);
-        addUserInput(trigger);
+        userInputs.addText(control.getLeft(), control.getTop(),
+                control.getWidth(), control.getHeight(), text);
 
-        logger.verbose(String.format("Added %s", trigger));
+        logger.verbose(String.format("Added Text [%s] %s", control, text));
     }
 
     /**
@@ -1349,11 +2083,14 @@ abstract class EyesBase {
             cursorInScreenshot.offset(-l.getX(), -l.getY());
         }
 
-        Trigger trigger = new MouseTrigger(action, controlScreenshotIntersect,
-                cursorInScreenshot);
-        addUserInput(trigger);
+        userInputs.addMouse(action, controlScreenshotIntersect.getLeft(),
+                controlScreenshotIntersect.getTop(),
+                controlScreenshotIntersect.getWidth(),
+                controlScreenshotIntersect.getHeight(),
+                cursorInScreenshot.getX(), cursorInScreenshot.getY());
 
-        logger.verbose(String.format("Added %s", trigger));
+        logger.verbose(String.format("Added %s [%s] %s", action,
+                controlScreenshotIntersect, cursorInScreenshot));
     }
 
     // FIXME add getScreenshot (Wrapper) ?? (Check EyesBase in .NET)
@@ -1425,6 +2162,37 @@ abstract class EyesBase {
         }
     }
 
+    /**
+     * Starts a session on the eyes server and creates the match window task
+     * for it.
+     */
+    private void startSessionForMatchWindow() {
+        logger.verbose("No running session, calling start session..");
+        startSession();
+        logger.verbose("Done!");
+
+        matchWindowTask = new MatchWindowTask(
+                logger,
+                serverConnector,
+                runningSession,
+                matchTimeout,
+                // A callback which will call getAppOutput
+                new AppOutputProvider() {
+                    public AppOutputWithScreenshot getAppOutput(
+                            RegionProvider regionProvider_,
+                            EyesScreenshot lastScreenshot_) {
+
+                        return getAppOutputWithScreenshot(
+                                regionProvider_, lastScreenshot_);
+                    }
+                },
+                matchStableIntervals
+        );
+        matchWindowTask.setReadinessSignal(readinessSignal);
+        matchWindowTask.setBaselineCache(baselineCache, getAppName(),
+                testName);
+    }
+
     /**
      * @param regionProvider      A callback for getting the region of the
      *                            screenshot which will be set in the
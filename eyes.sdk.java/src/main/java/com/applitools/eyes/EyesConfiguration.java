@@ -0,0 +1,531 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * An immutable set of Eyes settings, which can be shared by tests running
+ * in parallel (e.g., via an {@link EyesRunner}) and applied to any number of
+ * Eyes instances. Instances are created using a {@link Builder}. Settings
+ * which are not set keep the defaults of the Eyes instance they are applied
+ * to.
+ */
+public final class EyesConfiguration {
+
+    /**
+     * Builds {@link EyesConfiguration} instances. Unlike the configuration
+     * itself, a builder is not thread safe.
+     */
+    public static class Builder {
+        private String apiKey;
+        private URI serverUrl;
+        private ProxySettings proxySettings;
+        private RetryPolicy retryPolicy;
+        private String appName;
+        private BatchInfo batch;
+        private String branchName;
+        private String parentBranchName;
+        private String baselineEnvName;
+        private String envName;
+        private String hostOS;
+        private String hostApp;
+        private Integer matchTimeout;
+        private Integer matchStableIntervals;
+        private MatchLevel matchLevel;
+        private ExactMatchSettings exactMatchSettings;
+        private FailureReports failureReports;
+        private Boolean saveNewTests;
+        private Boolean saveFailedTests;
+        private ExecutorService responseTimeExecutor;
+
+        /**
+         * Creates a builder with no settings set.
+         */
+        public Builder() {}
+
+        /**
+         * Creates a builder with the settings of the given configuration.
+         *
+         * @param configuration The configuration to start with.
+         */
+        public Builder(EyesConfiguration configuration) {
+            ArgumentGuard.notNull(configuration, "configuration");
+            copyFrom(configuration.builder);
+        }
+
+        /**
+         * @param apiKey The API key of your Applitools Eyes account.
+         * @return This builder.
+         */
+        public Builder setApiKey(String apiKey) {
+            ArgumentGuard.notNull(apiKey, "apiKey");
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * @param serverUrl The URI of the Eyes server.
+         * @return This builder.
+         */
+        public Builder setServerUrl(URI serverUrl) {
+            this.serverUrl = serverUrl;
+            return this;
+        }
+
+        /**
+         * @param proxySettings The proxy settings for communicating with the
+         *                      Eyes server.
+         * @return This builder.
+         */
+        public Builder setProxy(ProxySettings proxySettings) {
+            this.proxySettings = proxySettings;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy The policy for retrying requests to the Eyes
+         *                    server.
+         * @return This builder.
+         */
+        public Builder setServerRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param appName The name of the application under test.
+         * @return This builder.
+         */
+        public Builder setAppName(String appName) {
+            this.appName = appName;
+            return this;
+        }
+
+        /**
+         * @param batch The batch in which context the tests run.
+         * @return This builder.
+         */
+        public Builder setBatch(BatchInfo batch) {
+            this.batch = batch;
+            return this;
+        }
+
+        /**
+         * @param branchName The branch in which the baseline should be
+         *                   created.
+         * @return This builder.
+         */
+        public Builder setBranchName(String branchName) {
+            this.branchName = branchName;
+            return this;
+        }
+
+        /**
+         * @param parentBranchName The branch under which new branches are
+         *                         created.
+         * @return This builder.
+         */
+        public Builder setParentBranchName(String parentBranchName) {
+            this.parentBranchName = parentBranchName;
+            return this;
+        }
+
+        /**
+         * @param baselineEnvName The name of the baseline's environment.
+         * @return This builder.
+         */
+        public Builder setBaselineEnvName(String baselineEnvName) {
+            this.baselineEnvName = baselineEnvName;
+            return this;
+        }
+
+        /**
+         * @param envName The name of the environment of the tests.
+         * @return This builder.
+         */
+        public Builder setEnvName(String envName) {
+            this.envName = envName;
+            return this;
+        }
+
+        /**
+         * @param hostOS The OS on which the application runs.
+         * @return This builder.
+         */
+        public Builder setHostOS(String hostOS) {
+            this.hostOS = hostOS;
+            return this;
+        }
+
+        /**
+         * @param hostApp The application in which the application under test
+         *                runs (e.g., the browser).
+         * @return This builder.
+         */
+        public Builder setHostApp(String hostApp) {
+            this.hostApp = hostApp;
+            return this;
+        }
+
+        /**
+         * @param seconds The maximal time a match operation tries to perform
+         *                a match.
+         * @return This builder.
+         */
+        public Builder setMatchTimeout(int seconds) {
+            ArgumentGuard.greaterThanOrEqualToZero(seconds, "seconds");
+            this.matchTimeout = seconds;
+            return this;
+        }
+
+        /**
+         * @param intervals The number of unchanged captures after which a
+         *                  match is not retried anymore.
+         * @return This builder.
+         */
+        public Builder setMatchStableIntervals(int intervals) {
+            ArgumentGuard.greaterThanOrEqualToZero(intervals, "intervals");
+            this.matchStableIntervals = intervals;
+            return this;
+        }
+
+        /**
+         * @param matchSettings The default match settings. The settings are
+         *                      copied, so changing them afterwards does not
+         *                      affect the configuration.
+         * @return This builder.
+         */
+        public Builder setDefaultMatchSettings(
+                ImageMatchSettings matchSettings) {
+            ArgumentGuard.notNull(matchSettings, "matchSettings");
+            this.matchLevel = matchSettings.getMatchLevel();
+            this.exactMatchSettings = copyOf(matchSettings.getExact());
+            return this;
+        }
+
+        /**
+         * @param failureReports The failure reports setting.
+         * @return This builder.
+         */
+        public Builder setFailureReports(FailureReports failureReports) {
+            this.failureReports = failureReports;
+            return this;
+        }
+
+        /**
+         * @param saveNewTests Whether new tests are saved automatically.
+         * @return This builder.
+         */
+        public Builder setSaveNewTests(boolean saveNewTests) {
+            this.saveNewTests = saveNewTests;
+            return this;
+        }
+
+        /**
+         * @param saveFailedTests Whether failed tests are saved
+         *                        automatically.
+         * @return This builder.
+         */
+        public Builder setSaveFailedTests(boolean saveFailedTests) {
+            this.saveFailedTests = saveFailedTests;
+            return this;
+        }
+
+        /**
+         * @param executor The executor for running timing tests.
+         * @return This builder.
+         */
+        public Builder setResponseTimeExecutor(ExecutorService executor) {
+            this.responseTimeExecutor = executor;
+            return this;
+        }
+
+        /**
+         * @return A configuration with the builder's current settings.
+         */
+        public EyesConfiguration build() {
+            Builder copy = new Builder();
+            copy.copyFrom(this);
+            return new EyesConfiguration(copy);
+        }
+
+        private void copyFrom(Builder other) {
+            apiKey = other.apiKey;
+            serverUrl = other.serverUrl;
+            proxySettings = other.proxySettings;
+            retryPolicy = other.retryPolicy;
+            appName = other.appName;
+            batch = other.batch;
+            branchName = other.branchName;
+            parentBranchName = other.parentBranchName;
+            baselineEnvName = other.baselineEnvName;
+            envName = other.envName;
+            hostOS = other.hostOS;
+            hostApp = other.hostApp;
+            matchTimeout = other.matchTimeout;
+            matchStableIntervals = other.matchStableIntervals;
+            matchLevel = other.matchLevel;
+            exactMatchSettings = other.exactMatchSettings;
+            failureReports = other.failureReports;
+            saveNewTests = other.saveNewTests;
+            saveFailedTests = other.saveFailedTests;
+            responseTimeExecutor = other.responseTimeExecutor;
+        }
+    }
+
+    // A private copy of the builder which created the configuration.
+    private final Builder builder;
+
+    private EyesConfiguration(Builder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * @return The API key, or {@code null} if not set.
+     */
+    public String getApiKey() {
+        return builder.apiKey;
+    }
+
+    /**
+     * @return The URI of the Eyes server, or {@code null} if not set.
+     */
+    public URI getServerUrl() {
+        return builder.serverUrl;
+    }
+
+    /**
+     * @return The proxy settings, or {@code null} if not set.
+     */
+    public ProxySettings getProxy() {
+        return builder.proxySettings;
+    }
+
+    /**
+     * @return The server retry policy, or {@code null} if not set.
+     */
+    public RetryPolicy getServerRetryPolicy() {
+        return builder.retryPolicy;
+    }
+
+    /**
+     * @return The name of the application under test, or {@code null} if
+     * not set.
+     */
+    public String getAppName() {
+        return builder.appName;
+    }
+
+    /**
+     * @return The batch, or {@code null} if not set.
+     */
+    public BatchInfo getBatch() {
+        return builder.batch;
+    }
+
+    /**
+     * @return The branch name, or {@code null} if not set.
+     */
+    public String getBranchName() {
+        return builder.branchName;
+    }
+
+    /**
+     * @return The parent branch name, or {@code null} if not set.
+     */
+    public String getParentBranchName() {
+        return builder.parentBranchName;
+    }
+
+    /**
+     * @return The name of the baseline's environment, or {@code null} if not
+     * set.
+     */
+    public String getBaselineEnvName() {
+        return builder.baselineEnvName;
+    }
+
+    /**
+     * @return The name of the environment of the tests, or {@code null} if
+     * not set.
+     */
+    public String getEnvName() {
+        return builder.envName;
+    }
+
+    /**
+     * @return The host OS, or {@code null} if not set.
+     */
+    public String getHostOS() {
+        return builder.hostOS;
+    }
+
+    /**
+     * @return The host application, or {@code null} if not set.
+     */
+    public String getHostApp() {
+        return builder.hostApp;
+    }
+
+    /**
+     * @return The match timeout in seconds, or {@code null} if not set.
+     */
+    public Integer getMatchTimeout() {
+        return builder.matchTimeout;
+    }
+
+    /**
+     * @return The number of unchanged captures after which a match is not
+     * retried anymore, or {@code null} if not set.
+     */
+    public Integer getMatchStableIntervals() {
+        return builder.matchStableIntervals;
+    }
+
+    /**
+     * @return A copy of the default match settings, or {@code null} if not
+     * set.
+     */
+    public ImageMatchSettings getDefaultMatchSettings() {
+        if (builder.matchLevel == null) {
+            return null;
+        }
+        return new ImageMatchSettings(builder.matchLevel,
+                copyOf(builder.exactMatchSettings));
+    }
+
+    /**
+     * @return The failure reports setting, or {@code null} if not set.
+     */
+    public FailureReports getFailureReports() {
+        return builder.failureReports;
+    }
+
+    /**
+     * @return Whether new tests are saved automatically, or {@code null} if
+     * not set.
+     */
+    public Boolean getSaveNewTests() {
+        return builder.saveNewTests;
+    }
+
+    /**
+     * @return Whether failed tests are saved automatically, or {@code null}
+     * if not set.
+     */
+    public Boolean getSaveFailedTests() {
+        return builder.saveFailedTests;
+    }
+
+    /**
+     * @return The executor for running timing tests, or {@code null} if not
+     * set.
+     */
+    public ExecutorService getResponseTimeExecutor() {
+        return builder.responseTimeExecutor;
+    }
+
+    /**
+     * Applies the configuration to an Eyes instance.
+     *
+     * @param eyes The Eyes instance to configure.
+     */
+    public void applyTo(EyesBase eyes) {
+        ArgumentGuard.notNull(eyes, "eyes");
+        applyTo(eyes.serverConnector);
+        applySessionSettingsTo(eyes);
+    }
+
+    /**
+     * Applies the server settings (API key, server URL, proxy and retry
+     * policy) to a server connector.
+     *
+     * @param serverConnector The server connector to configure.
+     */
+    void applyTo(ServerConnector serverConnector) {
+        if (builder.apiKey != null) {
+            serverConnector.setApiKey(builder.apiKey);
+        }
+        if (builder.serverUrl != null) {
+            serverConnector.setServerUrl(builder.serverUrl);
+        }
+        if (builder.proxySettings != null) {
+            serverConnector.setProxy(builder.proxySettings);
+        }
+        if (builder.retryPolicy != null &&
+                serverConnector instanceof RetryingServerConnector) {
+            ((RetryingServerConnector) serverConnector).setRetryPolicy(
+                    builder.retryPolicy);
+        }
+    }
+
+    /**
+     * Applies all the settings except for the server settings to an Eyes
+     * instance.
+     *
+     * @param eyes The Eyes instance to configure.
+     */
+    void applySessionSettingsTo(EyesBase eyes) {
+        if (builder.appName != null) {
+            eyes.setAppName(builder.appName);
+        }
+        if (builder.batch != null) {
+            eyes.setBatch(builder.batch);
+        }
+        if (builder.branchName != null) {
+            eyes.setBranchName(builder.branchName);
+        }
+        if (builder.parentBranchName != null) {
+            eyes.setParentBranchName(builder.parentBranchName);
+        }
+        if (builder.baselineEnvName != null) {
+            eyes.setBaselineEnvName(builder.baselineEnvName);
+        }
+        if (builder.envName != null) {
+            eyes.setEnvName(builder.envName);
+        }
+        if (builder.hostOS != null) {
+            eyes.setHostOS(builder.hostOS);
+        }
+        if (builder.hostApp != null) {
+            eyes.setHostApp(builder.hostApp);
+        }
+        if (builder.matchTimeout != null) {
+            eyes.setMatchTimeout(builder.matchTimeout);
+        }
+        if (builder.matchStableIntervals != null) {
+            eyes.setMatchStableIntervals(builder.matchStableIntervals);
+        }
+        if (builder.matchLevel != null) {
+            // Each instance gets its own copy, since match settings are
+            // mutable.
+            eyes.setDefaultMatchSettings(getDefaultMatchSettings());
+        }
+        if (builder.failureReports != null) {
+            eyes.setFailureReports(builder.failureReports);
+        }
+        if (builder.saveNewTests != null) {
+            eyes.setSaveNewTests(builder.saveNewTests);
+        }
+        if (builder.saveFailedTests != null) {
+            eyes.setSaveFailedTests(builder.saveFailedTests);
+        }
+        if (builder.responseTimeExecutor != null) {
+            eyes.setResponseTimeExecutor(builder.responseTimeExecutor);
+        }
+    }
+
+    private static ExactMatchSettings copyOf(ExactMatchSettings settings) {
+        if (settings == null) {
+            return null;
+        }
+        ExactMatchSettings copy = new ExactMatchSettings();
+        copy.setMinDiffIntensity(settings.getMinDiffIntensity());
+        copy.setMinDiffWidth(settings.getMinDiffWidth());
+        copy.setMinDiffHeight(settings.getMinDiffHeight());
+        copy.setMatchThreshold(settings.getMatchThreshold());
+        return copy;
+    }
+}
@@ -0,0 +1,170 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory methods for the executors used by the SDK for running background
+ * tasks (e.g., the action and the matcher threads of timing tests, or image
+ * compression). All the executors use named daemon threads, so they never
+ * keep the JVM alive and don't have to be shut down.
+ */
+public final class EyesExecutors {
+
+    /**
+     * The maximum number of threads of the default timing tests executor.
+     */
+    public static final int DEFAULT_RESPONSE_TIME_MAX_THREADS = 32;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE = 60; // Seconds
+
+    private static volatile ExecutorService defaultResponseTimeExecutor;
+    private static volatile ExecutorService actionExecutor;
+    private static volatile ExecutorService computeExecutor;
+
+    private EyesExecutors() {}
+
+    /**
+     * Creates an executor which runs up to {@code maxThreads} tasks
+     * concurrently. Additional tasks wait for a thread to be available. Idle
+     * threads are terminated, and all threads are daemon threads, so the
+     * executor does not have to be shut down.
+     *
+     * @param namePrefix        The prefix of the names of the threads.
+     * @param maxThreads        The maximum number of threads.
+     * @param useVirtualThreads Whether to run tasks on virtual threads. If
+     *                          the JVM doesn't support virtual threads,
+     *                          platform threads are used.
+     * @return A new executor.
+     */
+    public static ExecutorService newBoundedExecutor(String namePrefix,
+            int maxThreads, boolean useVirtualThreads) {
+        ArgumentGuard.notNullOrEmpty(namePrefix, "namePrefix");
+        ArgumentGuard.greaterThanZero(maxThreads, "maxThreads");
+
+        ThreadFactory threadFactory = null;
+        if (useVirtualThreads) {
+            threadFactory = createVirtualThreadFactory(namePrefix);
+        }
+        if (threadFactory == null) {
+            threadFactory = createDaemonThreadFactory(namePrefix);
+        }
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads,
+                maxThreads, IDLE_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return The executor used by timing tests unless another executor is
+     * set. It is shared by all the timing tests running in the JVM, and runs
+     * up to {@link #DEFAULT_RESPONSE_TIME_MAX_THREADS} tasks concurrently.
+     */
+    public static ExecutorService getDefaultResponseTimeExecutor() {
+        if (defaultResponseTimeExecutor == null) {
+            synchronized (EyesExecutors.class) {
+                if (defaultResponseTimeExecutor == null) {
+                    defaultResponseTimeExecutor = newBoundedExecutor(
+                            "eyes-response-time",
+                            DEFAULT_RESPONSE_TIME_MAX_THREADS, false);
+                }
+            }
+        }
+        return defaultResponseTimeExecutor;
+    }
+
+    /**
+     * @return The executor on which timing tests run their action. Unlike
+     * the matcher tasks, an action is never queued: it runs on an idle
+     * thread, or on a new one, as soon as it is submitted (so the time it
+     * takes is measured correctly).
+     */
+    public static ExecutorService getActionExecutor() {
+        if (actionExecutor == null) {
+            synchronized (EyesExecutors.class) {
+                if (actionExecutor == null) {
+                    actionExecutor = new ThreadPoolExecutor(0,
+                            Integer.MAX_VALUE, IDLE_THREAD_KEEP_ALIVE,
+                            TimeUnit.SECONDS,
+                            new SynchronousQueue<Runnable>(),
+                            createDaemonThreadFactory("eyes-action"));
+                }
+            }
+        }
+        return actionExecutor;
+    }
+
+    /**
+     * @return The executor for CPU bound tasks (e.g., compressing or
+     * decoding images). It is shared by all the SDK instances in the JVM,
+     * and runs up to one task per available processor concurrently.
+     */
+    public static ExecutorService getComputeExecutor() {
+        if (computeExecutor == null) {
+            synchronized (EyesExecutors.class) {
+                if (computeExecutor == null) {
+                    computeExecutor = newBoundedExecutor("eyes-compute",
+                            Runtime.getRuntime().availableProcessors(),
+                            false);
+                }
+            }
+        }
+        return computeExecutor;
+    }
+
+    /**
+     * @return A short description of the executor's state, for logging.
+     */
+    static String describe(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            return String.format("%d active, %d queued, %d max threads",
+                    pool.getActiveCount(), pool.getQueue().size(),
+                    pool.getMaximumPoolSize());
+        }
+        return executor.getClass().getName();
+    }
+
+    private static ThreadFactory createDaemonThreadFactory(
+            final String namePrefix) {
+        final AtomicInteger threadsCount = new AtomicInteger();
+        return new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r,
+                        namePrefix + "-" + threadsCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    /**
+     * Virtual threads are only available on newer JVMs, so they are created
+     * via reflection.
+     *
+     * @return A factory of named virtual threads, or {@code null} if the JVM
+     * doesn't support virtual threads.
+     */
+    private static ThreadFactory createVirtualThreadFactory(
+            String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, namePrefix + "-", 1L);
+            return (ThreadFactory) builderClass.getMethod("factory")
+                    .invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
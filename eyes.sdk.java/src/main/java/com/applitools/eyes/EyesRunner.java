@@ -0,0 +1,163 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.List;
+
+/**
+ * Hands out Eyes instances ("sessions") for tests running in parallel.
+ * All the sessions are configured by the same {@link EyesConfiguration},
+ * belong to the same batch, and share a single server connector (and
+ * therefore its HTTP connections), while the state of each test is kept in
+ * its own session. The runner is thread safe, while each session should be
+ * used by a single test.
+ * <p>
+ * Since the server connector is shared, the server settings (API key,
+ * server URL, proxy and retry policy) should only be set through the
+ * configuration, and not on the sessions.
+ *
+ * @param <T> The type of the Eyes instances.
+ */
+public class EyesRunner<T extends EyesBase> {
+
+    private static final String SDK_NAME = "eyes.runner.java";
+
+    /**
+     * Creates new (unconfigured) Eyes instances.
+     *
+     * @param <T> The type of the Eyes instances.
+     */
+    public interface EyesFactory<T> {
+        /**
+         * @param serverConnector The shared server connector, which the new
+         *                        instance should use instead of creating
+         *                        its own (see
+         *                        {@link EyesBase#EyesBase(ServerConnector)}).
+         * @return A new Eyes instance.
+         */
+        T create(ServerConnector serverConnector);
+    }
+
+    private final Logger logger;
+    private final EyesConfiguration configuration;
+    private final EyesFactory<T> eyesFactory;
+    private final BatchCloser batchCloser;
+    private final ServerConnector serverConnector;
+    private int sessionsCount;
+
+    /**
+     * Creates a new EyesRunner instance.
+     *
+     * @param configuration The configuration of all the sessions. If no batch
+     *                      is set, the sessions belong to a new anonymous
+     *                      batch.
+     * @param eyesFactory   Creates the Eyes instances of the sessions.
+     */
+    public EyesRunner(EyesConfiguration configuration,
+                      EyesFactory<T> eyesFactory) {
+        ArgumentGuard.notNull(configuration, "configuration");
+        ArgumentGuard.notNull(eyesFactory, "eyesFactory");
+
+        logger = new Logger();
+        if (configuration.getBatch() == null) {
+            configuration = new EyesConfiguration.Builder(configuration)
+                    .setBatch(new BatchInfo(null)).build();
+        }
+        this.configuration = configuration;
+        this.eyesFactory = eyesFactory;
+        batchCloser = new BatchCloser(configuration.getBatch());
+        serverConnector = ServerConnectorFactory.create(logger, SDK_NAME,
+                EyesBase.getDefaultServerUrl());
+        configuration.applyTo(serverConnector);
+        sessionsCount = 0;
+    }
+
+    /**
+     * @return The configuration of the sessions.
+     */
+    public EyesConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Sets the handler of the runner's log messages, including the messages
+     * of the shared server connector.
+     *
+     * @param logHandler The log handler to set.
+     */
+    public void setLogHandler(LogHandler logHandler) {
+        logger.setLogHandler(logHandler);
+        batchCloser.setLogHandler(logHandler);
+    }
+
+    /**
+     * @return The currently set log handler.
+     */
+    public LogHandler getLogHandler() {
+        return logger.getLogHandler();
+    }
+
+    /**
+     * @return The number of sessions created by the runner.
+     */
+    public synchronized int getSessionsCount() {
+        return sessionsCount;
+    }
+
+    /**
+     * Creates a session for a test. The session should be opened and
+     * checked as a usual Eyes instance, and closed using
+     * {@link #closeSession(EyesBase)}.
+     *
+     * @return A new configured Eyes instance.
+     */
+    public T newSession() {
+        T eyes = eyesFactory.create(serverConnector);
+        ArgumentGuard.notNull(eyes, "eyes");
+        if (eyes.serverConnector != serverConnector) {
+            throw new EyesException(
+                    "The session must use the runner's server connector!");
+        }
+
+        synchronized (this) {
+            ++sessionsCount;
+        }
+
+        configuration.applySessionSettingsTo(eyes);
+        batchCloser.register(eyes);
+        return eyes;
+    }
+
+    /**
+     * Ends the test of a session without waiting for its results.
+     *
+     * @param eyes The session to close.
+     * @see BatchCloser#close(EyesBase)
+     */
+    public void closeSession(T eyes) {
+        batchCloser.close(eyes);
+    }
+
+    /**
+     * See {@link #getAllResults(boolean)}.
+     * {@code throwEx} defaults to {@code true}.
+     *
+     * @return The results of all the sessions, in the order of creation.
+     */
+    public List<TestResults> getAllResults() {
+        return getAllResults(true);
+    }
+
+    /**
+     * Closes the sessions which are still open and waits for the results
+     * of all the sessions.
+     *
+     * @param throwEx If true, an exception will be thrown if any of the tests
+     *                failed or is new.
+     * @return The results of all the sessions, in the order of creation.
+     * @see BatchCloser#getAllResults(boolean)
+     */
+    public List<TestResults> getAllResults(boolean throwEx) {
+        return batchCloser.getAllResults(throwEx);
+    }
+}
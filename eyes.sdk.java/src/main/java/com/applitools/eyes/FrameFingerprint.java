@@ -0,0 +1,166 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A compact description of a screenshot, used for finding identical
+ * screenshots locally (i.e., without a match request). The screenshot is
+ * divided into a grid of blocks, and it consists of:
+ * <ul>
+ *     <li>A perceptual (average) hash: a bit per block, set if the block is
+ *     brighter than the whole screenshot. Different perceptual hashes mean
+ *     the screenshots are different.</li>
+ *     <li>An exact hash of the pixels of each block. Screenshots are
+ *     considered identical if all their block hashes are equal.</li>
+ * </ul>
+ */
+class FrameFingerprint {
+    private static final int GRID_SIZE = 8;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int width;
+    private final int height;
+    private final long perceptualHash;
+    private final long[] blockHashes;
+
+    private FrameFingerprint(int width, int height, long perceptualHash,
+                             long[] blockHashes) {
+        this.width = width;
+        this.height = height;
+        this.perceptualHash = perceptualHash;
+        this.blockHashes = blockHashes;
+    }
+
+    /**
+     * @param image The screenshot image.
+     * @return The fingerprint of the image.
+     */
+    public static FrameFingerprint of(BufferedImage image) {
+        ArgumentGuard.notNull(image, "image");
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int blocksCount = GRID_SIZE * GRID_SIZE;
+        long[] blockHashes = new long[blocksCount];
+        Arrays.fill(blockHashes, FNV_OFFSET_BASIS);
+        long[] blockLuminance = new long[blocksCount];
+        long[] blockPixelsCount = new long[blocksCount];
+
+        // The block column of each pixel column.
+        int[] blockColumns = new int[width];
+        for (int x = 0; x < width; ++x) {
+            blockColumns[x] = (int) (((long) x * GRID_SIZE) / width);
+        }
+
+        int[] row = new int[width];
+        for (int y = 0; y < height; ++y) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int blockRowOffset =
+                    (int) (((long) y * GRID_SIZE) / height) * GRID_SIZE;
+            for (int x = 0; x < width; ++x) {
+                int block = blockRowOffset + blockColumns[x];
+                int argb = row[x];
+                blockHashes[block] = (blockHashes[block] ^ argb) * FNV_PRIME;
+                blockLuminance[block] += ((argb >> 16) & 0xFF) * 299 +
+                        ((argb >> 8) & 0xFF) * 587 + (argb & 0xFF) * 114;
+                ++blockPixelsCount[block];
+            }
+        }
+
+        // Blocks with no pixels (images smaller than the grid) are ignored.
+        long[] blockAverages = new long[blocksCount];
+        long totalAverage = 0;
+        int nonEmptyBlocksCount = 0;
+        for (int i = 0; i < blocksCount; ++i) {
+            if (blockPixelsCount[i] > 0) {
+                blockAverages[i] = blockLuminance[i] / blockPixelsCount[i];
+                totalAverage += blockAverages[i];
+                ++nonEmptyBlocksCount;
+            }
+        }
+        if (nonEmptyBlocksCount > 0) {
+            totalAverage /= nonEmptyBlocksCount;
+        }
+
+        long perceptualHash = 0;
+        for (int i = 0; i < blocksCount; ++i) {
+            if (blockPixelsCount[i] > 0 && blockAverages[i] > totalAverage) {
+                perceptualHash |= 1L << i;
+            }
+        }
+
+        return new FrameFingerprint(width, height, perceptualHash,
+                blockHashes);
+    }
+
+    /**
+     * @param externalForm A fingerprint as returned by
+     *                     {@link #toExternalForm()}.
+     * @return The fingerprint.
+     * @throws IllegalArgumentException If the external form is invalid.
+     */
+    public static FrameFingerprint fromExternalForm(String externalForm) {
+        ArgumentGuard.notNull(externalForm, "externalForm");
+        String[] parts = externalForm.trim().split(" ");
+        if (parts.length != 3 + GRID_SIZE * GRID_SIZE) {
+            throw new IllegalArgumentException(
+                    "Invalid fingerprint: " + externalForm);
+        }
+        long[] blockHashes = new long[GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < blockHashes.length; ++i) {
+            blockHashes[i] = Long.parseLong(parts[3 + i], 16);
+        }
+        return new FrameFingerprint(Integer.parseInt(parts[0]),
+                Integer.parseInt(parts[1]), Long.parseLong(parts[2], 16),
+                blockHashes);
+    }
+
+    /**
+     * @return A textual form of the fingerprint, for storing it.
+     */
+    public String toExternalForm() {
+        StringBuilder result = new StringBuilder();
+        result.append(width).append(' ').append(height).append(' ')
+                .append(Long.toString(perceptualHash, 16));
+        for (long blockHash : blockHashes) {
+            result.append(' ').append(Long.toString(blockHash, 16));
+        }
+        return result.toString();
+    }
+
+    /**
+     * @return The perceptual hash of the screenshot (a bit per block).
+     */
+    public long getPerceptualHash() {
+        return perceptualHash;
+    }
+
+    /**
+     * @param other The fingerprint to compare to.
+     * @return The number of blocks whose brightness relative to the whole
+     * screenshot differs between the screenshots ({@code 0} for screenshots
+     * which look alike).
+     */
+    public int getPerceptualDistance(FrameFingerprint other) {
+        ArgumentGuard.notNull(other, "other");
+        return Long.bitCount(perceptualHash ^ other.perceptualHash);
+    }
+
+    /**
+     * @param other The fingerprint to compare to.
+     * @return Whether the screenshots are identical.
+     */
+    public boolean isIdenticalTo(FrameFingerprint other) {
+        if (other == null) {
+            return false;
+        }
+        // The perceptual hashes are compared first, since it's cheaper.
+        return perceptualHash == other.perceptualHash &&
+                width == other.width && height == other.height &&
+                Arrays.equals(blockHashes, other.blockHashes);
+    }
+}
@@ -0,0 +1,337 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.ImageDiff;
+import com.applitools.utils.ImageUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A local cache of the last approved (i.e., matching) screenshot of each
+ * checkpoint, identified by the application, the test and the step. For
+ * each checkpoint, a fingerprint of the screenshot and a downsampled copy
+ * of it are kept, so new screenshots can be verified locally before they
+ * are matched by the server.
+ * <p>
+ * The cache is thread safe, and can be shared by Eyes instances. If a
+ * directory is given, the cache is also kept there, so it can be used by
+ * later test runs.
+ */
+public class LocalBaselineCache {
+
+    /**
+     * The result of verifying a screenshot against the cache.
+     */
+    public enum Verdict {
+        /**
+         * No screenshot was approved for the checkpoint.
+         */
+        NO_BASELINE,
+        /**
+         * The screenshot is identical to the approved screenshot.
+         */
+        IDENTICAL,
+        /**
+         * The downsampled screenshot matches the downsampled approved
+         * screenshot, according to the exact match settings.
+         */
+        MATCHING,
+        /**
+         * The screenshot is different from the approved screenshot.
+         */
+        DIFFERENT
+    }
+
+    // The maximum width/height of the downsampled screenshots.
+    public static final int DEFAULT_THUMBNAIL_SIZE = 256;
+
+    private static final String FINGERPRINT_SUFFIX = ".fingerprint";
+    private static final String THUMBNAIL_SUFFIX = ".png";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static class Entry {
+        private final FrameFingerprint fingerprint;
+        private final BufferedImage thumbnail;
+        private final int scaleFactor;
+
+        public Entry(FrameFingerprint fingerprint, BufferedImage thumbnail,
+                     int scaleFactor) {
+            this.fingerprint = fingerprint;
+            this.thumbnail = thumbnail;
+            this.scaleFactor = scaleFactor;
+        }
+    }
+
+    private final File directory;
+    private final int thumbnailSize;
+    private final ConcurrentMap<String, Entry> entries;
+
+    /**
+     * Creates a cache which is kept in a directory.
+     *
+     * @param directory     The directory of the cache, or {@code null} to
+     *                      keep the cache only in memory.
+     * @param thumbnailSize The maximum width/height of the downsampled
+     *                      screenshots.
+     */
+    public LocalBaselineCache(File directory, int thumbnailSize) {
+        ArgumentGuard.greaterThanZero(thumbnailSize, "thumbnailSize");
+        if (directory != null && !directory.isDirectory() &&
+                !directory.mkdirs()) {
+            throw new EyesException(String.format(
+                    "Failed to create the baseline cache directory '%s'",
+                    directory));
+        }
+
+        this.directory = directory;
+        this.thumbnailSize = thumbnailSize;
+        entries = new ConcurrentHashMap<String, Entry>();
+    }
+
+    /**
+     * See {@link #LocalBaselineCache(File, int)}.
+     * {@code thumbnailSize} defaults to {@link #DEFAULT_THUMBNAIL_SIZE}.
+     *
+     * @param directory The directory of the cache, or {@code null} to keep
+     *                  the cache only in memory.
+     */
+    public LocalBaselineCache(File directory) {
+        this(directory, DEFAULT_THUMBNAIL_SIZE);
+    }
+
+    /**
+     * Creates a cache which is kept only in memory.
+     */
+    public LocalBaselineCache() {
+        this(null);
+    }
+
+    /**
+     * @return The directory of the cache, or {@code null} if the cache is
+     * kept only in memory.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Verifies a screenshot against the approved screenshot of the
+     * checkpoint.
+     *
+     * @param appName  The name of the application.
+     * @param testName The name of the test.
+     * @param step     Identifies the checkpoint within the test.
+     * @param image    The screenshot to verify.
+     * @param settings The settings by which downsampled screenshots are
+     *                 compared, or {@code null} for an exact comparison.
+     *                 The minimal diff width and height are scaled as the
+     *                 screenshots.
+     * @return The verdict.
+     */
+    public Verdict verify(String appName, String testName, String step,
+                          BufferedImage image, ExactMatchSettings settings) {
+        ArgumentGuard.notNull(image, "image");
+
+        Entry entry = getEntry(getKey(appName, testName, step));
+        if (entry == null) {
+            return Verdict.NO_BASELINE;
+        }
+        if (entry.fingerprint.isIdenticalTo(FrameFingerprint.of(image))) {
+            return Verdict.IDENTICAL;
+        }
+
+        BufferedImage thumbnail = createThumbnail(image, entry.scaleFactor);
+        ExactMatchSettings scaledSettings = new ExactMatchSettings();
+        if (settings != null) {
+            scaledSettings.setMinDiffIntensity(settings.getMinDiffIntensity());
+            scaledSettings.setMinDiffWidth(
+                    settings.getMinDiffWidth() / entry.scaleFactor);
+            scaledSettings.setMinDiffHeight(
+                    settings.getMinDiffHeight() / entry.scaleFactor);
+            scaledSettings.setMatchThreshold(settings.getMatchThreshold());
+        }
+        return ImageDiff.isMatch(entry.thumbnail, thumbnail, scaledSettings) ?
+                Verdict.MATCHING : Verdict.DIFFERENT;
+    }
+
+    /**
+     * Sets the approved screenshot of a checkpoint.
+     *
+     * @param appName  The name of the application.
+     * @param testName The name of the test.
+     * @param step     Identifies the checkpoint within the test.
+     * @param image    The approved screenshot.
+     */
+    public void approve(String appName, String testName, String step,
+                        BufferedImage image) {
+        ArgumentGuard.notNull(image, "image");
+
+        int scaleFactor = Math.max(1, (int) Math.ceil(
+                Math.max(image.getWidth(), image.getHeight())
+                        / (double) thumbnailSize));
+        Entry entry = new Entry(FrameFingerprint.of(image),
+                createThumbnail(image, scaleFactor), scaleFactor);
+        String key = getKey(appName, testName, step);
+        entries.put(key, entry);
+
+        if (directory != null) {
+            writeEntry(key, entry);
+        }
+    }
+
+    private Entry getEntry(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null || directory == null) {
+            return entry;
+        }
+
+        entry = readEntry(key);
+        if (entry != null) {
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @return The entry stored in the directory, or {@code null} if there's
+     * no such entry.
+     */
+    private Entry readEntry(String key) {
+        File fingerprintFile = new File(directory, key + FINGERPRINT_SUFFIX);
+        File thumbnailFile = new File(directory, key + THUMBNAIL_SUFFIX);
+        if (!fingerprintFile.isFile() || !thumbnailFile.isFile()) {
+            return null;
+        }
+
+        try {
+            String[] lines = new String(
+                    Files.readAllBytes(fingerprintFile.toPath()), UTF8)
+                    .split("\n");
+            int scaleFactor = Integer.parseInt(lines[0].trim());
+            FrameFingerprint fingerprint =
+                    FrameFingerprint.fromExternalForm(lines[1]);
+            BufferedImage thumbnail = ImageUtils.imageFromBytes(
+                    Files.readAllBytes(thumbnailFile.toPath()));
+            return new Entry(fingerprint, thumbnail, scaleFactor);
+        } catch (IOException e) {
+            throw new EyesException("Failed to read the baseline cache!", e);
+        } catch (RuntimeException e) {
+            throw new EyesException(String.format(
+                    "Invalid baseline cache entry '%s'", fingerprintFile), e);
+        }
+    }
+
+    private void writeEntry(String key, Entry entry) {
+        try {
+            // The thumbnail is written first, so the fingerprint file
+            // (whose existence marks the entry) is written last.
+            writeFile(new File(directory, key + THUMBNAIL_SUFFIX),
+                    ImageUtils.encodeAsPng(entry.thumbnail));
+            writeFile(new File(directory, key + FINGERPRINT_SUFFIX),
+                    (entry.scaleFactor + "\n" +
+                            entry.fingerprint.toExternalForm() + "\n")
+                            .getBytes(UTF8));
+        } catch (IOException e) {
+            throw new EyesException("Failed to write the baseline cache!", e);
+        }
+    }
+
+    /**
+     * Replaces the content of a file, such that concurrent readers read
+     * either the old or the new content.
+     */
+    private static void writeFile(File file, byte[] content)
+            throws IOException {
+        File tempFile = File.createTempFile(file.getName(), ".tmp",
+                file.getParentFile());
+        try {
+            Files.write(tempFile.toPath(), content);
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     * @return A key which is also a valid file name.
+     */
+    private static String getKey(String appName, String testName,
+                                 String step) {
+        String checkpoint = appName + "\n" + testName + "\n" + step;
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1").digest(
+                    checkpoint.getBytes(UTF8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new EyesException("SHA-1 is not available!", e);
+        }
+        StringBuilder key = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return The image downsampled by the given factor, where each pixel is
+     * the average of a block of pixels.
+     */
+    private static BufferedImage createThumbnail(BufferedImage image,
+                                                 int scaleFactor) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int thumbnailWidth = (width + scaleFactor - 1) / scaleFactor;
+        int thumbnailHeight = (height + scaleFactor - 1) / scaleFactor;
+        BufferedImage thumbnail = new BufferedImage(thumbnailWidth,
+                thumbnailHeight, BufferedImage.TYPE_INT_ARGB);
+
+        int[] row = new int[width];
+        long[] sums = new long[thumbnailWidth * 4];
+        int[] thumbnailRow = new int[thumbnailWidth];
+        for (int ty = 0; ty < thumbnailHeight; ++ty) {
+            Arrays.fill(sums, 0);
+            int top = ty * scaleFactor;
+            int bottom = Math.min(top + scaleFactor, height);
+            for (int y = top; y < bottom; ++y) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                for (int x = 0; x < width; ++x) {
+                    int argb = row[x];
+                    int sum = (x / scaleFactor) * 4;
+                    sums[sum] += (argb >>> 24);
+                    sums[sum + 1] += (argb >> 16) & 0xFF;
+                    sums[sum + 2] += (argb >> 8) & 0xFF;
+                    sums[sum + 3] += argb & 0xFF;
+                }
+            }
+            for (int tx = 0; tx < thumbnailWidth; ++tx) {
+                int left = tx * scaleFactor;
+                long pixelsCount = (long) (Math.min(left + scaleFactor, width)
+                        - left) * (bottom - top);
+                int sum = tx * 4;
+                thumbnailRow[tx] =
+                        (int) (sums[sum] / pixelsCount) << 24 |
+                        (int) (sums[sum + 1] / pixelsCount) << 16 |
+                        (int) (sums[sum + 2] / pixelsCount) << 8 |
+                        (int) (sums[sum + 3] / pixelsCount);
+            }
+            thumbnail.setRGB(0, ty, thumbnailWidth, 1, thumbnailRow, 0,
+                    thumbnailWidth);
+        }
+        return thumbnail;
+    }
+}
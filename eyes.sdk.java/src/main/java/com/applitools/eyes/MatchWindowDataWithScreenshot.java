@@ -8,11 +8,25 @@ package com.applitools.eyes;
 class MatchWindowDataWithScreenshot {
     private final MatchWindowData matchWindowData;
     private final EyesScreenshot screenshot;
+    private final FrameFingerprint fingerprint;
 
     public MatchWindowDataWithScreenshot(MatchWindowData matchWindowData,
                                          EyesScreenshot screenshot) {
+        this(matchWindowData, screenshot, null);
+    }
+
+    /**
+     * @param matchWindowData The match data.
+     * @param screenshot The screenshot used for creating the match data.
+     * @param fingerprint The fingerprint of the screenshot, or {@code null}
+     *                    if it is not available.
+     */
+    public MatchWindowDataWithScreenshot(MatchWindowData matchWindowData,
+                                         EyesScreenshot screenshot,
+                                         FrameFingerprint fingerprint) {
         this.matchWindowData = matchWindowData;
         this.screenshot = screenshot;
+        this.fingerprint = fingerprint;
     }
 
     public MatchWindowData getMatchWindowData() {
@@ -22,4 +36,21 @@ class MatchWindowDataWithScreenshot {
     public EyesScreenshot getScreenshot() {
         return screenshot;
     }
+
+    /**
+     * @return The fingerprint of the screenshot, or {@code null} if it is
+     * not available.
+     */
+    public FrameFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param other The match data to compare to.
+     * @return Whether both screenshots are known to be identical.
+     */
+    public boolean isIdenticalTo(MatchWindowDataWithScreenshot other) {
+        return fingerprint != null && other != null &&
+                fingerprint.isIdenticalTo(other.fingerprint);
+    }
 }
@@ -15,31 +15,137 @@ class MatchWindowTask {
     private final RunningSession runningSession;
     private final int defaultRetryTimeout;
     private final AppOutputProvider appOutputProvider;
+    private final int stableIntervalsLimit;
+    private ReadinessSignal readinessSignal;
+    private LocalBaselineCache baselineCache;
+    private String appName;
+    private String testName;
+    private ExactMatchSettings exactMatchSettings;
+    private int stepsCount;
+
+    // Statistics of the screenshots uploaded by matchWindow.
+    private int uploadsCount;
+    private int skippedUploadsCount;
+    private int preverifiedCount;
 
 
     /**
-     * @param logger            A logger instance.
-     * @param serverConnector   Our gateway to the agent
-     * @param runningSession    The running session in which we should match the
-     *                          window
-     * @param retryTimeout      The default total time we tell the agent to ignore
-     *                          mismatches.
-     * @param appOutputProvider A callback for getting the application output
-     *                          when performing match
+     * @param logger               A logger instance.
+     * @param serverConnector      Our gateway to the agent
+     * @param runningSession       The running session in which we should
+     *                             match the window
+     * @param retryTimeout         The default total time we tell the agent to
+     *                             ignore mismatches.
+     * @param appOutputProvider    A callback for getting the application
+     *                             output when performing match
+     * @param stableIntervalsLimit The number of consecutive retry intervals
+     *                             in which the window did not change, after
+     *                             which retrying stops before the timeout,
+     *                             or {@code 0} to retry until the timeout.
      */
     public MatchWindowTask(Logger logger, ServerConnector serverConnector,
                            RunningSession runningSession, int retryTimeout,
-                           AppOutputProvider appOutputProvider) {
+                           AppOutputProvider appOutputProvider,
+                           int stableIntervalsLimit) {
         ArgumentGuard.notNull(serverConnector, "serverConnector");
         ArgumentGuard.notNull(runningSession, "runningSession");
         ArgumentGuard.greaterThanOrEqualToZero(retryTimeout, "retryTimeout");
         ArgumentGuard.notNull(appOutputProvider, "appOutputProvider");
+        ArgumentGuard.greaterThanOrEqualToZero(stableIntervalsLimit,
+                "stableIntervalsLimit");
 
         this.logger = logger;
         this.serverConnector = serverConnector;
         this.runningSession = runningSession;
         this.defaultRetryTimeout = retryTimeout * 1000;
         this.appOutputProvider = appOutputProvider;
+        this.stableIntervalsLimit = stableIntervalsLimit;
+    }
+
+    /**
+     * See {@link #MatchWindowTask(Logger, ServerConnector, RunningSession,
+     * int, AppOutputProvider, int)}.
+     * {@code stableIntervalsLimit} defaults to {@code 0}.
+     */
+    public MatchWindowTask(Logger logger, ServerConnector serverConnector,
+                           RunningSession runningSession, int retryTimeout,
+                           AppOutputProvider appOutputProvider) {
+        this(logger, serverConnector, runningSession, retryTimeout,
+                appOutputProvider, 0);
+    }
+
+    /**
+     * @param readinessSignal The signal which determines when to retry a
+     *                        match, or {@code null} to retry at fixed
+     *                        intervals.
+     */
+    public void setReadinessSignal(ReadinessSignal readinessSignal) {
+        this.readinessSignal = readinessSignal;
+    }
+
+    /**
+     * @return The signal which determines when to retry a match, or
+     * {@code null} if matches are retried at fixed intervals.
+     */
+    public ReadinessSignal getReadinessSignal() {
+        return readinessSignal;
+    }
+
+    /**
+     * Sets the local cache of approved screenshots. Screenshots which are
+     * identical to the approved screenshot of their step are matched
+     * without waiting for the match timeout, and matching screenshots are
+     * approved in the cache.
+     *
+     * @param baselineCache The cache, or {@code null} for no cache.
+     * @param appName       The name of the application.
+     * @param testName      The name of the test.
+     */
+    public void setBaselineCache(LocalBaselineCache baselineCache,
+                                 String appName, String testName) {
+        this.baselineCache = baselineCache;
+        this.appName = appName;
+        this.testName = testName;
+    }
+
+    /**
+     * @return The local cache of approved screenshots, or {@code null} if
+     * there's no cache.
+     */
+    public LocalBaselineCache getBaselineCache() {
+        return baselineCache;
+    }
+
+    /**
+     * @param exactMatchSettings The settings for comparing screenshots with
+     *                           the cached approved screenshots, or
+     *                           {@code null} for an exact comparison.
+     */
+    public void setExactMatchSettings(ExactMatchSettings exactMatchSettings) {
+        this.exactMatchSettings = exactMatchSettings;
+    }
+
+    /**
+     * @return The number of screenshots {@link #matchWindow} found identical
+     * to the approved screenshot in the local cache.
+     */
+    public int getPreverifiedCount() {
+        return preverifiedCount;
+    }
+
+    /**
+     * @return The number of screenshots uploaded by {@link #matchWindow}.
+     */
+    public int getUploadsCount() {
+        return uploadsCount;
+    }
+
+    /**
+     * @return The number of screenshots {@link #matchWindow} did not upload,
+     * since they were identical to the previously uploaded screenshot.
+     */
+    public int getSkippedUploadsCount() {
+        return skippedUploadsCount;
     }
 
     /**
@@ -78,7 +184,9 @@ class MatchWindowTask {
      * @param tag                               Optional tag to be associated with
      *                                          the match (can be {@code null}).
      * @param shouldMatchWindowRunOnceOnTimeout Force a single match attempt at the
-     *                                          end of the match timeout.
+     *                                          end of the match timeout (or
+     *                                          once the readiness signal is
+     *                                          set).
      * @param ignoreMismatch                    Whether to instruct the server to
      *                                          ignore the match attempt in case
      *                                          of a mismatch.
@@ -104,21 +212,38 @@ class MatchWindowTask {
         logger.verbose(String.format("retryTimeout = %d", retryTimeout));
 
         long elapsedTimeStart = System.currentTimeMillis();
+        String step = ++stepsCount + ":" + tag;
 
         // If the wait to load time is 0, or "run once" is true,
         // we perform a single check window.
         if (0 == retryTimeout || shouldMatchWindowRunOnceOnTimeout) {
 
+            appOutput = null;
             if (shouldMatchWindowRunOnceOnTimeout) {
-                GeneralUtils.sleep(retryTimeout);
+                // If the window is already identical to the approved
+                // screenshot, there's nothing to wait for.
+                if (baselineCache != null) {
+                    appOutput = appOutputProvider.getAppOutput(regionProvider,
+                            lastScreenshot);
+                    if (verifyLocally(step, appOutput) !=
+                            LocalBaselineCache.Verdict.IDENTICAL) {
+                        appOutput = null;
+                    }
+                }
+                if (appOutput == null) {
+                    waitForReadiness(retryTimeout, false);
+                }
             }
 
             // Getting the screenshot.
-            appOutput = appOutputProvider.getAppOutput(regionProvider,
-                    lastScreenshot);
+            if (appOutput == null) {
+                appOutput = appOutputProvider.getAppOutput(regionProvider,
+                        lastScreenshot);
+            }
 
             matchResult = performMatch(userInputs, appOutput, tag,
                     ignoreMismatch);
+            ++uploadsCount;
 
         } else {
             /*
@@ -137,6 +262,10 @@ class MatchWindowTask {
 
             matchResult = performMatch(userInputs, appOutput, tag,
                     true);
+            ++uploadsCount;
+            FrameFingerprint uploadedFingerprint = getFingerprint(appOutput);
+            int stableIntervals = 0;
+            int skippedUploads = 0;
 
             long retry = System.currentTimeMillis() - start;
 
@@ -144,16 +273,40 @@ class MatchWindowTask {
             while ((retry < retryTimeout) && !matchResult.getAsExpected()) {
 
                 // Wait before trying again.
-                GeneralUtils.sleep(MATCH_INTERVAL);
+                waitForReadiness(MATCH_INTERVAL, true);
 
                 appOutput = appOutputProvider.getAppOutput(regionProvider,
                         lastScreenshot);
 
-                // Notice the ignoreMismatch here is true
-                matchResult = performMatch(userInputs, appOutput, tag, true);
+                // A screenshot identical to the one which just didn't match
+                // won't match either, so there's no need to upload it.
+                FrameFingerprint fingerprint = getFingerprint(appOutput);
+                if (fingerprint != null &&
+                        fingerprint.isIdenticalTo(uploadedFingerprint)) {
+                    ++skippedUploads;
+                    ++stableIntervals;
+                    if (stableIntervalsLimit > 0 &&
+                            stableIntervals >= stableIntervalsLimit) {
+                        logger.verbose(String.format(
+                                "Window did not change for %d intervals",
+                                stableIntervals));
+                        break;
+                    }
+                } else {
+                    // Notice the ignoreMismatch here is true
+                    matchResult = performMatch(userInputs, appOutput, tag,
+                            true);
+                    ++uploadsCount;
+                    uploadedFingerprint = fingerprint;
+                    stableIntervals = 0;
+                }
 
                 retry = System.currentTimeMillis() - start;
             }
+            skippedUploadsCount += skippedUploads;
+            logger.verbose(String.format(
+                    "Skipped %d uploads of unchanged screenshots",
+                    skippedUploads));
 
             // if we're here because we haven't found a match yet, try once more
             if (!matchResult.getAsExpected()) {
@@ -163,6 +316,7 @@ class MatchWindowTask {
 
                 matchResult = performMatch(userInputs, appOutput, tag,
                         ignoreMismatch);
+                ++uploadsCount;
             }
         }
         double elapsedTime = (System.currentTimeMillis() - elapsedTimeStart) /
@@ -170,6 +324,98 @@ class MatchWindowTask {
         logger.verbose(String.format("Completed in  %.2f seconds",
                 elapsedTime));
         matchResult.setScreenshot(appOutput.getScreenshot());
+        // A new session matches anything, so nothing was approved.
+        if (matchResult.getAsExpected() && !runningSession.getIsNewSession()) {
+            approveLocally(step, appOutput);
+        }
         return matchResult;
     }
+
+    /**
+     * @return The verdict of the local cache for the application output's
+     * screenshot, or {@code null} if it can't be verified locally.
+     */
+    private LocalBaselineCache.Verdict verifyLocally(String step,
+            AppOutputWithScreenshot appOutput) {
+        EyesScreenshot screenshot = appOutput.getScreenshot();
+        if (screenshot == null || screenshot.getImage() == null) {
+            return null;
+        }
+        try {
+            LocalBaselineCache.Verdict verdict = baselineCache.verify(appName,
+                    testName, step, screenshot.getImage(), exactMatchSettings);
+            logger.verbose("Local baseline verdict: " + verdict);
+            if (verdict == LocalBaselineCache.Verdict.IDENTICAL) {
+                ++preverifiedCount;
+            }
+            return verdict;
+        } catch (EyesException e) {
+            // The cache is only an optimization.
+            logger.log("Failed to verify locally: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sets the application output's screenshot as the approved screenshot
+     * of the step in the local cache, if there is one.
+     */
+    private void approveLocally(String step,
+                                AppOutputWithScreenshot appOutput) {
+        EyesScreenshot screenshot = appOutput.getScreenshot();
+        if (baselineCache == null || screenshot == null ||
+                screenshot.getImage() == null) {
+            return;
+        }
+        try {
+            baselineCache.approve(appName, testName, step,
+                    screenshot.getImage());
+        } catch (EyesException e) {
+            logger.log("Failed to update the local baseline: " +
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until the readiness signal is set, or until the timeout expires
+     * if there's no readiness signal or it fails.
+     *
+     * @param timeout       The maximum time to wait. (Milliseconds)
+     * @param isAfterFailed Whether a match has just failed, in which case
+     *                      the window should change before it's ready.
+     */
+    private void waitForReadiness(int timeout, boolean isAfterFailed) {
+        if (readinessSignal == null) {
+            GeneralUtils.sleep(timeout);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            boolean isReady = isAfterFailed ?
+                    readinessSignal.waitForChange(timeout) :
+                    readinessSignal.waitForReadiness(timeout);
+            logger.verbose(String.format("Ready: %b (after %d ms)", isReady,
+                    System.currentTimeMillis() - start));
+        } catch (RuntimeException e) {
+            logger.log("Readiness signal failed: " + e.getMessage());
+            long remaining = timeout - (System.currentTimeMillis() - start);
+            if (remaining > 0) {
+                GeneralUtils.sleep(remaining);
+            }
+        }
+    }
+
+    /**
+     * @return The fingerprint of the application output's screenshot, or
+     * {@code null} if there's no screenshot.
+     */
+    private static FrameFingerprint getFingerprint(
+            AppOutputWithScreenshot appOutput) {
+        EyesScreenshot screenshot = appOutput.getScreenshot();
+        if (screenshot == null || screenshot.getImage() == null) {
+            return null;
+        }
+        return FrameFingerprint.of(screenshot.getImage());
+    }
 }
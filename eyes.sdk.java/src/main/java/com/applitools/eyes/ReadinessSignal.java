@@ -0,0 +1,31 @@
+package com.applitools.eyes;
+
+/**
+ * Signals when the application is likely to be ready for a match attempt
+ * (e.g., it changed and then settled), so that a match is performed as soon
+ * as possible instead of after fixed delays. Implementations should not
+ * throw if the readiness can't be determined, but rather return
+ * {@code false} once the timeout expires.
+ */
+public interface ReadinessSignal {
+    /**
+     * Waits until the application has settled, or until the timeout
+     * expires. Used before a first match attempt.
+     *
+     * @param timeout The maximum time to wait. (Milliseconds)
+     * @return {@code true} if the application has settled, {@code false} if
+     * the timeout expired.
+     */
+    boolean waitForReadiness(int timeout);
+
+    /**
+     * Waits until the application has changed since the previous call (to
+     * either method) and then settled, or until the timeout expires. Used
+     * before retrying a match which failed.
+     *
+     * @param timeout The maximum time to wait. (Milliseconds)
+     * @return {@code true} if the application has changed and settled,
+     * {@code false} if the timeout expired.
+     */
+    boolean waitForChange(int timeout);
+}
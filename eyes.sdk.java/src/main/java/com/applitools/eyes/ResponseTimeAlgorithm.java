@@ -1,11 +1,20 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
-import com.applitools.utils.BlockingInstanceContainer;
+import com.applitools.utils.BoundedInstanceQueue;
 import com.applitools.utils.GeneralUtils;
+import com.applitools.utils.RingBufferList;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * A container for the algorithm for window timing tests.
@@ -40,6 +49,48 @@ class ResponseTimeAlgorithm {
         return tag;
     }
 
+    /**
+     * Creates a string describing the elapsed time relative to a deadline,
+     * in milliseconds.
+     *
+     * @param deadlineMs The deadline to be used as reference. (Milliseconds)
+     * @param elapsedTime The elapsed time to describe. (Milliseconds)
+     * @return A tag describing the elapsed time, with reference to the
+     * deadline.
+     */
+    private static String createTagForDeadlineMillis(long deadlineMs,
+                                                     long elapsedTime) {
+        String tag;
+        if (elapsedTime < deadlineMs) {
+            tag = String.format("After %d ms (%d ms to deadline)",
+                    elapsedTime, deadlineMs - elapsedTime);
+        } else if (elapsedTime > deadlineMs) {
+            tag = String.format("After %d ms (%d ms after deadline)",
+                    elapsedTime, elapsedTime - deadlineMs);
+        } else {
+            tag = String.format("After %d ms (deadline)", elapsedTime);
+        }
+
+        return tag;
+    }
+
+    /**
+     * @param captureSettings The capture settings of the test.
+     * @param startTime The start time for the test. (Milliseconds)
+     * @param currentTime The current time. (Milliseconds)
+     * @return The elapsed time in the resolution of the capture settings.
+     * (Milliseconds)
+     */
+    private static long getElapsedTime(
+            ResponseTimeCaptureSettings captureSettings, long startTime,
+            long currentTime) {
+        if (captureSettings.getHighResolution()) {
+            return currentTime - startTime;
+        }
+        return GeneralUtils.getFullSecondsElapsedTimeMillis(startTime,
+                currentTime);
+    }
+
     /**
      * Clones the given {@link MatchWindowDataWithScreenshot} instance, while
      * setting the primary to the required value.
@@ -68,7 +119,7 @@ class ResponseTimeAlgorithm {
                 currentMwd.getOptions());
 
         return new MatchWindowDataWithScreenshot(updatedMwd,
-                currentMwdws.getScreenshot());
+                currentMwdws.getScreenshot(), currentMwdws.getFingerprint());
     }
 
     /**
@@ -84,11 +135,13 @@ class ResponseTimeAlgorithm {
      *                  a call to {@link System#currentTimeMillis()}.
      * @param deadline The expected time by which the application
      *                        should have been loaded. (Seconds)
+     * @param captureSettings The settings of the screenshots capture.
      */
     public static void runNewProgressionSession(Logger logger,
             ServerConnector serverConnector, RunningSession runningSession,
             AppOutputProvider appOutputProvider, RegionProvider regionProvider,
-            long startTime, int deadline) {
+            long startTime, int deadline,
+            ResponseTimeCaptureSettings captureSettings) {
         logger.verbose("New progression session detected.");
         logger.verbose("Waiting for deadline to create the baseline...");
         try {
@@ -103,9 +156,8 @@ class ResponseTimeAlgorithm {
         AppOutputWithScreenshot appOutputWithScreenshot =
                 appOutputProvider.getAppOutput(regionProvider, null);
         logger.verbose("Screenshot taken.");
-        long elapsedTime =
-                GeneralUtils.getFullSecondsElapsedTimeMillis(startTime,
-                        System.currentTimeMillis());
+        long elapsedTime = getElapsedTime(captureSettings, startTime,
+                System.currentTimeMillis());
 
         logger.verbose("Saving screenshot...");
         AppOutput appOutput = appOutputWithScreenshot.getAppOutput();
@@ -151,6 +203,9 @@ class ResponseTimeAlgorithm {
      * @param timeout The maximum time waiting for the application to load.
      *                   (Seconds)
      * @param matchInterval The interval between performing matches.
+     * @param matcherSettings The settings of the matcher threads.
+     * @param captureSettings The settings of the screenshots capture.
+     * @param executor The executor on which to run the matcher tasks.
      * @param collectedData A container in which we will store all the captured
      *                      screenshots.
      * @return The result of the initial search.
@@ -160,6 +215,9 @@ class ResponseTimeAlgorithm {
             serverConnector, RunningSession runningSession, AppOutputProvider
             appOutputProvider, RegionProvider regionProvider, long startTime,
             int deadline, int timeout, long matchInterval,
+            ResponseTimeMatcherSettings matcherSettings,
+            ResponseTimeCaptureSettings captureSettings,
+            ExecutorService executor,
             List<MatchWindowDataWithScreenshot> collectedData) {
 
         logger.verbose("responseTimeInitialMatchSearch()");
@@ -167,17 +225,24 @@ class ResponseTimeAlgorithm {
         final long MIN_SCREENSHOT_INTERVAL = 1000; // Milliseconds
         final long MATCH_THREAD_CLOSE_TIMEOUT = 10000; // Milliseconds
 
+        boolean highResolution = captureSettings.getHighResolution();
+
         // The point from which screenshots should be taken at minimum interval.
         int fastIntervalTimeout = timeout - FAST_INTERVAL_SCREENSHOTS_COUNT;
-        if (fastIntervalTimeout < 0) {
+        if (fastIntervalTimeout < 0 || highResolution) {
             fastIntervalTimeout = 0;
         }
 
         logger.verbose("fast interval timeout: " + fastIntervalTimeout);
 
         // Up to the fastIntervalTimeout, we can use slower intervals, based on
-        // the number of screenshots we want.
-        long screenshotInterval = MIN_SCREENSHOT_INTERVAL;
+        // the number of screenshots we want. In high resolution mode, a
+        // screenshot is taken as soon as the previous one is done, so the
+        // interval is determined by how long capturing takes.
+        long minScreenshotInterval = highResolution ?
+                captureSettings.getMinCaptureInterval() :
+                MIN_SCREENSHOT_INTERVAL;
+        long screenshotInterval = minScreenshotInterval;
         if (fastIntervalTimeout > 0) {
             screenshotInterval = (long) Math.ceil(
                     ((float) fastIntervalTimeout) /
@@ -187,26 +252,38 @@ class ResponseTimeAlgorithm {
         logger.verbose("Screenshot interval (Milliseconds): " +
                 screenshotInterval);
 
-        int maxScreenshotsCount = STANDARD_INTERVAL_SCREENSHOTS_COUNT +
-                FAST_INTERVAL_SCREENSHOTS_COUNT;
+        // In high resolution mode, the number of screenshots kept is bounded
+        // by the collected data container instead.
+        int maxScreenshotsCount = highResolution ? Integer.MAX_VALUE :
+                STANDARD_INTERVAL_SCREENSHOTS_COUNT +
+                        FAST_INTERVAL_SCREENSHOTS_COUNT;
 
         // The shared object to pass the capture data between threads.
-        BlockingInstanceContainer<MatchWindowDataWithScreenshot>
-                matchDataContainer =
-                new BlockingInstanceContainer<MatchWindowDataWithScreenshot>();
+        BoundedInstanceQueue<MatchWindowDataWithScreenshot> matchDataQueue =
+                new BoundedInstanceQueue<MatchWindowDataWithScreenshot>(
+                        matcherSettings.getQueueCapacity(),
+                        matcherSettings.getOverflowPolicy());
 
-        logger.verbose("Starting matcher thread.");
+        logger.verbose(String.format(
+                "Starting %d matcher tasks (queue: %d, %s; executor: %s).",
+                matcherSettings.getMatchersCount(),
+                matcherSettings.getQueueCapacity(),
+                matcherSettings.getOverflowPolicy(),
+                EyesExecutors.describe(executor)));
         ResponseTimeMatchFinderTask matcherTask =
-                new ResponseTimeMatchFinderTask(matchDataContainer,
-                        matchInterval, serverConnector, runningSession);
-        Thread matcherTaskThread = new Thread(matcherTask);
-        matcherTaskThread.start();
+                new ResponseTimeMatchFinderTask(matchDataQueue,
+                        matcherSettings.getMatchersCount(), matchInterval,
+                        serverConnector, runningSession);
+        List<Future<?>> matcherTaskFutures =
+                new ArrayList<Future<?>>(matcherSettings.getMatchersCount());
+        for (int i = 0; i < matcherSettings.getMatchersCount(); ++i) {
+            matcherTaskFutures.add(executor.submit(matcherTask));
+        }
 
         // The actual screenshot taking logic.
         long elapsedTime, currentTime, lastScreenshotRequestTime, timeToSleep;
         currentTime = System.currentTimeMillis();
-        elapsedTime = GeneralUtils.getFullSecondsElapsedTimeMillis(startTime,
-                currentTime);
+        elapsedTime = getElapsedTime(captureSettings, startTime, currentTime);
         boolean switchedToFastInterval, markedPrimary, isPrimary;
         isPrimary = markedPrimary = switchedToFastInterval = false;
 
@@ -226,7 +303,7 @@ class ResponseTimeAlgorithm {
             // minimum interval.
             if (!switchedToFastInterval &&
                     (elapsedTime >= fastIntervalTimeoutMs)) {
-                screenshotInterval = MIN_SCREENSHOT_INTERVAL;
+                screenshotInterval = minScreenshotInterval;
                 switchedToFastInterval = true;
                 logger.verbose("Switched to fast interval.");
             }
@@ -237,9 +314,8 @@ class ResponseTimeAlgorithm {
             AppOutputWithScreenshot appOutputWithScreenshot =
                     appOutputProvider.getAppOutput(regionProvider,
                             matcherTask.getLastScreenshot());
-            elapsedTime =
-                    GeneralUtils.getFullSecondsElapsedTimeMillis(startTime,
-                            System.currentTimeMillis());
+            elapsedTime = getElapsedTime(captureSettings, startTime,
+                    System.currentTimeMillis());
             logger.verbose("Screenshot taken!");
             if (!markedPrimary && elapsedTime > deadlineMs) {
                 if (collectedData.size() != 0) {
@@ -267,9 +343,14 @@ class ResponseTimeAlgorithm {
             );
             // So not all windows from now on will be primary.
             isPrimary = false;
-            // elapsed time is always full seconds, so we can use "floor".
-            int elapsedSeconds = (int) Math.floor(elapsedTime / 1000.0);
-            String tag = createTagForDeadline(deadline, elapsedSeconds);
+            String tag;
+            if (highResolution) {
+                tag = createTagForDeadlineMillis(deadlineMs, elapsedTime);
+            } else {
+                // elapsed time is always full seconds, so we can use "floor".
+                int elapsedSeconds = (int) Math.floor(elapsedTime / 1000.0);
+                tag = createTagForDeadline(deadline, elapsedSeconds);
+            }
             Trigger[] noUserInputs = new Trigger[0];
             currentWindowData = new MatchWindowData(
                     noUserInputs,
@@ -279,16 +360,40 @@ class ResponseTimeAlgorithm {
                     new MatchWindowData.Options(tag, noUserInputs, true,
                             true, false, false)
             );
+            // In high resolution mode only the compressed screenshot is kept,
+            // since there might be many of them in memory. The decoded
+            // screenshot is only used for compressing the next screenshot,
+            // which is not done in timing tests.
+            EyesScreenshot screenshot = appOutputWithScreenshot.getScreenshot();
+            FrameFingerprint fingerprint = screenshot != null ?
+                    FrameFingerprint.of(screenshot.getImage()) : null;
             currentWindowDataWithScreenshot =
                     new MatchWindowDataWithScreenshot(currentWindowData,
-                            appOutputWithScreenshot.getScreenshot());
+                            highResolution ? null : screenshot, fingerprint);
 
             // Add the screenshot to the collection and pass it to the
-            // matcher thread.
+            // matcher threads, unless it's identical to the previous one (in
+            // which case the match result would be the same).
+            MatchWindowDataWithScreenshot previousWindowData =
+                    collectedData.isEmpty() ? null :
+                            collectedData.get(collectedData.size() - 1);
             ++screenshotsCount;
             collectedData.add(collectedData.size(),
                     currentWindowDataWithScreenshot);
-            matchDataContainer.put(currentWindowDataWithScreenshot);
+            if (currentWindowDataWithScreenshot.isIdenticalTo(
+                    previousWindowData)) {
+                logger.verbose("Screenshot is identical to the previous one.");
+            } else if (!matchDataQueue.put(currentWindowDataWithScreenshot,
+                    Math.max(0, timeoutMs - elapsedTime))) {
+                // Either the matchers stopped (a match was found, or
+                // matching failed), the timeout expired while waiting for
+                // room in the queue, or we got interrupted. In any case,
+                // stop the search process.
+                logger.verbose(matchDataQueue.isStopped() ?
+                        "Matchers stopped." :
+                        "Timed out waiting for the matchers.");
+                break;
+            }
 
             // Check if there was a match
             theMatch = matcherTask.getTheMatch();
@@ -313,42 +418,62 @@ class ResponseTimeAlgorithm {
             }
 
             currentTime = System.currentTimeMillis();
-            elapsedTime =
-                    GeneralUtils.getFullSecondsElapsedTimeMillis(startTime,
-                            currentTime);
+            elapsedTime = getElapsedTime(captureSettings, startTime,
+                    currentTime);
         }
 
         logger.verbose("Finished collecting data.");
-        matchDataContainer.close();
+        logger.verbose("Screenshots dropped from matching queue: "
+                + matchDataQueue.getDroppedCount());
+        if (collectedData instanceof RingBufferList) {
+            logger.verbose("Oldest screenshots dropped from collected data: "
+                    + ((RingBufferList) collectedData).getDroppedCount());
+        }
+        matchDataQueue.close();
 
         // If we left the loop because we reached maxScreenshot/timeout, give
-        // the matcher thread time finish.
+        // the matcher threads time finish. Otherwise, the other matcher
+        // threads stop after their current match attempt.
         if (theMatch == null) {
-            logger.verbose("No match found yet. Waiting for matcher thread..");
+            logger.verbose("No match found yet. Waiting for matcher threads..");
+        }
+        long closeDeadline =
+                System.currentTimeMillis() + MATCH_THREAD_CLOSE_TIMEOUT;
+        for (Future<?> matcherTaskFuture : matcherTaskFutures) {
             try {
-                matcherTaskThread.join(MATCH_THREAD_CLOSE_TIMEOUT);
-                logger.verbose("Finished waiting.");
-                if (matcherTaskThread.isAlive()) {
-                    logger.verbose(
-                            "Matcher thread still running. Interrupting it..");
-                    matcherTaskThread.interrupt();
-                    logger.verbose("Done!");
-                }
+                matcherTaskFuture.get(Math.max(0,
+                        closeDeadline - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.verbose("Matcher task still running. Cancelling it..");
+                matcherTaskFuture.cancel(true);
+                logger.verbose("Done!");
+            } catch (ExecutionException e) {
+                logger.verbose("Matcher task failed: " + e.getCause());
             } catch (InterruptedException e) {
                 logger.verbose(
-                        "Got interrupt while Waiting for matcher thread.");
+                        "Got interrupt while Waiting for matcher task.");
+                matcherTaskFuture.cancel(true);
             }
-            theMatch = matcherTask.getTheMatch();
         }
 
-        lastNonMatch = matcherTask.getLastNonMatch();
-
-        // If the match/lastNonMatch was update to be primary, we should return
-        // the updated object.
-        if (theMatch == originalPrimary) {
-            theMatch = updatedPrimary;
-        } else if (lastNonMatch == originalPrimary) {
-            lastNonMatch = updatedPrimary;
+        // Use the results of all match attempts: the earliest known match,
+        // and the last non-match before it (since several threads might have
+        // matched screenshots out of order). If a screenshot was updated to
+        // be primary, its result is the result of the original.
+        theMatch = null;
+        lastNonMatch = null;
+        for (MatchWindowDataWithScreenshot mwdws : collectedData) {
+            Boolean matchResult = matcherTask.getMatchResult(
+                    mwdws == updatedPrimary ? originalPrimary : mwdws);
+            if (matchResult == null) {
+                continue;
+            }
+            if (matchResult) {
+                theMatch = mwdws;
+                break;
+            }
+            lastNonMatch = mwdws;
         }
 
         logger.verbose("Is match found? " + (theMatch != null));
@@ -427,7 +552,110 @@ class ResponseTimeAlgorithm {
     }
 
     /**
-     * Find the EARLIEST match within the collected data.
+     * Searches for the earliest match by matching several screenshots
+     * concurrently in each round (a k-ary search). Like
+     * {@link #binarySearchEarliestMatch(Logger, ServerConnector,
+     * RunningSession, List, int, int, int)}, it assumes that once a
+     * screenshot matches, all the screenshots after it match as well.
+     *
+     * @param logger The logger to use.
+     * @param serverConnector The server connector to use for matching.
+     * @param runningSession The session for which we perform the match.
+     * @param dataToSearch The data inside which we search for a match.
+     * @param fromIndex The index in the search area from which to start
+     *                  searching. (inclusive)
+     * @param toIndex The index in the search area up to which to perform the
+     *                search. (inclusive).
+     * @param earliestMatchIndex The currently known earliest match index.
+     * @param concurrency The maximum number of concurrent match requests.
+     * @param executor The executor on which to run the match requests.
+     * @return The index of earliest match found.
+     */
+    private static int kArySearchEarliestMatch(Logger logger,
+            final ServerConnector serverConnector,
+            final RunningSession runningSession,
+            List<MatchWindowDataWithScreenshot> dataToSearch, int fromIndex,
+            int toIndex, int earliestMatchIndex, int concurrency,
+            ExecutorService executor) {
+
+        List<Future<MatchResult>> probeResults =
+                new ArrayList<Future<MatchResult>>(concurrency);
+        try {
+            while (fromIndex <= toIndex) {
+                logger.verbose(String.format("Indices: From %d, to %s ",
+                        fromIndex, toIndex));
+
+                // Probes split the search area into equal parts. With a
+                // single probe, this is the same index as the binary search.
+                int candidatesCount = toIndex - fromIndex + 1;
+                int probesCount = Math.min(concurrency, candidatesCount);
+                int[] probes = new int[probesCount];
+                probeResults.clear();
+                for (int i = 0; i < probesCount; ++i) {
+                    probes[i] = fromIndex +
+                            (int) (((long) (i + 1) * candidatesCount) /
+                                    (probesCount + 1));
+                    final MatchWindowData matchData =
+                            dataToSearch.get(probes[i]).getMatchWindowData();
+                    probeResults.add(executor.submit(
+                            new Callable<MatchResult>() {
+                                public MatchResult call() {
+                                    return serverConnector.matchWindow(
+                                            runningSession, matchData);
+                                }
+                            }));
+                }
+                logger.verbose("Trying to match indices: "
+                        + Arrays.toString(probes));
+
+                // The earliest matching probe bounds the search from above,
+                // and the non-matching probe before it bounds it from below.
+                int nextFromIndex = fromIndex;
+                int nextToIndex = toIndex;
+                boolean isMatchFound = false;
+                for (int i = 0; i < probesCount && !isMatchFound; ++i) {
+                    if (getProbeResult(probeResults.get(i)).getAsExpected()) {
+                        logger.verbose("Match at index " + probes[i]);
+                        earliestMatchIndex = probes[i];
+                        nextToIndex = probes[i] - 1;
+                        isMatchFound = true;
+                    } else {
+                        nextFromIndex = probes[i] + 1;
+                    }
+                }
+                fromIndex = nextFromIndex;
+                toIndex = nextToIndex;
+            }
+        } finally {
+            // If a probe failed, the rest of the probes aren't needed.
+            for (Future<MatchResult> probeResult : probeResults) {
+                probeResult.cancel(true);
+            }
+        }
+
+        logger.verbose("Finished matching! Earliest match: "
+                + earliestMatchIndex);
+        return earliestMatchIndex;
+    }
+
+    private static MatchResult getProbeResult(Future<MatchResult> probe) {
+        try {
+            return probe.get();
+        } catch (InterruptedException e) {
+            throw new EyesException(
+                    "Interrupted while searching for the earliest match!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new EyesException("Failed to match window!", e.getCause());
+        }
+    }
+
+    /**
+     * Find the EARLIEST match within the collected data. Screenshots with a
+     * fingerprint are compared locally first, so identical screenshots are
+     * only matched once.
      *
      * @param logger The logger to use.
      * @param serverConnector The server connector to use for the matching.
@@ -439,13 +667,18 @@ class ResponseTimeAlgorithm {
      *                 or  {@code null} if no match is known.
      * @param lastNonMatch The match data of the last known failed match, or
      *                  {@code null} if no such failed match is known.
+     * @param searchConcurrency The maximum number of concurrent match
+     *                          requests ({@code 1} for a binary search).
+     * @param executor The executor on which to run concurrent match
+     *                 requests.
      * @return The index of earliest match found.
      */
-    private static int findEarliestMatchIndex(Logger logger,
+    static int findEarliestMatchIndex(Logger logger,
             ServerConnector serverConnector, RunningSession runningSession,
             List<MatchWindowDataWithScreenshot> collectedData,
             MatchWindowDataWithScreenshot theMatch,
-            MatchWindowDataWithScreenshot lastNonMatch) {
+            MatchWindowDataWithScreenshot lastNonMatch,
+            int searchConcurrency, ExecutorService executor) {
 
         if (theMatch == null) {
             return -1;
@@ -466,13 +699,73 @@ class ResponseTimeAlgorithm {
         int lastNonMatchIndex = lastNonMatch != null ?
                 collectedData.indexOf(lastNonMatch) : 0;
 
-        logger.verbose(String.format(
-                "Performing binary search for earliest match: From %d to %d",
-                lastNonMatchIndex, theMatchIndex - 1));
+        // Screenshots which are identical to each other have the same match
+        // result, so only the first screenshot of each run of identical
+        // screenshots is a candidate for the earliest match. Screenshots
+        // identical to the known match (or non-match) are resolved locally.
+        List<Integer> candidateIndices = new ArrayList<Integer>();
+        for (int i = lastNonMatchIndex; i < theMatchIndex; ++i) {
+            MatchWindowDataWithScreenshot current = collectedData.get(i);
+            if (current.isIdenticalTo(theMatch)) {
+                logger.verbose(String.format(
+                        "Screenshot at index %d is identical to the match.",
+                        i));
+                theMatchIndex = i;
+                break;
+            }
+            if (current.isIdenticalTo(lastNonMatch)) {
+                candidateIndices.clear();
+                continue;
+            }
+            if (i > lastNonMatchIndex &&
+                    current.isIdenticalTo(collectedData.get(i - 1))) {
+                continue;
+            }
+            candidateIndices.add(i);
+        }
 
-        theMatchIndex = binarySearchEarliestMatch(logger,
-                serverConnector, runningSession, collectedData,
-                lastNonMatchIndex, theMatchIndex - 1, theMatchIndex);
+        if (candidateIndices.isEmpty()) {
+            logger.verbose("No candidates left to match.");
+            return theMatchIndex;
+        }
+
+        List<MatchWindowDataWithScreenshot> candidates =
+                new ArrayList<MatchWindowDataWithScreenshot>(
+                        candidateIndices.size());
+        for (int i : candidateIndices) {
+            candidates.add(collectedData.get(i));
+        }
+        logger.verbose(String.format("%d candidates out of %d screenshots: %s",
+                candidates.size(), theMatchIndex - lastNonMatchIndex,
+                candidateIndices));
+
+        // The index of the known match within the candidates is one past
+        // the last candidate.
+        int earliestCandidateIndex;
+        if (searchConcurrency > 1) {
+            logger.verbose(String.format(
+                    "Performing %d-ary search for earliest match: " +
+                            "From %d to %d", searchConcurrency + 1,
+                    candidateIndices.get(0), theMatchIndex - 1));
+
+            earliestCandidateIndex = kArySearchEarliestMatch(logger,
+                    serverConnector, runningSession, candidates, 0,
+                    candidates.size() - 1, candidates.size(),
+                    searchConcurrency, executor);
+        } else {
+            logger.verbose(String.format(
+                    "Performing binary search for earliest match: " +
+                            "From %d to %d", candidateIndices.get(0),
+                    theMatchIndex - 1));
+
+            earliestCandidateIndex = binarySearchEarliestMatch(logger,
+                    serverConnector, runningSession, candidates, 0,
+                    candidates.size() - 1, candidates.size());
+        }
+
+        if (earliestCandidateIndex < candidates.size()) {
+            theMatchIndex = candidateIndices.get(earliestCandidateIndex);
+        }
 
         logger.verbose("The earliest match index: " + theMatchIndex);
         return theMatchIndex;
@@ -548,6 +841,67 @@ class ResponseTimeAlgorithm {
         return theMatch;
     }
 
+    /**
+     * Sets a single image in a progression session.
+     *
+     * @param serverConnector The server connector to use.
+     * @param runningSession The current session.
+     * @param mwdws The image to set.
+     * @param forceMatch Whether the image should be set as a match (otherwise
+     *                   it is set as a mismatch).
+     */
+    private static void setProgressionImage(ServerConnector serverConnector,
+            RunningSession runningSession, MatchWindowDataWithScreenshot mwdws,
+            boolean forceMatch) {
+        MatchWindowData currentMwd = mwdws.getMatchWindowData();
+        MatchWindowData.Options currentOptions = currentMwd.getOptions();
+        MatchWindowData mwdToSend = new MatchWindowData(
+                currentMwd.getUserInputs(),
+                currentMwd.getAppOutput(),
+                currentMwd.getTag(),
+                false,
+                new MatchWindowData.Options(
+                        currentOptions.getName(),
+                        currentOptions.getUserInputs(),
+                        false,
+                        false,
+                        !forceMatch,
+                        forceMatch
+                )
+        );
+        serverConnector.matchWindow(runningSession, mwdToSend);
+    }
+
+    /**
+     * @param collectedData The list of progression images.
+     * @param lastImageIndex The index of the last image to be set.
+     * @return The indices of the images before {@code lastImageIndex} which
+     * should be set in a high resolution progression: the first image, the
+     * primary image and the image right before the last one. Setting all the
+     * (possibly hundreds of) images would make the progression unreadable,
+     * and slower than the test itself.
+     */
+    private static List<Integer> getKeyProgressionImageIndices(
+            List<MatchWindowDataWithScreenshot> collectedData,
+            int lastImageIndex) {
+        List<Integer> keyIndices = new ArrayList<Integer>(3);
+        if (lastImageIndex == 0) {
+            return keyIndices;
+        }
+        keyIndices.add(0);
+        for (int i = 1; i < lastImageIndex - 1; ++i) {
+            if (((TimedAppOutput) collectedData.get(i).getMatchWindowData()
+                    .getAppOutput()).getIsPrimary()) {
+                keyIndices.add(i);
+                break;
+            }
+        }
+        if (lastImageIndex > 1) {
+            keyIndices.add(lastImageIndex - 1);
+        }
+        return keyIndices;
+    }
+
     /**
      * Sets the images in a progression session.
      *
@@ -557,10 +911,12 @@ class ResponseTimeAlgorithm {
      * @param collectedData The list of progression images.
      * @param theMatchIndex The index of the match within {@code collectedData},
      *                      or {@code -1} if no match was found.
+     * @param captureSettings The settings of the screenshots capture.
      */
     private static void setProgressionImages(Logger logger, ServerConnector
         serverConnector, RunningSession runningSession,
-        List<MatchWindowDataWithScreenshot> collectedData, int theMatchIndex) {
+        List<MatchWindowDataWithScreenshot> collectedData, int theMatchIndex,
+        ResponseTimeCaptureSettings captureSettings) {
 
         logger.verbose("setProgressionImages()");
         logger.verbose("The match index: " + theMatchIndex);
@@ -569,75 +925,53 @@ class ResponseTimeAlgorithm {
         logger.verbose("Last image index: " + lastImageIndex);
 
         logger.verbose("Setting images...");
-        MatchWindowDataWithScreenshot currentMwdws;
-        MatchWindowData mwdToSend, currentMwd;
-        MatchWindowData.Options currentOptions;
-        for (int i = 0; i < lastImageIndex; ++i) {
-            currentMwdws = collectedData.get(i);
-            currentMwd = currentMwdws.getMatchWindowData();
-            currentOptions = currentMwd.getOptions();
-            long currentElapsed = ((TimedAppOutput) currentMwd.getAppOutput())
-                    .getElapsed();
-            long nextElapsed = ((TimedAppOutput)
-                    collectedData.get(i+1).getMatchWindowData().getAppOutput())
-                    .getElapsed();
-            if (currentElapsed == nextElapsed) {
-                logger.verbose(String.format(
-                    "Skipping image at index %d (same elapsed as next image)..."
-                        , i));
-                if (((TimedAppOutput)
-                        currentMwd.getAppOutput()).getIsPrimary()){
-                    logger.verbose("Skipped image is primary..");
-                    logger.verbose("Moving primary to the next image..");
-                    MatchWindowDataWithScreenshot nextMatchData =
-                            collectedData.get(i+1);
-                    nextMatchData = cloneTimedMWDWSWithPrimary(nextMatchData,
-                            true);
-                    collectedData.set(i+1, nextMatchData);
-                    logger.verbose("Done moving primary.");
-                }
+        if (captureSettings.getHighResolution()) {
+            // Elapsed times are in milliseconds, so there are no images with
+            // the same elapsed time to skip.
+            List<Integer> keyIndices =
+                    getKeyProgressionImageIndices(collectedData,
+                            lastImageIndex);
+            logger.verbose("Key image indices: " + keyIndices);
+            for (int i : keyIndices) {
+                setProgressionImage(serverConnector, runningSession,
+                        collectedData.get(i), false);
+            }
+        } else {
+            MatchWindowDataWithScreenshot currentMwdws;
+            for (int i = 0; i < lastImageIndex; ++i) {
+                currentMwdws = collectedData.get(i);
+                TimedAppOutput currentAppOutput = (TimedAppOutput)
+                        currentMwdws.getMatchWindowData().getAppOutput();
+                long currentElapsed = currentAppOutput.getElapsed();
+                long nextElapsed = ((TimedAppOutput) collectedData.get(i + 1)
+                        .getMatchWindowData().getAppOutput()).getElapsed();
+                if (currentElapsed == nextElapsed) {
+                    logger.verbose(String.format(
+                        "Skipping image at index %d (same elapsed as next)...",
+                            i));
+                    if (currentAppOutput.getIsPrimary()) {
+                        logger.verbose("Skipped image is primary..");
+                        logger.verbose("Moving primary to the next image..");
+                        MatchWindowDataWithScreenshot nextMatchData =
+                                collectedData.get(i + 1);
+                        nextMatchData = cloneTimedMWDWSWithPrimary(
+                                nextMatchData, true);
+                        collectedData.set(i + 1, nextMatchData);
+                        logger.verbose("Done moving primary.");
+                    }
 
-                continue;
+                    continue;
+                }
+                setProgressionImage(serverConnector, runningSession,
+                        currentMwdws, false);
             }
-            mwdToSend = new MatchWindowData(
-                    currentMwd.getUserInputs(),
-                    currentMwd.getAppOutput(),
-                    currentMwd.getTag(),
-                    false,
-                    new MatchWindowData.Options(
-                            currentOptions.getName(),
-                            currentOptions.getUserInputs(),
-                            false,
-                            false,
-                            true,
-                            false
-                    )
-            );
-            serverConnector.matchWindow(runningSession, mwdToSend);
         }
 
-
         // Last screenshot should force match if there was a match.
         boolean forceMatch = (theMatchIndex > -1);
         logger.verbose("Setting last image as a match? " + forceMatch);
-        currentMwdws = collectedData.get(lastImageIndex);
-        currentMwd = currentMwdws.getMatchWindowData();
-        currentOptions = currentMwd.getOptions();
-        mwdToSend = new MatchWindowData(
-                currentMwd.getUserInputs(),
-                currentMwd.getAppOutput(),
-                currentMwd.getTag(),
-                false,
-                new MatchWindowData.Options(
-                        currentOptions.getName(),
-                        currentOptions.getUserInputs(),
-                        false,
-                        false,
-                        !forceMatch,
-                        forceMatch
-                )
-        );
-        serverConnector.matchWindow(runningSession, mwdToSend);
+        setProgressionImage(serverConnector, runningSession,
+                collectedData.get(lastImageIndex), forceMatch);
         logger.verbose("Done setting images!");
     }
 
@@ -658,13 +992,19 @@ class ResponseTimeAlgorithm {
      * @param timeout The maximum time waiting for the application to load.
      *                   (Seconds)
      * @param matchInterval The interval between performing matches.
+     * @param matcherSettings The settings of the matcher threads.
+     * @param captureSettings The settings of the screenshots capture.
+     * @param executor The executor on which to run the matcher tasks.
      * @return The earliest match found, or {@code null} if no match is found.
      */
     public static MatchWindowDataWithScreenshot
     runProgressionSessionForExistingBaseline(Logger logger, ServerConnector
             serverConnector, RunningSession runningSession, AppOutputProvider
              appOutputProvider, RegionProvider regionProvider, long
-            startTime, int deadline, int timeout, long matchInterval) {
+            startTime, int deadline, int timeout, long matchInterval,
+            ResponseTimeMatcherSettings matcherSettings,
+            ResponseTimeCaptureSettings captureSettings,
+            ExecutorService executor) {
 
         ArgumentGuard.notNull(serverConnector, "serverConnector");
         ArgumentGuard.notNull(runningSession, "runningSession");
@@ -674,17 +1014,27 @@ class ResponseTimeAlgorithm {
         ArgumentGuard.greaterThanOrEqualToZero(deadline, "deadline");
         ArgumentGuard.greaterThanOrEqualToZero(timeout, "timeout");
         ArgumentGuard.greaterThanOrEqualToZero(matchInterval, "matchInterval");
+        ArgumentGuard.notNull(matcherSettings, "matcherSettings");
+        ArgumentGuard.notNull(captureSettings, "captureSettings");
+        ArgumentGuard.notNull(executor, "executor");
 
         logger.verbose("runProgressionSessionForExistingBaseline()");
 
-        List<MatchWindowDataWithScreenshot> collectedData =
-                new LinkedList<MatchWindowDataWithScreenshot>();
+        // In high resolution mode, only the latest screenshots are kept.
+        List<MatchWindowDataWithScreenshot> collectedData;
+        if (captureSettings.getHighResolution()) {
+            collectedData = new RingBufferList<MatchWindowDataWithScreenshot>(
+                    captureSettings.getMaxFramesCount());
+        } else {
+            collectedData = new LinkedList<MatchWindowDataWithScreenshot>();
+        }
 
         // Run initial progression search for a match.
         ResponseTimeInitialMatchSearchResult initialSearchResult =
                 ResponseTimeAlgorithm.responseTimeInitialMatchSearch(logger,
                     serverConnector, runningSession, appOutputProvider,
                     regionProvider, startTime, deadline, timeout, matchInterval,
+                    matcherSettings, captureSettings, executor,
                     collectedData);
         MatchWindowDataWithScreenshot theMatch, lastNonMatch;
         theMatch = initialSearchResult.getTheMatch();
@@ -702,7 +1052,8 @@ class ResponseTimeAlgorithm {
         logger.verbose("Searching for the earliest match..");
         int theMatchIndex = ResponseTimeAlgorithm.findEarliestMatchIndex(logger,
                 serverConnector, runningSession, collectedData, theMatch,
-                lastNonMatch);
+                lastNonMatch, matcherSettings.getSearchConcurrency(),
+                executor);
         logger.verbose("Done! Earliest match index: " + theMatchIndex);
 
         // If the match happened before the deadline, it should be marked as
@@ -712,7 +1063,7 @@ class ResponseTimeAlgorithm {
 
         // Actually save the images into the test.
         setProgressionImages(logger, serverConnector, runningSession,
-                collectedData, theMatchIndex);
+                collectedData, theMatchIndex, captureSettings);
 
         logger.verbose("Done!");
 
@@ -0,0 +1,56 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+/**
+ * The settings of how screenshots are captured during a timing test.
+ */
+class ResponseTimeCaptureSettings {
+    private final boolean highResolution;
+    private final int maxFramesCount;
+    private final long minCaptureInterval;
+
+    /**
+     * Settings for the standard mode, in which screenshots are taken at
+     * intervals of full seconds, and their elapsed times are rounded up to
+     * full seconds.
+     */
+    public ResponseTimeCaptureSettings() {
+        highResolution = false;
+        maxFramesCount = 0;
+        minCaptureInterval = 0;
+    }
+
+    /**
+     * Settings for the high resolution mode, in which each screenshot is
+     * taken as soon as the previous one is done, and elapsed times are in
+     * milliseconds. Only the latest {@code maxFramesCount} screenshots are
+     * kept (compressed), and only the screenshots required for the search
+     * and for the progression are uploaded.
+     *
+     * @param maxFramesCount     The maximum number of screenshots kept.
+     * @param minCaptureInterval The minimum time between the starts of two
+     *                           consecutive captures. (Milliseconds)
+     */
+    public ResponseTimeCaptureSettings(int maxFramesCount,
+                                       long minCaptureInterval) {
+        ArgumentGuard.greaterThanZero(maxFramesCount, "maxFramesCount");
+        ArgumentGuard.greaterThanOrEqualToZero(minCaptureInterval,
+                "minCaptureInterval");
+        highResolution = true;
+        this.maxFramesCount = maxFramesCount;
+        this.minCaptureInterval = minCaptureInterval;
+    }
+
+    public boolean getHighResolution() {
+        return highResolution;
+    }
+
+    public int getMaxFramesCount() {
+        return maxFramesCount;
+    }
+
+    public long getMinCaptureInterval() {
+        return minCaptureInterval;
+    }
+}
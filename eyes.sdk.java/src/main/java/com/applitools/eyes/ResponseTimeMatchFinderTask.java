@@ -1,84 +1,108 @@
 package com.applitools.eyes;
 
-import com.applitools.utils.BlockingInstanceContainer;
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.BoundedInstanceQueue;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class which performs a checkWindow call (so it can be run on a separate
- * thread).
+ * thread). The same instance can be run by several threads concurrently, in
+ * which case they share the match data queue and the results.
  */
 class ResponseTimeMatchFinderTask implements Runnable {
 
     private final long matchInterval;
+    private final int matchersCount;
+    private final AtomicInteger finishedCount;
     private final ServerConnector serverConnector;
     private final RunningSession runningSession;
-    private final BlockingInstanceContainer<MatchWindowDataWithScreenshot>
-            matchDataContainer;
-    private MatchWindowDataWithScreenshot lastNonMatch;
-    private MatchWindowDataWithScreenshot theMatch;
-    private EyesScreenshot lastScreenshot;
+    private final BoundedInstanceQueue<MatchWindowDataWithScreenshot>
+            matchDataQueue;
+    // The result of each match attempt (true for a match).
+    private final Map<MatchWindowDataWithScreenshot, Boolean> matchResults;
+    private volatile MatchWindowDataWithScreenshot lastNonMatch;
+    private volatile MatchWindowDataWithScreenshot theMatch;
+    private volatile EyesScreenshot lastScreenshot;
 
     /**
      *
-     * @param matchDataContainer The container to use for passing
-     *                           the match data to this instance.
-     * @param matchInterval The time to wait between match attempts.
-     *                      (Milliseconds)
+     * @param matchDataQueue The queue to use for passing the match data to
+     *                       this instance.
+     * @param matchersCount The number of threads which run this instance.
+     * @param matchInterval The time each thread waits between its match
+     *                      attempts. (Milliseconds)
      * @param serverConnector The server connector instance.
      * @param runningSession The current running session in which we should
      *                       perform the match.
      */
     public ResponseTimeMatchFinderTask(
-            BlockingInstanceContainer<MatchWindowDataWithScreenshot>
-                    matchDataContainer,
+            BoundedInstanceQueue<MatchWindowDataWithScreenshot>
+                    matchDataQueue, int matchersCount,
             long matchInterval, ServerConnector serverConnector,
             RunningSession runningSession) {
 
-        this.matchDataContainer = matchDataContainer;
+        ArgumentGuard.notNull(matchDataQueue, "matchDataQueue");
+        ArgumentGuard.greaterThanZero(matchersCount, "matchersCount");
+
+        this.matchDataQueue = matchDataQueue;
+        this.matchersCount = matchersCount;
+        finishedCount = new AtomicInteger();
         this.matchInterval = matchInterval;
         this.serverConnector = serverConnector;
         this.runningSession = runningSession;
+        matchResults =
+                new IdentityHashMap<MatchWindowDataWithScreenshot, Boolean>();
         theMatch = null;
         lastNonMatch = null;
         lastScreenshot = null;
     }
 
     public void run() {
-        long lastMatchAttemptTime, currentTime, timeToSleep;
-        MatchResult matchResult;
-        // First attempt
-        MatchWindowDataWithScreenshot currentMatchData =
-                matchDataContainer.take();
-        if (currentMatchData == null) {
-            // No more data to handle
-            return;
+        try {
+            findMatch();
+        } finally {
+            // Once a match was found, or all the threads finished (e.g.,
+            // since matching failed), the queue is not consumed anymore, so
+            // it's stopped and the capturing thread doesn't wait for room in
+            // it.
+            int finished = finishedCount.incrementAndGet();
+            if (theMatch != null || finished >= matchersCount) {
+                matchDataQueue.stop();
+            }
         }
-        lastScreenshot = currentMatchData.getScreenshot();
-        lastMatchAttemptTime = System.currentTimeMillis();
-        matchResult = serverConnector.matchWindow(runningSession,
-                currentMatchData.getMatchWindowData());
+    }
 
-        // We explicitly test for "interrupted" because "matchWindow"
-        // might take a long time toc complete.
-        while (!matchResult.getAsExpected() && !Thread.interrupted()) {
+    private void findMatch() {
+        long lastMatchAttemptTime = 0;
+        long timeToSleep;
+        MatchResult matchResult;
+        MatchWindowDataWithScreenshot currentMatchData;
 
-            lastNonMatch = currentMatchData;
+        // We explicitly test for "interrupted" because "matchWindow"
+        // might take a long time toc complete. We also stop if another
+        // thread found a match.
+        while (theMatch == null && !Thread.interrupted()) {
 
-            currentMatchData = matchDataContainer.take();
+            currentMatchData = matchDataQueue.take();
 
-            if (currentMatchData == null) {
+            if (currentMatchData == null || theMatch != null) {
                 // No more data to handle
                 return;
             }
 
-            currentTime = System.currentTimeMillis();
-
-            timeToSleep = matchInterval - (currentTime - lastMatchAttemptTime);
-            if (timeToSleep > 0) {
-                try {
-                    Thread.sleep(timeToSleep);
-                } catch (InterruptedException e) {
-                    // If the thread was interrupted, we need to finish.
-                    return;
+            if (lastMatchAttemptTime != 0) {
+                timeToSleep = matchInterval -
+                        (System.currentTimeMillis() - lastMatchAttemptTime);
+                if (timeToSleep > 0) {
+                    try {
+                        Thread.sleep(timeToSleep);
+                    } catch (InterruptedException e) {
+                        // If the thread was interrupted, we need to finish.
+                        return;
+                    }
                 }
             }
 
@@ -86,20 +110,26 @@ class ResponseTimeMatchFinderTask implements Runnable {
             lastMatchAttemptTime = System.currentTimeMillis();
             matchResult = serverConnector.matchWindow(runningSession,
                     currentMatchData.getMatchWindowData());
-        }
 
-        // If we left the loop because we found a match.
-        if (matchResult.getAsExpected()) {
-            theMatch = currentMatchData;
-        } else {
-            lastNonMatch = currentMatchData;
+            synchronized (matchResults) {
+                matchResults.put(currentMatchData,
+                        matchResult.getAsExpected());
+            }
+
+            if (matchResult.getAsExpected()) {
+                theMatch = currentMatchData;
+            } else {
+                lastNonMatch = currentMatchData;
+            }
         }
     }
 
     /**
      *
      * @return The match data for which there was a successful match, or
-     * {@code null} if no match was found.
+     * {@code null} if no match was found. When several threads run this
+     * task, this is the first match found, which is not necessarily the
+     * earliest one.
      */
     public MatchWindowDataWithScreenshot getTheMatch() {
             return theMatch;
@@ -114,6 +144,17 @@ class ResponseTimeMatchFinderTask implements Runnable {
             return lastNonMatch;
     }
 
+    /**
+     * @param matchData The match data.
+     * @return Whether the match attempt for {@code matchData} succeeded, or
+     * {@code null} if there was no match attempt for it.
+     */
+    public Boolean getMatchResult(MatchWindowDataWithScreenshot matchData) {
+        synchronized (matchResults) {
+            return matchResults.get(matchData);
+        }
+    }
+
     public EyesScreenshot getLastScreenshot() {
         return lastScreenshot;
     }
@@ -0,0 +1,64 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.BoundedInstanceQueue;
+
+/**
+ * The settings of the threads which search for a match during a timing
+ * test.
+ */
+class ResponseTimeMatcherSettings {
+    private final int matchersCount;
+    private final int queueCapacity;
+    private final BoundedInstanceQueue.OverflowPolicy overflowPolicy;
+    private final int searchConcurrency;
+
+    /**
+     * Settings for a single matcher thread, which always matches the latest
+     * screenshot, and a serial search for the earliest match.
+     */
+    public ResponseTimeMatcherSettings() {
+        this(1, 1, BoundedInstanceQueue.OverflowPolicy.LATEST_WINS, 1);
+    }
+
+    /**
+     * @param matchersCount  The number of threads performing matches
+     *                       concurrently.
+     * @param queueCapacity  The maximum number of screenshots waiting to be
+     *                       matched.
+     * @param overflowPolicy What to do with a new screenshot when there are
+     *                       {@code queueCapacity} screenshots waiting to be
+     *                       matched.
+     * @param searchConcurrency The maximum number of concurrent match
+     *                          requests when searching for the earliest
+     *                          match ({@code 1} for a serial binary search).
+     */
+    public ResponseTimeMatcherSettings(int matchersCount, int queueCapacity,
+            BoundedInstanceQueue.OverflowPolicy overflowPolicy,
+            int searchConcurrency) {
+        ArgumentGuard.greaterThanZero(matchersCount, "matchersCount");
+        ArgumentGuard.greaterThanZero(queueCapacity, "queueCapacity");
+        ArgumentGuard.notNull(overflowPolicy, "overflowPolicy");
+        ArgumentGuard.greaterThanZero(searchConcurrency, "searchConcurrency");
+        this.matchersCount = matchersCount;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.searchConcurrency = searchConcurrency;
+    }
+
+    public int getMatchersCount() {
+        return matchersCount;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public BoundedInstanceQueue.OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getSearchConcurrency() {
+        return searchConcurrency;
+    }
+}
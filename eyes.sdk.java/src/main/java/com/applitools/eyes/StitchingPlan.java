@@ -0,0 +1,132 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The scroll positions at which the parts of a full page screenshot are
+ * captured, planned up front so the number of scroll and capture operations
+ * is known before capturing starts.
+ * <p>
+ * Each captured part is stitched in its entirety, and the next part (to its
+ * right or below it) overwrites its last {@code margin} pixels, which might
+ * contain scroll bars or fixed position elements. The last part of each axis
+ * is aligned with the end of the page rather than scrolled past it, so no
+ * capture is wasted on a mostly out of bounds part. Pages which only scroll
+ * along one axis are captured in a single row or column, and pages which
+ * scroll along both axes are captured row by row, from left to right, so
+ * the margins of each part are overwritten by the parts following it.
+ */
+class StitchingPlan {
+
+    private final RectangleSize entireSize;
+    private final RectangleSize partSize;
+    private final List<Location> positions;
+    private final int columnsCount;
+    private final int rowsCount;
+
+    /**
+     * @param entireSize  The size of the entire page.
+     * @param partSize    The size of each captured part.
+     * @param margin      The number of pixels at the right/bottom of each
+     *                    part which should be overwritten by the next part.
+     * @param minPartStep The minimal number of pixels between consecutive
+     *                    parts, for parts which are (almost) all margin.
+     */
+    public StitchingPlan(RectangleSize entireSize, RectangleSize partSize,
+                         int margin, int minPartStep) {
+        ArgumentGuard.notNull(entireSize, "entireSize");
+        ArgumentGuard.notNull(partSize, "partSize");
+        ArgumentGuard.greaterThanZero(partSize.getWidth(),
+                "partSize.getWidth()");
+        ArgumentGuard.greaterThanZero(partSize.getHeight(),
+                "partSize.getHeight()");
+        ArgumentGuard.greaterThanOrEqualToZero(margin, "margin");
+        ArgumentGuard.greaterThanZero(minPartStep, "minPartStep");
+
+        this.entireSize = entireSize;
+        this.partSize = partSize;
+
+        int[] lefts = getAxisPositions(entireSize.getWidth(),
+                partSize.getWidth(), margin, minPartStep);
+        int[] tops = getAxisPositions(entireSize.getHeight(),
+                partSize.getHeight(), margin, minPartStep);
+        columnsCount = lefts.length;
+        rowsCount = tops.length;
+
+        List<Location> positions =
+                new ArrayList<Location>(columnsCount * rowsCount);
+        for (int top : tops) {
+            for (int left : lefts) {
+                positions.add(new Location(left, top));
+            }
+        }
+        this.positions = Collections.unmodifiableList(positions);
+    }
+
+    /**
+     * @return The scroll positions along an axis, the first of which is 0.
+     */
+    private static int[] getAxisPositions(int entireLength, int partLength,
+                                          int margin, int minPartStep) {
+        if (partLength >= entireLength) {
+            return new int[] {0};
+        }
+
+        int step = Math.min(Math.max(partLength - margin, minPartStep),
+                partLength);
+        int lastPosition = entireLength - partLength;
+        int[] positions = new int[1 + (lastPosition + step - 1) / step];
+        for (int i = 0; i < positions.length - 1; ++i) {
+            positions[i] = i * step;
+        }
+        positions[positions.length - 1] = lastPosition;
+        return positions;
+    }
+
+    /**
+     * @return The size of the entire page.
+     */
+    public RectangleSize getEntireSize() {
+        return entireSize;
+    }
+
+    /**
+     * @return The size of each captured part.
+     */
+    public RectangleSize getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * @return The scroll positions of the parts, in the order in which they
+     * should be captured. The first position is always {@code (0, 0)}.
+     */
+    public List<Location> getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return The number of parts captured for each row.
+     */
+    public int getColumnsCount() {
+        return columnsCount;
+    }
+
+    /**
+     * @return The number of rows of parts.
+     */
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d parts (%d x %d) of %s for %s",
+                positions.size(), columnsCount, rowsCount, partSize,
+                entireSize);
+    }
+}
@@ -0,0 +1,255 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+/**
+ * A bounded FIFO of user inputs, stored as primitive fields in a ring
+ * buffer rather than as trigger objects. When the buffer is full, adding a
+ * trigger drops the oldest one, and consecutive mouse moves on the same
+ * control are coalesced into the last of them (only the final cursor
+ * location of a move is of interest).
+ * <p>
+ * Not thread safe.
+ */
+class TriggerBuffer {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final Trigger[] NO_TRIGGERS = new Trigger[0];
+
+    // The fields of each trigger, in order.
+    private static final int KIND = 0;
+    private static final int MOUSE_ACTION = 1;
+    private static final int LEFT = 2;
+    private static final int TOP = 3;
+    private static final int WIDTH = 4;
+    private static final int HEIGHT = 5;
+    private static final int X = 6;
+    private static final int Y = 7;
+    private static final int FIELDS_COUNT = 8;
+
+    private static final int KIND_MOUSE = 0;
+    private static final int KIND_MOUSE_NO_LOCATION = 1;
+    private static final int KIND_TEXT = 2;
+    // Triggers of other types are stored as is.
+    private static final int KIND_OTHER = 3;
+
+    private static final MouseAction[] MOUSE_ACTIONS = MouseAction.values();
+
+    private final int capacity;
+    private final int[] fields;
+    // The text of text triggers, or the triggers of other types.
+    private final Object[] objects;
+    private int first;
+    private int size;
+    private int droppedCount;
+    private int coalescedCount;
+
+    /**
+     * @param capacity The maximum number of triggers kept.
+     */
+    public TriggerBuffer(int capacity) {
+        ArgumentGuard.greaterThanZero(capacity, "capacity");
+        this.capacity = capacity;
+        fields = new int[capacity * FIELDS_COUNT];
+        objects = new Object[capacity];
+    }
+
+    /**
+     * See {@link #TriggerBuffer(int)}.
+     * {@code capacity} defaults to {@link #DEFAULT_CAPACITY}.
+     */
+    public TriggerBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param trigger The trigger to add.
+     */
+    public void add(Trigger trigger) {
+        ArgumentGuard.notNull(trigger, "trigger");
+
+        if (trigger instanceof MouseTrigger) {
+            MouseTrigger mouseTrigger = (MouseTrigger) trigger;
+            Region control = mouseTrigger.getControl();
+            Location location = mouseTrigger.getLocation();
+            if (location != null) {
+                addMouse(KIND_MOUSE, mouseTrigger.getMouseAction(),
+                        control.getLeft(), control.getTop(),
+                        control.getWidth(), control.getHeight(),
+                        location.getX(), location.getY());
+            } else {
+                addMouse(KIND_MOUSE_NO_LOCATION,
+                        mouseTrigger.getMouseAction(), control.getLeft(),
+                        control.getTop(), control.getWidth(),
+                        control.getHeight(), 0, 0);
+            }
+        } else if (trigger instanceof TextTrigger) {
+            TextTrigger textTrigger = (TextTrigger) trigger;
+            Region control = textTrigger.getControl();
+            addText(control.getLeft(), control.getTop(), control.getWidth(),
+                    control.getHeight(), textTrigger.getText());
+        } else {
+            int offset = append(KIND_OTHER, 0, 0, 0, 0);
+            objects[offset / FIELDS_COUNT] = trigger;
+        }
+    }
+
+    /**
+     * Adds a mouse trigger without creating a {@link MouseTrigger}.
+     *
+     * @param action The mouse action.
+     * @param left   The left of the control.
+     * @param top    The top of the control.
+     * @param width  The width of the control.
+     * @param height The height of the control.
+     * @param x      The cursor's X, relative to the control.
+     * @param y      The cursor's Y, relative to the control.
+     */
+    public void addMouse(MouseAction action, int left, int top, int width,
+                         int height, int x, int y) {
+        ArgumentGuard.notNull(action, "action");
+        addMouse(KIND_MOUSE, action, left, top, width, height, x, y);
+    }
+
+    /**
+     * Adds a text trigger without creating a {@link TextTrigger}.
+     *
+     * @param left   The left of the control.
+     * @param top    The top of the control.
+     * @param width  The width of the control.
+     * @param height The height of the control.
+     * @param text   The trigger's text.
+     */
+    public void addText(int left, int top, int width, int height,
+                        String text) {
+        ArgumentGuard.notNullOrEmpty(text, "text");
+        int offset = append(KIND_TEXT, left, top, width, height);
+        objects[offset / FIELDS_COUNT] = text;
+    }
+
+    private void addMouse(int kind, MouseAction action, int left, int top,
+                          int width, int height, int x, int y) {
+        if (action == MouseAction.Move && size > 0) {
+            int last = ((first + size - 1) % capacity) * FIELDS_COUNT;
+            if (fields[last + KIND] == kind &&
+                    fields[last + MOUSE_ACTION] == action.ordinal() &&
+                    fields[last + LEFT] == left &&
+                    fields[last + TOP] == top &&
+                    fields[last + WIDTH] == width &&
+                    fields[last + HEIGHT] == height) {
+                fields[last + X] = x;
+                fields[last + Y] = y;
+                ++coalescedCount;
+                return;
+            }
+        }
+
+        int offset = append(kind, left, top, width, height);
+        fields[offset + MOUSE_ACTION] = action.ordinal();
+        fields[offset + X] = x;
+        fields[offset + Y] = y;
+    }
+
+    /**
+     * Adds a trigger at the end of the buffer, dropping the oldest trigger
+     * if the buffer is full.
+     *
+     * @return The offset of the trigger's fields.
+     */
+    private int append(int kind, int left, int top, int width,
+                       int height) {
+        int index;
+        if (size == capacity) {
+            index = first;
+            first = (first + 1) % capacity;
+            ++droppedCount;
+        } else {
+            index = (first + size) % capacity;
+            ++size;
+        }
+
+        int offset = index * FIELDS_COUNT;
+        fields[offset + KIND] = kind;
+        fields[offset + MOUSE_ACTION] = -1;
+        fields[offset + LEFT] = left;
+        fields[offset + TOP] = top;
+        fields[offset + WIDTH] = width;
+        fields[offset + HEIGHT] = height;
+        objects[index] = null;
+        return offset;
+    }
+
+    /**
+     * Removes all the triggers (and resets the dropped and coalesced
+     * counts).
+     */
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            objects[(first + i) % capacity] = null;
+        }
+        first = 0;
+        size = 0;
+        droppedCount = 0;
+        coalescedCount = 0;
+    }
+
+    /**
+     * @return The number of triggers in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of triggers dropped since the buffer was last
+     * cleared, since it was full.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return The number of mouse moves coalesced since the buffer was last
+     * cleared.
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * @return The triggers in the buffer, oldest first.
+     */
+    public Trigger[] toArray() {
+        if (size == 0) {
+            return NO_TRIGGERS;
+        }
+
+        Trigger[] result = new Trigger[size];
+        for (int i = 0; i < size; ++i) {
+            int index = (first + i) % capacity;
+            int offset = index * FIELDS_COUNT;
+            int kind = fields[offset + KIND];
+            if (kind == KIND_OTHER) {
+                result[i] = (Trigger) objects[index];
+                continue;
+            }
+
+            Region control = new Region(fields[offset + LEFT],
+                    fields[offset + TOP], fields[offset + WIDTH],
+                    fields[offset + HEIGHT]);
+            if (kind == KIND_TEXT) {
+                result[i] = new TextTrigger(control,
+                        (String) objects[index]);
+            } else {
+                Location location = kind == KIND_MOUSE ?
+                        new Location(fields[offset + X], fields[offset + Y])
+                        : null;
+                result[i] = new MouseTrigger(
+                        MOUSE_ACTIONS[fields[offset + MOUSE_ACTION]],
+                        control, location);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.applitools.eyes;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An Eyes implementation for tests, whose window is a given image.
+ */
+public class ImageEyes extends EyesBase {
+    private final BufferedImage image;
+
+    /**
+     * @param serverConnector The server connector to use.
+     * @param image           The image of the window, e.g., as created by
+     *                        {@link ImageScreenshot#createImage(int, int)}.
+     */
+    public ImageEyes(ServerConnector serverConnector, BufferedImage image) {
+        super(serverConnector);
+        this.image = image;
+    }
+
+    /**
+     * Matches the entire window once, without retries.
+     */
+    public MatchResult checkWindow(String tag) {
+        return checkWindowBase(new RegionProvider() {
+            public Region getRegion() {
+                return Region.EMPTY;
+            }
+
+            public CoordinatesType getCoordinatesType() {
+                return null;
+            }
+        }, tag, false, 0);
+    }
+
+    public MatchResult[] checkRegions(Region[] regions, String[] tags) {
+        return checkRegionsBase(regions, CoordinatesType.SCREENSHOT_AS_IS,
+                tags, false);
+    }
+
+    public void addText(Region control, String text) {
+        addTextTriggerBase(control, text);
+    }
+
+    protected String getBaseAgentId() {
+        return "eyes.test/1.0";
+    }
+
+    protected RectangleSize getViewportSize() {
+        return new RectangleSize(image.getWidth(), image.getHeight());
+    }
+
+    protected void setViewportSize(RectangleSize size) {}
+
+    protected String getInferredEnvironment() {
+        return "";
+    }
+
+    protected EyesScreenshot getScreenshot() {
+        return new ImageScreenshot(image);
+    }
+
+    protected String getTitle() {
+        return "title";
+    }
+}
@@ -0,0 +1,62 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageUtils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * A screenshot for tests, which only holds an image. All the coordinates
+ * types are the same (coordinates can't be converted).
+ */
+public class ImageScreenshot extends EyesScreenshot {
+
+    public static final int WIDTH = 40;
+    public static final int HEIGHT = 30;
+
+    public ImageScreenshot(BufferedImage image) {
+        super(image);
+    }
+
+    /**
+     * @param left The left coordinate of the black square.
+     * @param top  The top coordinate of the black square.
+     * @return A white image with a small black square.
+     */
+    public static BufferedImage createImage(int left, int top) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, WIDTH, HEIGHT);
+        g2.setColor(Color.BLACK);
+        g2.fillRect(left, top, 3, 3);
+        g2.dispose();
+        return image;
+    }
+
+    public EyesScreenshot getSubScreenshot(Region region,
+            CoordinatesType coordinatesType, boolean throwIfClipped) {
+        return new ImageScreenshot(ImageUtils.getImagePart(image, region));
+    }
+
+    protected Location convertLocation(Location location,
+            CoordinatesType from, CoordinatesType to) {
+        throw new UnsupportedOperationException();
+    }
+
+    public Location getLocationInScreenshot(Location location,
+            CoordinatesType coordinatesType) {
+        throw new UnsupportedOperationException();
+    }
+
+    protected Region getIntersectedRegion(Region region,
+            CoordinatesType originalCoordinatesType,
+            CoordinatesType resultCoordinatesType) {
+        Region intersectedRegion = new Region(region);
+        intersectedRegion.intersect(new Region(0, 0, image.getWidth(),
+                image.getHeight()));
+        return intersectedRegion;
+    }
+}
@@ -0,0 +1,148 @@
+package com.applitools.eyes;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server connector for tests, which doesn't send any requests. Sessions
+ * are started and stopped successfully, and windows match if set so.
+ * Tests override {@link #getMatchResult} and {@link #getTestResults} for
+ * other responses.
+ */
+public class StubServerConnector implements ServerConnector {
+    private final AtomicInteger sessionsCount = new AtomicInteger();
+    private final AtomicInteger matchesCount = new AtomicInteger();
+    private final AtomicInteger stopsCount = new AtomicInteger();
+    private final AtomicInteger concurrentMatchesCount = new AtomicInteger();
+    private final AtomicInteger maxConcurrentMatchesCount =
+            new AtomicInteger();
+    private volatile boolean asExpected;
+    private volatile long latency;
+    private volatile String apiKey;
+    private volatile boolean isNewSession = true;
+
+    /**
+     * @param asExpected Whether windows match.
+     */
+    public void setAsExpected(boolean asExpected) {
+        this.asExpected = asExpected;
+    }
+
+    /**
+     * @param isNewSession Whether started sessions are new (i.e., have no
+     *                     baseline). {@code true} by default.
+     */
+    public void setIsNewSession(boolean isNewSession) {
+        this.isNewSession = isNewSession;
+    }
+
+    /**
+     * @param latency The time (milliseconds) each match takes.
+     */
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    public int getSessionsCount() {
+        return sessionsCount.get();
+    }
+
+    public int getMatchesCount() {
+        return matchesCount.get();
+    }
+
+    /**
+     * @return The maximum number of matches which were performed
+     * concurrently.
+     */
+    public int getMaxConcurrentMatchesCount() {
+        return maxConcurrentMatchesCount.get();
+    }
+
+    public int getStopsCount() {
+        return stopsCount.get();
+    }
+
+    /**
+     * @param matchData The data of the match.
+     * @return The result of the match.
+     */
+    protected MatchResult getMatchResult(MatchWindowData matchData) {
+        MatchResult result = new MatchResult();
+        result.setAsExpected(asExpected);
+        return result;
+    }
+
+    /**
+     * @param runningSession The session which is stopped.
+     * @return The results of the session.
+     */
+    protected TestResults getTestResults(RunningSession runningSession) {
+        TestResults results = new TestResults();
+        results.setSteps(1);
+        results.setMatches(1);
+        return results;
+    }
+
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public void setServerUrl(URI serverUrl) {}
+
+    public URI getServerUrl() {
+        return null;
+    }
+
+    public void setProxy(ProxySettings proxySettings) {}
+
+    public ProxySettings getProxy() {
+        return null;
+    }
+
+    public int getTimeout() {
+        return 0;
+    }
+
+    public RunningSession startSession(SessionStartInfo sessionStartInfo) {
+        RunningSession runningSession = new RunningSession();
+        runningSession.setId("session" + sessionsCount.incrementAndGet());
+        runningSession.setUrl("http://results");
+        runningSession.setIsNewSession(isNewSession);
+        return runningSession;
+    }
+
+    public MatchResult matchWindow(RunningSession runningSession,
+                                   MatchWindowData matchData) {
+        matchesCount.incrementAndGet();
+        int concurrentMatches = concurrentMatchesCount.incrementAndGet();
+        try {
+            int max;
+            do {
+                max = maxConcurrentMatchesCount.get();
+            } while (concurrentMatches > max &&
+                    !maxConcurrentMatchesCount.compareAndSet(max,
+                            concurrentMatches));
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    throw new EyesException("Interrupted!", e);
+                }
+            }
+            return getMatchResult(matchData);
+        } finally {
+            concurrentMatchesCount.decrementAndGet();
+        }
+    }
+
+    public TestResults stopSession(RunningSession runningSession,
+                                   boolean isAborted, boolean save) {
+        stopsCount.incrementAndGet();
+        return getTestResults(runningSession);
+    }
+}
@@ -0,0 +1,211 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.SettableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class TestAsyncRequests {
+
+    private static final long TIMEOUT = 30; // Seconds
+
+    /**
+     * A server connector which stops sessions on another thread.
+     */
+    private static class AsyncStubServerConnector extends StubServerConnector
+            implements AsyncServerConnector {
+        private final AtomicInteger asyncStopsCount = new AtomicInteger();
+
+        public int getAsyncStopsCount() {
+            return asyncStopsCount.get();
+        }
+
+        public void stopSessionAsync(final RunningSession runningSession,
+                                     final boolean isAborted,
+                                     final boolean save,
+                                     final TaskListener<TestResults> listener) {
+            asyncStopsCount.incrementAndGet();
+            new Thread(new Runnable() {
+                public void run() {
+                    TestResults results;
+                    try {
+                        results = stopSession(runningSession, isAborted,
+                                save);
+                    } catch (RuntimeException e) {
+                        listener.onFail(e);
+                        return;
+                    }
+                    listener.onComplete(results);
+                }
+            }).start();
+        }
+    }
+
+    private static Throwable getFailure(SettableFuture<?> future)
+            throws Exception {
+        try {
+            future.get(TIMEOUT, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        Assert.fail("Expected the future to fail");
+        return null;
+    }
+
+    private static ImageEyes openEyes(ServerConnector serverConnector) {
+        ImageEyes eyes = new ImageEyes(serverConnector,
+                ImageScreenshot.createImage(0, 0));
+        eyes.setApiKey("key");
+        eyes.openBase("app", "test", null, null);
+        eyes.checkWindow("step");
+        return eyes;
+    }
+
+    @Test
+    public void testSettableFutureOnlyCompletesOnce() throws Exception {
+        SettableFuture<String> future = new SettableFuture<String>();
+        Assert.assertFalse(future.isDone());
+        try {
+            future.get(10, TimeUnit.MILLISECONDS);
+            Assert.fail("Expected a TimeoutException");
+        } catch (TimeoutException e) {
+            // Expected.
+        }
+
+        Assert.assertTrue(future.set("result"));
+        Assert.assertFalse(future.set("other"));
+        Assert.assertFalse(future.setException(new EyesException("failure")));
+        Assert.assertFalse(future.cancel(true));
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals("result", future.get());
+
+        SettableFuture<String> failedFuture = new SettableFuture<String>();
+        EyesException failure = new EyesException("failure");
+        failedFuture.onFail(failure);
+        failedFuture.onComplete("result");
+        Assert.assertSame(failure, getFailure(failedFuture));
+
+        SettableFuture<String> cancelledFuture = new SettableFuture<String>();
+        Assert.assertTrue(cancelledFuture.cancel(false));
+        Assert.assertTrue(cancelledFuture.isCancelled());
+        try {
+            cancelledFuture.get();
+            Assert.fail("Expected a CancellationException");
+        } catch (CancellationException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testLongRequestIsPolledUntilDone() throws Exception {
+        final AtomicInteger callsCount = new AtomicInteger();
+        SettableFuture<Integer> future = new SettableFuture<Integer>();
+        new RestClient(new Logger(), URI.create("http://localhost"))
+                .sendLongRequestAsync(new RestClient.HttpMethodCall() {
+                    public Response call() {
+                        return Response.status(callsCount.incrementAndGet()
+                                < 2 ? 202 : 200).build();
+                    }
+                }, "request", new RestClient.ResponseHandler<Integer>() {
+                    public Integer handle(Response response) {
+                        return response.getStatus();
+                    }
+                }, future);
+
+        Assert.assertEquals(Integer.valueOf(200),
+                future.get(TIMEOUT, TimeUnit.SECONDS));
+        Assert.assertEquals(2, callsCount.get());
+    }
+
+    @Test
+    public void testLongRequestFailureIsReported() throws Exception {
+        final EyesException failure = new EyesException("failure");
+        SettableFuture<Integer> future = new SettableFuture<Integer>();
+        new RestClient(new Logger(), URI.create("http://localhost"))
+                .sendLongRequestAsync(new RestClient.HttpMethodCall() {
+                    public Response call() {
+                        return Response.status(500).build();
+                    }
+                }, "request", new RestClient.ResponseHandler<Integer>() {
+                    public Integer handle(Response response) {
+                        throw failure;
+                    }
+                }, future);
+
+        Assert.assertSame(failure, getFailure(future));
+    }
+
+    @Test
+    public void testCloseAsyncCompletesWithResults() throws Exception {
+        AsyncStubServerConnector serverConnector =
+                new AsyncStubServerConnector();
+        serverConnector.setAsExpected(true);
+        ImageEyes eyes = openEyes(serverConnector);
+
+        SettableFuture<TestResults> future =
+                (SettableFuture<TestResults>) eyes.closeAsync(false);
+
+        TestResults results = future.get(TIMEOUT, TimeUnit.SECONDS);
+        Assert.assertEquals(1, results.getMatches());
+        Assert.assertTrue(results.isNew());
+        Assert.assertEquals(1, serverConnector.getAsyncStopsCount());
+        Assert.assertEquals(1, serverConnector.getStopsCount());
+        Assert.assertFalse(eyes.getIsOpen());
+    }
+
+    @Test
+    public void testCloseAsyncStopsSynchronouslyWithoutAsyncConnector()
+            throws Exception {
+        StubServerConnector serverConnector = new StubServerConnector();
+        serverConnector.setAsExpected(true);
+        ImageEyes eyes = openEyes(serverConnector);
+
+        SettableFuture<TestResults> future =
+                (SettableFuture<TestResults>) eyes.closeAsync(false);
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(1, future.get().getMatches());
+        Assert.assertEquals(1, serverConnector.getStopsCount());
+    }
+
+    @Test
+    public void testCloseAsyncFailsForNewTest() throws Exception {
+        StubServerConnector serverConnector = new StubServerConnector();
+        serverConnector.setAsExpected(true);
+        ImageEyes eyes = openEyes(serverConnector);
+
+        SettableFuture<TestResults> future =
+                (SettableFuture<TestResults>) eyes.closeAsync(true);
+
+        Assert.assertTrue(getFailure(future) instanceof NewTestException);
+    }
+
+    @Test
+    public void testCloseAsyncFailsWhenStopFails() throws Exception {
+        final EyesException failure = new EyesException("failure");
+        StubServerConnector serverConnector = new StubServerConnector() {
+            @Override
+            public TestResults stopSession(RunningSession runningSession,
+                                           boolean isAborted, boolean save) {
+                throw failure;
+            }
+        };
+        serverConnector.setAsExpected(true);
+        ImageEyes eyes = openEyes(serverConnector);
+
+        SettableFuture<TestResults> future =
+                (SettableFuture<TestResults>) eyes.closeAsync(false);
+
+        Assert.assertSame(failure, getFailure(future));
+    }
+}
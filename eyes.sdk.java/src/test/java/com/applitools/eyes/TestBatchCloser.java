@@ -0,0 +1,149 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class TestBatchCloser {
+
+    /**
+     * A server connector whose sessions end with a given number of steps and
+     * mismatches, or fail to stop.
+     */
+    private static class ResultsServerConnector extends StubServerConnector {
+        private final int steps;
+        private final int mismatches;
+        private final boolean isFailingStop;
+
+        public ResultsServerConnector(int steps, int mismatches,
+                                      boolean isNewSession,
+                                      boolean isFailingStop) {
+            this.steps = steps;
+            this.mismatches = mismatches;
+            this.isFailingStop = isFailingStop;
+            setAsExpected(true);
+            setIsNewSession(isNewSession);
+        }
+
+        @Override
+        protected TestResults getTestResults(RunningSession runningSession) {
+            if (isFailingStop) {
+                throw new EyesException("Failed to stop " + steps);
+            }
+            TestResults results = new TestResults();
+            results.setSteps(steps);
+            results.setMismatches(mismatches);
+            return results;
+        }
+    }
+
+    private static ImageEyes createEyes(BatchCloser batchCloser,
+                                        ServerConnector serverConnector) {
+        ImageEyes eyes = new ImageEyes(serverConnector,
+                ImageScreenshot.createImage(0, 0));
+        eyes.setApiKey("key");
+        batchCloser.register(eyes);
+        eyes.openBase("app", "test", null, null);
+        eyes.checkWindow("step");
+        return eyes;
+    }
+
+    private static ImageEyes createPassingEyes(BatchCloser batchCloser,
+                                               int steps) {
+        return createEyes(batchCloser,
+                new ResultsServerConnector(steps, 0, false, false));
+    }
+
+    @Test
+    public void testResultsAreInRegistrationOrder() {
+        BatchCloser batchCloser = new BatchCloser(new BatchInfo("batch"), 2);
+        ImageEyes first = createPassingEyes(batchCloser, 1);
+        ImageEyes second = createPassingEyes(batchCloser, 2);
+        createPassingEyes(batchCloser, 3);
+        ImageEyes notOpened = new ImageEyes(new StubServerConnector(),
+                ImageScreenshot.createImage(0, 0));
+        batchCloser.register(notOpened);
+
+        // The third test is closed by getAllResults.
+        batchCloser.close(second);
+        batchCloser.close(first);
+        List<TestResults> results = batchCloser.getAllResults();
+
+        Assert.assertEquals(4, results.size());
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(i + 1, results.get(i).getSteps());
+        }
+        Assert.assertNull(results.get(3));
+        Assert.assertEquals("batch", first.getBatch().getName());
+    }
+
+    @Test
+    public void testFailingCloseDoesNotBlockOthers() {
+        // Closes run one at a time, so the other closes wait for the
+        // failing close.
+        BatchCloser batchCloser = new BatchCloser(new BatchInfo("batch"), 1);
+        ResultsServerConnector failingConnector =
+                new ResultsServerConnector(1, 0, false, true);
+        createEyes(batchCloser, failingConnector);
+        ResultsServerConnector passingConnector =
+                new ResultsServerConnector(2, 0, false, false);
+        createEyes(batchCloser, passingConnector);
+
+        try {
+            batchCloser.getAllResults();
+            Assert.fail("Expected an EyesException");
+        } catch (EyesException e) {
+            Assert.assertEquals("Failed to stop 1", e.getCause().getMessage());
+        }
+        Assert.assertEquals(1, failingConnector.getStopsCount());
+        Assert.assertEquals(1, passingConnector.getStopsCount());
+    }
+
+    @Test
+    public void testMismatchTakesPrecedence() {
+        BatchCloser batchCloser = new BatchCloser(new BatchInfo("batch"));
+        createEyes(batchCloser, new ResultsServerConnector(1, 0, true, false));
+        createEyes(batchCloser, new ResultsServerConnector(2, 0, false, true));
+        createEyes(batchCloser, new ResultsServerConnector(3, 1, false, false));
+
+        try {
+            batchCloser.getAllResults();
+            Assert.fail("Expected a TestFailedException");
+        } catch (NewTestException e) {
+            Assert.fail("Expected a mismatch rather than a new test");
+        } catch (TestFailedException e) {
+            Assert.assertEquals(3, e.getTestResults().getSteps());
+        }
+    }
+
+    @Test
+    public void testFailureTakesPrecedenceOverNewTest() {
+        BatchCloser batchCloser = new BatchCloser(new BatchInfo("batch"));
+        createEyes(batchCloser, new ResultsServerConnector(1, 0, true, false));
+        createEyes(batchCloser, new ResultsServerConnector(2, 0, false, true));
+
+        try {
+            batchCloser.getAllResults();
+            Assert.fail("Expected an EyesException");
+        } catch (EyesException e) {
+            Assert.assertEquals("Failed to stop 2", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testResultsWithoutThrowing() {
+        BatchCloser batchCloser = new BatchCloser(new BatchInfo("batch"));
+        createEyes(batchCloser, new ResultsServerConnector(1, 0, true, false));
+        createEyes(batchCloser, new ResultsServerConnector(2, 1, false, false));
+
+        List<TestResults> results = batchCloser.getAllResults(false);
+
+        Assert.assertEquals(2, results.size());
+        Assert.assertTrue(results.get(0).isNew());
+        Assert.assertEquals(1, results.get(1).getMismatches());
+    }
+}
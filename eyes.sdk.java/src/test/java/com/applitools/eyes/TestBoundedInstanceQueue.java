@@ -0,0 +1,88 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.BoundedInstanceQueue;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestBoundedInstanceQueue {
+
+    private static BoundedInstanceQueue<String> createFullQueue() {
+        BoundedInstanceQueue<String> queue = new BoundedInstanceQueue<String>(
+                1, BoundedInstanceQueue.OverflowPolicy.KEEP_ALL);
+        Assert.assertTrue(queue.put("first"));
+        return queue;
+    }
+
+    @Test
+    public void testStopReleasesWaitingProducer() throws Exception {
+        final BoundedInstanceQueue<String> queue = createFullQueue();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> put = executor.submit(new Callable<Boolean>() {
+                public Boolean call() {
+                    return queue.put("second");
+                }
+            });
+            Thread.sleep(100);
+            Assert.assertFalse(put.isDone());
+
+            queue.stop();
+            Assert.assertFalse(put.get(5, TimeUnit.SECONDS));
+            Assert.assertNull(queue.take());
+            Assert.assertFalse(queue.put("third"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPutTimesOutWhenFull() {
+        BoundedInstanceQueue<String> queue = createFullQueue();
+        Assert.assertFalse(queue.put("second", 50));
+        Assert.assertEquals("first", queue.take());
+        Assert.assertTrue(queue.put("second", 0));
+    }
+
+    @Test
+    public void testFailedMatcherStopsFullQueue() throws Exception {
+        BoundedInstanceQueue<MatchWindowDataWithScreenshot> queue =
+                new BoundedInstanceQueue<MatchWindowDataWithScreenshot>(1,
+                        BoundedInstanceQueue.OverflowPolicy.KEEP_ALL);
+        ServerConnector serverConnector = new StubServerConnector() {
+            @Override
+            protected MatchResult getMatchResult(MatchWindowData matchData) {
+                throw new EyesException("Match failed!");
+            }
+        };
+        ResponseTimeMatchFinderTask matcherTask =
+                new ResponseTimeMatchFinderTask(queue, 1, 0, serverConnector,
+                        new RunningSession());
+
+        Trigger[] noUserInputs = new Trigger[0];
+        MatchWindowDataWithScreenshot matchData =
+                new MatchWindowDataWithScreenshot(new MatchWindowData(
+                        noUserInputs, new AppOutput("title", ""), "tag", true,
+                        new MatchWindowData.Options("tag", noUserInputs,
+                                true, true, false, false)), null, null);
+        Assert.assertTrue(queue.put(matchData));
+        try {
+            matcherTask.run();
+            Assert.fail("Expected the match to fail");
+        } catch (EyesException e) {
+            // Expected.
+        }
+
+        // The capturing thread must not wait for room in the queue.
+        Assert.assertTrue(queue.isStopped());
+        Assert.assertFalse(queue.put(matchData));
+    }
+}
@@ -0,0 +1,114 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class TestCheckRegions {
+
+    private static final Region[] REGIONS = {
+            new Region(0, 0, 10, 10),
+            new Region(10, 0, 10, 10),
+            new Region(20, 10, 20, 20)
+    };
+    private static final String[] TAGS = { "a", "b", "c" };
+
+    /**
+     * A server connector which records the matches, and matches every window
+     * except the window with a given tag.
+     */
+    private static class RecordingServerConnector
+            extends StubServerConnector {
+        private final List<MatchWindowData> matches =
+                new ArrayList<MatchWindowData>();
+        private volatile String mismatchTag;
+
+        public void setMismatchTag(String mismatchTag) {
+            this.mismatchTag = mismatchTag;
+        }
+
+        public synchronized List<MatchWindowData> getMatches() {
+            return new ArrayList<MatchWindowData>(matches);
+        }
+
+        @Override
+        protected MatchResult getMatchResult(MatchWindowData matchData) {
+            synchronized (this) {
+                matches.add(matchData);
+            }
+            MatchResult result = new MatchResult();
+            result.setAsExpected(!matchData.getTag().equals(mismatchTag));
+            return result;
+        }
+    }
+
+    private RecordingServerConnector serverConnector;
+    private ImageEyes eyes;
+
+    @Before
+    public void setUp() {
+        serverConnector = new RecordingServerConnector();
+        eyes = new ImageEyes(serverConnector,
+                ImageScreenshot.createImage(5, 5));
+        eyes.setApiKey("key");
+        eyes.openBase("app", "test", null, null);
+    }
+
+    @Test
+    public void testRegionsAreMatchedInOrder() {
+        MatchResult[] results = eyes.checkRegions(REGIONS, TAGS);
+
+        Assert.assertEquals(REGIONS.length, results.length);
+        List<MatchWindowData> matches = serverConnector.getMatches();
+        Assert.assertEquals(REGIONS.length, matches.size());
+        for (int i = 0; i < REGIONS.length; ++i) {
+            Assert.assertTrue(results[i].getAsExpected());
+            Assert.assertEquals(TAGS[i], matches.get(i).getTag());
+            Assert.assertEquals(REGIONS[i].getWidth(),
+                    results[i].getScreenshot().getImage().getWidth());
+            Assert.assertEquals(REGIONS[i].getHeight(),
+                    results[i].getScreenshot().getImage().getHeight());
+        }
+    }
+
+    @Test
+    public void testUserInputsOnlyPrecedeFirstRegion() {
+        // A screenshot is required for adding triggers.
+        eyes.checkRegions(new Region[] { REGIONS[0] }, new String[] { "x" });
+        eyes.addText(new Region(1, 1, 5, 5), "text");
+
+        eyes.checkRegions(REGIONS, TAGS);
+
+        List<MatchWindowData> matches = serverConnector.getMatches();
+        Assert.assertEquals(1 + REGIONS.length, matches.size());
+        Assert.assertEquals(0, matches.get(0).getUserInputs().length);
+        Assert.assertEquals(1, matches.get(1).getUserInputs().length);
+        Assert.assertEquals(0, matches.get(2).getUserInputs().length);
+        Assert.assertEquals(0, matches.get(3).getUserInputs().length);
+    }
+
+    @Test
+    public void testImmediateFailureIsThrownAfterAllRegions() {
+        serverConnector.setMismatchTag("b");
+        eyes.setFailureReports(FailureReports.IMMEDIATE);
+
+        try {
+            eyes.checkRegions(REGIONS, TAGS);
+            Assert.fail("Expected a TestFailedException");
+        } catch (TestFailedException e) {
+            // Expected.
+        }
+        Assert.assertEquals(REGIONS.length, serverConnector.getMatchesCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegionsAndTagsMustHaveSameLength() {
+        eyes.checkRegions(REGIONS, new String[] { "a" });
+    }
+}
@@ -0,0 +1,61 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestEyesExecutors {
+
+    @Test
+    public void testActionsAreNeverQueued() throws Exception {
+        // More actions than the response time executor's threads.
+        int actionsCount = EyesExecutors.DEFAULT_RESPONSE_TIME_MAX_THREADS + 8;
+        final CountDownLatch started = new CountDownLatch(actionsCount);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = EyesExecutors.getActionExecutor();
+        try {
+            for (int i = 0; i < actionsCount; ++i) {
+                executor.submit(new Runnable() {
+                    public void run() {
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testThreadsAreNamedDaemonThreads() throws Exception {
+        ExecutorService[] executors = new ExecutorService[]{
+                EyesExecutors.getActionExecutor(),
+                EyesExecutors.getComputeExecutor(),
+                EyesExecutors.getDefaultResponseTimeExecutor()};
+        for (ExecutorService executor : executors) {
+            Future<Thread> thread = executor.submit(
+                    new Callable<Thread>() {
+                        public Thread call() {
+                            return Thread.currentThread();
+                        }
+                    });
+            Thread t = thread.get(5, TimeUnit.SECONDS);
+            Assert.assertTrue(t.getName(), t.isDaemon());
+            Assert.assertTrue(t.getName(), t.getName().startsWith("eyes-"));
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.applitools.eyes;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class TestEyesRunner {
+
+    private static final int SESSIONS_COUNT = 100;
+
+    /**
+     * A local server which starts sessions, matches every window and
+     * returns passing results.
+     */
+    private static class SessionsHandler implements HttpHandler {
+        private final AtomicInteger startsCount = new AtomicInteger();
+        private final AtomicInteger matchesCount = new AtomicInteger();
+        private final AtomicInteger stopsCount = new AtomicInteger();
+
+        public void handle(HttpExchange exchange) throws IOException {
+            InputStream requestBody = exchange.getRequestBody();
+            byte[] buffer = new byte[4096];
+            //noinspection StatementWithEmptyBody
+            while (requestBody.read(buffer) != -1) {}
+
+            String path = exchange.getRequestURI().getPath();
+            String body;
+            if (exchange.getRequestMethod().equals("DELETE")) {
+                stopsCount.incrementAndGet();
+                body = "{\"steps\":1,\"matches\":1}";
+            } else if (path.endsWith("/running")) {
+                int sessionIndex = startsCount.incrementAndGet();
+                body = "{\"id\":\"session" + sessionIndex
+                        + "\",\"url\":\"http://results\"}";
+            } else {
+                matchesCount.incrementAndGet();
+                body = "{\"asExpected\":true}";
+            }
+
+            byte[] responseBytes = body.getBytes("UTF-8");
+            exchange.getResponseHeaders().add("Content-Type",
+                    "application/json");
+            exchange.sendResponseHeaders(200, responseBytes.length);
+            OutputStream responseBody = exchange.getResponseBody();
+            responseBody.write(responseBytes);
+            responseBody.close();
+        }
+    }
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private SessionsHandler handler;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        handler = new SessionsHandler();
+        server.createContext("/api/sessions/running", handler);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testConfigurationIsImmutable() {
+        EyesConfiguration.Builder builder = new EyesConfiguration.Builder()
+                .setAppName("app")
+                .setMatchTimeout(0);
+        EyesConfiguration configuration = builder.build();
+        builder.setAppName("other");
+
+        Assert.assertEquals("app", configuration.getAppName());
+        Assert.assertEquals("other", new EyesConfiguration.Builder(
+                configuration).setAppName("other").build().getAppName());
+        Assert.assertEquals("app", configuration.getAppName());
+        Assert.assertEquals(Integer.valueOf(0),
+                configuration.getMatchTimeout());
+    }
+
+    @Test(expected = EyesException.class)
+    public void testSessionMustUseSharedConnector() {
+        EyesRunner<ImageEyes> runner = new EyesRunner<ImageEyes>(
+                new EyesConfiguration.Builder().build(),
+                new EyesRunner.EyesFactory<ImageEyes>() {
+                    public ImageEyes create(ServerConnector serverConnector) {
+                        return new ImageEyes(new StubServerConnector(),
+                                ImageScreenshot.createImage(0, 0));
+                    }
+                });
+        runner.newSession();
+    }
+
+    @Test
+    public void testConcurrentSessionsShareRunner() throws Exception {
+        URI serverUrl = URI.create("http://localhost:"
+                + server.getAddress().getPort());
+        EyesConfiguration configuration = new EyesConfiguration.Builder()
+                .setApiKey("key")
+                .setServerUrl(serverUrl)
+                .setAppName("app")
+                .setMatchTimeout(0)
+                .build();
+
+        final AtomicInteger imagesCount = new AtomicInteger();
+        final EyesRunner<ImageEyes> runner = new EyesRunner<ImageEyes>(
+                configuration, new EyesRunner.EyesFactory<ImageEyes>() {
+                    public ImageEyes create(ServerConnector serverConnector) {
+                        int imageIndex = imagesCount.getAndIncrement();
+                        return new ImageEyes(serverConnector,
+                                ImageScreenshot.createImage(imageIndex % 37,
+                                        imageIndex % 27));
+                    }
+                });
+
+        ExecutorService testsExecutor = Executors.newFixedThreadPool(20);
+        final Set<ServerConnector> connectors = Collections.newSetFromMap(
+                new IdentityHashMap<ServerConnector, Boolean>());
+        List<Future<?>> tests = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < SESSIONS_COUNT; ++i) {
+                final String testName = "test" + i;
+                tests.add(testsExecutor.submit(new Callable<Void>() {
+                    public Void call() {
+                        ImageEyes eyes = runner.newSession();
+                        synchronized (connectors) {
+                            connectors.add(eyes.serverConnector);
+                        }
+                        eyes.openBase(null, testName, null, null);
+                        eyes.checkWindow("step");
+                        runner.closeSession(eyes);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> test : tests) {
+                test.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            testsExecutor.shutdownNow();
+        }
+
+        List<TestResults> results = runner.getAllResults();
+
+        Assert.assertEquals(SESSIONS_COUNT, results.size());
+        for (TestResults result : results) {
+            Assert.assertEquals(1, result.getMatches());
+        }
+        Assert.assertEquals(SESSIONS_COUNT, runner.getSessionsCount());
+        Assert.assertEquals(1, connectors.size());
+        Assert.assertEquals(SESSIONS_COUNT, handler.startsCount.get());
+        Assert.assertEquals(SESSIONS_COUNT, handler.matchesCount.get());
+        Assert.assertEquals(SESSIONS_COUNT, handler.stopsCount.get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.applitools.eyes;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.ws.rs.client.Client;
+
+@RunWith(JUnit4.class)
+public class TestHttpConnectionPool {
+
+    @After
+    public void tearDown() {
+        HttpConnectionPool.configure(HttpConnectionPool.DEFAULT_MAX_TOTAL,
+                HttpConnectionPool.DEFAULT_MAX_PER_ROUTE,
+                HttpConnectionPool.DEFAULT_CONNECTION_TIME_TO_LIVE,
+                HttpConnectionPool.DEFAULT_MAX_IDLE_TIME);
+    }
+
+    @Test
+    public void testClientsAreSharedBySameSettings() {
+        Client client = HttpConnectionPool.getClient(1234,
+                new ProxySettings("http://proxy:8080", "user", "password"));
+        int poolsCount = HttpConnectionPool.getPoolsCount();
+
+        Assert.assertSame(client, HttpConnectionPool.getClient(1234,
+                new ProxySettings("http://proxy:8080", "user", "password")));
+        Assert.assertEquals(poolsCount, HttpConnectionPool.getPoolsCount());
+
+        Assert.assertNotSame(client, HttpConnectionPool.getClient(1234,
+                new ProxySettings("http://proxy:8080", "user", "other")));
+        Assert.assertNotSame(client, HttpConnectionPool.getClient(1234,
+                new ProxySettings("http://proxy:8080")));
+        Assert.assertNotSame(client, HttpConnectionPool.getClient(4321,
+                new ProxySettings("http://proxy:8080", "user", "password")));
+        Assert.assertEquals(poolsCount + 3,
+                HttpConnectionPool.getPoolsCount());
+    }
+
+    @Test
+    public void testConfigureAppliesToExistingPools() {
+        HttpConnectionPool.getClient(2345, null);
+        int poolsCount = HttpConnectionPool.getPoolsCount();
+
+        HttpConnectionPool.configure(10, 5, 0, 5000);
+        Assert.assertEquals(10 * poolsCount,
+                HttpConnectionPool.getStatistics().getMax());
+
+        // Reconfiguring concurrently with creating clients.
+        Thread configurer = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 1; i <= 50; ++i) {
+                    HttpConnectionPool.configure(10, 5, 0, 1000 + i);
+                }
+            }
+        });
+        configurer.start();
+        for (int i = 0; i < 5; ++i) {
+            HttpConnectionPool.getClient(3000 + i, null);
+        }
+        try {
+            configurer.join();
+        } catch (InterruptedException e) {
+            throw new EyesException("Interrupted!", e);
+        }
+        Assert.assertEquals(10 * HttpConnectionPool.getPoolsCount(),
+                HttpConnectionPool.getStatistics().getMax());
+    }
+
+    @Test
+    public void testShutdownClosesClients() {
+        Client client = HttpConnectionPool.getClient(5678, null);
+
+        HttpConnectionPool.shutdown();
+        Assert.assertEquals(0, HttpConnectionPool.getPoolsCount());
+
+        Client newClient = HttpConnectionPool.getClient(5678, null);
+        Assert.assertNotSame(client, newClient);
+        Assert.assertEquals(1, HttpConnectionPool.getPoolsCount());
+    }
+}
@@ -0,0 +1,117 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class TestImageUtils {
+
+    private static final int[] SOURCE_TYPES = {
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_INT_BGR
+    };
+
+    /**
+     * @return An image of the given type with random pixels, including
+     * translucent and fully transparent pixels for types with alpha.
+     */
+    private static BufferedImage createRandomImage(int width, int height,
+                                                   int type) {
+        Random random = new Random(width * 31 + height * 17 + type);
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int argb = random.nextInt();
+                if ((x + y) % 7 == 0) {
+                    argb &= 0x00FFFFFF;
+                }
+                image.setRGB(x, y, argb);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * @return The conversion of {@code src} using Java2D.
+     */
+    private static BufferedImage copyWithGraphics(BufferedImage src) {
+        BufferedImage result = new BufferedImage(src.getWidth(),
+                src.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D g2 = result.createGraphics();
+        g2.drawRenderedImage(src, null);
+        g2.dispose();
+        return result;
+    }
+
+    private static void assertSamePixels(String message,
+                                         BufferedImage expected,
+                                         BufferedImage actual) {
+        Assert.assertEquals(message + " type",
+                BufferedImage.TYPE_4BYTE_ABGR, actual.getType());
+        Assert.assertEquals(message + " width", expected.getWidth(),
+                actual.getWidth());
+        Assert.assertEquals(message + " height", expected.getHeight(),
+                actual.getHeight());
+        Assert.assertArrayEquals(message,
+                ((DataBufferByte) expected.getRaster().getDataBuffer())
+                        .getData(),
+                ((DataBufferByte) actual.getRaster().getDataBuffer())
+                        .getData());
+    }
+
+    @Test
+    public void testCopyImageWithTypeMatchesGraphics() {
+        for (int type : SOURCE_TYPES) {
+            BufferedImage src = createRandomImage(123, 45, type);
+            assertSamePixels("type " + type, copyWithGraphics(src),
+                    ImageUtils.copyImageWithType(src,
+                            BufferedImage.TYPE_4BYTE_ABGR));
+        }
+    }
+
+    @Test
+    public void testCopyImageWithTypeOfSubImage() {
+        for (int type : SOURCE_TYPES) {
+            BufferedImage src = createRandomImage(100, 80, type)
+                    .getSubimage(13, 7, 61, 50);
+            assertSamePixels("type " + type, copyWithGraphics(src),
+                    ImageUtils.copyImageWithType(src,
+                            BufferedImage.TYPE_4BYTE_ABGR));
+        }
+    }
+
+    @Test
+    public void testCopyImageWithTypeOfLargeImage() {
+        // Large enough to be converted in parallel.
+        for (int type : SOURCE_TYPES) {
+            BufferedImage src = createRandomImage(1201, 1003, type);
+            assertSamePixels("type " + type, copyWithGraphics(src),
+                    ImageUtils.copyImageWithType(src,
+                            BufferedImage.TYPE_4BYTE_ABGR));
+        }
+    }
+
+    @Test
+    public void testNormalizeImageType() {
+        BufferedImage normalized = createRandomImage(10, 10,
+                BufferedImage.TYPE_4BYTE_ABGR);
+        Assert.assertSame(normalized,
+                ImageUtils.normalizeImageType(normalized));
+
+        BufferedImage src = createRandomImage(10, 10,
+                BufferedImage.TYPE_3BYTE_BGR);
+        assertSamePixels("normalized", copyWithGraphics(src),
+                ImageUtils.normalizeImageType(src));
+    }
+}
@@ -0,0 +1,115 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ImageDiff;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+@RunWith(JUnit4.class)
+public class TestLocalBaselineCache {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static BufferedImage createImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, width, height);
+        g2.setColor(Color.BLACK);
+        g2.fillRect(width / 4, height / 4, width / 2, height / 2);
+        g2.dispose();
+        return image;
+    }
+
+    private static BufferedImage fill(BufferedImage image, Color color,
+                                      int x, int y, int width, int height) {
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(color);
+        g2.fillRect(x, y, width, height);
+        g2.dispose();
+        return image;
+    }
+
+    private static ExactMatchSettings createSettings(int minDiffIntensity,
+            int minDiffWidth, int minDiffHeight, float matchThreshold) {
+        ExactMatchSettings settings = new ExactMatchSettings();
+        settings.setMinDiffIntensity(minDiffIntensity);
+        settings.setMinDiffWidth(minDiffWidth);
+        settings.setMinDiffHeight(minDiffHeight);
+        settings.setMatchThreshold(matchThreshold);
+        return settings;
+    }
+
+    @Test
+    public void testImageDiffHonorsExactMatchSettings() {
+        BufferedImage expected = createImage(100, 100);
+        // A faint 10x10 diff, and a strong 2x2 diff.
+        BufferedImage actual = fill(createImage(100, 100),
+                new Color(250, 250, 250), 0, 0, 10, 10);
+        fill(actual, Color.RED, 90, 90, 2, 2);
+
+        Assert.assertEquals(104, ImageDiff.getDiffPixelsCount(expected,
+                actual, null));
+        Assert.assertEquals(4, ImageDiff.getDiffPixelsCount(expected,
+                actual, createSettings(10, 0, 0, 0)));
+        Assert.assertEquals(100, ImageDiff.getDiffPixelsCount(expected,
+                actual, createSettings(0, 3, 3, 0)));
+        Assert.assertEquals(-1, ImageDiff.getDiffPixelsCount(expected,
+                createImage(100, 50), null));
+
+        Assert.assertFalse(ImageDiff.isMatch(expected, actual, null));
+        Assert.assertTrue(ImageDiff.isMatch(expected, actual,
+                createSettings(0, 0, 0, 0.0105f)));
+        Assert.assertTrue(ImageDiff.isMatch(expected, actual,
+                createSettings(10, 3, 3, 0)));
+    }
+
+    @Test
+    public void testVerdicts() {
+        LocalBaselineCache cache = new LocalBaselineCache(null, 50);
+        BufferedImage image = createImage(200, 100);
+
+        Assert.assertEquals(LocalBaselineCache.Verdict.NO_BASELINE,
+                cache.verify("app", "test", "1", image, null));
+
+        cache.approve("app", "test", "1", image);
+        Assert.assertEquals(LocalBaselineCache.Verdict.IDENTICAL,
+                cache.verify("app", "test", "1", createImage(200, 100),
+                        null));
+        Assert.assertEquals(LocalBaselineCache.Verdict.NO_BASELINE,
+                cache.verify("app", "test", "2", image, null));
+
+        // A small change is only ignored by a tolerant comparison.
+        BufferedImage changed = fill(createImage(200, 100), Color.RED,
+                0, 0, 4, 4);
+        Assert.assertEquals(LocalBaselineCache.Verdict.DIFFERENT,
+                cache.verify("app", "test", "1", changed, null));
+        Assert.assertEquals(LocalBaselineCache.Verdict.MATCHING,
+                cache.verify("app", "test", "1", changed,
+                        createSettings(0, 20, 20, 0)));
+    }
+
+    @Test
+    public void testCacheIsKeptInDirectory() throws Exception {
+        BufferedImage image = createImage(300, 200);
+        new LocalBaselineCache(folder.getRoot()).approve("app", "test", "1",
+                image);
+
+        LocalBaselineCache cache = new LocalBaselineCache(folder.getRoot());
+        Assert.assertEquals(LocalBaselineCache.Verdict.IDENTICAL,
+                cache.verify("app", "test", "1", image, null));
+        Assert.assertEquals(LocalBaselineCache.Verdict.DIFFERENT,
+                cache.verify("app", "test", "1",
+                        fill(createImage(300, 200), Color.BLUE, 0, 0, 50, 50),
+                        null));
+    }
+}
@@ -0,0 +1,180 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TestMatchWindowTask {
+
+    /**
+     * Provides screenshots of a window which changes on each capture, or
+     * never changes.
+     */
+    private static class WindowAppOutputProvider
+            implements AppOutputProvider {
+        private final boolean isChanging;
+        private int capturesCount;
+
+        public WindowAppOutputProvider(boolean isChanging) {
+            this.isChanging = isChanging;
+        }
+
+        public AppOutputWithScreenshot getAppOutput(
+                RegionProvider regionProvider,
+                EyesScreenshot lastScreenshot) {
+            int state = isChanging ? capturesCount : 0;
+            ++capturesCount;
+
+            return new AppOutputWithScreenshot(new AppOutput("title", ""),
+                    new ImageScreenshot(
+                            ImageScreenshot.createImage(state, state)));
+        }
+    }
+
+    /**
+     * A readiness signal which is always set immediately.
+     */
+    private static class ImmediateReadinessSignal implements ReadinessSignal {
+        private int readinessWaitsCount;
+        private int changeWaitsCount;
+
+        public boolean waitForReadiness(int timeout) {
+            ++readinessWaitsCount;
+            return true;
+        }
+
+        public boolean waitForChange(int timeout) {
+            ++changeWaitsCount;
+            return true;
+        }
+    }
+
+    private static MatchWindowTask createTask(
+            ServerConnector serverConnector, RunningSession runningSession,
+            AppOutputProvider appOutputProvider, int stableIntervalsLimit) {
+        return new MatchWindowTask(new Logger(), serverConnector,
+                runningSession, 0, appOutputProvider, stableIntervalsLimit);
+    }
+
+    private static MatchWindowTask createTask(
+            ServerConnector serverConnector,
+            AppOutputProvider appOutputProvider, int stableIntervalsLimit) {
+        return createTask(serverConnector, new RunningSession(),
+                appOutputProvider, stableIntervalsLimit);
+    }
+
+    @Test
+    public void testUnchangedWindowIsUploadedOnceAndStopsEarly() {
+        StubServerConnector serverConnector = new StubServerConnector();
+        MatchWindowTask task = createTask(serverConnector,
+                new WindowAppOutputProvider(false), 2);
+
+        long start = System.currentTimeMillis();
+        MatchResult result = task.matchWindow(new Trigger[0], null, null,
+                "tag", false, false, 10000);
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertFalse(result.getAsExpected());
+        Assert.assertTrue("elapsed " + elapsed, elapsed < 5000);
+        // The first match, and the final match which reports the mismatch.
+        Assert.assertEquals(2, serverConnector.getMatchesCount());
+        Assert.assertEquals(2, task.getUploadsCount());
+        Assert.assertEquals(2, task.getSkippedUploadsCount());
+    }
+
+    @Test
+    public void testChangingWindowIsUploadedOnEachCapture() {
+        StubServerConnector serverConnector = new StubServerConnector();
+        WindowAppOutputProvider appOutputProvider =
+                new WindowAppOutputProvider(true);
+        MatchWindowTask task = createTask(serverConnector, appOutputProvider,
+                2);
+
+        task.matchWindow(new Trigger[0], null, null, "tag", false, false,
+                1200);
+
+        Assert.assertEquals(appOutputProvider.capturesCount,
+                serverConnector.getMatchesCount());
+        Assert.assertEquals(0, task.getSkippedUploadsCount());
+    }
+
+    @Test
+    public void testReadinessSignalReplacesFixedDelays() {
+        StubServerConnector serverConnector = new StubServerConnector();
+        ImmediateReadinessSignal readinessSignal =
+                new ImmediateReadinessSignal();
+        MatchWindowTask task = createTask(serverConnector,
+                new WindowAppOutputProvider(true), 0);
+        task.setReadinessSignal(readinessSignal);
+
+        // A single match at the end of the timeout is performed once the
+        // signal is set.
+        long start = System.currentTimeMillis();
+        task.matchWindow(new Trigger[0], null, null, "tag", true, false,
+                10000);
+        long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed " + elapsed, elapsed < 5000);
+        Assert.assertEquals(1, readinessSignal.readinessWaitsCount);
+        Assert.assertEquals(1, serverConnector.getMatchesCount());
+
+        // Retries are performed when the signal is set.
+        task.matchWindow(new Trigger[0], null, null, "tag", false, false,
+                300);
+        Assert.assertTrue(readinessSignal.changeWaitsCount > 0);
+        Assert.assertEquals(readinessSignal.changeWaitsCount + 3
+                        - task.getSkippedUploadsCount(),
+                serverConnector.getMatchesCount());
+    }
+
+    @Test
+    public void testWindowIdenticalToLocalBaselineIsMatchedWithoutWaiting() {
+        StubServerConnector serverConnector = new StubServerConnector();
+        serverConnector.setAsExpected(true);
+        LocalBaselineCache baselineCache = new LocalBaselineCache();
+
+        // The first run approves the screenshot in the cache.
+        MatchWindowTask task = createTask(serverConnector,
+                new WindowAppOutputProvider(false), 0);
+        task.setBaselineCache(baselineCache, "app", "test");
+        task.matchWindow(new Trigger[0], null, null, "tag", true, false, 100);
+        Assert.assertEquals(0, task.getPreverifiedCount());
+
+        // The next run needn't wait for the identical window.
+        task = createTask(serverConnector, new WindowAppOutputProvider(false),
+                0);
+        task.setBaselineCache(baselineCache, "app", "test");
+        long start = System.currentTimeMillis();
+        MatchResult result = task.matchWindow(new Trigger[0], null, null,
+                "tag", true, false, 10000);
+        long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertTrue(result.getAsExpected());
+        Assert.assertTrue("elapsed " + elapsed, elapsed < 5000);
+        Assert.assertEquals(1, task.getPreverifiedCount());
+        Assert.assertEquals(2, serverConnector.getMatchesCount());
+    }
+
+    @Test
+    public void testNewSessionStepsAreNotApprovedLocally() {
+        StubServerConnector serverConnector = new StubServerConnector();
+        serverConnector.setAsExpected(true);
+        LocalBaselineCache baselineCache = new LocalBaselineCache();
+        RunningSession newSession = new RunningSession();
+        newSession.setIsNewSession(true);
+
+        MatchWindowTask task = createTask(serverConnector, newSession,
+                new WindowAppOutputProvider(false), 0);
+        task.setBaselineCache(baselineCache, "app", "test");
+        Assert.assertTrue(task.matchWindow(new Trigger[0], null, null, "tag",
+                true, false, 100).getAsExpected());
+
+        // The identical window of the next run is matched by the server.
+        task = createTask(serverConnector, new WindowAppOutputProvider(false),
+                0);
+        task.setBaselineCache(baselineCache, "app", "test");
+        task.matchWindow(new Trigger[0], null, null, "tag", true, false, 100);
+        Assert.assertEquals(0, task.getPreverifiedCount());
+    }
+}
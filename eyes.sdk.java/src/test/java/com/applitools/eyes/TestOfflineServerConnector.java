@@ -0,0 +1,154 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.SettableFuture;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class TestOfflineServerConnector {
+
+    /**
+     * A server connector with fixed responses: a new session, alternating
+     * match results, and results with a single mismatch.
+     */
+    private static class FixedServerConnector extends StubServerConnector {
+        private int matchesCount;
+
+        @Override
+        protected MatchResult getMatchResult(MatchWindowData matchData) {
+            MatchResult result = new MatchResult();
+            result.setAsExpected(matchesCount++ % 2 == 0);
+            return result;
+        }
+
+        @Override
+        protected TestResults getTestResults(RunningSession runningSession) {
+            TestResults results = new TestResults();
+            results.setSteps(2);
+            results.setMatches(1);
+            results.setMismatches(1);
+            results.setNew(true);
+            return results;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static SessionStartInfo createSessionStartInfo() {
+        return new SessionStartInfo("agent", SessionType.SEQUENTIAL, "app",
+                null, "test", new BatchInfo("batch"), null, null,
+                new AppEnvironment(), new ImageMatchSettings(), null, null);
+    }
+
+    private static MatchWindowData createMatchWindowData(int screenshotSize) {
+        Trigger[] noUserInputs = new Trigger[0];
+        return new MatchWindowData(noUserInputs,
+                new AppOutput("title", Base64.encodeBase64String(
+                        new byte[screenshotSize])), "tag", false,
+                new MatchWindowData.Options("tag", noUserInputs, false, false,
+                        false, false));
+    }
+
+    private static void runTest(ServerConnector connector) {
+        RunningSession runningSession =
+                connector.startSession(createSessionStartInfo());
+        Assert.assertEquals("session1", runningSession.getId());
+        Assert.assertTrue(runningSession.getIsNewSession());
+        Assert.assertTrue(connector.matchWindow(runningSession,
+                createMatchWindowData(100)).getAsExpected());
+        Assert.assertFalse(connector.matchWindow(runningSession,
+                createMatchWindowData(100)).getAsExpected());
+        TestResults results =
+                connector.stopSession(runningSession, false, false);
+        Assert.assertEquals(2, results.getSteps());
+        Assert.assertEquals(1, results.getMismatches());
+        Assert.assertTrue(results.isNew());
+    }
+
+    @Test
+    public void testReplayReturnsRecordedResponses() throws IOException {
+        File recordingFile = folder.newFile("traffic.jsonl");
+        OfflineServerConnector recorder = new OfflineServerConnector(
+                new Logger(), recordingFile, new FixedServerConnector());
+        runTest(recorder);
+
+        OfflineServerConnector player =
+                new OfflineServerConnector(new Logger(), recordingFile);
+        Assert.assertEquals(OfflineServerConnector.Mode.REPLAY,
+                player.getMode());
+        runTest(player);
+        // Responses are replayed again once all were replayed.
+        runTest(player);
+    }
+
+    @Test
+    public void testReplaySimulatesLatencyAndBandwidth() throws Exception {
+        File recordingFile = folder.newFile("traffic.jsonl");
+        OfflineServerConnector recorder = new OfflineServerConnector(
+                new Logger(), recordingFile, new FixedServerConnector());
+        RunningSession runningSession =
+                recorder.startSession(createSessionStartInfo());
+        recorder.matchWindow(runningSession, createMatchWindowData(100));
+        recorder.stopSession(runningSession, false, false);
+
+        OfflineServerConnector player =
+                new OfflineServerConnector(new Logger(), recordingFile);
+        player.setSimulatedLatency(100);
+        player.setSimulatedBandwidth(100 * 1000);
+
+        // 100ms latency, plus at least 200ms for 20KB of screenshot.
+        long start = System.currentTimeMillis();
+        player.matchWindow(runningSession, createMatchWindowData(20 * 1000));
+        long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed " + elapsed, elapsed >= 300);
+        Assert.assertTrue("elapsed " + elapsed, elapsed < 2000);
+
+        SettableFuture<TestResults> results =
+                new SettableFuture<TestResults>();
+        start = System.currentTimeMillis();
+        player.stopSessionAsync(runningSession, false, false, results);
+        Assert.assertTrue(System.currentTimeMillis() - start < 100);
+        Assert.assertEquals(1,
+                results.get(5, TimeUnit.SECONDS).getMismatches());
+        Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+    }
+
+    @Test
+    public void testFactoryCreatesConnectorFromSystemProperties()
+            throws IOException {
+        File recordingFile = folder.newFile("traffic.jsonl");
+        try {
+            System.setProperty(OfflineServerConnector.MODE_PROPERTY, "replay");
+            System.setProperty(OfflineServerConnector.FILE_PROPERTY,
+                    recordingFile.getAbsolutePath());
+            System.setProperty(OfflineServerConnector.LATENCY_PROPERTY, "0");
+
+            ServerConnector connector = ServerConnectorFactory.create(
+                    new Logger(), "agent", URI.create("http://localhost"));
+            Assert.assertTrue(connector instanceof OfflineServerConnector);
+            Assert.assertEquals(0, ((OfflineServerConnector) connector)
+                    .getSimulatedLatency());
+            Assert.assertEquals(URI.create("http://localhost"),
+                    connector.getServerUrl());
+        } finally {
+            System.clearProperty(OfflineServerConnector.MODE_PROPERTY);
+            System.clearProperty(OfflineServerConnector.FILE_PROPERTY);
+            System.clearProperty(OfflineServerConnector.LATENCY_PROPERTY);
+        }
+
+        Assert.assertFalse(ServerConnectorFactory.create(new Logger(),
+                "agent", URI.create("http://localhost"))
+                instanceof OfflineServerConnector);
+    }
+}
@@ -1,5 +1,6 @@
 package com.applitools.eyes;
 
+import com.applitools.utils.GeometryUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.BeforeClass;
@@ -145,6 +146,46 @@ public class TestRegion {
         Assert.assertEquals("no overlap", r2, Region.EMPTY);
     }
 
+    @Test
+    public void testSubRegions() {
+        Region region = new Region(10, 20, 100, 50);
+        StringBuilder subRegions = new StringBuilder();
+        for (Region subRegion :
+                region.getSubRegions(new RectangleSize(40, 30))) {
+            subRegions.append(subRegion).append("; ");
+        }
+        Assert.assertEquals("varying size sub-regions",
+                "(10, 20) 40x30; (50, 20) 40x30; (90, 20) 20x30; " +
+                        "(10, 50) 40x20; (50, 50) 40x20; (90, 50) 20x20; ",
+                subRegions.toString());
+
+        subRegions.setLength(0);
+        for (Region subRegion :
+                region.getSubRegions(new RectangleSize(40, 30), true)) {
+            subRegions.append(subRegion).append("; ");
+        }
+        Assert.assertEquals("fixed size sub-regions",
+                "(10, 20) 40x30; (50, 20) 40x30; (70, 20) 40x30; " +
+                        "(10, 40) 40x30; (50, 40) 40x30; (70, 40) 40x30; ",
+                subRegions.toString());
+
+        Iterable<Region> single =
+                region.getSubRegions(new RectangleSize(200, 200), true);
+        Assert.assertEquals("single sub-region", region,
+                single.iterator().next());
+    }
+
+    @Test
+    public void testPackedLocation() {
+        long location = GeometryUtils.packLocation(-5, 7);
+        Assert.assertEquals("packed x", -5, GeometryUtils.getX(location));
+        Assert.assertEquals("packed y", 7, GeometryUtils.getY(location));
+
+        location = GeometryUtils.offsetLocation(location, 10, -20);
+        Assert.assertEquals("offset x", 5, GeometryUtils.getX(location));
+        Assert.assertEquals("offset y", -13, GeometryUtils.getY(location));
+    }
+
     @Test
     public void testEqualsAndHashCode() {
         Region r1, r2;
@@ -0,0 +1,156 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedList;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class TestResponseTimeAlgorithm {
+
+    private static final int SCREENSHOTS_COUNT = 30;
+
+    /**
+     * A server connector which matches every screenshot from a given index
+     * onwards, after a simulated latency. The index of a screenshot is its
+     * tag.
+     */
+    private static class IndexServerConnector extends StubServerConnector {
+        private final int firstMatchIndex;
+
+        public IndexServerConnector(int firstMatchIndex, long latency) {
+            this.firstMatchIndex = firstMatchIndex;
+            setLatency(latency);
+        }
+
+        @Override
+        protected MatchResult getMatchResult(MatchWindowData matchData) {
+            MatchResult result = new MatchResult();
+            result.setAsExpected(
+                    Integer.parseInt(matchData.getTag()) >= firstMatchIndex);
+            return result;
+        }
+    }
+
+    /**
+     * @param runLength The number of consecutive identical screenshots, or
+     *                  {@code 0} for screenshots without fingerprints.
+     */
+    private static List<MatchWindowDataWithScreenshot> createCollectedData(
+            int runLength) {
+        List<MatchWindowDataWithScreenshot> collectedData =
+                new LinkedList<MatchWindowDataWithScreenshot>();
+        Trigger[] noUserInputs = new Trigger[0];
+        for (int i = 0; i < SCREENSHOTS_COUNT; ++i) {
+            String tag = Integer.toString(i);
+            MatchWindowData mwd = new MatchWindowData(noUserInputs,
+                    new TimedAppOutput(tag, "", i * 1000, false), tag, true,
+                    new MatchWindowData.Options(tag, noUserInputs, true, true,
+                            false, false));
+            FrameFingerprint fingerprint = runLength > 0 ?
+                    FrameFingerprint.of(createImage(i / runLength)) : null;
+            collectedData.add(
+                    new MatchWindowDataWithScreenshot(mwd, null, fingerprint));
+        }
+        return collectedData;
+    }
+
+    private static BufferedImage createImage(int state) {
+        return ImageScreenshot.createImage(state, state);
+    }
+
+    private static int findEarliestMatchIndex(ServerConnector serverConnector,
+                                              int searchConcurrency) {
+        return findEarliestMatchIndex(serverConnector, searchConcurrency, 0);
+    }
+
+    private static int findEarliestMatchIndex(ServerConnector serverConnector,
+                                              int searchConcurrency,
+                                              int runLength) {
+        List<MatchWindowDataWithScreenshot> collectedData =
+                createCollectedData(runLength);
+        // The last screenshot is the known match.
+        return ResponseTimeAlgorithm.findEarliestMatchIndex(new Logger(),
+                serverConnector, new RunningSession(), collectedData,
+                collectedData.get(SCREENSHOTS_COUNT - 1), null,
+                searchConcurrency,
+                EyesExecutors.getDefaultResponseTimeExecutor());
+    }
+
+    @Test
+    public void testEarliestMatchIsSameForAllConcurrencies() {
+        for (int concurrency = 1; concurrency <= 5; ++concurrency) {
+            for (int firstMatch = 0; firstMatch < SCREENSHOTS_COUNT;
+                 ++firstMatch) {
+                Assert.assertEquals(String.format(
+                        "concurrency %d, first match %d", concurrency,
+                        firstMatch), firstMatch, findEarliestMatchIndex(
+                        new IndexServerConnector(firstMatch, 0), concurrency));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentSearchSendsConcurrentProbes() {
+        int firstMatch = 11;
+
+        IndexServerConnector serialConnector =
+                new IndexServerConnector(firstMatch, 200);
+        Assert.assertEquals(firstMatch,
+                findEarliestMatchIndex(serialConnector, 1));
+        Assert.assertEquals(1,
+                serialConnector.getMaxConcurrentMatchesCount());
+
+        // The probes of each round are sent together, and each round waits
+        // for its probes, so there are never more than 4 concurrent probes.
+        IndexServerConnector concurrentConnector =
+                new IndexServerConnector(firstMatch, 200);
+        Assert.assertEquals(firstMatch,
+                findEarliestMatchIndex(concurrentConnector, 4));
+        int maxConcurrentProbes =
+                concurrentConnector.getMaxConcurrentMatchesCount();
+        Assert.assertTrue("max concurrent probes " + maxConcurrentProbes,
+                maxConcurrentProbes > 1 && maxConcurrentProbes <= 4);
+    }
+
+    @Test
+    public void testIdenticalScreenshotsAreMatchedOnce() {
+        int runLength = 5;
+        for (int concurrency = 1; concurrency <= 3; ++concurrency) {
+            for (int firstMatch = 0; firstMatch < SCREENSHOTS_COUNT;
+                 firstMatch += runLength) {
+                IndexServerConnector serverConnector =
+                        new IndexServerConnector(firstMatch, 0);
+                Assert.assertEquals(String.format(
+                        "concurrency %d, first match %d", concurrency,
+                        firstMatch), firstMatch, findEarliestMatchIndex(
+                        serverConnector, concurrency, runLength));
+                // Only the first screenshot of each run before the run of
+                // the known match is a candidate.
+                Assert.assertTrue("matches count " +
+                        serverConnector.getMatchesCount(),
+                        serverConnector.getMatchesCount() <=
+                                SCREENSHOTS_COUNT / runLength - 1);
+            }
+        }
+
+        // Without fingerprints, the same search takes more match requests.
+        IndexServerConnector serverConnector = new IndexServerConnector(15, 0);
+        Assert.assertEquals(15, findEarliestMatchIndex(serverConnector, 1));
+        Assert.assertTrue(serverConnector.getMatchesCount() > 3);
+    }
+
+    @Test
+    public void testFingerprints() {
+        FrameFingerprint first = FrameFingerprint.of(createImage(1));
+        Assert.assertTrue(first.isIdenticalTo(
+                FrameFingerprint.of(createImage(1))));
+        Assert.assertFalse(first.isIdenticalTo(
+                FrameFingerprint.of(createImage(2))));
+        Assert.assertEquals(0, first.getPerceptualDistance(first));
+    }
+}
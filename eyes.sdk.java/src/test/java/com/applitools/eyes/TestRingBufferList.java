@@ -0,0 +1,53 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.RingBufferList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class TestRingBufferList {
+
+    @Test
+    public void testKeepsLatestElements() {
+        RingBufferList<Integer> list = new RingBufferList<Integer>(3);
+        list.add(0);
+        list.add(1);
+        Assert.assertEquals(Arrays.asList(0, 1), list);
+        Assert.assertEquals(0, list.getDroppedCount());
+
+        for (int i = 2; i < 8; ++i) {
+            list.add(list.size(), i);
+        }
+        Assert.assertEquals(Arrays.asList(5, 6, 7), list);
+        Assert.assertEquals(5, list.getDroppedCount());
+        Assert.assertEquals(2, list.indexOf(7));
+    }
+
+    @Test
+    public void testSetAfterWrapAround() {
+        RingBufferList<String> list = new RingBufferList<String>(2);
+        list.add("a");
+        list.add("b");
+        list.add("c");
+        Assert.assertEquals("c", list.set(1, "d"));
+        Assert.assertEquals(Arrays.asList("b", "d"), list);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        RingBufferList<String> list = new RingBufferList<String>(2);
+        list.add("a");
+        list.get(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInsertNotAtEnd() {
+        RingBufferList<String> list = new RingBufferList<String>(2);
+        list.add("a");
+        list.add(0, "b");
+    }
+}
@@ -0,0 +1,90 @@
+package com.applitools.eyes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+
+@RunWith(JUnit4.class)
+public class TestServerJsonMappers {
+
+    @Test
+    public void testSessionStartInfoHasRootProperty() throws IOException {
+        SessionStartInfo sessionStartInfo = new SessionStartInfo("agent",
+                SessionType.SEQUENTIAL, "app", null, "test",
+                new BatchInfo("batch"), null, null, new AppEnvironment(),
+                new ImageMatchSettings(), null, null);
+
+        ObjectMapper jsonMapper = new ObjectMapper();
+        jsonMapper.configure(SerializationFeature.WRAP_ROOT_VALUE, true);
+        String expectedSerialization =
+                jsonMapper.writeValueAsString(sessionStartInfo);
+
+        String actualSerialization = ServerJsonMappers
+                .getSessionStartInfoWriter()
+                .writeValueAsString(sessionStartInfo);
+        Assert.assertEquals(expectedSerialization, actualSerialization);
+        Assert.assertTrue(actualSerialization,
+                actualSerialization.startsWith("{\"startInfo\":"));
+    }
+
+    @Test
+    public void testMatchWindowDataIncludesTimedAppOutput()
+            throws IOException {
+        Trigger[] noUserInputs = new Trigger[0];
+        MatchWindowData matchData = new MatchWindowData(noUserInputs,
+                new TimedAppOutput("title", null, 1500, true), "tag", true,
+                new MatchWindowData.Options("tag", noUserInputs, true, true,
+                        false, false));
+
+        String expectedSerialization =
+                new ObjectMapper().writeValueAsString(matchData);
+        String actualSerialization = ServerJsonMappers
+                .getMatchWindowDataWriter().writeValueAsString(matchData);
+        Assert.assertEquals(expectedSerialization, actualSerialization);
+        Assert.assertTrue(actualSerialization,
+                actualSerialization.contains("\"elapsed\":1500"));
+    }
+
+    @Test
+    public void testMatchWindowDataUserInputsSerializedOnce()
+            throws IOException {
+        Trigger[] userInputs = new Trigger[]{
+                new MouseTrigger(MouseAction.Click, new Region(1, 2, 3, 4),
+                        new Location(5, 6)),
+                new TextTrigger(new Region(10, 20, 30, 40), "text")};
+        MatchWindowData matchData = new MatchWindowData(userInputs,
+                new AppOutput("title", null), "tag", false,
+                new MatchWindowData.Options("tag", userInputs, false, false,
+                        false, false));
+
+        String userInputsJson = new ObjectMapper()
+                .writeValueAsString(userInputs);
+        Assert.assertSame(matchData.getUserInputsJson(),
+                matchData.getOptions().getUserInputsJson());
+        Assert.assertEquals(userInputsJson, matchData.getUserInputsJson());
+
+        String serialization = ServerJsonMappers
+                .getMatchWindowDataWriter().writeValueAsString(matchData);
+        String userInputsProperty = "\"userInputs\":" + userInputsJson;
+        int first = serialization.indexOf(userInputsProperty);
+        Assert.assertTrue(serialization, first >= 0);
+        Assert.assertTrue(serialization, serialization.indexOf(
+                userInputsProperty, first + 1) > first);
+        Assert.assertTrue(serialization,
+                serialization.contains("\"mouseAction\":\"Click\""));
+    }
+
+    @Test
+    public void testReaderIgnoresUnknownProperties() throws IOException {
+        MatchResult result = ServerJsonMappers.getReader(MatchResult.class)
+                .readValue("{\"asExpected\":true,\"unknown\":1}");
+        Assert.assertTrue(result.getAsExpected());
+        Assert.assertSame(ServerJsonMappers.getReader(Region.class),
+                ServerJsonMappers.getReader(Region.class));
+    }
+}
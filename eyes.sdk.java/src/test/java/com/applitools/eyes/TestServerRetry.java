@@ -0,0 +1,287 @@
+package com.applitools.eyes;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class TestServerRetry {
+
+    /**
+     * A local server which fails the first requests: it either resets the
+     * connection, or responds with "503 Service Unavailable".
+     */
+    private static class FaultyServerHandler implements HttpHandler {
+        private final int failuresCount;
+        private final boolean isResettingConnection;
+        private final int successStatus;
+        private final String successBody;
+        private final List<byte[]> requestBodies = new ArrayList<byte[]>();
+
+        public FaultyServerHandler(int failuresCount,
+                                   boolean isResettingConnection,
+                                   int successStatus, String successBody) {
+            this.failuresCount = failuresCount;
+            this.isResettingConnection = isResettingConnection;
+            this.successStatus = successStatus;
+            this.successBody = successBody;
+        }
+
+        public synchronized List<byte[]> getRequestBodies() {
+            return new ArrayList<byte[]>(requestBodies);
+        }
+
+        public void handle(HttpExchange exchange) throws IOException {
+            int requestIndex;
+            synchronized (this) {
+                requestBodies.add(readAll(exchange.getRequestBody()));
+                requestIndex = requestBodies.size() - 1;
+            }
+
+            if (requestIndex < failuresCount && isResettingConnection) {
+                exchange.close();
+                return;
+            }
+
+            int status = requestIndex < failuresCount ? 503 : successStatus;
+            byte[] body = (requestIndex < failuresCount ? "" : successBody)
+                    .getBytes("UTF-8");
+            exchange.getResponseHeaders().add("Content-Type",
+                    "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            OutputStream responseBody = exchange.getResponseBody();
+            responseBody.write(body);
+            responseBody.close();
+        }
+
+        private static byte[] readAll(InputStream stream) throws IOException {
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int readCount;
+            while ((readCount = stream.read(buffer)) != -1) {
+                result.write(buffer, 0, readCount);
+            }
+            return result.toByteArray();
+        }
+    }
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private Jersey2xServerConnector createConnector(RetryPolicy retryPolicy) {
+        URI serverUrl = URI.create("http://localhost:"
+                + server.getAddress().getPort());
+        Jersey2xServerConnector connector =
+                new Jersey2xServerConnector(new Logger(), "test", serverUrl);
+        connector.setApiKey("key");
+        connector.setRetryPolicy(retryPolicy);
+        return connector;
+    }
+
+    private static RunningSession createRunningSession() {
+        RunningSession runningSession = new RunningSession();
+        runningSession.setId("session");
+        return runningSession;
+    }
+
+    private static MatchWindowData createMatchWindowData() {
+        Trigger[] noUserInputs = new Trigger[0];
+        byte[] screenshot = new byte[1024];
+        new Random(1).nextBytes(screenshot);
+        return new MatchWindowData(noUserInputs,
+                new AppOutput("title", Base64.encodeBase64String(screenshot)),
+                "tag", false,
+                new MatchWindowData.Options("tag", noUserInputs, false, false,
+                        false, false));
+    }
+
+    @Test
+    public void testStartSessionRetriesUnavailableServer() {
+        FaultyServerHandler handler = new FaultyServerHandler(2, false, 201,
+                "{\"id\":\"session\",\"url\":\"http://results\"}");
+        server.createContext("/api/sessions/running", handler);
+
+        RunningSession runningSession =
+                createConnector(new RetryPolicy(3, 10, 20, 0, 0))
+                        .startSession(new SessionStartInfo("agent",
+                                SessionType.SEQUENTIAL, "app", null, "test",
+                                new BatchInfo("batch"), null, null,
+                                new AppEnvironment(), new ImageMatchSettings(),
+                                null, null));
+
+        Assert.assertEquals("session", runningSession.getId());
+        Assert.assertTrue(runningSession.getIsNewSession());
+        Assert.assertEquals(3, handler.getRequestBodies().size());
+    }
+
+    @Test
+    public void testMatchWindowIsResentAfterConnectionReset() {
+        FaultyServerHandler handler = new FaultyServerHandler(1, true, 200,
+                "{\"asExpected\":true}");
+        server.createContext("/api/sessions/running/session", handler);
+
+        MatchResult result = createConnector(new RetryPolicy(3, 10, 20, 0, 0))
+                .matchWindow(createRunningSession(), createMatchWindowData());
+
+        // The connection was closed before any of the response was sent.
+        Assert.assertTrue(result.getAsExpected());
+        List<byte[]> requestBodies = handler.getRequestBodies();
+        Assert.assertEquals(2, requestBodies.size());
+        Assert.assertTrue(Arrays.equals(requestBodies.get(0),
+                requestBodies.get(1)));
+    }
+
+    @Test
+    public void testMatchWindowResendsSameDataAfterUnavailableServer() {
+        FaultyServerHandler handler = new FaultyServerHandler(1, false, 200,
+                "{\"asExpected\":true}");
+        server.createContext("/api/sessions/running/session", handler);
+
+        MatchResult result = createConnector(new RetryPolicy(3, 10, 20, 0, 0))
+                .matchWindow(createRunningSession(), createMatchWindowData());
+
+        Assert.assertTrue(result.getAsExpected());
+        List<byte[]> requestBodies = handler.getRequestBodies();
+        Assert.assertEquals(2, requestBodies.size());
+        Assert.assertTrue(requestBodies.get(1).length > 1024);
+        Assert.assertTrue(Arrays.equals(requestBodies.get(0),
+                requestBodies.get(1)));
+    }
+
+    @Test
+    public void testMatchWindowIsResentAfterRefusedConnection()
+            throws Exception {
+        // The server only starts listening after the first attempt was
+        // refused, and before the retry (which is delayed 500-1000 ms).
+        Jersey2xServerConnector connector =
+                createConnector(new RetryPolicy(3, 1000, 1000, 0, 0));
+        final InetSocketAddress address = server.getAddress();
+        server.stop(0);
+        FaultyServerHandler handler = new FaultyServerHandler(0, false, 200,
+                "{\"asExpected\":true}");
+        final HttpServer restartedServer = HttpServer.create();
+        restartedServer.createContext("/api/sessions/running/session",
+                handler);
+        Thread serverStarter = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                    restartedServer.bind(address, 0);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                restartedServer.start();
+            }
+        });
+        serverStarter.start();
+        try {
+            MatchResult result = connector.matchWindow(
+                    createRunningSession(), createMatchWindowData());
+
+            Assert.assertTrue(result.getAsExpected());
+            Assert.assertEquals(1, handler.getRequestBodies().size());
+        } finally {
+            serverStarter.join();
+            restartedServer.stop(0);
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerStopsRequestsToDownServer() {
+        FaultyServerHandler handler = new FaultyServerHandler(
+                Integer.MAX_VALUE, false, 200, "");
+        server.createContext("/api/sessions/running/session", handler);
+        Jersey2xServerConnector connector =
+                createConnector(new RetryPolicy(2, 10, 20, 4, 60 * 1000));
+
+        for (int i = 0; i < 3; ++i) {
+            try {
+                connector.matchWindow(createRunningSession(),
+                        createMatchWindowData());
+                Assert.fail("Expected the match to fail");
+            } catch (EyesException e) {
+                // Expected.
+            }
+        }
+
+        // The third match was not sent, since the first two matches failed
+        // twice each.
+        Assert.assertEquals(4, handler.getRequestBodies().size());
+    }
+
+    @Test
+    public void testCircuitBreakerRecoversFromUnexpectedFailure() {
+        // Opens after a single failure, and allows a trial call right away.
+        RestClient restClient = new RestClient(new Logger(),
+                URI.create("http://breaker.test"));
+        restClient.setRetryPolicy(new RetryPolicy(1, 10, 20, 1, 0));
+        final int[] callsCount = { 0 };
+        RestClient.HttpMethodCall method = new RestClient.HttpMethodCall() {
+            public Response call() {
+                switch (callsCount[0]++) {
+                    case 0:
+                        return Response.status(503).build();
+                    case 1:
+                        throw new IllegalStateException("Client is closed");
+                    default:
+                        return Response.ok().build();
+                }
+            }
+        };
+
+        Assert.assertEquals(503,
+                restClient.sendWithRetry(method, "request").getStatus());
+        try {
+            restClient.sendWithRetry(method, "request");
+            Assert.fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+        Assert.assertEquals(200,
+                restClient.sendWithRetry(method, "request").getStatus());
+        Assert.assertEquals(3, callsCount[0]);
+    }
+
+    @Test
+    public void testRetryDelaysAreJitteredAndBounded() {
+        RetryPolicy retryPolicy = new RetryPolicy(10, 100, 1000, 0, 0);
+        Random random = new Random(1);
+        for (int i = 0; i < 100; ++i) {
+            long firstDelay = retryPolicy.getDelay(1, random);
+            Assert.assertTrue(firstDelay >= 50 && firstDelay <= 100);
+            long thirdDelay = retryPolicy.getDelay(3, random);
+            Assert.assertTrue(thirdDelay >= 200 && thirdDelay <= 400);
+            long lastDelay = retryPolicy.getDelay(10, random);
+            Assert.assertTrue(lastDelay >= 500 && lastDelay <= 1000);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+@RunWith(JUnit4.class)
+public class TestStitchingPlan {
+
+    private static StitchingPlan createPlan(int entireWidth, int entireHeight,
+                                            int partWidth, int partHeight) {
+        return new StitchingPlan(new RectangleSize(entireWidth, entireHeight),
+                new RectangleSize(partWidth, partHeight), 50, 10);
+    }
+
+    @Test
+    public void testSinglePart() {
+        StitchingPlan plan = createPlan(800, 600, 1000, 800);
+        Assert.assertEquals(Arrays.asList(new Location(0, 0)),
+                plan.getPositions());
+    }
+
+    @Test
+    public void testVerticalPage() {
+        // A grid of 750 pixel high parts would need 3 captures.
+        StitchingPlan plan = createPlan(1000, 1540, 1000, 800);
+        Assert.assertEquals(Arrays.asList(new Location(0, 0),
+                new Location(0, 740)), plan.getPositions());
+
+        plan = createPlan(1000, 5000, 1000, 800);
+        Assert.assertEquals(1, plan.getColumnsCount());
+        Assert.assertEquals(7, plan.getRowsCount());
+        Assert.assertEquals(new Location(0, 3750),
+                plan.getPositions().get(5));
+        Assert.assertEquals(new Location(0, 4200),
+                plan.getPositions().get(6));
+    }
+
+    @Test
+    public void testHorizontalPage() {
+        StitchingPlan plan = createPlan(2500, 800, 1000, 800);
+        Assert.assertEquals(Arrays.asList(new Location(0, 0),
+                new Location(950, 0), new Location(1500, 0)),
+                plan.getPositions());
+    }
+
+    @Test
+    public void testPageScrollingInBothAxes() {
+        StitchingPlan plan = createPlan(1500, 1200, 1000, 800);
+        // Each part's margins are overwritten by the parts following it.
+        Assert.assertEquals(Arrays.asList(new Location(0, 0),
+                new Location(500, 0), new Location(0, 400),
+                new Location(500, 400)), plan.getPositions());
+    }
+}
@@ -0,0 +1,100 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TestTriggerBuffer {
+
+    private static final Region CONTROL = new Region(10, 20, 100, 30);
+
+    @Test
+    public void testTriggersAreKeptInOrder() {
+        TriggerBuffer buffer = new TriggerBuffer();
+        buffer.add(new MouseTrigger(MouseAction.Click, CONTROL,
+                new Location(1, 2)));
+        buffer.add(new TextTrigger(CONTROL, "text"));
+        buffer.add(new MouseTrigger(MouseAction.Move, new Region(0, 0, 5, 5),
+                null));
+
+        Trigger[] triggers = buffer.toArray();
+        Assert.assertEquals(3, triggers.length);
+        MouseTrigger click = (MouseTrigger) triggers[0];
+        Assert.assertEquals(MouseAction.Click, click.getMouseAction());
+        Assert.assertEquals(CONTROL, click.getControl());
+        Assert.assertEquals(new Location(1, 2), click.getLocation());
+        TextTrigger text = (TextTrigger) triggers[1];
+        Assert.assertEquals(CONTROL, text.getControl());
+        Assert.assertEquals("text", text.getText());
+        Assert.assertNull(((MouseTrigger) triggers[2]).getLocation());
+
+        buffer.clear();
+        Assert.assertEquals(0, buffer.toArray().length);
+    }
+
+    @Test
+    public void testOldestTriggersAreDroppedWhenFull() {
+        TriggerBuffer buffer = new TriggerBuffer(3);
+        for (int i = 0; i < 5; ++i) {
+            buffer.add(new TextTrigger(CONTROL, "text" + i));
+        }
+
+        Trigger[] triggers = buffer.toArray();
+        Assert.assertEquals(3, triggers.length);
+        Assert.assertEquals(2, buffer.getDroppedCount());
+        for (int i = 0; i < triggers.length; ++i) {
+            Assert.assertEquals("text" + (i + 2),
+                    ((TextTrigger) triggers[i]).getText());
+        }
+    }
+
+    @Test
+    public void testConsecutiveMovesAreCoalesced() {
+        TriggerBuffer buffer = new TriggerBuffer();
+        for (int i = 0; i < 10; ++i) {
+            buffer.add(new MouseTrigger(MouseAction.Move, CONTROL,
+                    new Location(i, i)));
+        }
+        buffer.add(new MouseTrigger(MouseAction.Click, CONTROL,
+                new Location(9, 9)));
+        buffer.add(new MouseTrigger(MouseAction.Move, CONTROL,
+                new Location(3, 4)));
+
+        Trigger[] triggers = buffer.toArray();
+        Assert.assertEquals(3, triggers.length);
+        Assert.assertEquals(9, buffer.getCoalescedCount());
+        Assert.assertEquals(new Location(9, 9),
+                ((MouseTrigger) triggers[0]).getLocation());
+        Assert.assertEquals(MouseAction.Click,
+                ((MouseTrigger) triggers[1]).getMouseAction());
+        Assert.assertEquals(new Location(3, 4),
+                ((MouseTrigger) triggers[2]).getLocation());
+    }
+
+    @Test
+    public void testPrimitiveTriggersMatchTriggerObjects() {
+        TriggerBuffer buffer = new TriggerBuffer();
+        buffer.addMouse(MouseAction.Move, 10, 20, 100, 30, 1, 2);
+        buffer.add(new MouseTrigger(MouseAction.Move, CONTROL,
+                new Location(3, 4)));
+        buffer.addText(10, 20, 100, 30, "text");
+
+        Trigger[] triggers = buffer.toArray();
+        Assert.assertEquals(2, triggers.length);
+        Assert.assertEquals(1, buffer.getCoalescedCount());
+        MouseTrigger move = (MouseTrigger) triggers[0];
+        Assert.assertEquals(MouseAction.Move, move.getMouseAction());
+        Assert.assertEquals(CONTROL, move.getControl());
+        Assert.assertEquals(new Location(3, 4), move.getLocation());
+        TextTrigger text = (TextTrigger) triggers[1];
+        Assert.assertEquals(CONTROL, text.getControl());
+        Assert.assertEquals("text", text.getText());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyTextIsRejected() {
+        new TriggerBuffer().addText(10, 20, 100, 30, "");
+    }
+}
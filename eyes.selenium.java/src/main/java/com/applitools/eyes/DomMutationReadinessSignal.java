@@ -0,0 +1,135 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.GeneralUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.List;
+
+/**
+ * A {@link ReadinessSignal} which is set once the page has settled: the
+ * document is loaded, and neither the DOM nor the set of loaded resources
+ * has changed for a given quiet period. Changes are tracked by a mutation
+ * observer installed in the page, so each poll is a single cheap script
+ * call.
+ */
+public class DomMutationReadinessSignal implements ReadinessSignal {
+
+    public static final int DEFAULT_QUIET_PERIOD = 300; // Milliseconds
+    private static final int POLL_INTERVAL = 50; // Milliseconds
+
+    // Installs the observer (unless it's already installed) and returns the
+    // time of the last change, and the time since the last change or -1 if
+    // the document is still loading. Navigating to another page resets the
+    // state, which counts as a change.
+    private static final String JS_GET_QUIET_TIME =
+            "var s = window.__applitoolsReadiness; " +
+                    "var now = new Date().getTime(); " +
+                    "if (!s) { " +
+                    "s = window.__applitoolsReadiness = " +
+                    "{lastChange: now, resourcesCount: -1}; " +
+                    "if (window.MutationObserver) { " +
+                    "new MutationObserver(function () { " +
+                    "s.lastChange = new Date().getTime(); " +
+                    "}).observe(document, {childList: true, subtree: true, " +
+                    "attributes: true, characterData: true}); " +
+                    "} " +
+                    "} " +
+                    "if (window.performance && performance.getEntriesByType) { " +
+                    "var count = performance.getEntriesByType('resource')" +
+                    ".length; " +
+                    "if (count != s.resourcesCount) { " +
+                    "s.resourcesCount = count; s.lastChange = now; " +
+                    "} " +
+                    "} " +
+                    "var quietTime = document.readyState == 'complete' ? " +
+                    "now - s.lastChange : -1; " +
+                    "return [s.lastChange, quietTime];";
+
+    private final JavascriptExecutor executor;
+    private final int quietPeriod;
+    // The time of the last change the signal was set for (page time).
+    private long lastSignaledChange;
+
+    /**
+     * Creates a new DomMutationReadinessSignal instance.
+     *
+     * @param executor    The driver of the page.
+     * @param quietPeriod The time without changes after which the page is
+     *                    considered settled. (Milliseconds)
+     */
+    public DomMutationReadinessSignal(JavascriptExecutor executor,
+                                      int quietPeriod) {
+        ArgumentGuard.notNull(executor, "executor");
+        ArgumentGuard.greaterThanZero(quietPeriod, "quietPeriod");
+
+        this.executor = executor;
+        this.quietPeriod = quietPeriod;
+        lastSignaledChange = -1;
+    }
+
+    /**
+     * See {@link #DomMutationReadinessSignal(JavascriptExecutor, int)}.
+     * {@code quietPeriod} defaults to {@link #DEFAULT_QUIET_PERIOD}.
+     *
+     * @param executor The driver of the page.
+     */
+    public DomMutationReadinessSignal(JavascriptExecutor executor) {
+        this(executor, DEFAULT_QUIET_PERIOD);
+    }
+
+    public boolean waitForReadiness(int timeout) {
+        return waitForQuiet(timeout, false);
+    }
+
+    public boolean waitForChange(int timeout) {
+        return waitForQuiet(timeout, true);
+    }
+
+    /**
+     * @param timeout             The maximum time to wait. (Milliseconds)
+     * @param isNewChangeRequired Whether the page should change after the
+     *                            last time the signal was set.
+     * @return Whether the page is quiet (after a new change, if required).
+     */
+    private boolean waitForQuiet(int timeout, boolean isNewChangeRequired) {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (true) {
+            long lastChange = -1, quietTime = -1;
+            try {
+                List<?> result = (List<?>) executor.executeScript(
+                        JS_GET_QUIET_TIME);
+                lastChange = ((Number) result.get(0)).longValue();
+                quietTime = ((Number) result.get(1)).longValue();
+            } catch (WebDriverException e) {
+                // E.g., the page is being replaced. We'll try again on the
+                // next poll.
+            }
+
+            boolean isChanged = lastChange != lastSignaledChange;
+            if (quietTime >= quietPeriod &&
+                    (isChanged || !isNewChangeRequired)) {
+                lastSignaledChange = lastChange;
+                return true;
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                if (quietTime >= quietPeriod) {
+                    // The match following the timeout sees the page as it
+                    // is now, so this change should not set the signal.
+                    lastSignaledChange = lastChange;
+                }
+                return false;
+            }
+
+            // Waiting either for the quiet period to complete, or for the
+            // next poll.
+            long delay = quietTime >= 0 && isChanged ?
+                    Math.max(quietPeriod - quietTime, POLL_INTERVAL) :
+                    POLL_INTERVAL;
+            GeneralUtils.sleep(Math.min(delay, remaining));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.openqa.selenium.remote.RemoteWebElement;
 
 import java.awt.image.BufferedImage;
 import java.net.URI;
+import java.util.Arrays;
 
 /**
  * The main API gateway for the SDK.
@@ -56,7 +57,22 @@ public class Eyes extends EyesBase {
      */
     public Eyes(URI serverUrl) {
         super(serverUrl);
+        init();
+    }
+
+    /**
+     * Creates a new (possibly disabled) Eyes instance that interacts with the
+     * Eyes Server using the given server connector, e.g., the shared
+     * connector of an {@link EyesRunner}.
+     *
+     * @param serverConnector The server connector to use.
+     */
+    public Eyes(ServerConnector serverConnector) {
+        super(serverConnector);
+        init();
+    }
 
+    private void init() {
         checkFrameOrElement = false;
         regionToCheck = null;
         forceFullPageScreenshot = false;
@@ -164,13 +180,26 @@ public class Eyes extends EyesBase {
     public void setStitchMode(StitchMode mode) {
         stitchMode = mode;
         if (driver != null) {
-            switch (mode) {
-                case CSS: setPositionProvider(
-                        new CssTranslatePositionProvider(logger, this.driver));
-                    break;
-                default: setPositionProvider(
-                        new ScrollPositionProvider(logger, this.driver));
-            }
+            updatePositionProvider();
+        }
+    }
+
+    /**
+     * Sets the position provider according to the stitch mode (native apps
+     * can't be scrolled at all).
+     */
+    private void updatePositionProvider() {
+        if (driver.isNativeApp()) {
+            setPositionProvider(new NativeAppPositionProvider(logger, driver));
+            return;
+        }
+
+        switch (getStitchMode()) {
+            case CSS: setPositionProvider(
+                    new CssTranslatePositionProvider(logger, this.driver));
+                break;
+            default: setPositionProvider(
+                    new ScrollPositionProvider(logger, this.driver));
         }
     }
 
@@ -293,13 +322,7 @@ public class Eyes extends EyesBase {
         devicePixelRatio = UNKNOWN_DEVICE_PIXEL_RATIO;
 
         // Setting the correct position provider.
-        switch (getStitchMode()) {
-            case CSS: setPositionProvider(
-                    new CssTranslatePositionProvider(logger, this.driver));
-                break;
-            default: setPositionProvider(
-                    new ScrollPositionProvider(logger, this.driver));
-        }
+        updatePositionProvider();
 
         this.driver.setRotation(rotation);
         return this.driver;
@@ -881,6 +904,78 @@ public class Eyes extends EyesBase {
         }
     }
 
+    @SuppressWarnings("UnusedDeclaration")
+    /**
+     * Takes a single snapshot of the application under test and matches the
+     * region of each of the given elements with its expected region output.
+     * Each element is a separate checkpoint, in the order of
+     * {@code elements}. Unlike {@link #checkRegion(WebElement, int, String)},
+     * there's no scrolling to the elements and no retry on mismatch, so
+     * elements which are not in the viewport require
+     * {@link #setForceFullPageScreenshot(boolean)}.
+     *
+     * @param elements The elements which represent the regions to check. All
+     *                 elements must be in the current frame.
+     * @param tags     The tags to be associated with each of the regions
+     *                 (same length as {@code elements}). Entries can be
+     *                 {@code null}.
+     * @return Whether each of the regions matched its expected output.
+     * @throws TestFailedException if a mismatch is detected and
+     *                             immediate failure reports are enabled. This
+     *                             is only thrown after all regions were
+     *                             checked.
+     */
+    public boolean[] checkRegions(WebElement[] elements, String[] tags) {
+        if (getIsDisabled()) {
+            logger.log("CheckRegions(elements, tags): Ignored");
+            boolean[] ignored = new boolean[elements == null ? 0 : elements.length];
+            Arrays.fill(ignored, true);
+            return ignored;
+        }
+
+        ArgumentGuard.notNull(elements, "elements");
+        ArgumentGuard.notNull(tags, "tags");
+
+        logger.log(String.format("CheckRegions(%d elements)",
+                elements.length));
+
+        Region[] regions =
+                EyesSeleniumUtils.getElementsBounds(driver, elements);
+
+        MatchResult[] results = super.checkRegionsBase(regions,
+                CoordinatesType.CONTEXT_RELATIVE, tags, false);
+
+        boolean[] asExpected = new boolean[results.length];
+        for (int i = 0; i < results.length; ++i) {
+            asExpected[i] = results[i].getAsExpected();
+        }
+        logger.verbose("Done!");
+        return asExpected;
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    /**
+     * See {@link #checkRegions(WebElement[], String[])}. Each selector must
+     * select an element in the current frame.
+     */
+    public boolean[] checkRegions(By[] selectors, String[] tags) {
+        if (getIsDisabled()) {
+            logger.log("CheckRegions(selectors, tags): Ignored");
+            boolean[] ignored = new boolean[selectors == null ? 0 : selectors.length];
+            Arrays.fill(ignored, true);
+            return ignored;
+        }
+
+        ArgumentGuard.notNull(selectors, "selectors");
+
+        WebElement[] elements = new WebElement[selectors.length];
+        for (int i = 0; i < selectors.length; ++i) {
+            elements[i] = driver.findElement(selectors[i]);
+        }
+
+        return checkRegions(elements, tags);
+    }
+
     @SuppressWarnings("UnusedDeclaration")
     /**
      * See {@link #checkRegionInFrame(int, By, String)}.
@@ -1137,7 +1232,14 @@ public class Eyes extends EyesBase {
      * Updates the state of scaling related parameters.
      */
     protected void updateScalingParams() {
-        if (devicePixelRatio == UNKNOWN_DEVICE_PIXEL_RATIO) {
+        if (devicePixelRatio == UNKNOWN_DEVICE_PIXEL_RATIO &&
+                driver.isNativeApp()) {
+            // Native apps have no device pixel ratio / page size to scale by.
+            logger.verbose("Native app, using FixedScaleProvider.");
+            devicePixelRatio = DEFAULT_DEVICE_PIXEL_RATIO;
+            scaleProviderHandler.set(
+                    new FixedScaleProvider(1/devicePixelRatio));
+        } else if (devicePixelRatio == UNKNOWN_DEVICE_PIXEL_RATIO) {
             logger.verbose("Trying to extract device pixel ratio...");
             try {
                 devicePixelRatio =
@@ -1858,8 +1960,12 @@ public class Eyes extends EyesBase {
 
         updateScalingParams();
 
+        // Native apps can only be captured as is, without scrolling or
+        // hiding scroll bars.
+        boolean isNativeApp = driver.isNativeApp();
+
         String originalOverflow = null;
-        if (hideScrollbars) {
+        if (hideScrollbars && !isNativeApp) {
             try {
                 originalOverflow =
                         EyesSeleniumUtils.hideScrollbars(driver, 200);
@@ -1873,7 +1979,7 @@ public class Eyes extends EyesBase {
                     new TakesScreenshotImageProvider(logger, driver);
             EyesScreenshotFactory screenshotFactory =
                     new EyesWebDriverScreenshotFactory(logger, driver);
-            if (checkFrameOrElement) {
+            if (!isNativeApp && checkFrameOrElement) {
                 logger.verbose("Check frame/element requested");
                 FullPageCaptureAlgorithm algo =
                         new FullPageCaptureAlgorithm(logger);
@@ -1887,7 +1993,7 @@ public class Eyes extends EyesBase {
                         entireFrameOrElement,
                         new RectangleSize(entireFrameOrElement.getWidth(),
                                 entireFrameOrElement.getHeight()));
-            } else if (forceFullPageScreenshot) {
+            } else if (!isNativeApp && forceFullPageScreenshot) {
                 logger.verbose("Full page screenshot requested.");
                 // Save the current frame path.
                 FrameChain originalFrame = driver.getFrameChain();
@@ -1928,7 +2034,7 @@ public class Eyes extends EyesBase {
             logger.verbose("Done!");
             return result;
         } finally {
-            if (hideScrollbars) {
+            if (hideScrollbars && !isNativeApp) {
                 try {
                     EyesSeleniumUtils.setOverflow(driver, originalOverflow);
                 } catch (EyesDriverOperationException e) {
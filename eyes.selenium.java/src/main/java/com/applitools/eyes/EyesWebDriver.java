@@ -28,8 +28,11 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
     private final TouchScreen touch;
     private final Map<String, WebElement> elementsIds;
     private final FrameChain frameChain;
+    // Incremented whenever the current frame or window might change.
+    private int contextSwitchesCount;
     private ImageRotation rotation;
     private RectangleSize defaultContentViewportSize;
+    private final boolean isNativeApp;
 
     /**
      * Rotates the image as necessary. The rotation is either manually forced
@@ -89,6 +92,10 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
         elementsIds = new HashMap<String, WebElement>();
         this.frameChain = new FrameChain(logger);
         defaultContentViewportSize = null;
+        isNativeApp = EyesSeleniumUtils.isNativeApp(driver);
+        if (isNativeApp) {
+            logger.verbose("Native app session detected.");
+        }
 
         // initializing "touch" if possible
         ExecuteMethod executeMethod = null;
@@ -116,6 +123,15 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
         return driver;
     }
 
+    /**
+     * @return {@code true} if the session tests a native app, in which case
+     * Javascript can't be used for getting the viewport size, scrolling
+     * etc. {@code false} otherwise.
+     */
+    public boolean isNativeApp() {
+        return isNativeApp;
+    }
+
     public TouchScreen getTouch() {
         return touch;
     }
@@ -138,6 +154,7 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
     }
 
     public void get(String s) {
+        ++contextSwitchesCount;
         frameChain.clear();
         driver.get(s);
     }
@@ -233,6 +250,7 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
                             EyesTargetLocator.TargetType targetType,
                             WebElement targetFrame) {
                         logger.verbose("willSwitchToFrame()");
+                        ++contextSwitchesCount;
                         switch(targetType) {
                             case DEFAULT_CONTENT:
                                 logger.verbose("Default content.");
@@ -267,6 +285,7 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
 
                     public void willSwitchToWindow(String nameOrHandle) {
                         logger.verbose("willSwitchToWindow()");
+                        ++contextSwitchesCount;
                         frameChain.clear();
                         logger.verbose("Done!");
                     }
@@ -418,6 +437,15 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
             return defaultContentViewportSize;
         }
 
+        // Native apps have no frames, and their viewport is the display.
+        if (isNativeApp) {
+            defaultContentViewportSize =
+                    EyesSeleniumUtils.getDisplaySize(logger, driver);
+            logger.verbose("Done! Viewport size: "
+                    + defaultContentViewportSize);
+            return defaultContentViewportSize;
+        }
+
         FrameChain currentFrames = getFrameChain();
         // Optimization
         if (currentFrames.size() > 0) {
@@ -443,6 +471,15 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
         return getDefaultContentViewportSize(false);
     }
 
+    /**
+     * @return The number of times the current frame or window might have
+     * changed (e.g., by switching frames or navigating) since the driver was
+     * created.
+     */
+    int getContextSwitchesCount() {
+        return contextSwitchesCount;
+    }
+
     /**
      *
      * @return A copy of the current frame chain.
@@ -464,6 +501,10 @@ public class EyesWebDriver implements HasCapabilities, HasInputDevices,
     }
 
     public String getUserAgent() {
+        if (isNativeApp) {
+            return null;
+        }
+
         String userAgent;
         try {
             userAgent = (String) this.driver.executeScript(
@@ -4,6 +4,7 @@
 package com.applitools.eyes;
 
 import com.applitools.utils.ArgumentGuard;
+import com.applitools.utils.GeometryUtils;
 import com.applitools.utils.ImageUtils;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Point;
@@ -94,6 +95,10 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
         RectangleSize frameSize;
         if (frameChain.size() != 0) {
             frameSize = frameChain.getCurrentFrameSize();
+        } else if (driver.isNativeApp()) {
+            // Native apps can't be scrolled using Javascript, so the "page"
+            // is the viewport.
+            frameSize = viewportSize;
         } else {
             // get entire page size might throw an exception for applications
             // which don't support Javascript (e.g., Appium). In that case
@@ -109,10 +114,14 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
         // Getting the scroll position. For native Appium apps we can't get the
         // scroll position, so we use (0,0)
         Location sp;
-        try {
-            sp = positionProvider.getCurrentPosition();
-        } catch (EyesDriverOperationException e) {
+        if (driver.isNativeApp()) {
             sp = new Location(0, 0);
+        } else {
+            try {
+                sp = positionProvider.getCurrentPosition();
+            } catch (EyesDriverOperationException e) {
+                sp = new Location(0, 0);
+            }
         }
         currentFrameScrollPosition = sp;
 
@@ -208,9 +217,33 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
     @Override
     public EyesWebDriverScreenshot getSubScreenshot(Region region,
             CoordinatesType coordinatesType, boolean throwIfClipped) {
+        return getSubScreenshot(region, coordinatesType, throwIfClipped,
+                false);
+    }
+
+    @Override
+    public EyesWebDriverScreenshot getSubScreenshotView(Region region,
+            CoordinatesType coordinatesType) {
+        return getSubScreenshot(region, coordinatesType, false, true);
+    }
+
+    /**
+     * @param region          The region for which we should get the sub screenshot.
+     * @param coordinatesType How should the region be calculated on the
+     *                        screenshot image.
+     * @param throwIfClipped  Throw an EyesException if the region is not
+     *                        fully contained in the screenshot.
+     * @param asView          If {@code true}, the sub screenshot's image
+     *                        shares its pixel data with this screenshot's
+     *                        image instead of being copied.
+     * @return A screenshot instance containing the given region.
+     */
+    private EyesWebDriverScreenshot getSubScreenshot(Region region,
+            CoordinatesType coordinatesType, boolean throwIfClipped,
+            boolean asView) {
 
-        logger.verbose(String.format("getSubScreenshot([%s], %s, %b)",
-                region, coordinatesType, throwIfClipped));
+        logger.verbose(String.format("getSubScreenshot([%s], %s, %b, %b)",
+                region, coordinatesType, throwIfClipped, asView));
 
         ArgumentGuard.notNull(region, "region");
         ArgumentGuard.notNull(coordinatesType, "coordinatesType");
@@ -228,7 +261,8 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
                     region, coordinatesType, frameWindow));
         }
 
-        BufferedImage subScreenshotImage =
+        BufferedImage subScreenshotImage = asView ?
+                ImageUtils.getImagePartView(image, asIsSubScreenshotRegion) :
                 ImageUtils.getImagePart(image, asIsSubScreenshotRegion);
 
         // The frame location in the sub screenshot is the negative of the
@@ -254,13 +288,22 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
             CoordinatesType from, CoordinatesType to) {
 
         ArgumentGuard.notNull(location, "location");
+
+        long result = convertLocation(location.getX(), location.getY(), from,
+                to);
+        return new Location(GeometryUtils.getX(result),
+                GeometryUtils.getY(result));
+    }
+
+    @Override
+    protected long convertLocation(int x, int y, CoordinatesType from,
+                                   CoordinatesType to) {
+
         ArgumentGuard.notNull(from, "from");
         ArgumentGuard.notNull(to, "to");
 
-        Location result = new Location(location);
-
         if (from == to) {
-            return result;
+            return GeometryUtils.packLocation(x, y);
         }
 
         // If we're not inside a frame, and the screenshot is the entire
@@ -274,30 +317,30 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
                         && to == CoordinatesType.SCREENSHOT_AS_IS) {
 
                 // If this is not a sub-screenshot, this will have no effect.
-                result.offset(frameLocationInScreenshot.getX(),
-                        frameLocationInScreenshot.getY());
+                x += frameLocationInScreenshot.getX();
+                y += frameLocationInScreenshot.getY();
 
             } else if (from == CoordinatesType.SCREENSHOT_AS_IS &&
                     (to == CoordinatesType.CONTEXT_RELATIVE
                             || to == CoordinatesType.CONTEXT_AS_IS)){
 
-                result.offset(-frameLocationInScreenshot.getX(),
-                        -frameLocationInScreenshot.getY());
+                x -= frameLocationInScreenshot.getX();
+                y -= frameLocationInScreenshot.getY();
             }
-            return result;
+            return GeometryUtils.packLocation(x, y);
         }
 
         switch (from) {
             case CONTEXT_AS_IS:
                 switch (to) {
                     case CONTEXT_RELATIVE:
-                        result.offset(currentFrameScrollPosition.getX(),
-                                currentFrameScrollPosition.getY());
+                        x += currentFrameScrollPosition.getX();
+                        y += currentFrameScrollPosition.getY();
                         break;
 
                     case SCREENSHOT_AS_IS:
-                        result.offset(frameLocationInScreenshot.getX(),
-                                frameLocationInScreenshot.getY());
+                        x += frameLocationInScreenshot.getX();
+                        y += frameLocationInScreenshot.getY();
                         break;
 
                     default:
@@ -309,16 +352,16 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
                 switch (to) {
                     case SCREENSHOT_AS_IS:
                         // First, convert context-relative to context-as-is.
-                        result.offset(-currentFrameScrollPosition.getX(),
-                                -currentFrameScrollPosition.getY());
+                        x -= currentFrameScrollPosition.getX();
+                        y -= currentFrameScrollPosition.getY();
                         // Now convert context-as-is to screenshot-as-is.
-                        result.offset(frameLocationInScreenshot.getX(),
-                                frameLocationInScreenshot.getY());
+                        x += frameLocationInScreenshot.getX();
+                        y += frameLocationInScreenshot.getY();
                         break;
 
                     case CONTEXT_AS_IS:
-                        result.offset(-currentFrameScrollPosition.getX(),
-                                -currentFrameScrollPosition.getY());
+                        x -= currentFrameScrollPosition.getX();
+                        y -= currentFrameScrollPosition.getY();
                         break;
 
                     default:
@@ -330,16 +373,16 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
                 switch (to) {
                     case CONTEXT_RELATIVE:
                         // First convert to context-as-is.
-                        result.offset(-frameLocationInScreenshot.getX(),
-                                -frameLocationInScreenshot.getY());
+                        x -= frameLocationInScreenshot.getX();
+                        y -= frameLocationInScreenshot.getY();
                         // Now convert to context-relative.
-                        result.offset(currentFrameScrollPosition.getX(),
-                                currentFrameScrollPosition.getY());
+                        x += currentFrameScrollPosition.getX();
+                        y += currentFrameScrollPosition.getY();
                         break;
 
                     case CONTEXT_AS_IS:
-                        result.offset(-frameLocationInScreenshot.getX(),
-                                -frameLocationInScreenshot.getY());
+                        x -= frameLocationInScreenshot.getX();
+                        y -= frameLocationInScreenshot.getY();
                         break;
 
                     default:
@@ -350,7 +393,7 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
             default:
                 throw new CoordinatesTypeConversionException(from, to);
         }
-        return result;
+        return GeometryUtils.packLocation(x, y);
     }
 
     @Override
@@ -391,8 +434,8 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
 
             // If the request is screenshot based, we intersect with the image
             case SCREENSHOT_AS_IS:
-                intersectedRegion.intersect(new Region(0, 0,
-                        image.getWidth(), image.getHeight()));
+                intersectedRegion.intersect(0, 0, image.getWidth(),
+                        image.getHeight());
                 break;
 
             default:
@@ -409,7 +452,7 @@ public class EyesWebDriverScreenshot extends EyesScreenshot {
         }
 
         // Converting the result to the required coordinates type.
-        intersectedRegion = convertRegionLocation(intersectedRegion,
+        convertRegionLocationInPlace(intersectedRegion,
                 CoordinatesType.SCREENSHOT_AS_IS, resultCoordinatesType);
 
         return intersectedRegion;
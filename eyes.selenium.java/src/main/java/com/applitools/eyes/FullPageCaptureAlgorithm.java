@@ -127,27 +127,13 @@ class FullPageCaptureAlgorithm {
             return image;
         }
 
-        // These will be used for storing the actual stitched size (it is
-        // sometimes less than the size extracted via "getEntireSize").
-        Location lastSuccessfulLocation;
-        RectangleSize lastSuccesfulPartSize;
-
-        // The screenshot part is a bit smaller than the screenshot size,
-        // in order to eliminate duplicate bottom scroll bars, as well as fixed
-        // position footers.
-        RectangleSize partImageSize =
-                new RectangleSize(image.getWidth(),
-                        Math.max(image.getHeight() - MAX_SCROLL_BAR_SIZE,
-                                MIN_SCREENSHOT_PART_HEIGHT));
-
-        logger.verbose(String.format("Total size: %s, image part size: %s",
-                entireSize, partImageSize));
-
-        // Getting the list of sub-regions composing the whole region (we'll
-        // take screenshot for each one).
-        Region entirePage = new Region(Location.ZERO, entireSize);
-        Iterable<Region> imageParts =
-                entirePage.getSubRegions(partImageSize);
+        // The parts are planned up front, so each part is captured once,
+        // and the margins of each part (which might contain scroll bars or
+        // fixed position footers) are overwritten by the following parts.
+        StitchingPlan plan = new StitchingPlan(entireSize,
+                new RectangleSize(image.getWidth(), image.getHeight()),
+                MAX_SCROLL_BAR_SIZE, MIN_SCREENSHOT_PART_HEIGHT);
+        logger.verbose("Stitching plan: " + plan);
 
         logger.verbose("Creating stitchedImage container. Size: " + entireSize);
         //Notice stitchedImage uses the same type of image as the screenshots.
@@ -156,30 +142,31 @@ class FullPageCaptureAlgorithm {
                 image.getType());
         logger.verbose("Done! Adding initial screenshot..");
         // Starting with the screenshot we already captured at (0,0).
-        Raster initialPart = image.getData();
+        Raster initialPart = image.getRaster();
         logger.verbose(String.format("Initial part:(0,0)[%d x %d]",
                 initialPart.getWidth(), initialPart.getHeight()));
         stitchedImage.getRaster().setRect(0, 0, initialPart);
         logger.verbose("Done!");
 
-        lastSuccessfulLocation = new Location(0, 0);
-        lastSuccesfulPartSize = new RectangleSize(initialPart.getWidth(),
-                initialPart.getHeight());
+        // These will be used for storing the actual stitched size (it is
+        // sometimes less than the size extracted via "getEntireSize").
+        int actualImageWidth = initialPart.getWidth();
+        int actualImageHeight = initialPart.getHeight();
 
         PositionMemento originalStitchedState = positionProvider.getState();
 
         // Take screenshot and stitch for each screenshot part.
         logger.verbose("Getting the rest of the image parts...");
-        BufferedImage partImage = null;
-        for (Region partRegion: imageParts) {
+        BufferedImage partImage;
+        for (Location partLocation: plan.getPositions()) {
             // Skipping screenshot for 0,0 (already taken)
-            if (partRegion.getLeft() == 0 && partRegion.getTop() == 0) {
+            if (partLocation.getX() == 0 && partLocation.getY() == 0) {
                 continue;
             }
             logger.verbose(String.format("Taking screenshot for %s",
-                    partRegion));
+                    partLocation));
             // Set the position to the part's top/left.
-            positionProvider.setPosition(partRegion.getLocation());
+            positionProvider.setPosition(partLocation);
             // Giving it time to stabilize.
             GeneralUtils.sleep(waitBeforeScreenshots);
             // Screen size may cause the scroll to only reach part of the way.
@@ -202,15 +189,13 @@ class FullPageCaptureAlgorithm {
             // Stitching the current part.
             logger.verbose("Stitching part into the image container...");
             stitchedImage.getRaster().setRect(currentPosition.getX(),
-                    currentPosition.getY(), partImage.getData());
+                    currentPosition.getY(), partImage.getRaster());
             logger.verbose("Done!");
 
-            lastSuccessfulLocation = currentPosition;
-        }
-
-        if (partImage != null) {
-            lastSuccesfulPartSize = new RectangleSize(partImage.getWidth(),
-                    partImage.getHeight());
+            actualImageWidth = Math.max(actualImageWidth,
+                    currentPosition.getX() + partImage.getWidth());
+            actualImageHeight = Math.max(actualImageHeight,
+                    currentPosition.getY() + partImage.getHeight());
         }
 
         logger.verbose("Stitching done!");
@@ -219,10 +204,6 @@ class FullPageCaptureAlgorithm {
 
         // If the actual image size is smaller than the extracted size, we
         // crop the image.
-        int actualImageWidth = lastSuccessfulLocation.getX() +
-                lastSuccesfulPartSize.getWidth();
-        int actualImageHeight = lastSuccessfulLocation.getY() +
-                lastSuccesfulPartSize.getHeight();
         logger.verbose("Extracted entire size: " + entireSize);
         logger.verbose("Actual stitched size: " + actualImageWidth + "x" +
                 actualImageHeight);
@@ -0,0 +1,44 @@
+package com.applitools.eyes;
+
+import com.applitools.utils.ArgumentGuard;
+
+/**
+ * A position provider for native apps, which can't be scrolled using
+ * Javascript. The position is always the top/left corner, and the entire
+ * size is the viewport size, so no remote calls are made except for getting
+ * the (cached) viewport size.
+ */
+class NativeAppPositionProvider implements PositionProvider {
+
+    private final Logger logger;
+    private final EyesWebDriver driver;
+
+    public NativeAppPositionProvider(Logger logger, EyesWebDriver driver) {
+        ArgumentGuard.notNull(logger, "logger");
+        ArgumentGuard.notNull(driver, "driver");
+
+        this.logger = logger;
+        this.driver = driver;
+    }
+
+    public Location getCurrentPosition() {
+        return new Location(0, 0);
+    }
+
+    public void setPosition(Location location) {
+        ArgumentGuard.notNull(location, "location");
+        logger.verbose(String.format(
+                "Ignored scrolling to %s (native app)", location));
+    }
+
+    public RectangleSize getEntireSize() {
+        return driver.getDefaultContentViewportSize();
+    }
+
+    public PositionMemento getState() {
+        return new ScrollPositionMemento(new Location(0, 0));
+    }
+
+    public void restoreState(PositionMemento state) {
+    }
+}
@@ -10,6 +10,14 @@ class ScrollPositionProvider implements PositionProvider {
 
     protected final Logger logger;
     protected final JavascriptExecutor executor;
+    // The position reached by the last call to setPosition, if it is the
+    // position which was requested. Reads from the browser never populate
+    // the cache, since the page might be scrolled by others between reads.
+    private Location lastSetPosition; // cache.
+    // The executor's context switches count when the cache was set, if the
+    // executor is an EyesWebDriver (a cached position is only valid in the
+    // frame it was set in).
+    private int lastSetPositionContext;
 
     public ScrollPositionProvider(Logger logger, JavascriptExecutor executor) {
         ArgumentGuard.notNull(logger, "logger");
@@ -17,20 +25,25 @@ class ScrollPositionProvider implements PositionProvider {
 
         this.logger = logger;
         this.executor = executor;
+        lastSetPosition = null;
     }
 
     /**
-     * @return The scroll position of the current frame.
+     * @return The scroll position of the current frame. If the position was
+     * just set by this provider (and neither the frame nor the state changed
+     * since), the cached position is returned without querying the browser.
      */
     public Location getCurrentPosition() {
         logger.verbose("getCurrentScrollPosition()");
-        Location result;
-        try {
-            result = EyesSeleniumUtils.getCurrentScrollPosition(executor);
-        } catch (WebDriverException e) {
-            throw new EyesDriverOperationException(
-                    "Failed to extract current scroll position!");
+        if (lastSetPosition != null &&
+                lastSetPositionContext == getContextSwitchesCount()) {
+            logger.verbose(String.format("Current position (cached): %s",
+                    lastSetPosition));
+            // Location is mutable, so we don't hand out the cached instance.
+            return new Location(lastSetPosition);
         }
+
+        Location result = readCurrentPosition();
         logger.verbose(String.format("Current position: %s", result));
         return result;
     }
@@ -40,9 +53,45 @@ class ScrollPositionProvider implements PositionProvider {
      * @param location The position to scroll to.
      */
     public void setPosition(Location location) {
+        ArgumentGuard.notNull(location, "location");
         logger.verbose(String.format("Scrolling to %s", location));
-        EyesSeleniumUtils.setCurrentScrollPosition(executor, location);
-        logger.verbose("Done scrolling!");
+        lastSetPosition = null;
+        Location reached;
+        try {
+            reached = EyesSeleniumUtils.setAndGetCurrentScrollPosition(
+                    executor, location);
+        } catch (WebDriverException e) {
+            throw new EyesDriverOperationException(
+                    "Failed to set current scroll position!", e);
+        }
+        // If we didn't reach the requested position (e.g., the last part of
+        // the page, or a smooth scroll which is still in progress), the next
+        // call to getCurrentPosition reads the position again.
+        if (reached.equals(location)) {
+            lastSetPosition = reached;
+            lastSetPositionContext = getContextSwitchesCount();
+        }
+        logger.verbose(String.format("Done scrolling! Reached: %s", reached));
+    }
+
+    /**
+     * Reads the current scroll position from the browser. The cache is not
+     * updated.
+     *
+     * @return The scroll position of the current frame.
+     */
+    private Location readCurrentPosition() {
+        try {
+            return EyesSeleniumUtils.getCurrentScrollPosition(executor);
+        } catch (WebDriverException e) {
+            throw new EyesDriverOperationException(
+                    "Failed to extract current scroll position!");
+        }
+    }
+
+    private int getContextSwitchesCount() {
+        return executor instanceof EyesWebDriver ?
+                ((EyesWebDriver) executor).getContextSwitchesCount() : 0;
     }
 
     /**
@@ -58,11 +107,17 @@ class ScrollPositionProvider implements PositionProvider {
     }
 
     public PositionMemento getState() {
-        return new ScrollPositionMemento(getCurrentPosition());
+        // The page might have been scrolled since we last touched it, so the
+        // state is always read from the browser.
+        lastSetPosition = null;
+        return new ScrollPositionMemento(readCurrentPosition());
     }
 
     public void restoreState(PositionMemento state) {
         ScrollPositionMemento s = (ScrollPositionMemento) state;
         setPosition(new Location(s.getX(), s.getY()));
+        // The state is restored once we're done with the page, after which
+        // it might be scrolled by others.
+        lastSetPosition = null;
     }
 }
@@ -10,6 +10,7 @@ import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.remote.MobileCapabilityType;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.internal.Coordinates;
+import org.openqa.selenium.remote.CapabilityType;
 
 import java.util.HashMap;
 import java.util.List;
@@ -68,6 +69,23 @@ public class EyesSeleniumUtils {
                     + "var totalHeight = Math.max(maxDocElementHeight, maxBodyHeight); "
                     + "return [totalWidth, totalHeight];";
 
+    // Returns the bounds of each of the script arguments, relative to the
+    // current frame's document.
+    private static final String JS_GET_ELEMENTS_BOUNDS =
+            "var doc = document.documentElement; " +
+                    "var x = window.scrollX || " +
+                    "((window.pageXOffset || doc.scrollLeft) - " +
+                    "(doc.clientLeft || 0)); " +
+                    "var y = window.scrollY || " +
+                    "((window.pageYOffset || doc.scrollTop) - " +
+                    "(doc.clientTop || 0)); " +
+                    "var bounds = []; " +
+                    "for (var i = 0; i < arguments.length; ++i) { " +
+                    "var r = arguments[i].getBoundingClientRect(); " +
+                    "bounds.push([r.left + x, r.top + y, r.width, r.height]); " +
+                    "} " +
+                    "return bounds;";
+
     private static final String[] JS_TRANSFORM_KEYS = { "transform",
             "-webkit-transform"
     };
@@ -113,6 +131,35 @@ public class EyesSeleniumUtils {
         return driver instanceof AppiumDriver;
     }
 
+    /**
+     * Checks whether the driver's session tests a native app, by its
+     * capabilities (this doesn't require a remote call). A session is
+     * considered a native app session if it tests an app (rather than a
+     * browser), and doesn't switch to a web view automatically. In such
+     * sessions Javascript can't be executed (except for Appium's "mobile:"
+     * commands).
+     *
+     * @param driver The driver to check.
+     * @return {@code true} if the driver tests a native app, {@code false}
+     * otherwise.
+     */
+    public static boolean isNativeApp(WebDriver driver) {
+        if (!isMobileDevice(driver)) {
+            return false;
+        }
+
+        Capabilities capabilities =
+                ((HasCapabilities) driver).getCapabilities();
+        Object browserName =
+                capabilities.getCapability(CapabilityType.BROWSER_NAME);
+        if (browserName != null && !browserName.toString().isEmpty()) {
+            return false;
+        }
+        Object autoWebview =
+                capabilities.getCapability(MobileCapabilityType.AUTO_WEBVIEW);
+        return !Boolean.parseBoolean(String.valueOf(autoWebview));
+    }
+
     /**
      * @param driver The driver for which to check the orientation.
      * @return {@code true} if this is a mobile device and is in landscape
@@ -211,8 +258,7 @@ public class EyesSeleniumUtils {
             JavascriptExecutor executor) {
         //noinspection unchecked
         List<Number> positionAsList = (List<Number>)executor.executeScript(JS_GET_CURRENT_SCROLL_POSITION);
-        return new Location((int)Math.ceil(positionAsList.get(0).doubleValue()),
-                (int)Math.ceil(positionAsList.get(1).doubleValue()));
+        return scrollPositionFromList(positionAsList);
     }
 
     /**
@@ -226,6 +272,73 @@ public class EyesSeleniumUtils {
                 location.getX(), location.getY()));
     }
 
+    /**
+     * Sets the scroll position of the current frame and reads back the
+     * position which was actually reached, using a single script call.
+     *
+     * @param executor The executor to use.
+     * @param location The position to be set.
+     * @return The scroll position of the current frame after scrolling. This
+     * might differ from {@code location} (e.g., when scrolling beyond the
+     * bottom of the page).
+     */
+    public static Location setAndGetCurrentScrollPosition(
+            JavascriptExecutor executor, Location location) {
+        String script = String.format("window.scrollTo(%d,%d); ",
+                location.getX(), location.getY())
+                + JS_GET_CURRENT_SCROLL_POSITION;
+        //noinspection unchecked
+        List<Number> positionAsList =
+                (List<Number>) executor.executeScript(script);
+        return scrollPositionFromList(positionAsList);
+    }
+
+    /**
+     * Gets the bounds of all the given elements using a single script call.
+     * Bounds are clipped to the top/left of the document in the same way as
+     * {@link EyesRemoteWebElement#getBounds()}.
+     *
+     * @param executor The executor to use.
+     * @param elements The elements which bounds should be returned. All
+     *                 elements must be in the current frame.
+     * @return The bounds of each of the elements relative to the current
+     * frame's document, in the order of {@code elements}.
+     */
+    public static Region[] getElementsBounds(JavascriptExecutor executor,
+                                             WebElement... elements) {
+        //noinspection unchecked
+        List<List<Number>> boundsAsLists = (List<List<Number>>)
+                executor.executeScript(JS_GET_ELEMENTS_BOUNDS,
+                        (Object[]) elements);
+
+        Region[] bounds = new Region[boundsAsLists.size()];
+        for (int i = 0; i < bounds.length; ++i) {
+            List<Number> elementBounds = boundsAsLists.get(i);
+            int left = (int) Math.ceil(elementBounds.get(0).doubleValue());
+            int top = (int) Math.ceil(elementBounds.get(1).doubleValue());
+            int width = (int) Math.ceil(elementBounds.get(2).doubleValue());
+            int height = (int) Math.ceil(elementBounds.get(3).doubleValue());
+
+            if (left < 0) {
+                width = Math.max(0, width + left);
+                left = 0;
+            }
+
+            if (top < 0) {
+                height = Math.max(0, height + top);
+                top = 0;
+            }
+
+            bounds[i] = new Region(left, top, width, height);
+        }
+        return bounds;
+    }
+
+    private static Location scrollPositionFromList(List<Number> position) {
+        return new Location((int)Math.ceil(position.get(0).doubleValue()),
+                (int)Math.ceil(position.get(1).doubleValue()));
+    }
+
     /**
      *
      * @param executor The executor to use.
@@ -285,6 +398,18 @@ public class EyesSeleniumUtils {
         // If we failed to extract the viewport size using JS, will use the
         // window size instead.
         logger.verbose("Using window size as viewport size.");
+        return getDisplaySize(logger, driver);
+    }
+
+    /**
+     *
+     * @param logger The logger to use.
+     * @param driver The web driver to use.
+     * @return The size of the window, or of the display for mobile devices,
+     * adjusted to the device's orientation.
+     */
+    public static RectangleSize getDisplaySize(Logger logger,
+                                               WebDriver driver) {
         Dimension windowSize = driver.manage().window().getSize();
         int width = windowSize.getWidth();
         int height = windowSize.getHeight();
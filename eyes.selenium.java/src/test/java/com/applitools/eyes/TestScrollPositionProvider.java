@@ -0,0 +1,112 @@
+package com.applitools.eyes;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RunWith(JUnit4.class)
+public class TestScrollPositionProvider {
+
+    /**
+     * A page which can be scrolled up to a given position, either by scripts
+     * or by others (e.g., the test itself).
+     */
+    private static class PageExecutor implements JavascriptExecutor {
+        private static final Pattern SCROLL_TO =
+                Pattern.compile("window\\.scrollTo\\((\\d+),(\\d+)\\)");
+
+        private final int maxX;
+        private final int maxY;
+        private int x;
+        private int y;
+        private int scriptsCount;
+
+        public PageExecutor(int maxX, int maxY) {
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        public void scrollTo(int x, int y) {
+            this.x = Math.min(x, maxX);
+            this.y = Math.min(y, maxY);
+        }
+
+        public int getScriptsCount() {
+            return scriptsCount;
+        }
+
+        public Object executeScript(String script, Object... args) {
+            ++scriptsCount;
+            Matcher matcher = SCROLL_TO.matcher(script);
+            if (matcher.find()) {
+                scrollTo(Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)));
+            }
+            return Arrays.<Number>asList((long) x, (long) y);
+        }
+
+        public Object executeAsyncScript(String script, Object... args) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private PageExecutor page;
+    private ScrollPositionProvider positionProvider;
+
+    @Before
+    public void setUp() {
+        page = new PageExecutor(100, 200);
+        positionProvider = new ScrollPositionProvider(new Logger(), page);
+    }
+
+    @Test
+    public void testSetPositionIsCached() {
+        positionProvider.setPosition(new Location(10, 20));
+
+        Assert.assertEquals(new Location(10, 20),
+                positionProvider.getCurrentPosition());
+        Assert.assertEquals(new Location(10, 20),
+                positionProvider.getCurrentPosition());
+        Assert.assertEquals(1, page.getScriptsCount());
+    }
+
+    @Test
+    public void testReadsAreNotCached() {
+        Assert.assertEquals(new Location(0, 0),
+                positionProvider.getCurrentPosition());
+
+        page.scrollTo(30, 40);
+        Assert.assertEquals(new Location(30, 40),
+                positionProvider.getCurrentPosition());
+    }
+
+    @Test
+    public void testUnreachedPositionIsNotCached() {
+        positionProvider.setPosition(new Location(10, 500));
+
+        page.scrollTo(30, 40);
+        Assert.assertEquals(new Location(30, 40),
+                positionProvider.getCurrentPosition());
+    }
+
+    @Test
+    public void testRestoreStateClearsCache() {
+        page.scrollTo(5, 6);
+        PositionMemento state = positionProvider.getState();
+        positionProvider.setPosition(new Location(10, 20));
+        positionProvider.restoreState(state);
+        Assert.assertEquals(new Location(5, 6),
+                positionProvider.getCurrentPosition());
+
+        page.scrollTo(30, 40);
+        Assert.assertEquals(new Location(30, 40),
+                positionProvider.getCurrentPosition());
+    }
+}